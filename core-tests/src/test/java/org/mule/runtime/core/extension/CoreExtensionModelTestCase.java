@@ -253,7 +253,7 @@ public class CoreExtensionModelTestCase extends AbstractMuleContextTestCase {
     assertThat(processorsChain, instanceOf(NestedChainModel.class));
     assertThat(processorsChain.isRequired(), is(true));
 
-    assertThat(foreach.getAllParameterModels(), hasSize(4));
+    assertThat(foreach.getAllParameterModels(), hasSize(6));
 
     ParameterModel collection = foreach.getAllParameterModels().get(0);
     assertThat(collection.getName(), is("collection"));
@@ -281,6 +281,18 @@ public class CoreExtensionModelTestCase extends AbstractMuleContextTestCase {
     assertThat(counter.getExpressionSupport(), is(NOT_SUPPORTED));
     assertThat(counter.getType(), instanceOf(DefaultStringType.class));
     assertThat(counter.isRequired(), is(false));
+
+    ParameterModel maxConcurrency = foreach.getAllParameterModels().get(4);
+    assertThat(maxConcurrency.getName(), is("maxConcurrency"));
+    assertThat(maxConcurrency.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(maxConcurrency.getType(), instanceOf(DefaultNumberType.class));
+    assertThat(maxConcurrency.isRequired(), is(false));
+
+    ParameterModel preserveOrder = foreach.getAllParameterModels().get(5);
+    assertThat(preserveOrder.getName(), is("preserveOrder"));
+    assertThat(preserveOrder.getExpressionSupport(), is(NOT_SUPPORTED));
+    assertThat(preserveOrder.getType(), instanceOf(DefaultBooleanType.class));
+    assertThat(preserveOrder.isRequired(), is(false));
   }
 
   @Test
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+@SmallTest
+public class ConcurrentBagObjectPoolTestCase extends AbstractMuleTestCase {
+
+  private PoolableObjectFactory<Object> factory;
+  private SchedulerService schedulerService;
+  private Scheduler scheduler;
+  private ExecutorService executor;
+
+  private ConcurrentBagObjectPool<Object> pool;
+
+  @Before
+  public void before() throws Exception {
+    factory = mock(PoolableObjectFactory.class);
+    when(factory.makeObject()).thenAnswer(invocation -> new Object());
+    when(factory.validateObject(any())).thenReturn(true);
+
+    scheduler = mock(Scheduler.class);
+    schedulerService = mock(SchedulerService.class);
+    when(schedulerService.ioScheduler()).thenReturn(scheduler);
+
+    executor = newSingleThreadExecutor();
+  }
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  @Test
+  public void returnedObjectIsReused() throws Exception {
+    pool = createPool(new PoolingProfile(2, 2, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    Object object = pool.borrowObject();
+    pool.returnObject(object);
+
+    assertThat(pool.borrowObject(), is(sameInstance(object)));
+    verify(factory).makeObject();
+  }
+
+  @Test
+  public void objectReturnedByAnotherThreadIsReused() throws Exception {
+    pool = createPool(new PoolingProfile(2, 2, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    Object object = executor.submit(() -> {
+      Object borrowed = pool.borrowObject();
+      pool.returnObject(borrowed);
+      return borrowed;
+    }).get(5, SECONDS);
+
+    assertThat(pool.borrowObject(), is(sameInstance(object)));
+    verify(factory).makeObject();
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void exhaustedFail() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE));
+
+    pool.borrowObject();
+    pool.borrowObject();
+  }
+
+  @Test
+  public void exhaustedReportsStatistics() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE));
+
+    pool.borrowObject();
+    try {
+      pool.borrowObject();
+      fail("Was expecting the pool to be exhausted");
+    } catch (NoSuchElementException e) {
+      assertThat(e.getMessage(), containsString("active=1"));
+      assertThat(e.getMessage(), containsString("createdCount=1"));
+    }
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void exhaustedWaitTimesOut() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    pool.borrowObject();
+    pool.borrowObject();
+  }
+
+  @Test
+  public void exhaustedGrow() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 100, WHEN_EXHAUSTED_GROW, INITIALISE_NONE));
+
+    assertThat(pool.borrowObject(), is(not(sameInstance(pool.borrowObject()))));
+    assertThat(pool.getNumActive(), is(2));
+  }
+
+  @Test
+  public void waitingThreadGetsReturnedObject() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 5000, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    Object object = pool.borrowObject();
+    Future<Object> waiting = executor.submit(() -> pool.borrowObject());
+    while (pool.getStatistics().getWaiting() == 0 && !waiting.isDone()) {
+      Thread.yield();
+    }
+    pool.returnObject(object);
+
+    assertThat(waiting.get(5, SECONDS), is(sameInstance(object)));
+    verify(factory).makeObject();
+  }
+
+  @Test
+  public void waitingThreadCreatesObjectWhenOneIsInvalidated() throws Exception {
+    pool = createPool(new PoolingProfile(1, 1, 5000, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    Object object = pool.borrowObject();
+    Future<Object> waiting = executor.submit(() -> pool.borrowObject());
+    while (pool.getStatistics().getWaiting() == 0 && !waiting.isDone()) {
+      Thread.yield();
+    }
+    pool.invalidateObject(object);
+
+    assertThat(waiting.get(5, SECONDS), is(not(sameInstance(object))));
+    verify(factory).destroyObject(object);
+    verify(factory, times(2)).makeObject();
+  }
+
+  @Test
+  public void objectsOverMaxIdleAreDestroyed() throws Exception {
+    pool = createPool(new PoolingProfile(2, 1, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    Object object1 = pool.borrowObject();
+    Object object2 = pool.borrowObject();
+    pool.returnObject(object1);
+    pool.returnObject(object2);
+
+    verify(factory, never()).destroyObject(object1);
+    verify(factory).destroyObject(object2);
+    assertThat(pool.getNumIdle(), is(1));
+  }
+
+  @Test
+  public void evictionDestroysInvalidIdleObjects() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(3, 3, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    poolingProfile.setEvictionCheckIntervalMillis(1000);
+    pool = createPool(poolingProfile);
+
+    Object valid = pool.borrowObject();
+    Object invalid = pool.borrowObject();
+    Object borrowed = pool.borrowObject();
+    when(factory.validateObject(invalid)).thenReturn(false);
+    pool.returnObject(valid);
+    pool.returnObject(invalid);
+
+    ArgumentCaptor<Runnable> evictionCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(scheduler).scheduleWithFixedDelay(evictionCaptor.capture(), anyLong(), eq(1000L), eq(MILLISECONDS));
+    evictionCaptor.getValue().run();
+
+    verify(factory).destroyObject(invalid);
+    verify(factory, never()).destroyObject(valid);
+    verify(factory, never()).validateObject(borrowed);
+    assertThat(pool.getNumIdle(), is(1));
+  }
+
+  @Test
+  public void statistics() throws Exception {
+    pool = createPool(new PoolingProfile(2, 2, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE));
+
+    Object object = pool.borrowObject();
+    pool.borrowObject();
+    pool.invalidateObject(object);
+
+    ConnectionPoolStatistics statistics = pool.getStatistics();
+    assertThat(statistics.getActive(), is(1));
+    assertThat(statistics.getIdle(), is(0));
+    assertThat(statistics.getWaiting(), is(0));
+    assertThat(statistics.getCreatedCount(), is(2L));
+    assertThat(statistics.getDestroyedCount(), is(1L));
+    assertThat(statistics.getMaxWaitNanos() >= statistics.getWaitNanosP50(), is(true));
+    assertThat(statistics.getMaxCreationNanos() >= statistics.getMeanCreationNanos(), is(true));
+  }
+
+  @Test
+  public void closeDestroysIdleObjects() throws Exception {
+    PoolingProfile poolingProfile = new PoolingProfile(2, 2, 100, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE);
+    poolingProfile.setEvictionCheckIntervalMillis(1000);
+    pool = createPool(poolingProfile);
+
+    Object idle = pool.borrowObject();
+    Object borrowed = pool.borrowObject();
+    pool.returnObject(idle);
+    pool.close();
+
+    verify(factory).destroyObject(idle);
+    verify(factory, never()).destroyObject(borrowed);
+    verify(scheduler).stop();
+
+    pool.returnObject(borrowed);
+    verify(factory).destroyObject(borrowed);
+  }
+
+  private ConcurrentBagObjectPool<Object> createPool(PoolingProfile poolingProfile) {
+    return new ConcurrentBagObjectPool<>(factory, poolingProfile, schedulerService);
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.core.internal.context.notification.AsyncListenerNotifier.MAX_BATCH_SIZE;
+import static org.mule.runtime.core.internal.context.notification.AsyncListenerNotifier.OverflowPolicy.BLOCK;
+import static org.mule.runtime.core.internal.context.notification.AsyncListenerNotifier.OverflowPolicy.DROP;
+import static org.mule.tck.junit4.AbstractMuleContextTestCase.RECEIVE_TIMEOUT;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+@SmallTest
+public class AsyncListenerNotifierTestCase extends AbstractMuleTestCase {
+
+  private final List<Notification> received = new ArrayList<>();
+  private final NotificationListener<Notification> listener = new RecordingListener(received);
+  private final Queue<Runnable> tasks = new LinkedList<>();
+  private final Executor executor = tasks::add;
+
+  @Test
+  public void coalescesSubmissions() {
+    AsyncListenerNotifier notifier = new AsyncListenerNotifier(listener, executor, 16, DROP, 0);
+    Notification first = mock(Notification.class);
+    Notification second = mock(Notification.class);
+    Notification third = mock(Notification.class);
+
+    notifier.dispatch(first);
+    notifier.dispatch(second);
+    notifier.dispatch(third);
+    assertThat(tasks.size(), is(1));
+    assertThat(notifier.getQueuedCount(), is(3));
+
+    runTasks();
+    assertThat(received, contains(first, second, third));
+    assertThat(notifier.getDeliveredCount(), is(3L));
+    assertThat(notifier.getEnqueuedCount(), is(3L));
+    assertThat(notifier.getQueuedCount(), is(0));
+  }
+
+  @Test
+  public void drainsInBatches() {
+    AsyncListenerNotifier notifier = new AsyncListenerNotifier(listener, executor, MAX_BATCH_SIZE * 2, DROP, 0);
+    for (int i = 0; i < MAX_BATCH_SIZE + 1; i++) {
+      notifier.dispatch(mock(Notification.class));
+    }
+
+    tasks.poll().run();
+    assertThat(received.size(), is(MAX_BATCH_SIZE));
+    assertThat(tasks.size(), is(1));
+
+    runTasks();
+    assertThat(received.size(), is(MAX_BATCH_SIZE + 1));
+  }
+
+  @Test
+  public void dropWhenFull() {
+    AsyncListenerNotifier notifier = new AsyncListenerNotifier(listener, executor, 2, DROP, 0);
+    for (int i = 0; i < 5; i++) {
+      notifier.dispatch(mock(Notification.class));
+    }
+
+    assertThat(notifier.getDroppedCount(), is(3L));
+    runTasks();
+    assertThat(received.size(), is(2));
+  }
+
+  @Test
+  public void blockTimesOutWhenFull() {
+    AsyncListenerNotifier notifier = new AsyncListenerNotifier(listener, executor, 1, BLOCK, 10);
+    notifier.dispatch(mock(Notification.class));
+    notifier.dispatch(mock(Notification.class));
+
+    assertThat(notifier.getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void blockWaitsForRoom() throws Exception {
+    AsyncListenerNotifier notifier = new AsyncListenerNotifier(listener, command -> new Thread(command).start(), 1, BLOCK,
+                                                               RECEIVE_TIMEOUT);
+    for (int i = 0; i < 10; i++) {
+      notifier.dispatch(mock(Notification.class));
+    }
+
+    assertThat(notifier.getDroppedCount(), is(0L));
+    assertThat(notifier.getEnqueuedCount(), is(10L));
+  }
+
+  @Test
+  public void blockDoesNotWaitWhenFiredByListener() {
+    AsyncListenerNotifier[] notifier = new AsyncListenerNotifier[1];
+    Notification fired = mock(Notification.class);
+    notifier[0] = new AsyncListenerNotifier(new RecordingListener(received) {
+
+      @Override
+      public void onNotification(Notification notification) {
+        super.onNotification(notification);
+        if (notification != fired) {
+          notifier[0].dispatch(fired);
+          notifier[0].dispatch(fired);
+        }
+      }
+    }, executor, 1, BLOCK, RECEIVE_TIMEOUT);
+
+    notifier[0].dispatch(mock(Notification.class));
+    tasks.poll().run();
+
+    assertThat(notifier[0].getDroppedCount(), is(1L));
+    assertThat(notifier[0].getQueuedCount(), is(1));
+  }
+
+  @Test
+  public void rejectedDrainIsRetriedOnNextDispatch() {
+    List<Runnable> accepted = new ArrayList<>();
+    boolean[] reject = {true};
+    AsyncListenerNotifier notifier = new AsyncListenerNotifier(listener, command -> {
+      if (reject[0]) {
+        throw new RejectedExecutionException();
+      }
+      accepted.add(command);
+    }, 16, DROP, 0);
+
+    notifier.dispatch(mock(Notification.class));
+    reject[0] = false;
+    notifier.dispatch(mock(Notification.class));
+
+    accepted.forEach(Runnable::run);
+    assertThat(received.size(), is(2));
+  }
+
+  @Test
+  public void failingListenerDoesNotStopDelivery() {
+    List<Notification> delivered = new ArrayList<>();
+    Notification failing = mock(Notification.class);
+    Notification ok = mock(Notification.class);
+    AsyncListenerNotifier notifier = new AsyncListenerNotifier(new RecordingListener(delivered) {
+
+      @Override
+      public void onNotification(Notification notification) {
+        if (notification == failing) {
+          throw new IllegalStateException();
+        }
+        super.onNotification(notification);
+      }
+    }, executor, 16, DROP, 0);
+
+    notifier.dispatch(failing);
+    notifier.dispatch(ok);
+    runTasks();
+
+    assertThat(delivered, contains(ok));
+  }
+
+  private static class RecordingListener implements NotificationListener<Notification> {
+
+    private final List<Notification> received;
+
+    private RecordingListener(List<Notification> received) {
+      this.received = received;
+    }
+
+    @Override
+    public void onNotification(Notification notification) {
+      received.add(notification);
+    }
+  }
+
+  private void runTasks() {
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      task.run();
+    }
+  }
+}
@@ -8,18 +8,22 @@ package org.mule.runtime.core.internal.lock;
 
 
 import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.api.store.TemplateObjectStore;
 import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
 import org.mockito.Answers;
@@ -47,6 +51,102 @@ public class InstanceLockGroupTestCase extends AbstractMuleTestCase {
     testHighConcurrency(true);
   }
 
+  @Test
+  public void testLockUnlockUnfair() throws Exception {
+    instanceLockGroup = new InstanceLockGroup(new SingleServerLockProvider(false));
+    testHighConcurrency(false);
+  }
+
+  @Test
+  public void testStatistics() throws Exception {
+    instanceLockGroup.lock("lockId");
+    instanceLockGroup.lock("lockId");
+    AtomicBoolean acquired = new AtomicBoolean();
+    Thread waiter = new Thread(() -> {
+      instanceLockGroup.lock("lockId");
+      acquired.set(true);
+      instanceLockGroup.unlock("lockId");
+    });
+    waiter.start();
+    new PollingProber().check(new JUnitLambdaProbe(() -> instanceLockGroup.getStatistics("lockId").get().getWaitingCount() == 1));
+
+    LockStatistics statistics = instanceLockGroup.getStatistics("lockId").get();
+    assertThat(statistics.getHoldCount(), is(2));
+    assertThat(statistics.getAcquisitionsCount(), is(2L));
+    assertThat(instanceLockGroup.getStatistics().size(), is(1));
+
+    Thread.sleep(20);
+    instanceLockGroup.unlock("lockId");
+    instanceLockGroup.unlock("lockId");
+    waiter.join();
+
+    assertThat(acquired.get(), is(true));
+    assertThat(instanceLockGroup.getStatistics("lockId").isPresent(), is(false));
+    assertThat(instanceLockGroup.getAcquisitionsCount(), is(3L));
+    assertThat(instanceLockGroup.getTotalWaitNanos() >= MILLISECONDS.toNanos(20), is(true));
+  }
+
+  @Test
+  public void testFailedTryLockReleasesEntry() throws Exception {
+    instanceLockGroup.lock("lockId");
+    AtomicBoolean acquired = new AtomicBoolean();
+    Thread other = new Thread(() -> {
+      try {
+        acquired.set(instanceLockGroup.tryLock("lockId") || instanceLockGroup.tryLock("lockId", 10, MILLISECONDS));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    other.start();
+    other.join();
+
+    assertThat(acquired.get(), is(false));
+    assertThat(instanceLockGroup.getStatistics("lockId").get().getWaitingCount(), is(0));
+    instanceLockGroup.unlock("lockId");
+    assertThat(instanceLockGroup.getStatistics("lockId").isPresent(), is(false));
+  }
+
+  @Test
+  public void testInterruptedLockReleasesEntry() throws Exception {
+    instanceLockGroup.lock("lockId");
+    AtomicBoolean interrupted = new AtomicBoolean();
+    Thread waiter = new Thread(() -> {
+      try {
+        instanceLockGroup.lockInterruptibly("lockId");
+      } catch (InterruptedException e) {
+        interrupted.set(true);
+      }
+    });
+    waiter.start();
+    new PollingProber().check(new JUnitLambdaProbe(() -> instanceLockGroup.getStatistics("lockId").get().getWaitingCount() == 1));
+    waiter.interrupt();
+    waiter.join();
+
+    assertThat(interrupted.get(), is(true));
+    instanceLockGroup.unlock("lockId");
+    assertThat(instanceLockGroup.getStatistics("lockId").isPresent(), is(false));
+  }
+
+  @Test
+  public void testUnlockNotHeldLock() throws Exception {
+    instanceLockGroup.lock("lockId");
+    AtomicBoolean failed = new AtomicBoolean();
+    Thread other = new Thread(() -> {
+      try {
+        instanceLockGroup.unlock("lockId");
+      } catch (IllegalMonitorStateException e) {
+        failed.set(true);
+      }
+    });
+    other.start();
+    other.join();
+
+    assertThat(failed.get(), is(true));
+    assertThat(instanceLockGroup.getStatistics("lockId").get().getHoldCount(), is(1));
+    instanceLockGroup.unlock("lockId");
+    assertThat(instanceLockGroup.getStatistics("lockId").isPresent(), is(false));
+  }
+
   @Test
   public void testWhenUnlockThenDestroy() throws Exception {
     lockUnlockThenDestroy(1);
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.policy;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import org.mule.runtime.api.component.Component;
+import org.mule.runtime.core.api.policy.Policy;
+import org.mule.runtime.policy.api.PolicyPointcutParameters;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+@SmallTest
+public class PolicyResolutionCacheTestCase extends AbstractMuleTestCase {
+
+  private final PolicyResolutionCache cache = new PolicyResolutionCache();
+  private final Component component = mock(Component.class);
+  private final List<Policy> policies = asList(mock(Policy.class));
+  private final AtomicInteger lookups = new AtomicInteger();
+
+  @Test
+  public void policiesForComponentLookedUpOnce() {
+    assertThat(cache.getPolicies(component, new PolicyPointcutParameters(component), false, lookup()), is(policies));
+    assertThat(cache.getPolicies(component, new PolicyPointcutParameters(component), false, lookup()), is(policies));
+
+    assertThat(lookups.get(), is(1));
+    assertThat(cache.getHitCount(), is(1L));
+    assertThat(cache.getMissCount(), is(1L));
+  }
+
+  @Test
+  public void policiesLookedUpForEachComponent() {
+    Component otherComponent = mock(Component.class);
+
+    cache.getPolicies(component, new PolicyPointcutParameters(component), false, lookup());
+    cache.getPolicies(otherComponent, new PolicyPointcutParameters(otherComponent), false, lookup());
+
+    assertThat(lookups.get(), is(2));
+  }
+
+  @Test
+  public void policiesKeptByComparableEventParameters() {
+    cache.getPolicies(component, new ComparableParameters(component, "/a"), true, lookup());
+    cache.getPolicies(component, new ComparableParameters(component, "/a"), true, lookup());
+    cache.getPolicies(component, new ComparableParameters(component, "/b"), true, lookup());
+
+    assertThat(lookups.get(), is(2));
+    assertThat(cache.getHitCount(), is(1L));
+  }
+
+  @Test
+  public void policiesNotKeptForNotComparableEventParameters() {
+    cache.getPolicies(component, new NotComparableParameters(component), true, lookup());
+    cache.getPolicies(component, new NotComparableParameters(component), true, lookup());
+
+    assertThat(lookups.get(), is(2));
+    assertThat(cache.getUncacheableCount(), is(2L));
+  }
+
+  @Test
+  public void policiesLookedUpAgainAfterInvalidate() {
+    cache.getPolicies(component, new PolicyPointcutParameters(component), false, lookup());
+    cache.invalidate();
+    cache.getPolicies(component, new PolicyPointcutParameters(component), false, lookup());
+
+    assertThat(lookups.get(), is(2));
+  }
+
+  private Function<PolicyPointcutParameters, List<Policy>> lookup() {
+    return parameters -> {
+      lookups.incrementAndGet();
+      return policies;
+    };
+  }
+
+  private static class NotComparableParameters extends PolicyPointcutParameters {
+
+    public NotComparableParameters(Component component) {
+      super(component);
+    }
+  }
+
+  private static class ComparableParameters extends PolicyPointcutParameters {
+
+    private final Component component;
+    private final String path;
+
+    public ComparableParameters(Component component, String path) {
+      super(component);
+      this.component = component;
+      this.path = path;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof ComparableParameters && ((ComparableParameters) obj).component == component
+          && Objects.equals(((ComparableParameters) obj).path, path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(component, path);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.PROACTOR;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(PROCESSING_STRATEGIES)
+@Story(PROACTOR)
+public class SchedulerWaitTrackerTestCase extends AbstractMuleTestCase {
+
+  private final SchedulerWaitTracker tracker = new SchedulerWaitTracker();
+
+  @Test
+  public void notRejectedDoesNotWait() {
+    SchedulerWaitTracker.Wait wait = tracker.newWait();
+
+    assertThat(wait.scheduled(), is(-1L));
+    wait.done();
+
+    assertThat(tracker.getWaiting(), is(0));
+    assertThat(tracker.getWaitedCount(), is(0L));
+  }
+
+  @Test
+  public void waitsFromFirstRejectionUntilScheduled() {
+    SchedulerWaitTracker.Wait wait = tracker.newWait();
+
+    wait.rejected();
+    wait.rejected();
+    assertThat(tracker.getWaiting(), is(1));
+
+    long waited = wait.scheduled();
+    wait.done();
+
+    assertThat(waited >= 0, is(true));
+    assertThat(tracker.getWaiting(), is(0));
+    assertThat(tracker.getWaitedCount(), is(1L));
+    assertThat(tracker.getTotalWaitNanos(), is(waited));
+    assertThat(tracker.getMaxWaitNanos(), is(waited));
+  }
+
+  @Test
+  public void abandonedStopsWaiting() {
+    SchedulerWaitTracker.Wait wait = tracker.newWait();
+
+    wait.rejected();
+    wait.done();
+
+    assertThat(tracker.getWaiting(), is(0));
+    assertThat(tracker.getWaitedCount(), is(0L));
+  }
+}
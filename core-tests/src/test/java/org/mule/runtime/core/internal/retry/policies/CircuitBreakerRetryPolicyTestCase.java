@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry.policies;
+
+import static java.util.function.Function.identity;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.core.internal.retry.policies.CircuitBreaker.State.CLOSED;
+import static org.mule.runtime.core.internal.retry.policies.CircuitBreaker.State.HALF_OPEN;
+import static org.mule.runtime.core.internal.retry.policies.CircuitBreaker.State.OPEN;
+import static reactor.core.Exceptions.unwrap;
+import static reactor.core.publisher.Mono.from;
+import static reactor.core.publisher.Mono.fromCallable;
+
+import org.mule.runtime.core.api.retry.RetryCallback;
+import org.mule.runtime.core.api.retry.RetryContext;
+import org.mule.runtime.core.api.retry.policy.CircuitBreakerOpenException;
+import org.mule.runtime.core.api.retry.policy.CircuitBreakerRetryPolicyTemplate;
+import org.mule.runtime.core.api.retry.policy.RetryPolicyExhaustedException;
+import org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+@SmallTest
+public class CircuitBreakerRetryPolicyTestCase extends AbstractMuleTestCase {
+
+  private static final int FAILURE_THRESHOLD = 3;
+  private static final long OPEN_TIMEOUT = 100;
+
+  private final CircuitBreaker circuitBreaker = new CircuitBreaker(FAILURE_THRESHOLD, OPEN_TIMEOUT);
+  private final AtomicInteger executions = new AtomicInteger(0);
+  private final AtomicBoolean failing = new AtomicBoolean(true);
+
+  @Test
+  public void circuitStates() throws Exception {
+    for (int i = 0; i < FAILURE_THRESHOLD - 1; ++i) {
+      assertThat(circuitBreaker.tryAcquire(), is(true));
+      circuitBreaker.onFailure();
+    }
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+    circuitBreaker.onSuccess();
+    circuitBreaker.onFailure();
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+
+    openCircuit();
+    assertThat(circuitBreaker.tryAcquire(), is(false));
+
+    Thread.sleep(OPEN_TIMEOUT);
+    assertThat(circuitBreaker.tryAcquire(), is(true));
+    assertThat(circuitBreaker.getState(), is(HALF_OPEN));
+    // Only one trial at a time
+    assertThat(circuitBreaker.tryAcquire(), is(false));
+    circuitBreaker.onFailure();
+    assertThat(circuitBreaker.getState(), is(OPEN));
+
+    Thread.sleep(OPEN_TIMEOUT);
+    assertThat(circuitBreaker.tryAcquire(), is(true));
+    circuitBreaker.onSuccess();
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+  }
+
+  @Test
+  public void failsFastWhenOpen() {
+    openCircuit();
+
+    try {
+      from(newRetryPolicy().applyPolicy(attempt(), e -> true, e -> {
+      }, identity())).block();
+      fail("Circuit should be open");
+    } catch (Exception e) {
+      assertThat(unwrap(e), instanceOf(CircuitBreakerOpenException.class));
+      assertThat(executions.get(), is(0));
+    }
+  }
+
+  @Test
+  public void failuresOpenCircuitAndStopRetries() {
+    try {
+      from(newRetryPolicy().applyPolicy(attempt(), e -> true, e -> {
+      }, identity())).block();
+      fail("Retries should fail");
+    } catch (Exception e) {
+      assertThat(unwrap(e), instanceOf(CircuitBreakerOpenException.class));
+      assertThat(executions.get(), is(FAILURE_THRESHOLD));
+      assertThat(circuitBreaker.getState(), is(OPEN));
+    }
+  }
+
+  @Test
+  public void successfulTrialClosesCircuit() throws Exception {
+    openCircuit();
+    failing.set(false);
+    Thread.sleep(OPEN_TIMEOUT);
+
+    assertThat(from(newRetryPolicy().applyPolicy(attempt(), e -> true, e -> {
+    }, identity())).block(), is(1));
+    assertThat(circuitBreaker.getState(), is(CLOSED));
+  }
+
+  @Test
+  public void blockingExecutionFailsFastWhenOpen() throws Exception {
+    CircuitBreakerRetryPolicyTemplate template =
+        new CircuitBreakerRetryPolicyTemplate(new SimpleRetryPolicyTemplate(1, 10), FAILURE_THRESHOLD, OPEN_TIMEOUT);
+    template.setNotifier(null);
+    RetryCallback callback = new RetryCallback() {
+
+      @Override
+      public void doWork(RetryContext context) throws Exception {
+        executions.incrementAndGet();
+        throw new IllegalStateException();
+      }
+
+      @Override
+      public String getWorkDescription() {
+        return "test";
+      }
+
+      @Override
+      public Object getWorkOwner() {
+        return this;
+      }
+    };
+
+    try {
+      template.execute(callback, null);
+      fail("Retries should fail");
+    } catch (RetryPolicyExhaustedException e) {
+      assertThat(e.getCause(), instanceOf(CircuitBreakerOpenException.class));
+      assertThat(executions.get(), is(FAILURE_THRESHOLD));
+    }
+  }
+
+  private void openCircuit() {
+    for (int i = 0; i < FAILURE_THRESHOLD; ++i) {
+      assertThat(circuitBreaker.tryAcquire(), is(true));
+      circuitBreaker.onFailure();
+    }
+    assertThat(circuitBreaker.getState(), is(OPEN));
+  }
+
+  private CircuitBreakerRetryPolicy newRetryPolicy() {
+    return new CircuitBreakerRetryPolicy(circuitBreaker, new SimpleRetryPolicy(1, 10));
+  }
+
+  private Publisher<Integer> attempt() {
+    return fromCallable(() -> {
+      executions.incrementAndGet();
+      if (failing.get()) {
+        throw new IllegalStateException();
+      }
+      return executions.get();
+    });
+  }
+}
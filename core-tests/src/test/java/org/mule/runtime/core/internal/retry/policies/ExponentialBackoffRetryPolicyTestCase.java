@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry.policies;
+
+import static java.util.function.Function.identity;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate.RETRY_COUNT_FOREVER;
+import static reactor.core.publisher.Mono.from;
+import static reactor.core.publisher.Mono.fromCallable;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+@SmallTest
+public class ExponentialBackoffRetryPolicyTestCase extends AbstractMuleTestCase {
+
+  private static final long BASE_DELAY = 10;
+  private static final long MAX_DELAY = 1000;
+  private static final int RETRIES = 3;
+
+  private final AtomicInteger executions = new AtomicInteger(0);
+  private final AtomicBoolean exhausted = new AtomicBoolean(false);
+
+  @Test
+  public void delaysGrowWithinBounds() {
+    ExponentialBackoffRetryPolicy retryPolicy = new ExponentialBackoffRetryPolicy(BASE_DELAY, MAX_DELAY, RETRIES);
+
+    long delay = 0;
+    for (int i = 0; i < 1000; ++i) {
+      long nextDelay = retryPolicy.nextDelay(delay);
+      assertThat(nextDelay, greaterThanOrEqualTo(BASE_DELAY));
+      assertThat(nextDelay, lessThanOrEqualTo(Math.max(BASE_DELAY, Math.min(MAX_DELAY, delay * 3))));
+      delay = nextDelay;
+    }
+    assertThat(retryPolicy.nextDelay(Long.MAX_VALUE), lessThanOrEqualTo(MAX_DELAY));
+  }
+
+  @Test
+  public void successfulRetry() {
+    Publisher<Integer> publisher = fromCallable(() -> {
+      if (executions.incrementAndGet() <= RETRIES) {
+        throw new IllegalArgumentException("not retried enough");
+      }
+      return executions.get();
+    });
+
+    Integer value = from(new ExponentialBackoffRetryPolicy(BASE_DELAY, MAX_DELAY, RETRIES)
+        .applyPolicy(publisher, e -> e instanceof IllegalArgumentException, e -> exhausted.set(true), identity())).block();
+
+    assertThat(value, is(RETRIES + 1));
+    assertThat(exhausted.get(), is(false));
+  }
+
+  @Test
+  public void exhaustedRetry() {
+    Publisher<Integer> publisher = fromCallable(() -> {
+      executions.incrementAndGet();
+      throw new IllegalArgumentException("No retry will save you");
+    });
+
+    try {
+      from(new ExponentialBackoffRetryPolicy(BASE_DELAY, MAX_DELAY, RETRIES)
+          .applyPolicy(publisher, e -> true, e -> exhausted.set(true), identity())).block();
+      fail("Retry should have been exhausted");
+    } catch (IllegalArgumentException e) {
+      assertThat(executions.get(), is(RETRIES + 1));
+      assertThat(exhausted.get(), is(true));
+    }
+  }
+
+  @Test
+  public void manyRetriesDoNotGrowTheStack() {
+    final int failures = 5000;
+    Publisher<Integer> publisher = fromCallable(() -> {
+      if (executions.incrementAndGet() <= failures) {
+        throw new IllegalArgumentException("not retried enough");
+      }
+      return executions.get();
+    });
+
+    Integer value = from(new ExponentialBackoffRetryPolicy(0, 0, RETRY_COUNT_FOREVER)
+        .applyPolicy(publisher, e -> true, e -> exhausted.set(true), identity())).block();
+
+    assertThat(value, is(failures + 1));
+    assertThat(exhausted.get(), is(false));
+  }
+
+  @Test
+  public void retriesCountedPerSubscription() {
+    Publisher<Integer> publisher = fromCallable(() -> {
+      executions.incrementAndGet();
+      throw new IllegalArgumentException("No retry will save you");
+    });
+    Publisher<Integer> retried = new ExponentialBackoffRetryPolicy(BASE_DELAY, MAX_DELAY, RETRIES)
+        .applyPolicy(publisher, e -> true, e -> exhausted.set(true), identity());
+
+    for (int i = 1; i <= 2; ++i) {
+      try {
+        from(retried).block();
+        fail("Retry should have been exhausted");
+      } catch (IllegalArgumentException e) {
+        assertThat(executions.get(), is(i * (RETRIES + 1)));
+      }
+    }
+  }
+
+  @Test
+  public void blockingRetry() {
+    ExponentialBackoffRetryPolicy retryPolicy = new ExponentialBackoffRetryPolicy(BASE_DELAY, MAX_DELAY, RETRIES);
+    Exception cause = new IllegalArgumentException();
+
+    for (int i = 0; i < RETRIES; ++i) {
+      assertThat(retryPolicy.applyPolicy(cause).isOk(), is(true));
+    }
+    assertThat(retryPolicy.applyPolicy(cause).isExhausted(), is(true));
+  }
+}
@@ -6,13 +6,16 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Thread.currentThread;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
@@ -27,6 +30,9 @@ import static org.mule.runtime.core.internal.routing.Foreach.DEFAULT_COUNTER_VAR
 import static org.mule.runtime.core.internal.routing.Foreach.DEFAULT_ROOT_MESSAGE_VARIABLE;
 import static org.mule.tck.junit4.matcher.DataTypeCompatibilityMatcher.assignableTo;
 import static org.mule.tck.util.MuleContextUtils.eventBuilder;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.fromCallable;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.message.Message;
@@ -48,12 +54,16 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.reactivestreams.Publisher;
 
 import java.nio.BufferOverflowException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 
 public class ForeachTestCase extends AbstractReactiveProcessorTestCase {
 
@@ -350,6 +360,126 @@ public class ForeachTestCase extends AbstractReactiveProcessorTestCase {
     assertThat(processedEvents, hasSize(0));
   }
 
+  @Test
+  public void parallelVariablesMergedInOrder() throws Exception {
+    Foreach foreach = createParallelForeach(1, event -> CoreEvent.builder(event)
+        .addVariable("lastItem", event.getMessage().getPayload().getValue()).build());
+    CoreEvent input = eventBuilder(muleContext).message(of(asList("a", "b", "c"))).build();
+    CoreEvent result = process(foreach, input);
+
+    assertThat(result.getMessage(), equalTo(input.getMessage()));
+    assertThat(result.getVariables().get("lastItem").getValue(), is("c"));
+    assertThat(result.getVariables().containsKey(DEFAULT_COUNTER_VARIABLE), is(false));
+    assertThat(result.getVariables().containsKey(DEFAULT_ROOT_MESSAGE_VARIABLE), is(false));
+  }
+
+  @Test
+  public void parallelVariablesMergedInCompletionOrder() throws Exception {
+    Foreach foreach = createForeach();
+    foreach.setMessageProcessors(singletonList(event -> CoreEvent.builder(event)
+        .addVariable("item-" + event.getMessage().getPayload().getValue(), true).build()));
+    foreach.setMaxConcurrency(4);
+    foreach.setPreserveOrder(false);
+    initialiseIfNeeded(foreach, muleContext);
+
+    CoreEvent result = process(foreach, eventBuilder(muleContext).message(of(asList("a", "b", "c"))).build());
+
+    assertThat(result.getVariables().keySet(), hasItems("item-a", "item-b", "item-c"));
+  }
+
+  @Test
+  public void parallelPartsProcessedFromRequest() throws Exception {
+    Foreach foreach = createParallelForeach(1, event -> CoreEvent.builder(event)
+        .addVariable("processed", (Integer) event.getVariables().get("processed").getValue() + 1).build());
+    CoreEvent result =
+        process(foreach, eventBuilder(muleContext).message(of(asList("a", "b", "c"))).addVariable("processed", 0).build());
+
+    assertThat(result.getVariables().get("processed").getValue(), is(1));
+  }
+
+  @Test
+  public void parallelUnchangedVariablesDoNotOverwriteOtherParts() throws Exception {
+    Foreach foreach = createParallelForeach(1, event -> "a".equals(event.getMessage().getPayload().getValue())
+        ? CoreEvent.builder(event).addVariable("x", "changed").build()
+        : event);
+    CoreEvent result =
+        process(foreach, eventBuilder(muleContext).message(of(asList("a", "b", "c"))).addVariable("x", "original").build());
+
+    assertThat(result.getVariables().get("x").getValue(), is("changed"));
+  }
+
+  @Test
+  public void parallelPartsProcessedConcurrently() throws Exception {
+    CountDownLatch partsStarted = new CountDownLatch(2);
+    Foreach foreach = createParallelForeach(1, new Processor() {
+
+      @Override
+      public CoreEvent process(CoreEvent event) throws MuleException {
+        return processOnePart(event);
+      }
+
+      @Override
+      public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+        return from(publisher)
+            .flatMap(event -> fromCallable(() -> processOnePart(event)).subscribeOn(fromExecutorService(scheduler)));
+      }
+
+      private CoreEvent processOnePart(CoreEvent event) {
+        partsStarted.countDown();
+        try {
+          return CoreEvent.builder(event).addVariable("concurrent-" + event.getMessage().getPayload().getValue(),
+                                                      partsStarted.await(RECEIVE_TIMEOUT, MILLISECONDS))
+              .build();
+        } catch (InterruptedException e) {
+          currentThread().interrupt();
+          throw new IllegalStateException(e);
+        }
+      }
+    });
+
+    CoreEvent result = process(foreach, eventBuilder(muleContext).message(of(asList("a", "b"))).build());
+
+    assertThat(result.getVariables().get("concurrent-a").getValue(), is(true));
+    assertThat(result.getVariables().get("concurrent-b").getValue(), is(true));
+  }
+
+  @Test
+  public void parallelBatchSize() throws Exception {
+    Queue<Object> batches = new ConcurrentLinkedQueue<>();
+    Foreach foreach = createParallelForeach(2, event -> {
+      batches.add(((List<TypedValue>) event.getMessage().getPayload().getValue()).stream().map(TypedValue::getValue)
+          .collect(toList()));
+      return event;
+    });
+
+    process(foreach, eventBuilder(muleContext).message(of(asList(1, 2, 3))).build());
+
+    assertThat(batches, containsInAnyOrder(asList(1, 2), asList(3)));
+  }
+
+  @Test
+  public void parallelFailingNestedProcessor() throws Exception {
+    RuntimeException throwable = new BufferOverflowException();
+    InternalTestProcessor failingProcessor = event -> {
+      throw throwable;
+    };
+    Foreach foreach = createParallelForeach(1, failingProcessor);
+
+    expectedException.expect(is(MessagingException.class));
+    expectedException.expect(new FailingProcessorMatcher(failingProcessor));
+    expectedException.expectCause(is(throwable));
+    process(foreach, eventBuilder(muleContext).message(of(asList("a", "b"))).build(), false);
+  }
+
+  private Foreach createParallelForeach(int batchSize, Processor processor) throws MuleException {
+    Foreach foreach = createForeach();
+    foreach.setMessageProcessors(singletonList(processor));
+    foreach.setBatchSize(batchSize);
+    foreach.setMaxConcurrency(4);
+    initialiseIfNeeded(foreach, muleContext);
+    return foreach;
+  }
+
   private void assertSimpleProcessedMessages() {
     assertEquals(ERR_NUMBER_MESSAGES, 2, processedEvents.size());
     assertTrue(ERR_PAYLOAD_TYPE, processedEvents.get(0).getMessage().getPayload().getValue() instanceof String);
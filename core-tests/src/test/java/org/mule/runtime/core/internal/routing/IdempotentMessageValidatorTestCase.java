@@ -13,7 +13,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.rules.ExpectedException.none;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.message.Message.of;
@@ -22,6 +27,7 @@ import org.mule.runtime.api.artifact.Registry;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.api.util.IOUtils;
@@ -202,6 +208,31 @@ public class IdempotentMessageValidatorTestCase extends AbstractMuleContextTestC
     assertNotNull(processedEvent);
   }
 
+  @Test
+  public void idStoredWithoutCheckingItFirst() throws Exception {
+    ObjectStore<String> objectStore = spy(new InMemoryObjectStore<String>());
+    idempotent.setObjectStore(objectStore);
+    idempotent.setValueExpression("#[payload]");
+
+    final BaseEventContext context = mock(BaseEventContext.class);
+    when(context.getCorrelationId()).thenReturn("1");
+    CoreEvent event = CoreEvent.builder(context).message(of("OK")).build();
+
+    assertThat(idempotent.process(event), sameInstance(event));
+    boolean duplicateRejected = false;
+    try {
+      idempotent.process(event);
+    } catch (ValidationException e) {
+      duplicateRejected = true;
+    }
+
+    assertThat(duplicateRejected, is(true));
+
+    verify(objectStore, never()).contains(anyString());
+    verify(objectStore, times(2)).store("1", "OK");
+    assertThat(objectStore.retrieve("1"), is("OK"));
+  }
+
   @Test
   public void multipleObjectStoreConfigurationShouldRaiseException() throws Exception {
     idempotent.setPrivateObjectStore(new InMemoryObjectStore<>());
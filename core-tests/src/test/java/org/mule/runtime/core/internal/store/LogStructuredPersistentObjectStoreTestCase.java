@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.store.PartitionableObjectStore.DEFAULT_PARTITION_NAME;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleConfiguration;
+import org.mule.runtime.core.internal.util.store.PartitionedPersistentObjectStoreTestCase.DeserializableValue;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class LogStructuredPersistentObjectStoreTestCase extends AbstractMuleTestCase {
+
+  private static final String PARTITION = "partition";
+  private static final int SEGMENT_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  private MuleContext mockMuleContext;
+  private LogStructuredPersistentObjectStore<Serializable> os;
+
+  @Before
+  public void before() throws Exception {
+    mockMuleContext = mock(MuleContext.class);
+    MuleConfiguration configuration = mock(MuleConfiguration.class);
+    when(configuration.getWorkingDirectory()).thenReturn(workingDirectory.getRoot().getAbsolutePath());
+    when(mockMuleContext.getConfiguration()).thenReturn(configuration);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+    os = createStore();
+  }
+
+  @After
+  public void after() {
+    os.dispose();
+  }
+
+  @Test
+  public void partitionsDoNotCollide() throws Exception {
+    os.store("key", "default");
+    os.open(PARTITION);
+    os.store("key", "partitioned", PARTITION);
+
+    assertThat(os.retrieve("key"), is("default"));
+    assertThat(os.retrieve("key", PARTITION), is("partitioned"));
+    assertThat(os.allPartitions(), containsInAnyOrder(PARTITION, DEFAULT_PARTITION_NAME));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeSameKeyThrowsException() throws Exception {
+    os.store("key", "value");
+    os.store("key", "value");
+  }
+
+  @Test
+  public void remove() throws Exception {
+    os.store("key", "value");
+
+    assertThat(os.remove("key"), is("value"));
+    assertThat(os.contains("key"), is(false));
+    os.store("key", "other");
+    assertThat(os.retrieve("key"), is("other"));
+  }
+
+  @Test(expected = ObjectDoesNotExistException.class)
+  public void removeMissingKeyThrowsException() throws Exception {
+    os.remove("key");
+  }
+
+  @Test
+  public void entriesRecoveredAfterReopen() throws Exception {
+    os.open(PARTITION);
+    for (int i = 0; i < 100; i++) {
+      os.store("key" + i, i, PARTITION);
+    }
+    for (int i = 0; i < 100; i += 2) {
+      os.remove("key" + i, PARTITION);
+    }
+    os.remove("key1", PARTITION);
+    os.store("key1", "stored again", PARTITION);
+
+    reopen();
+
+    assertThat(os.allKeys(PARTITION).size(), is(50));
+    assertThat(os.retrieve("key1", PARTITION), is("stored again"));
+    assertThat(os.contains("key2", PARTITION), is(false));
+    assertThat(os.retrieve("key99", PARTITION), is(99));
+    // stored order is kept
+    assertThat(os.allKeys(PARTITION).get(0), is("key3"));
+  }
+
+  @Test
+  public void clearedPartitionStaysEmptyAfterReopen() throws Exception {
+    os.open(PARTITION);
+    os.store("key", "value", PARTITION);
+    os.store("key", "value");
+    os.clear(PARTITION);
+    os.store("other", "value", PARTITION);
+
+    reopen();
+
+    assertThat(os.allKeys(PARTITION), contains("other"));
+    assertThat(os.allKeys(), contains("key"));
+  }
+
+  @Test
+  public void disposedPartitionNotRecovered() throws Exception {
+    os.open(PARTITION);
+    os.store("key", "value", PARTITION);
+    os.disposePartition(PARTITION);
+
+    assertThat(os.allPartitions(), contains(DEFAULT_PARTITION_NAME));
+
+    reopen();
+
+    assertThat(os.allPartitions(), contains(DEFAULT_PARTITION_NAME));
+  }
+
+  @Test
+  public void disposedPartitionOpenedAgainIsEmpty() throws Exception {
+    os.open(PARTITION);
+    os.store("key", "value", PARTITION);
+    os.disposePartition(PARTITION);
+    os.open(PARTITION);
+    os.store("other", "value", PARTITION);
+
+    reopen();
+
+    assertThat(os.allKeys(PARTITION), contains("other"));
+  }
+
+  @Test
+  public void expireByMaxEntries() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      os.store("key" + i, i);
+    }
+    os.expire(UNBOUNDED, 3);
+
+    assertThat(os.allKeys(), contains("key7", "key8", "key9"));
+    reopen();
+    assertThat(os.allKeys(), contains("key7", "key8", "key9"));
+  }
+
+  @Test
+  public void expireByTtl() throws Exception {
+    os.store("old", "value");
+    Thread.sleep(50);
+    os.store("new", "value");
+    os.expire(25, UNBOUNDED);
+
+    assertThat(os.allKeys(), contains("new"));
+  }
+
+  @Test
+  public void segmentsWithGarbageAreCompacted() throws Exception {
+    for (int i = 0; i < 200; i++) {
+      os.store("key" + i, i);
+    }
+    int segments = os.getSegmentsCount();
+    assertThat(segments > 1, is(true));
+
+    for (int i = 0; i < 200; i++) {
+      if (i % 10 != 0) {
+        os.remove("key" + i);
+      }
+    }
+
+    assertThat(os.getSegmentsCount() < segments, is(true));
+    assertThat(os.allKeys().size(), is(20));
+
+    reopen();
+    assertThat(os.allKeys().size(), is(20));
+    for (int i = 0; i < 200; i += 10) {
+      assertThat(os.retrieve("key" + i), is(i));
+    }
+  }
+
+  @Test
+  public void removedEntriesDoNotComeBackAfterCompaction() throws Exception {
+    for (int i = 0; i < 200; i++) {
+      os.store("key" + i, i);
+    }
+    for (int i = 0; i < 200; i++) {
+      os.remove("key" + i);
+    }
+    os.compact();
+    reopen();
+
+    assertThat(os.allKeys(), is(empty()));
+  }
+
+  @Test
+  public void incompleteRecordDiscarded() throws Exception {
+    os.store("key", "value");
+    os.store("broken", "value");
+    os.dispose();
+
+    File segment = new File(new File(workingDirectory.getRoot(), LogStructuredPersistentObjectStore.OBJECT_STORE_LOG_DIR),
+                            "0000000000.log");
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    os = createStore();
+    assertThat(os.allKeys(), contains("key"));
+    os.store("broken", "again");
+    reopen();
+    assertThat(os.retrieve("broken"), is("again"));
+  }
+
+  @Test
+  public void deserializableValueInitialised() throws Exception {
+    os.store("key", new DeserializableValue(mockMuleContext));
+    reopen();
+
+    assertThat(((DeserializableValue) os.retrieve("key")).getMuleContext(), sameInstance(mockMuleContext));
+  }
+
+  private void reopen() throws Exception {
+    os.dispose();
+    os = createStore();
+  }
+
+  private LogStructuredPersistentObjectStore<Serializable> createStore() throws Exception {
+    LogStructuredPersistentObjectStore<Serializable> store =
+        new LogStructuredPersistentObjectStore<>(mockMuleContext, SEGMENT_SIZE);
+    store.open();
+    return store;
+  }
+}
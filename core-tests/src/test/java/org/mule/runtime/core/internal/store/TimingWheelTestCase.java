@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import org.mule.runtime.core.internal.store.TimingWheel.Timeout;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SmallTest
+public class TimingWheelTestCase extends AbstractMuleTestCase {
+
+  private static final long TICK = MILLISECONDS.toNanos(1);
+
+  private final TimingWheel wheel = new TimingWheel(TICK);
+  private final List<Timeout> expired = new ArrayList<>();
+
+  @Test
+  public void expiresOnDeadline() {
+    Timeout timeout = new Timeout();
+    wheel.schedule(timeout, 10 * TICK + 1, 0);
+
+    wheel.advance(10 * TICK, expired::add);
+    assertThat(expired, is(empty()));
+
+    wheel.advance(10 * TICK + 1, expired::add);
+    assertThat(expired, contains(timeout));
+    assertThat(timeout.isScheduled(), is(false));
+    assertThat(wheel.size(), is(0));
+  }
+
+  @Test
+  public void pastDeadlineExpiresOnNextAdvance() {
+    Timeout timeout = new Timeout();
+    wheel.schedule(timeout, -TICK, 0);
+
+    wheel.advance(0, expired::add);
+    assertThat(expired, contains(timeout));
+  }
+
+  @Test
+  public void cancelled() {
+    Timeout timeout = new Timeout();
+    wheel.schedule(timeout, 5 * TICK, 0);
+    wheel.cancel(timeout);
+
+    wheel.advance(10 * TICK, expired::add);
+    assertThat(expired, is(empty()));
+    assertThat(wheel.size(), is(0));
+  }
+
+  @Test
+  public void rescheduled() {
+    Timeout timeout = new Timeout();
+    wheel.schedule(timeout, 5 * TICK, 0);
+    wheel.schedule(timeout, 5000 * TICK, 0);
+
+    wheel.advance(4999 * TICK, expired::add);
+    assertThat(expired, is(empty()));
+    wheel.advance(5000 * TICK, expired::add);
+    assertThat(expired, contains(timeout));
+  }
+
+  @Test
+  public void deadlineBeyondWheelRange() {
+    Timeout timeout = new Timeout();
+    long deadline = DAYS.toNanos(2000);
+    wheel.schedule(timeout, deadline, 0);
+
+    wheel.advance(deadline - 1, expired::add);
+    assertThat(expired, is(empty()));
+    wheel.advance(deadline, expired::add);
+    assertThat(expired, contains(timeout));
+  }
+
+  @Test
+  public void randomDeadlines() {
+    Random random = new Random(0);
+    List<Timeout> timeouts = new ArrayList<>();
+    long now = -123456789;
+    for (int i = 0; i < 10000; ++i) {
+      Timeout timeout = new Timeout();
+      wheel.schedule(timeout, now + (long) (random.nextDouble() * random.nextDouble() * 1000000 * TICK), now);
+      timeouts.add(timeout);
+    }
+
+    while (wheel.size() > 0) {
+      now += random.nextInt(1000) * TICK + random.nextInt((int) TICK);
+      expired.clear();
+      wheel.advance(now, expired::add);
+
+      for (Timeout timeout : expired) {
+        assertThat(timeout.getDeadline() <= now, is(true));
+      }
+      for (Timeout timeout : timeouts) {
+        assertThat(timeout.isScheduled(), is(timeout.getDeadline() > now));
+      }
+    }
+  }
+}
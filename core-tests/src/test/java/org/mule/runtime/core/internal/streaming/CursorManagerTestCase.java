@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.event.EventContextFactory.create;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.fromSingleComponent;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.Cursor;
+import org.mule.runtime.api.streaming.CursorProvider;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.exception.NullExceptionHandler;
+import org.mule.runtime.core.internal.event.DefaultEventContext;
+import org.mule.runtime.core.internal.streaming.bytes.ByteArrayCursorStreamProvider;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Before;
+import org.junit.Test;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class CursorManagerTestCase extends AbstractMuleTestCase {
+
+  private static final byte[] DATA = "Hello streaming world!".getBytes();
+
+  private MutableStreamingStatistics statistics = new MutableStreamingStatistics();
+  private CursorManager cursorManager;
+  private DefaultEventContext eventContext;
+  private CoreEvent event;
+
+  @Before
+  public void before() {
+    Scheduler scheduler = mock(Scheduler.class);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArguments()[0]).run();
+      return null;
+    }).when(scheduler).execute(any());
+
+    cursorManager = new CursorManager(statistics, scheduler);
+    eventContext = (DefaultEventContext) create("id", "serverId", fromSingleComponent("test"), NullExceptionHandler.getInstance());
+    event = mock(CoreEvent.class);
+    when(event.getContext()).thenReturn(eventContext);
+  }
+
+  @Test
+  public void providersOfSameEventShareState() {
+    cursorManager.manage(new ByteArrayCursorStreamProvider(DATA), event);
+    EventStreamingState state = eventContext.getStreamingState();
+    assertThat(state, is(notNullValue()));
+
+    cursorManager.manage(new ByteArrayCursorStreamProvider(DATA), event);
+    assertThat(eventContext.getStreamingState(), is(sameInstance(state)));
+    assertThat(statistics.getOpenCursorProvidersCount(), is(2));
+  }
+
+  @Test
+  public void releaseOnTermination() {
+    CursorProvider provider = cursorManager.manage(new ByteArrayCursorStreamProvider(DATA), event);
+    Cursor cursor = provider.openCursor();
+    assertThat(statistics.getOpenCursorsCount(), is(1));
+
+    eventContext.success(event);
+
+    assertThat(provider.isClosed(), is(true));
+    assertThat(cursor.isReleased(), is(true));
+    assertThat(statistics.getOpenCursorsCount(), is(0));
+    assertThat(statistics.getOpenCursorProvidersCount(), is(0));
+    assertThat(eventContext.getStreamingState().isDisposed(), is(true));
+  }
+
+  @Test
+  public void closeLastCursorOfClosedProvider() throws Exception {
+    CursorProvider provider = cursorManager.manage(new ByteArrayCursorStreamProvider(DATA), event);
+    Cursor cursor = provider.openCursor();
+    provider.close();
+    cursor.close();
+
+    assertThat(statistics.getOpenCursorsCount(), is(0));
+    assertThat(eventContext.getStreamingState().isDisposed(), is(true));
+  }
+
+  @Test
+  public void cursorOpenedAfterDisposalReleased() {
+    CursorStreamProvider delegate = mock(CursorStreamProvider.class);
+    CursorStream cursor = mock(CursorStream.class);
+    when(delegate.openCursor()).thenReturn(cursor);
+
+    CursorProvider provider = cursorManager.manage(delegate, event);
+    eventContext.success(event);
+    provider.openCursor();
+
+    verify(cursor).release();
+    assertThat(statistics.getOpenCursorsCount(), is(0));
+  }
+
+  @Test
+  public void newStateAfterDisposal() {
+    cursorManager.manage(new ByteArrayCursorStreamProvider(DATA), event);
+    EventStreamingState state = eventContext.getStreamingState();
+    eventContext.success(event);
+
+    CursorProvider provider = cursorManager.manage(new ByteArrayCursorStreamProvider(DATA), event);
+    assertThat(eventContext.getStreamingState(), is(not(sameInstance(state))));
+    assertThat(provider.isClosed(), is(true));
+  }
+}
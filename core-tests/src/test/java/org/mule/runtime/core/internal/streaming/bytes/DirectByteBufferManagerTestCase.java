@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.util.DataUnit.MB;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.util.Reference;
+import org.mule.runtime.api.util.concurrent.Latch;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Test;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class DirectByteBufferManagerTestCase extends AbstractMuleTestCase {
+
+  private static final int CAPACITY = 100;
+  private static final int OTHER_CAPACITY = CAPACITY + 1;
+  private static final int LARGE_CAPACITY = MB.toBytes(1);
+
+  private DirectByteBufferManager bufferManager = new DirectByteBufferManager();
+
+  @After
+  public void after() {
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void direct() throws Exception {
+    assertThat(bufferManager.allocate(CAPACITY).isDirect(), is(true));
+    assertThat(bufferManager.allocate(LARGE_CAPACITY).isDirect(), is(true));
+  }
+
+  @Test
+  public void pooling() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer, is(sameInstance(newBuffer)));
+  }
+
+  @Test
+  public void poolingLargeBuffers() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(LARGE_CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(LARGE_CAPACITY);
+    assertThat(buffer, is(sameInstance(newBuffer)));
+  }
+
+  @Test
+  public void grow() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+
+    assertThat(buffer, not(sameInstance(newBuffer)));
+  }
+
+  @Test
+  public void slabBuffersDoNotOverlap() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+
+    while (buffer.hasRemaining()) {
+      buffer.put((byte) 1);
+    }
+
+    while (newBuffer.hasRemaining()) {
+      assertThat(newBuffer.get(), is((byte) 0));
+    }
+  }
+
+  @Test
+  public void capacity() throws Exception {
+    assertCapacity(CAPACITY);
+    assertCapacity(OTHER_CAPACITY);
+    assertCapacity(LARGE_CAPACITY);
+  }
+
+  @Test
+  public void releasedBufferIsCleared() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    buffer.put((byte) 1).flip();
+    bufferManager.deallocate(buffer);
+
+    buffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer.position(), is(0));
+    assertThat(buffer.limit(), is(CAPACITY));
+  }
+
+  @Test
+  public void limitTotalMemory() throws Exception {
+    final long maxMemory = 40L;
+    final int bufferCapacity = toIntExact(maxMemory / 4);
+    final long waitTimeoutMillis = SECONDS.toMillis(2);
+
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(maxMemory);
+
+    bufferManager = new DirectByteBufferManager(memoryManager, waitTimeoutMillis);
+
+    ByteBuffer buffer1 = bufferManager.allocate(bufferCapacity);
+    bufferManager.allocate(bufferCapacity);
+    assertThat(bufferManager.getStreamingMemory(), is(maxMemory / 2));
+
+    Reference<Boolean> maxMemoryExhausted = new Reference<>(false);
+    Latch latch = new Latch();
+    new Thread(() -> {
+      try {
+        bufferManager.allocate(bufferCapacity);
+      } catch (Exception e) {
+        maxMemoryExhausted.set(e.getCause() instanceof MaxStreamingMemoryExceededException);
+      } finally {
+        latch.release();
+      }
+    }).start();
+
+    assertThat(latch.await(waitTimeoutMillis * 2, MILLISECONDS), is(true));
+    assertThat(maxMemoryExhausted.get(), is(true));
+
+    Latch secondLatch = new Latch();
+    Reference<ByteBuffer> allocated = new Reference<>();
+    new Thread(() -> {
+      try {
+        allocated.set(bufferManager.allocate(bufferCapacity));
+      } finally {
+        secondLatch.release();
+      }
+    }).start();
+
+    bufferManager.deallocate(buffer1);
+    assertThat(secondLatch.await(waitTimeoutMillis, MILLISECONDS), is(true));
+    assertThat(allocated.get(), is(sameInstance(buffer1)));
+  }
+
+  @Test
+  public void idleSlabReleasedWhenMemoryExhausted() throws Exception {
+    final int bufferCapacity = 1000;
+    final int slabCapacity = bufferCapacity * 64;
+
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(slabCapacity * 2L);
+
+    bufferManager = new DirectByteBufferManager(memoryManager, 100);
+
+    ByteBuffer buffer = bufferManager.allocate(bufferCapacity);
+    assertThat(bufferManager.getStreamingMemory(), is((long) slabCapacity));
+    bufferManager.deallocate(buffer);
+
+    assertThat(bufferManager.allocate(bufferCapacity * 2).capacity(), is(bufferCapacity * 2));
+    assertThat(bufferManager.getStreamingMemory(), is(bufferCapacity * 2L));
+  }
+
+  @Test
+  public void slabInUseNotReleased() throws Exception {
+    final int bufferCapacity = 1000;
+    final int slabCapacity = bufferCapacity * 64;
+
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(slabCapacity * 2L);
+
+    bufferManager = new DirectByteBufferManager(memoryManager, 100);
+
+    ByteBuffer buffer = bufferManager.allocate(bufferCapacity);
+    bufferManager.deallocate(bufferManager.allocate(bufferCapacity));
+
+    Reference<Boolean> maxMemoryExhausted = new Reference<>(false);
+    try {
+      bufferManager.allocate(bufferCapacity * 2);
+    } catch (Exception e) {
+      maxMemoryExhausted.set(e.getCause() instanceof MaxStreamingMemoryExceededException);
+    }
+
+    assertThat(maxMemoryExhausted.get(), is(true));
+    assertThat(bufferManager.getStreamingMemory(), is((long) slabCapacity));
+
+    bufferManager.deallocate(buffer);
+    assertThat(bufferManager.allocate(bufferCapacity * 2).capacity(), is(bufferCapacity * 2));
+  }
+
+  private void assertCapacity(int capacity) {
+    ByteBuffer buffer = bufferManager.allocate(capacity);
+    try {
+      assertThat(buffer.capacity(), is(capacity));
+    } finally {
+      bufferManager.deallocate(buffer);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(STREAMING)
+@Story(OBJECT_STREAMING)
+public class FileStoreCursorIteratorProviderTestCase extends CursorIteratorProviderTestCase {
+
+  private final FileStoreCursorIteratorConfig config;
+  private final List<CursorIteratorProvider> providers = new ArrayList<>();
+
+  public FileStoreCursorIteratorProviderTestCase(String name, int dataSize, int initialBufferSize, int bufferSizeIncrement,
+                                                 int maxBufferSize) {
+    super(name, dataSize, initialBufferSize, bufferSizeIncrement, maxBufferSize);
+    config = new FileStoreCursorIteratorConfig(initialBufferSize,
+                                               bufferSizeIncrement > 0 ? bufferSizeIncrement : initialBufferSize);
+  }
+
+  @Override
+  protected CursorIteratorProvider createStreamProvider(List<Object> data) {
+    CursorIteratorProvider provider =
+        new FileStoreCursorIteratorProvider(toStreamingIterator(data), config, muleContext.getObjectSerializer());
+    providers.add(provider);
+    return provider;
+  }
+
+  @After
+  public void releaseProviders() {
+    providers.forEach(CursorIteratorProvider::releaseResources);
+  }
+
+  @Override
+  @Test
+  @Description("Items past the in memory ones overflow into the file instead of exceeding the buffer")
+  public void bufferSizeExceeded() throws Exception {
+    data.add("I do fit");
+    CursorIteratorProvider provider = createStreamProvider(data);
+
+    try (CursorIterator cursor = provider.openCursor()) {
+      checkEquals(data, cursor);
+      cursor.seek(0);
+      checkEquals(read(cursor, data.size()), data);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap.copyOf;
+import static org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap.empty;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class PersistentCaseInsensitiveMapTestCase extends AbstractMuleTestCase {
+
+  private static final int ENTRIES = 2000;
+
+  @Test
+  public void caseInsensitive() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("FOO", "bar");
+
+    assertThat(map.get("foo"), is("bar"));
+    assertThat(map.get("Foo"), is("bar"));
+    assertThat(map.containsKey("fOO"), is(true));
+    assertThat(map.keySet().iterator().next(), is("FOO"));
+  }
+
+  @Test
+  public void replaceKeepsOriginalKey() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("FOO", "bar").with("foo", "baz");
+
+    assertThat(map.size(), is(1));
+    assertThat(map.get("FOO"), is("baz"));
+    assertThat(map.keySet().iterator().next(), is("FOO"));
+  }
+
+  @Test
+  public void originalNotModified() {
+    PersistentCaseInsensitiveMap<String> original = PersistentCaseInsensitiveMap.<String>empty().with("a", "1").with("b", "2");
+    PersistentCaseInsensitiveMap<String> added = original.with("c", "3");
+    PersistentCaseInsensitiveMap<String> removed = original.without("A");
+
+    assertThat(original.size(), is(2));
+    assertThat(original.containsKey("c"), is(false));
+    assertThat(original.get("a"), is("1"));
+    assertThat(added.size(), is(3));
+    assertThat(removed.size(), is(1));
+    assertThat(removed.get("a"), is(nullValue()));
+  }
+
+  @Test
+  public void unchangedReturnsSameInstance() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("a", "1");
+
+    assertThat(map.with("A", "1"), is(sameInstance(map)));
+    assertThat(map.without("b"), is(sameInstance(map)));
+    assertThat(copyOf(map), is(sameInstance(map)));
+  }
+
+  @Test
+  public void nullValues() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("a", null);
+
+    assertThat(map.containsKey("a"), is(true));
+    assertThat(map.get("a"), is(nullValue()));
+    assertThat(map.containsKey("b"), is(false));
+  }
+
+  @Test
+  public void hashCollisions() {
+    // both keys have the same hash
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("1_", "a").with("2@", "b");
+
+    assertThat(map.size(), is(2));
+    assertThat(map.get("1_"), is("a"));
+    assertThat(map.get("2@"), is("b"));
+    assertThat(map.without("1_").get("2@"), is("b"));
+    assertThat(map.without("1_").without("2@").isEmpty(), is(true));
+  }
+
+  @Test
+  public void manyEntries() {
+    Map<String, Integer> expected = new HashMap<>();
+    PersistentCaseInsensitiveMap<Integer> map = empty();
+    for (int i = 0; i < ENTRIES; i++) {
+      map = map.with("Key" + i, i);
+      expected.put("Key" + i, i);
+    }
+
+    assertThat(map.size(), is(ENTRIES));
+    assertThat(map, equalTo(expected));
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(map.get("KEY" + i), is(i));
+    }
+
+    for (int i = 0; i < ENTRIES; i += 2) {
+      map = map.without("key" + i);
+    }
+
+    assertThat(map.size(), is(ENTRIES / 2));
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(map.containsKey("Key" + i), is(i % 2 != 0));
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutable() {
+    PersistentCaseInsensitiveMap.<String>empty().put("a", "1");
+  }
+
+  @Test
+  public void serialize() {
+    PersistentCaseInsensitiveMap<String> map = PersistentCaseInsensitiveMap.<String>empty().with("FOO", "bar").with("doo", "baz");
+    Map<String, String> deserialized = SerializationUtils.deserialize(SerializationUtils.serialize(map));
+
+    assertThat(deserialized, equalTo(map));
+    assertThat(deserialized.get("foo"), is("bar"));
+    assertThat(deserialized.get("DOO"), is("baz"));
+  }
+}
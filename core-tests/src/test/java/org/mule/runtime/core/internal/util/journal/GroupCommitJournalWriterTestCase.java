@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.tck.junit4.AbstractMuleContextTestCase.RECEIVE_TIMEOUT;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.internal.util.journal.GroupCommitJournalWriter.Batch;
+import org.mule.runtime.core.internal.util.journal.GroupCommitJournalWriter.FsyncPolicy;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@SmallTest
+@RunWith(Parameterized.class)
+public class GroupCommitJournalWriterTestCase extends AbstractMuleTestCase {
+
+  private static final int WRITERS = 8;
+  private static final int RECORDS_PER_WRITER = 100;
+
+  @Parameters(name = "{0}")
+  public static Collection<Object[]> parameters() {
+    List<Object[]> parameters = new ArrayList<>();
+    for (FsyncPolicy policy : FsyncPolicy.values()) {
+      parameters.add(new Object[] {policy});
+    }
+    return parameters;
+  }
+
+  private final FsyncPolicy fsyncPolicy;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final ScheduledExecutorService flushExecutor = newScheduledThreadPool(2);
+  private GroupCommitJournalWriter writer;
+
+  public GroupCommitJournalWriterTestCase(FsyncPolicy fsyncPolicy) {
+    this.fsyncPolicy = fsyncPolicy;
+  }
+
+  @After
+  public void after() {
+    if (writer != null) {
+      writer.close();
+    }
+    flushExecutor.shutdownNow();
+  }
+
+  @Test
+  public void recordsWrittenWhenReleased() throws Exception {
+    File file = temporaryFolder.newFile();
+    writer = new GroupCommitJournalWriter(file, flushExecutor, fsyncPolicy, 4, 5);
+
+    writer.await(writer.append(new byte[] {1, 2}));
+    writer.await(writer.append(new byte[] {3}));
+
+    assertThat(Files.readAllBytes(file.toPath()), is(new byte[] {1, 2, 3}));
+  }
+
+  @Test
+  public void concurrentWriters() throws Exception {
+    File file = temporaryFolder.newFile();
+    writer = new GroupCommitJournalWriter(file, flushExecutor, fsyncPolicy, 16, 5);
+
+    ExecutorService executor = newFixedThreadPool(WRITERS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < WRITERS; ++i) {
+        final byte value = (byte) i;
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < RECORDS_PER_WRITER; ++j) {
+            writer.await(writer.append(new byte[] {value}));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(RECEIVE_TIMEOUT, MILLISECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int[] counts = new int[WRITERS];
+    for (byte value : Files.readAllBytes(file.toPath())) {
+      counts[value]++;
+    }
+    for (int count : counts) {
+      assertThat(count, is(RECORDS_PER_WRITER));
+    }
+  }
+
+  @Test
+  public void pendingRecordsWrittenOnClose() throws Exception {
+    File file = temporaryFolder.newFile();
+    writer = new GroupCommitJournalWriter(file, flushExecutor, fsyncPolicy, 1000, 60000);
+
+    Batch batch = writer.append(new byte[] {1});
+    writer.append(new byte[] {2});
+    writer.close();
+    writer.await(batch);
+
+    assertThat(Files.readAllBytes(file.toPath()), is(new byte[] {1, 2}));
+  }
+
+  @Test
+  public void truncate() throws Exception {
+    File file = temporaryFolder.newFile();
+    writer = new GroupCommitJournalWriter(file, flushExecutor, fsyncPolicy, 4, 5);
+
+    writer.await(writer.append(new byte[] {1, 2}));
+    writer.truncate();
+    writer.await(writer.append(new byte[] {3}));
+
+    assertThat(Files.readAllBytes(file.toPath()), is(new byte[] {3}));
+  }
+
+  @Test
+  public void recordsWrittenByWaitingThreadWhenFlushRejected() throws Exception {
+    File file = temporaryFolder.newFile();
+    ScheduledExecutorService rejectingExecutor = newSingleThreadScheduledExecutor();
+    rejectingExecutor.shutdown();
+    writer = new GroupCommitJournalWriter(file, rejectingExecutor, fsyncPolicy, 4, 5);
+
+    Batch first = writer.append(new byte[] {1});
+    Batch second = writer.append(new byte[] {2});
+    writer.await(second);
+    writer.await(first);
+
+    assertThat(Files.readAllBytes(file.toPath()), is(new byte[] {1, 2}));
+  }
+
+  @Test
+  public void recordsWrittenByWaitingThreadWithoutExecutor() throws Exception {
+    File file = temporaryFolder.newFile();
+    writer = new GroupCommitJournalWriter(file, null, fsyncPolicy, 4, 60000);
+
+    writer.await(writer.append(new byte[] {1}));
+    writer.await(writer.append(new byte[] {2}));
+
+    assertThat(Files.readAllBytes(file.toPath()), is(new byte[] {1, 2}));
+  }
+
+  @Test
+  public void noThreadHeldWhenIdle() throws Exception {
+    ThreadPoolExecutor executor = (ThreadPoolExecutor) flushExecutor;
+    writer = new GroupCommitJournalWriter(temporaryFolder.newFile(), flushExecutor, fsyncPolicy, 4, 5);
+    writer.await(writer.append(new byte[] {1}));
+
+    new PollingProber().check(new JUnitLambdaProbe(() -> executor.getActiveCount() == 0));
+  }
+
+  @Test
+  public void noThreadHeldWhileWaitingForForce() throws Exception {
+    ThreadPoolExecutor executor = (ThreadPoolExecutor) flushExecutor;
+    File file = temporaryFolder.newFile();
+    writer = new GroupCommitJournalWriter(file, flushExecutor, fsyncPolicy, 1000, 60000);
+    Batch batch = writer.append(new byte[] {1});
+
+    new PollingProber().check(new JUnitLambdaProbe(() -> executor.getActiveCount() == 0));
+    writer.close();
+    writer.await(batch);
+    assertThat(Files.readAllBytes(file.toPath()), is(new byte[] {1}));
+  }
+
+  @Test(expected = MuleRuntimeException.class)
+  public void appendAfterClose() throws Exception {
+    writer = new GroupCommitJournalWriter(temporaryFolder.newFile(), flushExecutor, fsyncPolicy, 4, 5);
+    writer.close();
+    writer.append(new byte[] {1});
+  }
+}
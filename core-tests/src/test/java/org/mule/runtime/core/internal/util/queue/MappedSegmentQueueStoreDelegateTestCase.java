@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.ArgumentCaptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class MappedSegmentQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final int SEGMENT_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  private MuleContext mockMuleContext;
+  private MappedSegmentQueueStoreDelegate queue;
+
+  @Before
+  public void before() {
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+    queue = createQueue(TEST_QUEUE_NAME);
+  }
+
+  @After
+  public void after() {
+    queue.dispose();
+  }
+
+  @Test
+  public void fifo() throws Exception {
+    queue.putNow("1");
+    queue.putNow("2");
+    queue.putNow("3");
+
+    assertThat(queue.getSize(), is(3));
+    assertThat(queue.peek(), is("1"));
+    assertThat(queue.poll(0), is("1"));
+    assertThat(queue.poll(0), is("2"));
+    assertThat(queue.poll(0), is("3"));
+    assertThat(queue.poll(0), is(nullValue()));
+  }
+
+  @Test
+  public void untake() throws Exception {
+    queue.putNow("1");
+    queue.putNow("2");
+    Serializable taken = queue.poll(0);
+    queue.untake(taken);
+    queue.untake("0");
+
+    assertThat(queue.allElements(), contains("0", "1", "2"));
+  }
+
+  @Test
+  public void entriesRecoveredAfterClose() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      queue.putNow(i);
+    }
+    for (int i = 0; i < 40; i++) {
+      queue.poll(0);
+    }
+    queue.untake("head");
+    queue.close();
+
+    queue = createQueue(TEST_QUEUE_NAME);
+    assertThat(queue.getSize(), is(61));
+    assertThat(queue.poll(0), is("head"));
+    for (int i = 40; i < 100; i++) {
+      assertThat(queue.poll(0), is(i));
+    }
+
+    queue.putNow("tail");
+    queue.close();
+    queue = createQueue(TEST_QUEUE_NAME);
+    assertThat(queue.allElements(), contains("tail"));
+  }
+
+  @Test
+  public void consumedSegmentsAreDeleted() throws Exception {
+    for (int i = 0; i < 200; i++) {
+      queue.putNow(i);
+    }
+    assertThat(queue.getSegmentsCount() > 1, is(true));
+
+    for (int i = 0; i < 200; i++) {
+      assertThat(queue.poll(0), is(i));
+    }
+    assertThat(queue.getSegmentsCount(), is(1));
+  }
+
+  @Test
+  public void sparseSegmentsAreCompacted() throws Exception {
+    for (int i = 0; i < 200; i++) {
+      queue.putNow(i);
+    }
+    int segments = queue.getSegmentsCount();
+
+    List<Serializable> expected = new ArrayList<>();
+    expected.add(0);
+    for (int i = 1; i < 200; i++) {
+      if (i % 10 == 0) {
+        expected.add(i);
+      } else {
+        queue.remove(i);
+      }
+    }
+
+    assertThat(queue.getSegmentsCount() < segments, is(true));
+    assertThat(queue.allElements(), is(expected));
+
+    queue.close();
+    queue = createQueue(TEST_QUEUE_NAME);
+    assertThat(queue.allElements(), is(expected));
+  }
+
+  @Test
+  public void entryBiggerThanSegment() throws Exception {
+    char[] chars = new char[SEGMENT_SIZE * 4];
+    String big = new String(chars);
+    queue.putNow("small");
+    queue.putNow(big);
+    queue.putNow("after");
+
+    assertThat(queue.poll(0), is("small"));
+    assertThat(queue.poll(0), is(big));
+    assertThat(queue.poll(0), is("after"));
+  }
+
+  @Test
+  public void containsAndRemove() throws Exception {
+    queue.putNow("1");
+    queue.putNow("2");
+
+    assertThat(queue.contains("2"), is(true));
+    queue.remove("2");
+    assertThat(queue.contains("2"), is(false));
+    assertThat(queue.getSize(), is(1));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    for (int i = 0; i < 200; i++) {
+      queue.putNow(i);
+    }
+    queue.clear();
+
+    assertThat(queue.getSize(), is(0));
+    assertThat(queue.getSegmentsCount(), is(1));
+    queue.putNow("1");
+    assertThat(queue.poll(0), is("1"));
+  }
+
+  @Test
+  public void nameWithInvalidCharacters() throws Exception {
+    String[] testNames = new String[] {"test:/test", "test?test", "test:\\test", "test|test",
+        "seda.queue(post:\\Customer:ApiTest-config.1)"};
+
+    for (String testName : testNames) {
+      MappedSegmentQueueStoreDelegate namedQueue = createQueue(testName);
+      namedQueue.putNow("1");
+      namedQueue.dispose();
+    }
+    assertThat(new File(workingDirectory.getRoot(), "queuestore").list().length, is(1));
+  }
+
+  @Test
+  public void allFilesDeletedAfterDispose() throws Exception {
+    queue.putNow("1");
+    queue.dispose();
+
+    assertThat(new File(workingDirectory.getRoot(), "queuestore").list().length, is(0));
+    queue = createQueue(TEST_QUEUE_NAME);
+  }
+
+  @Test
+  public void forceScheduledWhenIdle() throws Exception {
+    ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    ScheduledFuture<?> scheduledForce = mock(ScheduledFuture.class);
+    doReturn(scheduledForce).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    MappedSegmentQueueStoreDelegate batchedQueue = createQueue("batched-queue", 100, 60000, scheduler);
+    try {
+      batchedQueue.putNow("1");
+      batchedQueue.putNow("2");
+
+      ArgumentCaptor<Runnable> forceCaptor = ArgumentCaptor.forClass(Runnable.class);
+      verify(scheduler).schedule(forceCaptor.capture(), anyLong(), any(TimeUnit.class));
+
+      forceCaptor.getValue().run();
+      batchedQueue.putNow("3");
+      verify(scheduler, times(2)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    } finally {
+      batchedQueue.dispose();
+    }
+    verify(scheduledForce).cancel(false);
+  }
+
+  @Test
+  public void closedQueueRecovered() throws Exception {
+    queue.putNow("1");
+    queue.putNow("2");
+    queue.close();
+
+    queue = createQueue(TEST_QUEUE_NAME);
+    assertThat(queue.allElements(), contains("1", "2"));
+  }
+
+  private MappedSegmentQueueStoreDelegate createQueue(String name) {
+    return createQueue(name, 1, 0, null);
+  }
+
+  private MappedSegmentQueueStoreDelegate createQueue(String name, int forceBatchSize, long forceIntervalMillis,
+                                                     ScheduledExecutorService scheduler) {
+    return new MappedSegmentQueueStoreDelegate(name, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0,
+                                               SEGMENT_SIZE, forceBatchSize, forceIntervalMillis, scheduler);
+  }
+}
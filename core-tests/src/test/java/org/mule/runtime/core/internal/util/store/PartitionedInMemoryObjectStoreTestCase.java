@@ -9,7 +9,9 @@ package org.mule.runtime.core.internal.util.store;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.tck.junit4.AbstractMuleTestCase;
@@ -22,6 +24,7 @@ import org.junit.Test;
 public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase {
 
   private static final String TEST_PARTITION = "testPartition";
+  private static final String OTHER_PARTITION = "otherPartition";
   private static final String TEST_VALUE = "testValue";
   private static final String TEST_KEY1 = "testKey1";
   private static final String TEST_KEY2 = "testKey2";
@@ -88,5 +91,79 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
     assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
   }
 
+  @Test
+  public void expireRemovedKeyStoredAgain() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(10, 100, TEST_PARTITION);
+    store.remove(TEST_KEY1, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(5);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(11);
+    store.expire(10, 100, TEST_PARTITION);
+    assertThat(store.retrieve(TEST_KEY1, TEST_PARTITION), equalTo(TEST_VALUE));
+
+    currentNanoTime = MILLISECONDS.toNanos(15);
+    store.expire(10, 100, TEST_PARTITION);
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+  }
+
+  @Test
+  public void expireKeepsTtlOfEachPartition() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY1, TEST_VALUE, OTHER_PARTITION);
+    store.expire(10, 100, TEST_PARTITION);
+    store.expire(100, 100, OTHER_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(50);
+    store.expire(100, 100, OTHER_PARTITION);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+    assertThat(store.contains(TEST_KEY1, OTHER_PARTITION), is(true));
+  }
+
+  @Test
+  public void clearedEntriesNotExpired() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(10, 100, TEST_PARTITION);
+    store.clear(TEST_PARTITION);
 
+    currentNanoTime = MILLISECONDS.toNanos(50);
+    store.expire(10, 100, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION).isEmpty(), is(true));
+    assertThat(store.getExpiredEntriesCount(TEST_PARTITION), is(0L));
+  }
+
+  @Test
+  public void removedBeforeExpireNotEvicted() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+    store.remove(TEST_KEY1, TEST_PARTITION);
+
+    store.expire(UNBOUNDED, 1, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION), contains(TEST_KEY3));
+    assertThat(store.getEvictedEntriesCount(TEST_PARTITION), is(1L));
+  }
+
+  @Test
+  public void evictionStatistics() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    currentNanoTime = MILLISECONDS.toNanos(20);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    store.expire(UNBOUNDED, 2, TEST_PARTITION);
+    assertThat(store.getEvictedEntriesCount(TEST_PARTITION), is(1L));
+    assertThat(store.getExpiredEntriesCount(TEST_PARTITION), is(0L));
+
+    store.expire(10, 2, TEST_PARTITION);
+    assertThat(store.getEvictedEntriesCount(TEST_PARTITION), is(1L));
+    assertThat(store.getExpiredEntriesCount(TEST_PARTITION), is(1L));
+    assertThat(store.allKeys(TEST_PARTITION), contains(TEST_KEY3));
+    assertThat(store.getExpiredEntriesCount(OTHER_PARTITION), is(0L));
+  }
 }
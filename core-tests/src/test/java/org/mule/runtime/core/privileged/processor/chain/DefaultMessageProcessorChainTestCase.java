@@ -26,6 +26,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -833,6 +834,50 @@ public class DefaultMessageProcessorChainTestCase extends AbstractReactiveProces
     }
   }
 
+  @Test
+  public void testFusedProcessorsNotifications() throws Exception {
+    List<MessageProcessorNotification> notificationList = new ArrayList<>();
+    setupMessageProcessorNotificationListener(notificationList);
+    DefaultMessageProcessorChainBuilder builder = new DefaultMessageProcessorChainBuilder();
+    builder.chain(new AppendingMP("1"), new AppendingMP("2"));
+    final CoreEvent inEvent = getTestEventUsingFlow("0");
+    assertThat(process(builder.build(), inEvent).getMessage().getPayload().getValue(), equalTo("012"));
+    assertThat(notificationList, hasSize(4));
+    assertPreNotification(inEvent, notificationList.get(0));
+    assertThat(notificationList.get(1).getAction().getActionId(), equalTo(MESSAGE_PROCESSOR_POST_INVOKE));
+    assertThat(notificationList.get(1).getEvent().getMessage().getPayload().getValue(), equalTo("01"));
+    assertThat(notificationList.get(2).getAction().getActionId(), equalTo(MESSAGE_PROCESSOR_PRE_INVOKE));
+    assertThat(notificationList.get(2).getEvent().getMessage().getPayload().getValue(), equalTo("01"));
+    assertThat(notificationList.get(3).getAction().getActionId(), equalTo(MESSAGE_PROCESSOR_POST_INVOKE));
+    assertThat(notificationList.get(3).getEvent().getMessage().getPayload().getValue(), equalTo("012"));
+  }
+
+  @Test
+  public void testExceptionBetweenFusedProcessors() throws Exception {
+    List<MessageProcessorNotification> notificationList = new ArrayList<>();
+    setupMessageProcessorNotificationListener(notificationList);
+    AppendingMP before = new AppendingMP("1");
+    AppendingMP after = new AppendingMP("2");
+    DefaultMessageProcessorChainBuilder builder = new DefaultMessageProcessorChainBuilder();
+    builder.chain(before, new ExceptionThrowingMessageProcessor(illegalStateException), after);
+    final CoreEvent inEvent = getTestEventUsingFlow("0");
+    try {
+      process(builder.build(), inEvent);
+    } catch (Throwable t) {
+      assertThat(t, is(illegalStateException));
+      assertThat(before.event, not(nullValue()));
+      assertThat(after.event, is(nullValue()));
+      assertThat(notificationList, hasSize(4));
+      assertThat(notificationList.get(2).getAction().getActionId(), equalTo(MESSAGE_PROCESSOR_PRE_INVOKE));
+      assertThat(notificationList.get(2).getEvent().getMessage().getPayload().getValue(), equalTo("01"));
+      assertThat(notificationList.get(3).getAction().getActionId(), equalTo(MESSAGE_PROCESSOR_POST_INVOKE));
+      assertThat(notificationList.get(3).getException(), is(instanceOf(MessagingException.class)));
+      assertThat(notificationList.get(3).getException().getCause(), is(illegalStateException));
+      return;
+    }
+    fail("Exception expected");
+  }
+
   private void setupMessageProcessorNotificationListener(List<MessageProcessorNotification> notificationList) {
     muleContext.getNotificationManager().addInterfaceToType(MessageProcessorNotificationListener.class,
                                                             MessageProcessorNotification.class);
@@ -195,10 +195,21 @@ public class MuleProperties {
   public static final String MULE_SECURITY_PROVIDER_PROPERTY = SYSTEM_PROPERTY_PREFIX + "security.provider";
   public static final String MULE_STREAMING_BUFFER_SIZE = SYSTEM_PROPERTY_PREFIX + "streaming.bufferSize";
   public static final String MULE_STREAMING_MAX_MEMORY = SYSTEM_PROPERTY_PREFIX + "max.streaming.memory";
+  public static final String MULE_STREAMING_DIRECT_BUFFERS = SYSTEM_PROPERTY_PREFIX + "streaming.directBuffers";
+  public static final String MULE_NOTIFICATIONS_QUEUE_SIZE = SYSTEM_PROPERTY_PREFIX + "notifications.queueSize";
+  public static final String MULE_NOTIFICATIONS_OVERFLOW_POLICY = SYSTEM_PROPERTY_PREFIX + "notifications.overflowPolicy";
   public static final String MULE_SIMPLE_LOG = SYSTEM_PROPERTY_PREFIX + "simpleLog";
   public static final String MULE_FORCE_CONSOLE_LOG = SYSTEM_PROPERTY_PREFIX + "forceConsoleLog";
   public static final String MULE_LOG_CONTEXT_DISPOSE_DELAY_MILLIS = SYSTEM_PROPERTY_PREFIX + "log.context.dispose.delay.millis";
   public static final String MULE_FLOW_TRACE = SYSTEM_PROPERTY_PREFIX + "flowTrace";
+  public static final String MULE_PROCESSOR_CHAIN_FUSION_DISABLED = SYSTEM_PROPERTY_PREFIX + "processorChain.fusion.disabled";
+  public static final String MULE_UNFAIR_LOCKS = SYSTEM_PROPERTY_PREFIX + "lock.unfair";
+  public static final String MULE_CONCURRENT_CONNECTION_POOL = SYSTEM_PROPERTY_PREFIX + "connection.pool.concurrent";
+  public static final String MULE_PAGING_PREFETCH_PAGES = SYSTEM_PROPERTY_PREFIX + "paging.prefetch.pages";
+  public static final String MULE_TLS_SESSION_CACHE_SIZE = SYSTEM_PROPERTY_PREFIX + "tls.session.cacheSize";
+  public static final String MULE_TLS_SESSION_TIMEOUT = SYSTEM_PROPERTY_PREFIX + "tls.session.timeout";
+  public static final String MULE_TLS_RELOAD_CHECK_INTERVAL = SYSTEM_PROPERTY_PREFIX + "tls.reload.checkInterval";
+  public static final String MULE_TLS_COUNT_HANDSHAKES = SYSTEM_PROPERTY_PREFIX + "tls.handshake.count";
   public static final String MULE_LOG_VERBOSE_CLASSLOADING = SYSTEM_PROPERTY_PREFIX + "classloading.verbose";
   public static final String MULE_MEL_AS_DEFAULT = SYSTEM_PROPERTY_PREFIX + "test.mel.default";
   public static final String MULE_DISABLE_RESPONSE_TIMEOUT = SYSTEM_PROPERTY_PREFIX + "timeout.disable";
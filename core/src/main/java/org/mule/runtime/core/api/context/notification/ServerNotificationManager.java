@@ -6,9 +6,14 @@
  */
 package org.mule.runtime.core.api.context.notification;
 
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
 import static java.lang.Thread.currentThread;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_NOTIFICATIONS_OVERFLOW_POLICY;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_NOTIFICATIONS_QUEUE_SIZE;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.notification.AbstractServerNotification;
@@ -47,6 +52,8 @@ import org.mule.runtime.api.util.concurrent.Latch;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.core.internal.context.notification.AsyncListenerNotifier;
+import org.mule.runtime.core.internal.context.notification.AsyncListenerNotifier.OverflowPolicy;
 import org.mule.runtime.core.internal.context.notification.Configuration;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.privileged.context.notification.OptimisedNotificationHandler;
@@ -54,6 +61,8 @@ import org.mule.runtime.core.privileged.context.notification.OptimisedNotificati
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
@@ -85,11 +94,20 @@ import org.slf4j.Logger;
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
  * <li>Enquiring whether an event is enabled returns true if any subclass is enabled.</li>
  * </ul>
+ *
+ * <p>
+ * Asynchronous notifications are queued per listener and delivered in batches by an {@link AsyncListenerNotifier}, so that
+ * firing a notification doesn't imply a scheduler submission for each listener. The size of those queues and what to do when
+ * one is full can be set through the {@code mule.notifications.queueSize} and {@code mule.notifications.overflowPolicy}
+ * system properties.
+ * </p>
  */
 public class ServerNotificationManager implements ServerNotificationHandler, MuleContextAware {
 
   private static final Logger logger = getLogger(ServerNotificationManager.class);
 
+  public static final int DEFAULT_NOTIFICATIONS_QUEUE_SIZE = 4096;
+
   private boolean dynamic = false;
   private Configuration configuration = new Configuration();
   private AtomicInteger activeFires = new AtomicInteger();
@@ -98,6 +116,23 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   private MuleContext muleContext;
   private Scheduler notificationsLiteScheduler;
   private Scheduler notificationsIoScheduler;
+  private final ConcurrentMap<NotificationListener, AsyncListenerNotifier> asyncNotifiers = new ConcurrentHashMap<>();
+  private int notificationsQueueSize = getInteger(MULE_NOTIFICATIONS_QUEUE_SIZE, DEFAULT_NOTIFICATIONS_QUEUE_SIZE);
+  private OverflowPolicy notificationsOverflowPolicy = parseOverflowPolicy(getProperty(MULE_NOTIFICATIONS_OVERFLOW_POLICY));
+
+  private static OverflowPolicy parseOverflowPolicy(String value) {
+    if (value == null) {
+      return OverflowPolicy.BLOCK;
+    }
+
+    try {
+      return OverflowPolicy.valueOf(value.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      logger.warn("Invalid value '{}' for system property '{}'. Using {} instead", value, MULE_NOTIFICATIONS_OVERFLOW_POLICY,
+                  OverflowPolicy.BLOCK);
+      return OverflowPolicy.BLOCK;
+    }
+  }
 
   @Override
   public boolean isNotificationDynamic() {
@@ -113,6 +148,14 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     this.dynamic = dynamic;
   }
 
+  /**
+   * @param notificationsQueueSize the max amount of asynchronous notifications that can be waiting for delivery to each
+   *                               listener. Only applies to listeners which haven't been notified yet.
+   */
+  public void setNotificationsQueueSize(int notificationsQueueSize) {
+    this.notificationsQueueSize = notificationsQueueSize;
+  }
+
   /**
    * Do not make this object {@link org.mule.runtime.api.lifecycle.Initialisable}. It needs to be initialised before every other
    * object to send notifications.
@@ -150,6 +193,10 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    */
   public void removeListener(NotificationListener<?> listener) {
     configuration.removeListener(listener);
+    AsyncListenerNotifier notifier = asyncNotifiers.remove(listener);
+    if (notifier != null) {
+      notifier.clear();
+    }
   }
 
   public void disableInterface(Class<? extends NotificationListener> iface) {
@@ -190,13 +237,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       if (notification.isSynchronous()) {
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
       } else {
-        notifyListeners(notification, (listener, nfn) -> {
-          if (listener.isBlocking()) {
-            notificationsIoScheduler.submit(() -> listener.onNotification(nfn));
-          } else {
-            notificationsLiteScheduler.submit(() -> listener.onNotification(nfn));
-          }
-        });
+        notifyListeners(notification, (listener, nfn) -> getAsyncNotifier(listener).dispatch(nfn));
       }
     } finally {
       if (0 == activeFires.decrementAndGet() && disposed.get()) {
@@ -205,6 +246,16 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     }
   }
 
+  private AsyncListenerNotifier getAsyncNotifier(NotificationListener listener) {
+    AsyncListenerNotifier notifier = asyncNotifiers.get(listener);
+    if (notifier == null) {
+      notifier = asyncNotifiers.computeIfAbsent(listener, l -> new AsyncListenerNotifier(l, l.isBlocking()
+          ? notificationsIoScheduler
+          : notificationsLiteScheduler, notificationsQueueSize, notificationsOverflowPolicy, DEFAULT_MAX_POOL_WAIT));
+    }
+    return notifier;
+  }
+
   protected void notifyListeners(Notification notification, NotifierCallback notifier) {
     configuration.getPolicy().dispatch(notification, notifier);
   }
@@ -237,6 +288,9 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       }
     }
 
+    asyncNotifiers.values().forEach(AsyncListenerNotifier::clear);
+    asyncNotifiers.clear();
+
     if (notificationsLiteScheduler != null) {
       notificationsLiteScheduler.stop();
       notificationsLiteScheduler = null;
@@ -283,6 +337,20 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     return disposed.get();
   }
 
+  /**
+   * @return the amount of asynchronous notifications currently waiting for delivery, across all listeners
+   */
+  public long getQueuedNotificationsCount() {
+    return asyncNotifiers.values().stream().mapToLong(AsyncListenerNotifier::getQueuedCount).sum();
+  }
+
+  /**
+   * @return the amount of asynchronous notifications which were discarded because the queue of their listener was full
+   */
+  public long getDroppedNotificationsCount() {
+    return asyncNotifiers.values().stream().mapToLong(AsyncListenerNotifier::getDroppedCount).sum();
+  }
+
   /**
    * @return a {@link ServerNotificationManager} with the default configuration for Mule notifications
    */
@@ -442,6 +442,21 @@ class MuleExtensionModelDeclarer {
         .withExpressionSupport(NOT_SUPPORTED)
         .describedAs("Property name used to store the number of message being iterated.");
 
+    forEach.onDefaultParameterGroup()
+        .withOptionalParameter("maxConcurrency")
+        .ofType(typeLoader.load(Integer.class))
+        .defaultingTo(1)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("The maximum amount of elements to process at the same time. When greater than one, each element is "
+            + "processed from the message that arrived to foreach, and the variables of the results are merged.");
+
+    forEach.onDefaultParameterGroup()
+        .withOptionalParameter("preserveOrder")
+        .ofType(typeLoader.load(boolean.class))
+        .defaultingTo(true)
+        .withExpressionSupport(NOT_SUPPORTED)
+        .describedAs("When elements are processed at the same time, whether the variables of the results are merged in the order "
+            + "of the collection, as opposed to the order in which they complete.");
   }
 
   private void declareUntilSuccessful(ExtensionDeclarer extensionDeclarer, ClassTypeLoader typeLoader) {
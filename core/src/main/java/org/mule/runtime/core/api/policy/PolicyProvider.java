@@ -37,4 +37,19 @@ public interface PolicyProvider {
    */
   List<Policy> findOperationParameterizedPolicies(PolicyPointcutParameters policyPointcutParameters);
 
+  /**
+   * Registers a listener to be called every time a policy is added or removed from this provider.
+   * <p>
+   * The policies found for a set of pointcut parameters are only cached when the provider commits to calling the listener,
+   * by returning {@code true}. Otherwise they are looked up for every event, as the policies of the provider may change at
+   * any time.
+   *
+   * @param policiesChangedListener the listener to call when the policies change.
+   * @return whether the listener will be called when the policies change. {@code false} by default.
+   * @since 4.1
+   */
+  default boolean onPoliciesChanged(Runnable policiesChangedListener) {
+    return false;
+  }
+
 }
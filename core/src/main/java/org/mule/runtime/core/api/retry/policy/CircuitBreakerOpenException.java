@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.retry.policy;
+
+import org.mule.runtime.api.connection.ConnectionException;
+
+/**
+ * This exception is thrown instead of attempting an operation when the circuit of a {@link CircuitBreakerRetryPolicyTemplate} is
+ * open, because the previous attempts failed.
+ *
+ * @since 4.1
+ */
+public class CircuitBreakerOpenException extends ConnectionException {
+
+  private static final long serialVersionUID = -2541683475315493108L;
+
+  public CircuitBreakerOpenException() {
+    super("Circuit is open after repeated failures, the attempt was not done");
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.retry.policy;
+
+import org.mule.runtime.core.api.retry.RetryCallback;
+import org.mule.runtime.core.api.retry.RetryContext;
+import org.mule.runtime.core.internal.retry.policies.CircuitBreaker;
+import org.mule.runtime.core.internal.retry.policies.CircuitBreakerRetryPolicy;
+
+import java.util.concurrent.Executor;
+
+/**
+ * This policy guards the retries of another {@link RetryPolicyTemplate} with a circuit breaker shared by every execution of this
+ * template, such as all the operations over the connections of a connection provider.
+ * <p>
+ * After {@code failureThreshold} consecutive failed attempts the circuit is opened, and for the following {@code openTimeout}
+ * milliseconds executions fail right away with a {@link CircuitBreakerOpenException} without being attempted or retried. Then a
+ * single trial attempt is let through, which closes the circuit again if it succeeds.
+ *
+ * @since 4.1
+ */
+public class CircuitBreakerRetryPolicyTemplate extends AbstractPolicyTemplate {
+
+  private final RetryPolicyTemplate delegate;
+  private final CircuitBreaker circuitBreaker;
+
+  /**
+   * @param delegate         the template whose policies do the retries while the circuit is closed
+   * @param failureThreshold the amount of consecutive failed attempts that open the circuit
+   * @param openTimeout      the time in milliseconds the circuit stays open before a trial attempt is let through
+   */
+  public CircuitBreakerRetryPolicyTemplate(RetryPolicyTemplate delegate, int failureThreshold, long openTimeout) {
+    this.delegate = delegate;
+    this.circuitBreaker = new CircuitBreaker(failureThreshold, openTimeout);
+  }
+
+  @Override
+  public RetryPolicy createRetryInstance() {
+    return new CircuitBreakerRetryPolicy(circuitBreaker, delegate.createRetryInstance());
+  }
+
+  @Override
+  public RetryContext execute(RetryCallback callback, Executor workManager) throws Exception {
+    return super.execute(new RetryCallback() {
+
+      @Override
+      public void doWork(RetryContext context) throws Exception {
+        if (!circuitBreaker.tryAcquire()) {
+          throw new CircuitBreakerOpenException();
+        }
+        try {
+          callback.doWork(context);
+        } catch (Exception e) {
+          circuitBreaker.onFailure();
+          throw e;
+        } catch (Error e) {
+          circuitBreaker.onAbort();
+          throw e;
+        }
+        circuitBreaker.onSuccess();
+      }
+
+      @Override
+      public String getWorkDescription() {
+        return callback.getWorkDescription();
+      }
+
+      @Override
+      public Object getWorkOwner() {
+        return callback.getWorkOwner();
+      }
+    }, workManager);
+  }
+
+  /**
+   * @return the state of the circuit shared by the executions of this template.
+   */
+  public CircuitBreaker.State getCircuitState() {
+    return circuitBreaker.getState();
+  }
+
+  public RetryPolicyTemplate getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public String toString() {
+    return "CircuitBreakerRetryPolicy{delegate=" + delegate + ", state=" + circuitBreaker.getState() + "}";
+  }
+}
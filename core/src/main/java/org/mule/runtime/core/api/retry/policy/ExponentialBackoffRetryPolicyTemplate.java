@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.retry.policy;
+
+import static org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate.DEFAULT_FREQUENCY;
+import static org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate.DEFAULT_RETRY_COUNT;
+
+import org.mule.runtime.core.internal.retry.policies.ExponentialBackoffRetryPolicy;
+
+/**
+ * This policy allows the user to configure how many times a retry should be attempted, waiting an exponentially growing and
+ * randomized time between retries. Since the time is randomized, executions that fail at the same time don't retry at the same
+ * time.
+ *
+ * @since 4.1
+ */
+public class ExponentialBackoffRetryPolicyTemplate extends AbstractPolicyTemplate {
+
+  public static final long DEFAULT_MAX_DELAY = 60000;
+
+  protected volatile int count = DEFAULT_RETRY_COUNT;
+  protected volatile long baseDelay = DEFAULT_FREQUENCY;
+  protected volatile long maxDelay = DEFAULT_MAX_DELAY;
+
+  public ExponentialBackoffRetryPolicyTemplate() {
+    super();
+  }
+
+  public ExponentialBackoffRetryPolicyTemplate(long baseDelay, long maxDelay, int retryCount) {
+    this.baseDelay = baseDelay;
+    this.maxDelay = maxDelay;
+    this.count = retryCount;
+  }
+
+  public long getBaseDelay() {
+    return baseDelay;
+  }
+
+  public long getMaxDelay() {
+    return maxDelay;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public void setBaseDelay(long baseDelay) {
+    this.baseDelay = baseDelay;
+  }
+
+  public void setMaxDelay(long maxDelay) {
+    this.maxDelay = maxDelay;
+  }
+
+  public void setCount(int count) {
+    this.count = count;
+  }
+
+  @Override
+  public RetryPolicy createRetryInstance() {
+    return new ExponentialBackoffRetryPolicy(baseDelay, maxDelay, count);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("ExponentialBackoffRetryPolicy");
+    sb.append("{baseDelay=").append(baseDelay);
+    sb.append(", maxDelay=").append(maxDelay);
+    sb.append(", retryCount=").append(count);
+    sb.append('}');
+
+    return sb.toString();
+  }
+}
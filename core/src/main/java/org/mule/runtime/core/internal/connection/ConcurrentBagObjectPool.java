@@ -0,0 +1,433 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.pool.ObjectPool;
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.slf4j.Logger;
+
+/**
+ * An {@link ObjectPool} which doesn't acquire any lock to borrow or return an object while there are idle ones.
+ * <p>
+ * Each pooled object is kept in an entry whose state is changed with a compare and swap. Objects are borrowed first from the
+ * entries last returned by the same thread, which are likely to be still available and not contended by other threads, then
+ * from any entry of the pool. Only when no entry is available, the borrowing thread creates a new object or waits for another
+ * thread to hand one over, as configured by the {@link PoolingProfile}.
+ * <p>
+ * Idle objects are evicted and validated by a task on the {@code IO} scheduler, so borrowing threads don't pay for it.
+ * <p>
+ * The {@link ConnectionPoolStatistics} of the pool are included in the errors raised when it is exhausted, and logged at debug
+ * level after each eviction run and when the pool is closed.
+ *
+ * @param <T> the generic type of the pooled objects
+ * @since 4.1
+ */
+final class ConcurrentBagObjectPool<T> implements ObjectPool<T> {
+
+  private static final Logger LOGGER = getLogger(ConcurrentBagObjectPool.class);
+
+  private static final int NOT_IN_USE = 0;
+  private static final int IN_USE = 1;
+  private static final int RESERVED = 2;
+  private static final int REMOVED = 3;
+
+  private static final int MAX_THREAD_LOCAL_ENTRIES = 16;
+
+  private final PoolableObjectFactory<T> factory;
+  private final int maxActive;
+  private final int maxIdle;
+  private final long maxWaitNanos;
+  private final int exhaustedAction;
+  private final long minEvictionMillis;
+
+  private final List<PoolEntry<T>> entries = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<List<WeakReference<PoolEntry<T>>>> threadEntries = ThreadLocal.withInitial(ArrayList::new);
+  private final SynchronousQueue<PoolEntry<T>> handoffQueue = new SynchronousQueue<>(true);
+  // Handed over to waiting threads to let them know that they may create a new object
+  private final PoolEntry<T> slotReleased = new PoolEntry<>(null, REMOVED);
+
+  private final AtomicInteger totalCount = new AtomicInteger();
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final LongAdder createdCount = new LongAdder();
+  private final LongAdder destroyedCount = new LongAdder();
+  private final LatencyHistogram waitTimes = new LatencyHistogram();
+  private final LatencyHistogram creationTimes = new LatencyHistogram();
+
+  private final Scheduler evictionScheduler;
+  private volatile boolean closed = false;
+
+  /**
+   * Creates a new instance
+   *
+   * @param factory          the {@link PoolableObjectFactory} used to create, validate and destroy the pooled objects
+   * @param poolingProfile   the {@link PoolingProfile} which configures this pool
+   * @param schedulerService the {@link SchedulerService} providing the scheduler for the eviction task
+   */
+  ConcurrentBagObjectPool(PoolableObjectFactory<T> factory, PoolingProfile poolingProfile, SchedulerService schedulerService) {
+    this.factory = factory;
+    maxActive = poolingProfile.getMaxActive();
+    maxIdle = poolingProfile.getMaxIdle();
+    maxWaitNanos = MILLISECONDS.toNanos(poolingProfile.getMaxWait());
+    exhaustedAction = poolingProfile.getExhaustedAction();
+    minEvictionMillis = poolingProfile.getMinEvictionMillis();
+
+    long evictionInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    if (evictionInterval > 0) {
+      evictionScheduler = schedulerService.ioScheduler();
+      evictionScheduler.scheduleWithFixedDelay(this::evict, evictionInterval, evictionInterval, MILLISECONDS);
+    } else {
+      evictionScheduler = null;
+    }
+  }
+
+  @Override
+  public T borrowObject() throws Exception {
+    assertOpen();
+    long start = nanoTime();
+
+    PoolEntry<T> entry = borrowIdle();
+    if (entry == null) {
+      entry = borrowExhausted(start);
+    }
+
+    activeCount.incrementAndGet();
+    waitTimes.record(nanoTime() - start);
+    try {
+      factory.activateObject(entry.object);
+    } catch (Exception e) {
+      invalidateObject(entry.object);
+      throw e;
+    }
+    return entry.object;
+  }
+
+  private PoolEntry<T> borrowIdle() {
+    List<WeakReference<PoolEntry<T>>> returned = threadEntries.get();
+    for (int i = returned.size() - 1; i >= 0; --i) {
+      PoolEntry<T> entry = returned.remove(i).get();
+      if (entry != null && entry.state.compareAndSet(NOT_IN_USE, IN_USE)) {
+        return entry;
+      }
+    }
+
+    for (PoolEntry<T> entry : entries) {
+      if (entry.state.compareAndSet(NOT_IN_USE, IN_USE)) {
+        return entry;
+      }
+    }
+
+    return null;
+  }
+
+  private PoolEntry<T> borrowExhausted(long start) throws Exception {
+    while (true) {
+      if (reserveSlot()) {
+        return create();
+      }
+
+      if (exhaustedAction == WHEN_EXHAUSTED_GROW) {
+        totalCount.incrementAndGet();
+        return create();
+      } else if (exhaustedAction == WHEN_EXHAUSTED_FAIL) {
+        throw new NoSuchElementException("Pool exhausted: " + getStatistics());
+      }
+
+      boolean slotReserved = false;
+      waiters.incrementAndGet();
+      try {
+        // An object may have been returned or destroyed before this thread started waiting
+        PoolEntry<T> entry = borrowIdle();
+        if (entry != null) {
+          return entry;
+        }
+        slotReserved = reserveSlot();
+
+        if (!slotReserved) {
+          if (maxWaitNanos <= 0) {
+            entry = handoffQueue.take();
+          } else {
+            long remaining = maxWaitNanos - (nanoTime() - start);
+            entry = remaining > 0 ? handoffQueue.poll(remaining, NANOSECONDS) : null;
+            if (entry == null) {
+              throw new NoSuchElementException("Timeout waiting for idle object: " + getStatistics());
+            }
+          }
+
+          assertOpen();
+          if (entry != slotReleased && entry.state.compareAndSet(NOT_IN_USE, IN_USE)) {
+            return entry;
+          }
+        }
+      } finally {
+        waiters.decrementAndGet();
+      }
+
+      // The object is created once this thread is no longer waiting, so returning threads don't wait for it to hand over
+      if (slotReserved) {
+        return create();
+      }
+    }
+  }
+
+  private boolean reserveSlot() {
+    int current;
+    do {
+      current = totalCount.get();
+      if (maxActive >= 0 && current >= maxActive) {
+        return false;
+      }
+    } while (!totalCount.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private PoolEntry<T> create() throws Exception {
+    long start = nanoTime();
+    T object;
+    try {
+      object = factory.makeObject();
+    } catch (Exception e) {
+      releaseSlot();
+      throw e;
+    }
+    creationTimes.record(nanoTime() - start);
+    createdCount.increment();
+
+    PoolEntry<T> entry = new PoolEntry<>(object, IN_USE);
+    entries.add(entry);
+    return entry;
+  }
+
+  @Override
+  public void returnObject(T object) throws Exception {
+    PoolEntry<T> entry = findEntry(object);
+    if (entry == null || entry.state.get() != IN_USE) {
+      throw new IllegalStateException("Returned object not currently part of this pool");
+    }
+    activeCount.decrementAndGet();
+
+    try {
+      factory.passivateObject(object);
+    } catch (Exception e) {
+      destroy(entry);
+      return;
+    }
+
+    if (closed || (maxIdle >= 0 && waiters.get() == 0 && getNumIdle() >= maxIdle)) {
+      destroy(entry);
+      return;
+    }
+
+    entry.lastReturned = currentTimeMillis();
+    entry.state.set(NOT_IN_USE);
+
+    List<WeakReference<PoolEntry<T>>> returned = threadEntries.get();
+    if (returned.size() >= MAX_THREAD_LOCAL_ENTRIES) {
+      returned.remove(0);
+    }
+    returned.add(new WeakReference<>(entry));
+
+    while (waiters.get() > 0) {
+      if (entry.state.get() != NOT_IN_USE || handoffQueue.offer(entry)) {
+        return;
+      }
+      Thread.yield();
+    }
+  }
+
+  @Override
+  public void invalidateObject(T object) throws Exception {
+    PoolEntry<T> entry = findEntry(object);
+    if (entry != null && entry.state.compareAndSet(IN_USE, RESERVED)) {
+      activeCount.decrementAndGet();
+      destroy(entry);
+    }
+  }
+
+  @Override
+  public void addObject() throws Exception {
+    assertOpen();
+    if (!reserveSlot()) {
+      return;
+    }
+
+    PoolEntry<T> entry = create();
+    try {
+      factory.passivateObject(entry.object);
+    } catch (Exception e) {
+      destroy(entry);
+      throw e;
+    }
+    entry.lastReturned = currentTimeMillis();
+    entry.state.set(NOT_IN_USE);
+  }
+
+  @Override
+  public int getNumIdle() {
+    int idle = 0;
+    for (PoolEntry<T> entry : entries) {
+      if (entry.state.get() == NOT_IN_USE) {
+        ++idle;
+      }
+    }
+    return idle;
+  }
+
+  @Override
+  public int getNumActive() {
+    return activeCount.get();
+  }
+
+  /**
+   * Destroys the idle objects of the pool.
+   */
+  @Override
+  public void clear() {
+    for (PoolEntry<T> entry : entries) {
+      if (entry.state.compareAndSet(NOT_IN_USE, RESERVED)) {
+        destroy(entry);
+      }
+    }
+  }
+
+  /**
+   * Closes the pool, destroying its idle objects. The objects borrowed at this time are destroyed when returned.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if (evictionScheduler != null) {
+      evictionScheduler.stop();
+    }
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Closing pool: " + getStatistics());
+    }
+    clear();
+
+    // Wake up the waiting threads so they fail
+    while (waiters.get() > 0) {
+      if (!handoffQueue.offer(slotReleased)) {
+        Thread.yield();
+      }
+    }
+  }
+
+  @Override
+  public void setFactory(PoolableObjectFactory<T> factory) {
+    throw new UnsupportedOperationException("The factory of this pool cannot be changed");
+  }
+
+  /**
+   * @return a snapshot of the usage of this pool.
+   */
+  ConnectionPoolStatistics getStatistics() {
+    return new ConnectionPoolStatistics(getNumActive(), getNumIdle(), waiters.get(), createdCount.sum(), destroyedCount.sum(),
+                                        waitTimes, creationTimes);
+  }
+
+  private void evict() {
+    long now = currentTimeMillis();
+    for (PoolEntry<T> entry : entries) {
+      if (!entry.state.compareAndSet(NOT_IN_USE, RESERVED)) {
+        continue;
+      }
+
+      if ((minEvictionMillis > 0 && now - entry.lastReturned > minEvictionMillis) || !isValid(entry.object)) {
+        destroy(entry);
+      } else {
+        entry.state.set(NOT_IN_USE);
+      }
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Eviction run finished: " + getStatistics());
+    }
+  }
+
+  private boolean isValid(T object) {
+    try {
+      return factory.validateObject(object);
+    } catch (Exception e) {
+      LOGGER.warn("Could not validate idle pooled object. It will be destroyed", e);
+      return false;
+    }
+  }
+
+  private void destroy(PoolEntry<T> entry) {
+    entry.state.set(REMOVED);
+    entries.remove(entry);
+    try {
+      factory.destroyObject(entry.object);
+    } catch (Exception e) {
+      LOGGER.warn("Could not destroy pooled object", e);
+    } finally {
+      destroyedCount.increment();
+      releaseSlot();
+    }
+  }
+
+  private void releaseSlot() {
+    totalCount.decrementAndGet();
+    // A waiting thread may now create a new object, unless another one takes the slot first
+    while (waiters.get() > 0 && (maxActive < 0 || totalCount.get() < maxActive)) {
+      if (handoffQueue.offer(slotReleased)) {
+        return;
+      }
+      Thread.yield();
+    }
+  }
+
+  private PoolEntry<T> findEntry(T object) {
+    // The entries are few, bounded by the max active objects, so a scan is cheaper than keeping an index
+    for (PoolEntry<T> entry : entries) {
+      if (entry.object == object) {
+        return entry;
+      }
+    }
+    return null;
+  }
+
+  private void assertOpen() {
+    if (closed) {
+      throw new IllegalStateException("Pool not open");
+    }
+  }
+
+  private static final class PoolEntry<T> {
+
+    private final T object;
+    private final AtomicInteger state;
+    private volatile long lastReturned;
+
+    private PoolEntry(T object, int state) {
+      this.object = object;
+      this.state = new AtomicInteger(state);
+      lastReturned = currentTimeMillis();
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.String.format;
+
+/**
+ * Snapshot of the usage of a {@link ConcurrentBagObjectPool}.
+ * <p>
+ * This is not exposed to applications nor to management tools. It is only reported by the pool itself, in its logs and in the
+ * errors raised when it is exhausted.
+ *
+ * @since 4.1
+ */
+final class ConnectionPoolStatistics {
+
+  private final int active;
+  private final int idle;
+  private final int waiting;
+  private final long createdCount;
+  private final long destroyedCount;
+  private final long waitNanosP50;
+  private final long waitNanosP95;
+  private final long waitNanosP99;
+  private final long maxWaitNanos;
+  private final long meanCreationNanos;
+  private final long maxCreationNanos;
+
+  ConnectionPoolStatistics(int active, int idle, int waiting, long createdCount, long destroyedCount,
+                           LatencyHistogram waitTimes, LatencyHistogram creationTimes) {
+    this.active = active;
+    this.idle = idle;
+    this.waiting = waiting;
+    this.createdCount = createdCount;
+    this.destroyedCount = destroyedCount;
+    this.waitNanosP50 = waitTimes.getPercentile(50);
+    this.waitNanosP95 = waitTimes.getPercentile(95);
+    this.waitNanosP99 = waitTimes.getPercentile(99);
+    this.maxWaitNanos = waitTimes.getMax();
+    this.meanCreationNanos = creationTimes.getMean();
+    this.maxCreationNanos = creationTimes.getMax();
+  }
+
+  /**
+   * @return the amount of connections borrowed from the pool and not yet returned.
+   */
+  public int getActive() {
+    return active;
+  }
+
+  /**
+   * @return the amount of connections in the pool ready to be borrowed.
+   */
+  public int getIdle() {
+    return idle;
+  }
+
+  /**
+   * @return the amount of threads waiting for a connection to be available.
+   */
+  public int getWaiting() {
+    return waiting;
+  }
+
+  /**
+   * @return the amount of connections created by the pool.
+   */
+  public long getCreatedCount() {
+    return createdCount;
+  }
+
+  /**
+   * @return the amount of connections destroyed by the pool.
+   */
+  public long getDestroyedCount() {
+    return destroyedCount;
+  }
+
+  /**
+   * @return the median time, in nanoseconds, it took to borrow a connection.
+   */
+  public long getWaitNanosP50() {
+    return waitNanosP50;
+  }
+
+  /**
+   * @return the 95th percentile of the time, in nanoseconds, it took to borrow a connection.
+   */
+  public long getWaitNanosP95() {
+    return waitNanosP95;
+  }
+
+  /**
+   * @return the 99th percentile of the time, in nanoseconds, it took to borrow a connection.
+   */
+  public long getWaitNanosP99() {
+    return waitNanosP99;
+  }
+
+  /**
+   * @return the longest time, in nanoseconds, it took to borrow a connection.
+   */
+  public long getMaxWaitNanos() {
+    return maxWaitNanos;
+  }
+
+  /**
+   * @return the mean time, in nanoseconds, it took to create a connection.
+   */
+  public long getMeanCreationNanos() {
+    return meanCreationNanos;
+  }
+
+  /**
+   * @return the longest time, in nanoseconds, it took to create a connection.
+   */
+  public long getMaxCreationNanos() {
+    return maxCreationNanos;
+  }
+
+  @Override
+  public String toString() {
+    return format("ConnectionPoolStatistics[active=%d, idle=%d, waiting=%d, createdCount=%d, destroyedCount=%d, "
+        + "waitNanosP50=%d, waitNanosP95=%d, waitNanosP99=%d, maxWaitNanos=%d, meanCreationNanos=%d, maxCreationNanos=%d]",
+                  active, idle, waiting, createdCount, destroyedCount, waitNanosP50, waitNanosP95, waitNanosP99, maxWaitNanos,
+                  meanCreationNanos, maxCreationNanos);
+  }
+}
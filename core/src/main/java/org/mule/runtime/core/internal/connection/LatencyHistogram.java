@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records durations in buckets of power of two nanoseconds, so that recording doesn't acquire any lock nor allocate.
+ * <p>
+ * Percentiles are approximated by the upper bound of the bucket they fall in, so they are at most twice the actual value.
+ *
+ * @since 4.1
+ */
+final class LatencyHistogram {
+
+  private static final int BUCKETS = 64;
+
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder total = new LongAdder();
+  private final AtomicLong maximum = new AtomicLong();
+
+  LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; ++i) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * @param nanos the duration to record
+   */
+  void record(long nanos) {
+    nanos = max(0, nanos);
+    buckets[BUCKETS - numberOfLeadingZeros(nanos)].increment();
+    count.increment();
+    total.add(nanos);
+
+    long currentMax;
+    while (nanos > (currentMax = maximum.get()) && !maximum.compareAndSet(currentMax, nanos)) {
+      // retry
+    }
+  }
+
+  /**
+   * @return the amount of recorded durations
+   */
+  long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * @return the mean of the recorded durations in nanoseconds, or {@code 0} if none was recorded
+   */
+  long getMean() {
+    long recorded = count.sum();
+    return recorded == 0 ? 0 : total.sum() / recorded;
+  }
+
+  /**
+   * @return the longest recorded duration in nanoseconds
+   */
+  long getMax() {
+    return maximum.get();
+  }
+
+  /**
+   * @param percentile a value between {@code 0} and {@code 100}
+   * @return the duration in nanoseconds below which the given percentage of the recorded durations fall
+   */
+  long getPercentile(double percentile) {
+    long[] counts = new long[BUCKETS];
+    long recorded = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      counts[i] = buckets[i].sum();
+      recorded += counts[i];
+    }
+    if (recorded == 0) {
+      return 0;
+    }
+
+    long target = max(1, (long) ceil(recorded * percentile / 100));
+    long accumulated = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      accumulated += counts[i];
+      if (accumulated >= target) {
+        // Bucket i holds the durations up to 2^i - 1
+        return min((1L << i) - 1, getMax());
+      }
+    }
+    return getMax();
+  }
+}
@@ -6,11 +6,14 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.lang.Boolean.getBoolean;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_CONCURRENT_CONNECTION_POOL;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.DefaultMuleException;
@@ -24,6 +27,10 @@ import org.apache.commons.pool.impl.GenericObjectPool;
 
 /**
  * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link #pool}
+ * <p>
+ * The pool is a {@link GenericObjectPool} unless the
+ * {@link org.mule.runtime.core.api.config.MuleProperties#MULE_CONCURRENT_CONNECTION_POOL} system property is set, in which
+ * case a {@link ConcurrentBagObjectPool} configured by the same {@link PoolingProfile} is used.
  *
  * @param <C> the generic type of the connections to be managed
  * @since 4.0
@@ -97,6 +104,10 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   }
 
   private ObjectPool<C> createPool() {
+    if (getBoolean(MULE_CONCURRENT_CONNECTION_POOL)) {
+      return new ConcurrentBagObjectPool<>(new ObjectFactoryAdapter(), poolingProfile, muleContext.getSchedulerService());
+    }
+
     GenericObjectPool.Config config = new GenericObjectPool.Config();
     config.maxIdle = poolingProfile.getMaxIdle();
     config.maxActive = poolingProfile.getMaxActive();
@@ -126,8 +137,9 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     }
 
     @Override
-    public boolean validateObject(C obj) {
-      return false;
+    public boolean validateObject(C connection) {
+      ConnectionValidationResult result = connectionProvider.validate(connection);
+      return result != null && result.isValid();
     }
 
     @Override
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.notification.Notification;
+import org.mule.runtime.api.notification.NotificationListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+/**
+ * Delivers asynchronous notifications to a single {@link NotificationListener}.
+ * <p>
+ * Notifications are put in a bounded queue, which is drained in batches by a single task at a time. So, instead of
+ * submitting a task to the executor for each notification, a task is only submitted when there is no other one already
+ * draining the queue. This also means that the listener gets its notifications in the same order they were fired.
+ * <p>
+ * When the queue is full, the {@link OverflowPolicy} determines whether the notification is dropped or the firing thread
+ * waits for some room in the queue.
+ *
+ * @since 4.0
+ */
+public final class AsyncListenerNotifier {
+
+  private static final Logger LOGGER = getLogger(AsyncListenerNotifier.class);
+
+  /**
+   * The maximum amount of notifications delivered by a drain task before giving its thread back to the executor.
+   */
+  static final int MAX_BATCH_SIZE = 256;
+
+  /**
+   * What to do with a notification when the queue of the listener is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The notification is discarded.
+     */
+    DROP,
+
+    /**
+     * The firing thread waits until there's room for the notification, or until a timeout elapses in which case the
+     * notification is discarded. This is the default.
+     * <p>
+     * Notifications fired by the listener itself while processing a notification are always discarded instead, since the
+     * firing thread is the one that would make room in the queue.
+     */
+    BLOCK
+  }
+
+  private final NotificationListener listener;
+  private final Executor executor;
+  private final BlockingQueue<Notification> queue;
+  private final OverflowPolicy overflowPolicy;
+  private final long blockTimeoutMillis;
+
+  private final AtomicBoolean draining = new AtomicBoolean(false);
+  private volatile Thread drainingThread;
+  private final AtomicLong enqueued = new AtomicLong(0);
+  private final AtomicLong dropped = new AtomicLong(0);
+  private final AtomicLong delivered = new AtomicLong(0);
+
+  /**
+   * Creates a new instance
+   *
+   * @param listener           the listener to deliver the notifications to
+   * @param executor           the {@link Executor} on which the drain tasks run
+   * @param queueSize          the max amount of notifications that can be waiting for delivery
+   * @param overflowPolicy     what to do when {@code queueSize} is reached
+   * @param blockTimeoutMillis how long to wait for room in the queue when using {@link OverflowPolicy#BLOCK}
+   */
+  public AsyncListenerNotifier(NotificationListener listener, Executor executor, int queueSize,
+                               OverflowPolicy overflowPolicy, long blockTimeoutMillis) {
+    this.listener = listener;
+    this.executor = executor;
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+    this.overflowPolicy = overflowPolicy;
+    this.blockTimeoutMillis = blockTimeoutMillis;
+  }
+
+  /**
+   * Enqueues the given {@code notification} for it to be delivered to the listener.
+   *
+   * @param notification the notification to deliver
+   */
+  public void dispatch(Notification notification) {
+    boolean queued = queue.offer(notification);
+    if (!queued && overflowPolicy == OverflowPolicy.BLOCK && drainingThread != currentThread()) {
+      scheduleDrain();
+      try {
+        queued = queue.offer(notification, blockTimeoutMillis, MILLISECONDS);
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+      }
+    }
+
+    if (queued) {
+      enqueued.incrementAndGet();
+    } else if (dropped.incrementAndGet() == 1) {
+      LOGGER.warn("Notification queue for listener '{}' is full. Dropping notification {}. Further dropped notifications "
+          + "will only be logged at debug level", listener, notification);
+    } else if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Notification queue for listener '{}' is full. Dropping notification {}", listener, notification);
+    }
+
+    scheduleDrain();
+  }
+
+  private void scheduleDrain() {
+    if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        // The notifications will be delivered by the next drain task, once the executor has some room
+        draining.set(false);
+        LOGGER.debug("Could not schedule the delivery of notifications to listener '{}'", listener, e);
+      }
+    }
+  }
+
+  private void drain() {
+    List<Notification> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    drainingThread = currentThread();
+    try {
+      queue.drainTo(batch, MAX_BATCH_SIZE);
+      for (Notification notification : batch) {
+        try {
+          listener.onNotification(notification);
+        } catch (Exception e) {
+          LOGGER.warn("Listener '" + listener + "' failed to process notification " + notification, e);
+        }
+        delivered.incrementAndGet();
+      }
+    } finally {
+      drainingThread = null;
+      draining.set(false);
+      // Notifications may have been queued after the queue was drained
+      scheduleDrain();
+    }
+  }
+
+  /**
+   * Discards all the notifications still waiting for delivery.
+   */
+  public void clear() {
+    List<Notification> discarded = new ArrayList<>();
+    queue.drainTo(discarded);
+    dropped.addAndGet(discarded.size());
+  }
+
+  /**
+   * @return the listener that this notifier delivers notifications to
+   */
+  public NotificationListener getListener() {
+    return listener;
+  }
+
+  /**
+   * @return the amount of notifications currently waiting for delivery
+   */
+  public int getQueuedCount() {
+    return queue.size();
+  }
+
+  /**
+   * @return the amount of notifications which were put in the queue since this notifier was created
+   */
+  public long getEnqueuedCount() {
+    return enqueued.get();
+  }
+
+  /**
+   * @return the amount of notifications which were discarded because the queue was full
+   */
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  /**
+   * @return the amount of notifications delivered to the listener
+   */
+  public long getDeliveredCount() {
+    return delivered.get();
+  }
+}
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.event;
 
 import static java.lang.String.format;
 import static java.lang.System.lineSeparator;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.empty;
@@ -19,6 +20,7 @@ import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPaylo
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsString;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
+import static org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap.copyOf;
 
 import org.mule.runtime.api.el.BindingContext;
 import org.mule.runtime.api.exception.DefaultMuleException;
@@ -34,10 +36,10 @@ import org.mule.runtime.core.api.context.notification.FlowCallStack;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.message.GroupCorrelation;
 import org.mule.runtime.core.api.transformer.MessageTransformerException;
-import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
 import org.mule.runtime.core.internal.message.DefaultMessageBuilder;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap;
 import org.mule.runtime.core.privileged.connector.DefaultReplyToHandler;
 import org.mule.runtime.core.privileged.connector.ReplyToHandler;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
@@ -62,8 +64,10 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   private BaseEventContext context;
   private Message message;
-  private Map<String, TypedValue<?>> flowVariables = new HashMap<>();
-  private Map<String, Object> internalParameters = new HashMap<>(4);
+  private PersistentCaseInsensitiveMap<TypedValue<?>> flowVariables = PersistentCaseInsensitiveMap.empty();
+  // Shared with the original event, or with the last built one, until it is modified
+  private Map<String, ?> internalParameters = emptyMap();
+  private boolean internalParametersShared = true;
   private Error error;
   private Optional<GroupCorrelation> groupCorrelation = empty();
   private String legacyCorrelationId;
@@ -93,8 +97,11 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     this.error = event.getError().orElse(null);
     this.notificationsEnabled = event.isNotificationsEnabled();
 
-    this.flowVariables.putAll(event.getVariables());
-    this.internalParameters.putAll(event.getInternalParameters());
+    // Events built by this builder expose their persistent maps directly, so this doesn't copy anything
+    this.flowVariables = copyOf(event.getVariables());
+    this.internalParameters = event instanceof InternalEventImplementation
+        ? ((InternalEventImplementation) event).internalParameters
+        : event.getInternalParameters();
   }
 
   public DefaultEventBuilder(BaseEventContext messageContext, InternalEvent event) {
@@ -113,13 +120,14 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public DefaultEventBuilder variables(Map<String, ?> flowVariables) {
-    copyFromTo(flowVariables, this.flowVariables);
+    this.flowVariables = toTypedValues(flowVariables);
+    this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder addVariable(String key, Object value) {
-    flowVariables.put(key, new TypedValue<>(value, DataType.fromObject(value)));
+    flowVariables = flowVariables.with(key, new TypedValue<>(value, DataType.fromObject(value)));
     this.modified = true;
     return this;
 
@@ -127,38 +135,51 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public DefaultEventBuilder addVariable(String key, Object value, DataType dataType) {
-    flowVariables.put(key, new TypedValue<>(value, dataType));
+    flowVariables = flowVariables.with(key, new TypedValue<>(value, dataType));
     this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder removeVariable(String key) {
-    this.modified = flowVariables.remove(key) != null || modified;
+    PersistentCaseInsensitiveMap<TypedValue<?>> updated = flowVariables.without(key);
+    this.modified = updated != flowVariables || modified;
+    flowVariables = updated;
     return this;
   }
 
   @Override
   public DefaultEventBuilder internalParameters(Map<String, ?> internalParameters) {
-    this.internalParameters.clear();
-    this.internalParameters.putAll(internalParameters);
+    this.internalParameters = new HashMap<>(internalParameters);
+    this.internalParametersShared = false;
     this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder addInternalParameter(String key, Object value) {
-    internalParameters.put(key, value);
+    ownInternalParameters().put(key, value);
     this.modified = true;
     return this;
   }
 
   @Override
   public DefaultEventBuilder removeInternalParameter(String key) {
-    this.modified = internalParameters.remove(key) != null || modified;
+    if (internalParameters.containsKey(key)) {
+      ownInternalParameters().remove(key);
+      this.modified = true;
+    }
     return this;
   }
 
+  private Map<String, Object> ownInternalParameters() {
+    if (internalParametersShared) {
+      internalParameters = new HashMap<>(internalParameters);
+      internalParametersShared = false;
+    }
+    return (Map<String, Object>) internalParameters;
+  }
+
   @Override
   public DefaultEventBuilder correlationId(String correlationId) {
     legacyCorrelationId = correlationId;
@@ -223,6 +244,8 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     } else {
       requireNonNull(message);
 
+      // The built event keeps the internal parameters, so this builder has to copy them before modifying them again
+      internalParametersShared = true;
       return new InternalEventImplementation(context, message, flowVariables,
                                              internalParameters, session, securityContext, replyToDestination,
                                              replyToHandler, groupCorrelation, error,
@@ -231,11 +254,19 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     }
   }
 
-  private void copyFromTo(Map<String, ?> source, Map<String, TypedValue<?>> target) {
-    target.clear();
-    source.forEach((s, o) -> target
-        .put(s, o instanceof TypedValue ? (TypedValue<Object>) o : new TypedValue<>(o, DataType.fromObject(o))));
-    this.modified = true;
+  private PersistentCaseInsensitiveMap<TypedValue<?>> toTypedValues(Map<String, ?> source) {
+    if (source instanceof PersistentCaseInsensitiveMap) {
+      // Only the variables of the events are kept in persistent maps, and their values are always typed
+      return (PersistentCaseInsensitiveMap<TypedValue<?>>) source;
+    }
+
+    PersistentCaseInsensitiveMap<TypedValue<?>> target = PersistentCaseInsensitiveMap.empty();
+    for (Map.Entry<String, ?> entry : source.entrySet()) {
+      Object o = entry.getValue();
+      target = target.with(entry.getKey(),
+                           o instanceof TypedValue ? (TypedValue<?>) o : new TypedValue<>(o, DataType.fromObject(o)));
+    }
+    return target;
   }
 
   /**
@@ -265,14 +296,15 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     private final boolean notificationsEnabled;
 
-    private final CaseInsensitiveHashMap<String, TypedValue<?>> variables;
+    private final PersistentCaseInsensitiveMap<TypedValue<?>> variables;
     private final Map<String, ?> internalParameters;
 
     private final String legacyCorrelationId;
     private final Error error;
 
     // Use this constructor from the builder
-    private InternalEventImplementation(BaseEventContext context, Message message, Map<String, TypedValue<?>> variables,
+    private InternalEventImplementation(BaseEventContext context, Message message,
+                                        PersistentCaseInsensitiveMap<TypedValue<?>> variables,
                                         Map<String, ?> internalParameters, MuleSession session, SecurityContext securityContext,
                                         Object replyToDestination, ReplyToHandler replyToHandler,
                                         Optional<GroupCorrelation> groupCorrelation, Error error,
@@ -281,7 +313,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       this.session = session;
       this.securityContext = securityContext;
       this.message = message;
-      this.variables = new CaseInsensitiveHashMap<>(variables);
+      this.variables = variables;
       this.internalParameters = internalParameters;
 
       this.replyToHandler = replyToHandler;
@@ -444,7 +476,8 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     @Override
     public Map<String, TypedValue<?>> getVariables() {
-      return unmodifiableMap(variables);
+      // The map is immutable, so there's no need to wrap it
+      return variables;
     }
 
     @Override
@@ -11,6 +11,7 @@ import static java.time.Instant.now;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
+import static java.util.concurrent.atomic.AtomicReferenceFieldUpdater.newUpdater;
 import static org.mule.runtime.core.api.util.StringUtils.EMPTY;
 
 import org.mule.runtime.api.component.location.ComponentLocation;
@@ -26,12 +27,14 @@ import org.mule.runtime.core.api.management.stats.ProcessingTime;
 import org.mule.runtime.core.api.source.MessageSource;
 import org.mule.runtime.core.internal.context.notification.DefaultProcessorsTrace;
 import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.streaming.EventStreamingState;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Default immutable implementation of {@link BaseEventContext}.
@@ -42,6 +45,9 @@ public final class DefaultEventContext extends AbstractEventContext implements S
 
   private static final long serialVersionUID = -3664490832964509653L;
 
+  private static final AtomicReferenceFieldUpdater<DefaultEventContext, EventStreamingState> STREAMING_STATE_UPDATER =
+      newUpdater(DefaultEventContext.class, EventStreamingState.class, "streamingState");
+
   /**
    * Builds a new child execution context from a parent context. A child context delegates all getters to the parent context but
    * has it's own completion lifecycle. Completion of the child context will not cause the parent context to complete. This is
@@ -86,6 +92,7 @@ public final class DefaultEventContext extends AbstractEventContext implements S
 
   private final ProcessingTime processingTime;
   private final ProcessorsTrace processorsTrace = new DefaultProcessorsTrace();
+  private transient volatile EventStreamingState streamingState;
 
   @Override
   public String getId() {
@@ -137,6 +144,25 @@ public final class DefaultEventContext extends AbstractEventContext implements S
     return empty();
   }
 
+  /**
+   * @return the {@link EventStreamingState} tracking the cursors opened during the processing of this event, or {@code null}
+   *         if none was set
+   */
+  public EventStreamingState getStreamingState() {
+    return streamingState;
+  }
+
+  /**
+   * Atomically sets the {@link EventStreamingState} of this context if the current one is {@code expected}
+   *
+   * @param expected the expected current state
+   * @param update   the new state
+   * @return whether the state was updated
+   */
+  public boolean compareAndSetStreamingState(EventStreamingState expected, EventStreamingState update) {
+    return STREAMING_STATE_UPDATER.compareAndSet(this, expected, update);
+  }
+
   /**
    * Builds a new execution context with the given parameters.
    *
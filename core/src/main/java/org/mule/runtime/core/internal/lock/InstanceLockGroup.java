@@ -6,77 +6,81 @@
  */
 package org.mule.runtime.core.internal.lock;
 
-import java.util.HashMap;
-import java.util.Map;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.Optional.ofNullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * {@link LockGroup} implementation for holding references to created locks inside a mule instance.
+ * <p>
+ * Lock entries are reference counted by the threads holding or waiting for them, and are discarded once no thread references
+ * them. The entries are kept in a {@link ConcurrentHashMap}, so that obtaining or releasing the entry of a lock only contends with
+ * operations on lock ids that fall in the same bin of the map instead of with every other lock of the instance.
  */
 public class InstanceLockGroup implements LockGroup {
 
-  private Map<String, LockEntry> locks;
-  private Object lockAccessMonitor = new Object();
-  private LockProvider lockProvider;
+  private final ConcurrentMap<String, LockEntry> locks = new ConcurrentHashMap<>();
+  private final LockProvider lockProvider;
+
+  private final LongAdder acquisitionsCount = new LongAdder();
+  private final LongAdder totalWaitNanos = new LongAdder();
 
   public InstanceLockGroup(LockProvider lockProvider) {
     this.lockProvider = lockProvider;
-    this.locks = new HashMap<>();
   }
 
   @Override
   public void lock(String lockId) {
-    LockEntry lockEntry;
-    synchronized (lockAccessMonitor) {
-      if (locks.containsKey(lockId)) {
-        lockEntry = locks.get(lockId);
-      } else {
-        lockEntry = new LockEntry(lockProvider.createLock(lockId));
-        locks.put(lockId, lockEntry);
-      }
-      lockEntry.incrementLockCount();
-      lockAccessMonitor.notifyAll();
-    }
+    LockEntry lockEntry = reference(lockId);
+    long waitStart = nanoTime();
     lockEntry.getLock().lock();
+    acquired(lockEntry, waitStart);
   }
 
   @Override
   public void unlock(String key) {
-    synchronized (lockAccessMonitor) {
-      LockEntry lockEntry = locks.get(key);
-      if (lockEntry != null) {
-        lockEntry.decrementLockCount();
-        if (!lockEntry.hasPendingLocks()) {
-          locks.remove(key);
+    LockEntry lockEntry = locks.get(key);
+    if (lockEntry != null) {
+      Lock lock = lockEntry.getLock();
+      if (lock instanceof ReentrantLock) {
+        if (!((ReentrantLock) lock).isHeldByCurrentThread()) {
+          throw new IllegalMonitorStateException("Lock '" + key + "' is not held by the current thread");
         }
-        lockEntry.getLock().unlock();
+        // Accounted before unlocking, while no other thread may update the entry
+        lockEntry.released();
+        lock.unlock();
+      } else {
+        // Ownership can't be checked beforehand, so the release is only accounted once the lock accepts it
+        lock.unlock();
+        lockEntry.released();
       }
-      lockAccessMonitor.notifyAll();
+      // The entry is released after unlocking so that no new lock may be created for the key while this one is still held
+      release(key);
     }
   }
 
   @Override
   public boolean tryLock(String lockId, long timeout, TimeUnit timeUnit) throws InterruptedException {
-    LockEntry lockEntry;
-    synchronized (lockAccessMonitor) {
-      if (locks.containsKey(lockId)) {
-        lockEntry = locks.get(lockId);
+    LockEntry lockEntry = reference(lockId);
+    long waitStart = nanoTime();
+    boolean lockAcquired = false;
+    try {
+      lockAcquired = lockEntry.getLock().tryLock(timeout, timeUnit);
+    } finally {
+      if (lockAcquired) {
+        acquired(lockEntry, waitStart);
       } else {
-        lockEntry = new LockEntry(lockProvider.createLock(lockId));
-        locks.put(lockId, lockEntry);
-      }
-      lockEntry.incrementLockCount();
-      lockAccessMonitor.notifyAll();
-    }
-    boolean lockAcquired = lockEntry.getLock().tryLock(timeout, timeUnit);
-    if (!lockAcquired) {
-      synchronized (lockAccessMonitor) {
-        lockEntry.decrementLockCount();
-        if (!lockEntry.hasPendingLocks()) {
-          locks.remove(lockId);
-        }
+        release(lockId);
       }
     }
     return lockAcquired;
@@ -84,49 +88,98 @@ public class InstanceLockGroup implements LockGroup {
 
   @Override
   public boolean tryLock(String lockId) {
-    LockEntry lockEntry;
-    synchronized (lockAccessMonitor) {
-      if (locks.containsKey(lockId)) {
-        lockEntry = locks.get(lockId);
-      } else {
-        lockEntry = new LockEntry(lockProvider.createLock(lockId));
-        locks.put(lockId, lockEntry);
-      }
-      lockEntry.incrementLockCount();
-      lockAccessMonitor.notifyAll();
-    }
+    LockEntry lockEntry = reference(lockId);
     boolean lockAcquired = lockEntry.getLock().tryLock();
-    if (!lockAcquired) {
-      synchronized (lockAccessMonitor) {
-        lockEntry.decrementLockCount();
-        if (!lockEntry.hasPendingLocks()) {
-          locks.remove(lockId);
-        }
-      }
+    if (lockAcquired) {
+      acquired(lockEntry, nanoTime());
+    } else {
+      release(lockId);
     }
     return lockAcquired;
   }
 
   @Override
   public void lockInterruptibly(String lockId) throws InterruptedException {
-    LockEntry lockEntry;
-    synchronized (lockAccessMonitor) {
-      if (locks.containsKey(lockId)) {
-        lockEntry = locks.get(lockId);
-      } else {
-        lockEntry = new LockEntry(lockProvider.createLock(lockId));
-        locks.put(lockId, lockEntry);
+    LockEntry lockEntry = reference(lockId);
+    long waitStart = nanoTime();
+    try {
+      lockEntry.getLock().lockInterruptibly();
+    } catch (InterruptedException e) {
+      release(lockId);
+      throw e;
+    }
+    acquired(lockEntry, waitStart);
+  }
+
+  /**
+   * Provides the statistics of the lock with the given id. Statistics are only kept while the lock is held or waited for by some
+   * thread.
+   *
+   * @param lockId the id of the lock
+   * @return the statistics of the lock, or {@link Optional#empty()} if no thread is holding or waiting for it.
+   */
+  public Optional<LockStatistics> getStatistics(String lockId) {
+    return ofNullable(locks.get(lockId)).map(lockEntry -> lockEntry.getStatistics(lockId));
+  }
+
+  /**
+   * @return the statistics of the locks currently held or waited for by some thread.
+   */
+  public List<LockStatistics> getStatistics() {
+    List<LockStatistics> statistics = new ArrayList<>(locks.size());
+    locks.forEach((lockId, lockEntry) -> statistics.add(lockEntry.getStatistics(lockId)));
+    return statistics;
+  }
+
+  /**
+   * @return the amount of times any lock of this group was acquired.
+   */
+  public long getAcquisitionsCount() {
+    return acquisitionsCount.sum();
+  }
+
+  /**
+   * @return the accumulated time, in nanoseconds, that threads waited to acquire any lock of this group.
+   */
+  public long getTotalWaitNanos() {
+    return totalWaitNanos.sum();
+  }
+
+  private LockEntry reference(String lockId) {
+    return locks.compute(lockId, (id, lockEntry) -> {
+      if (lockEntry == null) {
+        lockEntry = new LockEntry(lockProvider.createLock(id));
       }
       lockEntry.incrementLockCount();
-      lockAccessMonitor.notifyAll();
-    }
-    lockEntry.getLock().lockInterruptibly();
+      return lockEntry;
+    });
+  }
+
+  private void release(String lockId) {
+    locks.computeIfPresent(lockId, (id, lockEntry) -> {
+      lockEntry.decrementLockCount();
+      return lockEntry.hasPendingLocks() ? lockEntry : null;
+    });
+  }
+
+  private void acquired(LockEntry lockEntry, long waitStart) {
+    long waitNanos = nanoTime() - waitStart;
+    lockEntry.acquired(waitNanos);
+    acquisitionsCount.increment();
+    totalWaitNanos.add(waitNanos);
   }
 
   public static class LockEntry {
 
-    private AtomicInteger lockCount = new AtomicInteger(0);
-    private Lock lock;
+    // Only updated while holding the entry of the map, read by the statistics
+    private volatile int lockCount = 0;
+    private final Lock lock;
+
+    // Only updated by the thread holding the lock, read by the statistics
+    private volatile int holdCount = 0;
+    private volatile long acquisitionsCount = 0;
+    private volatile long totalWaitNanos = 0;
+    private volatile long maxWaitNanos = 0;
 
     public LockEntry(Lock lock) {
       this.lock = lock;
@@ -137,22 +190,36 @@ public class InstanceLockGroup implements LockGroup {
     }
 
     public void incrementLockCount() {
-      lockCount.incrementAndGet();
+      lockCount++;
     }
 
     public void decrementLockCount() {
-      lockCount.decrementAndGet();
+      lockCount--;
     }
 
     public boolean hasPendingLocks() {
-      return lockCount.get() > 0;
+      return lockCount > 0;
+    }
+
+    private void acquired(long waitNanos) {
+      holdCount++;
+      acquisitionsCount++;
+      totalWaitNanos += waitNanos;
+      maxWaitNanos = max(maxWaitNanos, waitNanos);
+    }
+
+    private void released() {
+      holdCount--;
+    }
+
+    private LockStatistics getStatistics(String lockId) {
+      int holds = holdCount;
+      return new LockStatistics(lockId, holds, max(0, lockCount - holds), acquisitionsCount, totalWaitNanos, maxWaitNanos);
     }
   }
 
   @Override
   public void dispose() {
-    synchronized (lockAccessMonitor) {
-      locks.clear();
-    }
+    locks.clear();
   }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static java.lang.String.format;
+
+/**
+ * Snapshot of the usage of a lock of an {@link InstanceLockGroup}.
+ *
+ * @since 4.1
+ */
+public final class LockStatistics {
+
+  private final String lockId;
+  private final int holdCount;
+  private final int waitingCount;
+  private final long acquisitionsCount;
+  private final long totalWaitNanos;
+  private final long maxWaitNanos;
+
+  LockStatistics(String lockId, int holdCount, int waitingCount, long acquisitionsCount, long totalWaitNanos,
+                 long maxWaitNanos) {
+    this.lockId = lockId;
+    this.holdCount = holdCount;
+    this.waitingCount = waitingCount;
+    this.acquisitionsCount = acquisitionsCount;
+    this.totalWaitNanos = totalWaitNanos;
+    this.maxWaitNanos = maxWaitNanos;
+  }
+
+  /**
+   * @return the id of the lock.
+   */
+  public String getLockId() {
+    return lockId;
+  }
+
+  /**
+   * @return the amount of holds on the lock not yet released, counting reentrant acquisitions.
+   */
+  public int getHoldCount() {
+    return holdCount;
+  }
+
+  /**
+   * @return the amount of threads waiting to acquire the lock.
+   */
+  public int getWaitingCount() {
+    return waitingCount;
+  }
+
+  /**
+   * @return the amount of times the lock was acquired since it started to be used.
+   */
+  public long getAcquisitionsCount() {
+    return acquisitionsCount;
+  }
+
+  /**
+   * @return the accumulated time, in nanoseconds, that threads waited to acquire the lock.
+   */
+  public long getTotalWaitNanos() {
+    return totalWaitNanos;
+  }
+
+  /**
+   * @return the longest time, in nanoseconds, that a thread waited to acquire the lock.
+   */
+  public long getMaxWaitNanos() {
+    return maxWaitNanos;
+  }
+
+  @Override
+  public String toString() {
+    return format("LockStatistics[lockId=%s, holdCount=%d, waitingCount=%d, acquisitionsCount=%d, totalWaitNanos=%d, "
+        + "maxWaitNanos=%d]", lockId, holdCount, waitingCount, acquisitionsCount, totalWaitNanos, maxWaitNanos);
+  }
+}
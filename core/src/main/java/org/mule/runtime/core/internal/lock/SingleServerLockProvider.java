@@ -6,17 +6,33 @@
  */
 package org.mule.runtime.core.internal.lock;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_UNFAIR_LOCKS;
+
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * {@link LockProvider} implementation for applications running in a single mule server
+ * <p>
+ * Locks are fair unless the {@link org.mule.runtime.core.api.config.MuleProperties#MULE_UNFAIR_LOCKS} system property is set,
+ * trading the ordering of the waiting threads for a higher throughput on contended locks.
  */
 public class SingleServerLockProvider implements LockProvider {
 
+  private final boolean fair;
+
+  public SingleServerLockProvider() {
+    this(!getBoolean(MULE_UNFAIR_LOCKS));
+  }
+
+  public SingleServerLockProvider(boolean fair) {
+    this.fair = fair;
+  }
+
   @Override
   public Lock createLock(String lockId) {
-    return new ReentrantLock(true);
+    return new ReentrantLock(fair);
   }
 
 }
@@ -40,13 +40,16 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import javax.inject.Inject;
 
 /**
  * Default implementation of {@link PolicyManager}.
+ * <p>
+ * When the {@link PolicyProvider} supports notifying changes of its policies, the policies found for each component are kept
+ * until it does so, and are not looked up for every event. See {@link PolicyResolutionCache}.
  *
  * @since 4.0
  */
@@ -65,13 +68,36 @@ public class DefaultPolicyManager implements PolicyManager, Initialisable {
   private PolicyProvider policyProvider;
   private OperationPolicyProcessorFactory operationPolicyProcessorFactory;
   private SourcePolicyProcessorFactory sourcePolicyProcessorFactory;
+  private boolean policiesCacheable;
+
+  private final PolicyResolutionCache sourcePoliciesCache = new PolicyResolutionCache();
+  private final PolicyResolutionCache operationPoliciesCache = new PolicyResolutionCache();
+  private final Map<ComponentIdentifier, Optional<SourcePolicyParametersTransformer>> sourceParametersTransformers =
+      new ConcurrentHashMap<>();
+  private final Map<ComponentIdentifier, Optional<OperationPolicyParametersTransformer>> operationParametersTransformers =
+      new ConcurrentHashMap<>();
+  private final Map<ComponentIdentifier, Optional<SourcePolicyPointcutParametersFactory>> sourcePointcutFactoryByComponent =
+      new ConcurrentHashMap<>();
+  private final Map<ComponentIdentifier, Optional<OperationPolicyPointcutParametersFactory>> operationPointcutFactoryByComponent =
+      new ConcurrentHashMap<>();
 
   @Override
   public SourcePolicy createSourcePolicyInstance(Component source, CoreEvent sourceEvent,
                                                  Processor flowExecutionProcessor,
                                                  MessageSourceResponseParametersProcessor messageSourceResponseParametersProcessor) {
-    PolicyPointcutParameters sourcePointcutParameters = createSourcePointcutParameters(source, sourceEvent);
-    List<Policy> parameterizedPolicies = policyProvider.findSourceParameterizedPolicies(sourcePointcutParameters);
+    ComponentIdentifier sourceIdentifier = source.getLocation().getComponentIdentifier().getIdentifier();
+    Optional<SourcePolicyPointcutParametersFactory> pointcutFactory = sourcePointcutFactoryByComponent
+        .computeIfAbsent(sourceIdentifier,
+                         identifier -> findPointcutFactory(identifier, SourcePolicyPointcutParametersFactory.class,
+                                                           sourcePointcutFactories,
+                                                           factory -> factory.supportsSourceIdentifier(identifier)));
+    PolicyPointcutParameters sourcePointcutParameters = pointcutFactory
+        .map(factory -> factory.createPolicyPointcutParameters(source, sourceEvent.getMessage().getAttributes()))
+        .orElseGet(() -> new PolicyPointcutParameters(source));
+    List<Policy> parameterizedPolicies = policiesCacheable
+        ? sourcePoliciesCache.getPolicies(source, sourcePointcutParameters, pointcutFactory.isPresent(),
+                                          policyProvider::findSourceParameterizedPolicies)
+        : policyProvider.findSourceParameterizedPolicies(sourcePointcutParameters);
     if (parameterizedPolicies.isEmpty()) {
       return event -> from(process(event, flowExecutionProcessor))
           .defaultIfEmpty(CoreEvent.builder(sourceEvent).message(of(null)).build())
@@ -90,8 +116,7 @@ public class DefaultPolicyManager implements PolicyManager, Initialisable {
           });
     }
     return new CompositeSourcePolicy(parameterizedPolicies,
-                                     lookupSourceParametersTransformer(source.getLocation().getComponentIdentifier()
-                                         .getIdentifier()),
+                                     lookupSourceParametersTransformer(sourceIdentifier),
                                      sourcePolicyProcessorFactory, flowExecutionProcessor,
                                      messageSourceResponseParametersProcessor);
   }
@@ -101,28 +126,39 @@ public class DefaultPolicyManager implements PolicyManager, Initialisable {
                                                Map<String, Object> operationParameters,
                                                OperationExecutionFunction operationExecutionFunction) {
 
-    PolicyPointcutParameters operationPointcutParameters =
-        createOperationPointcutParameters(operation, operationParameters);
-    List<Policy> parameterizedPolicies = policyProvider.findOperationParameterizedPolicies(operationPointcutParameters);
+    ComponentIdentifier operationIdentifier = operation.getLocation().getComponentIdentifier().getIdentifier();
+    Optional<OperationPolicyPointcutParametersFactory> pointcutFactory = operationPointcutFactoryByComponent
+        .computeIfAbsent(operationIdentifier,
+                         identifier -> findPointcutFactory(identifier, OperationPolicyPointcutParametersFactory.class,
+                                                           operationPointcutFactories,
+                                                           factory -> factory.supportsOperationIdentifier(identifier)));
+    PolicyPointcutParameters operationPointcutParameters = pointcutFactory
+        .map(factory -> factory.createPolicyPointcutParameters(operation, operationParameters))
+        .orElseGet(() -> new PolicyPointcutParameters(operation));
+    List<Policy> parameterizedPolicies = policiesCacheable
+        ? operationPoliciesCache.getPolicies(operation, operationPointcutParameters, pointcutFactory.isPresent(),
+                                             policyProvider::findOperationParameterizedPolicies)
+        : policyProvider.findOperationParameterizedPolicies(operationPointcutParameters);
     if (parameterizedPolicies.isEmpty()) {
       return (operationEvent) -> operationExecutionFunction.execute(operationParameters, operationEvent);
     }
     return new CompositeOperationPolicy(parameterizedPolicies,
-                                        lookupOperationParametersTransformer(operation.getLocation().getComponentIdentifier()
-                                            .getIdentifier()),
+                                        lookupOperationParametersTransformer(operationIdentifier),
                                         operationPolicyProcessorFactory, () -> operationParameters, operationExecutionFunction);
   }
 
   private Optional<OperationPolicyParametersTransformer> lookupOperationParametersTransformer(ComponentIdentifier componentIdentifier) {
-    return operationPolicyParametersTransformerCollection.stream()
-        .filter(policyOperationParametersTransformer -> policyOperationParametersTransformer.supports(componentIdentifier))
-        .findAny();
+    return operationParametersTransformers
+        .computeIfAbsent(componentIdentifier, identifier -> operationPolicyParametersTransformerCollection.stream()
+            .filter(policyOperationParametersTransformer -> policyOperationParametersTransformer.supports(identifier))
+            .findAny());
   }
 
   private Optional<SourcePolicyParametersTransformer> lookupSourceParametersTransformer(ComponentIdentifier componentIdentifier) {
-    return sourcePolicyParametersTransformerCollection.stream()
-        .filter(policyOperationParametersTransformer -> policyOperationParametersTransformer.supports(componentIdentifier))
-        .findAny();
+    return sourceParametersTransformers
+        .computeIfAbsent(componentIdentifier, identifier -> sourcePolicyParametersTransformerCollection.stream()
+            .filter(policyOperationParametersTransformer -> policyOperationParametersTransformer.supports(identifier))
+            .findAny());
   }
 
   @Override
@@ -135,46 +171,26 @@ public class DefaultPolicyManager implements PolicyManager, Initialisable {
     operationPolicyParametersTransformerCollection = registry.lookupObjects(OperationPolicyParametersTransformer.class);
     sourcePointcutFactories = registry.lookupObjects(SourcePolicyPointcutParametersFactory.class);
     operationPointcutFactories = registry.lookupObjects(OperationPolicyPointcutParametersFactory.class);
+    policiesCacheable = policyProvider.onPoliciesChanged(() -> {
+      sourcePoliciesCache.invalidate();
+      operationPoliciesCache.invalidate();
+    });
   }
 
-  private PolicyPointcutParameters createSourcePointcutParameters(Component source,
-                                                                  CoreEvent sourceEvent) {
-    ComponentIdentifier sourceIdentifier = source.getLocation().getComponentIdentifier().getIdentifier();
-
-    return createPointcutParameters(source, SourcePolicyPointcutParametersFactory.class, sourcePointcutFactories,
-                                    factory -> factory.supportsSourceIdentifier(sourceIdentifier),
-                                    factory -> factory.createPolicyPointcutParameters(source,
-                                                                                      sourceEvent.getMessage().getAttributes()));
-  }
-
-  private PolicyPointcutParameters createOperationPointcutParameters(Component operation,
-                                                                     Map<String, Object> operationParameters) {
-    ComponentIdentifier operationIdentifier = operation.getLocation().getComponentIdentifier().getIdentifier();
-
-    return createPointcutParameters(operation, OperationPolicyPointcutParametersFactory.class, operationPointcutFactories,
-                                    factory -> factory.supportsOperationIdentifier(operationIdentifier),
-                                    factory -> factory.createPolicyPointcutParameters(operation, operationParameters));
-  }
-
-  private <T> PolicyPointcutParameters createPointcutParameters(Component component, Class<T> factoryType,
-                                                                Collection<T> factories, Predicate<T> factoryFilter,
-                                                                Function<T, PolicyPointcutParameters> policyPointcutParametersCreationFunction) {
+  private <T> Optional<T> findPointcutFactory(ComponentIdentifier componentIdentifier, Class<T> factoryType,
+                                               Collection<T> factories, Predicate<T> factoryFilter) {
     T found = null;
 
     for (T factory : factories) {
       if (factoryFilter.test(factory)) {
         if (found != null) {
-          throwMoreThanOneFactoryFoundException(component.getLocation().getComponentIdentifier().getIdentifier(), factoryType);
+          throwMoreThanOneFactoryFoundException(componentIdentifier, factoryType);
         }
         found = factory;
       }
     }
 
-    if (found == null) {
-      return new PolicyPointcutParameters(component);
-    } else {
-      return policyPointcutParametersCreationFunction.apply(found);
-    }
+    return Optional.ofNullable(found);
   }
 
   private PolicyPointcutParameters throwMoreThanOneFactoryFoundException(ComponentIdentifier sourceIdentifier,
@@ -190,6 +206,22 @@ public class DefaultPolicyManager implements PolicyManager, Initialisable {
   }
 
 
+  /**
+   * @return the amount of times the policies for a component were already known and not looked up.
+   */
+  public long getPolicyCacheHitCount() {
+    return sourcePoliciesCache.getHitCount() + operationPoliciesCache.getHitCount();
+  }
+
+  /**
+   * @return the amount of times the policies for a component had to be looked up. Lookups done when the
+   *         {@link PolicyProvider} doesn't support caching are not counted.
+   */
+  public long getPolicyCacheMissCount() {
+    return sourcePoliciesCache.getMissCount() + sourcePoliciesCache.getUncacheableCount()
+        + operationPoliciesCache.getMissCount() + operationPoliciesCache.getUncacheableCount();
+  }
+
   public void setMuleContext(MuleContext muleContext) {
     this.muleContext = muleContext;
   }
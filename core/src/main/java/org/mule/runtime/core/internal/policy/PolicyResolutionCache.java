@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.policy;
+
+import static java.lang.System.identityHashCode;
+import static java.util.Collections.unmodifiableList;
+
+import org.mule.runtime.api.component.Component;
+import org.mule.runtime.core.api.policy.Policy;
+import org.mule.runtime.core.api.policy.PolicyProvider;
+import org.mule.runtime.policy.api.PolicyPointcutParameters;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the {@link Policy policies} found by the {@link PolicyProvider} for a component, so that they are not looked up again for
+ * every event.
+ * <p>
+ * Policies are kept by component and pointcut parameters. When the pointcut parameters are created by a factory from the event,
+ * they are part of the key only if their class defines {@link Object#equals(Object) equality}. Otherwise the policies are looked
+ * up every time, since the pointcut may match differently for each event.
+ * <p>
+ * All the kept policies are discarded by {@link #invalidate()}, which must be called when the policies of the provider change.
+ *
+ * @since 4.1
+ */
+final class PolicyResolutionCache {
+
+  private static final int MAX_ENTRIES = 1024;
+
+  private final AtomicReference<Cache<PolicyKey, List<Policy>>> cache = new AtomicReference<>(createCache());
+  private final Map<Class<?>, Boolean> equalityByParametersType = new ConcurrentHashMap<>();
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder uncacheableCount = new LongAdder();
+
+  /**
+   * Returns the policies to apply to the given {@code component}, looking them up only if they are not already known.
+   *
+   * @param component           the component the policies apply to
+   * @param pointcutParameters  the parameters to match the policies against
+   * @param fromEvent           whether the {@code pointcutParameters} were created from the event being processed, as opposed to
+   *                            only from the {@code component}
+   * @param lookup              finds the policies matching the {@code pointcutParameters}
+   * @return the policies to apply
+   */
+  List<Policy> getPolicies(Component component, PolicyPointcutParameters pointcutParameters, boolean fromEvent,
+                           Function<PolicyPointcutParameters, List<Policy>> lookup) {
+    if (fromEvent && !definesEquality(pointcutParameters)) {
+      uncacheableCount.increment();
+      return lookup.apply(pointcutParameters);
+    }
+
+    // Policies looked up while the cache is invalidated are kept in the discarded one, so they are never used
+    Cache<PolicyKey, List<Policy>> current = cache.get();
+    PolicyKey key = new PolicyKey(component, fromEvent ? pointcutParameters : null);
+    List<Policy> policies = current.getIfPresent(key);
+    if (policies != null) {
+      hitCount.increment();
+      return policies;
+    }
+
+    missCount.increment();
+    policies = unmodifiableList(lookup.apply(pointcutParameters));
+    current.put(key, policies);
+    return policies;
+  }
+
+  /**
+   * Discards all the known policies, so they are looked up again.
+   */
+  void invalidate() {
+    cache.set(createCache());
+  }
+
+  private boolean definesEquality(PolicyPointcutParameters pointcutParameters) {
+    return equalityByParametersType.computeIfAbsent(pointcutParameters.getClass(), type -> {
+      try {
+        return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    });
+  }
+
+  private static Cache<PolicyKey, List<Policy>> createCache() {
+    return CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+  }
+
+  /**
+   * @return the amount of times the policies were already known.
+   */
+  long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * @return the amount of times the policies had to be looked up and were kept.
+   */
+  long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * @return the amount of times the policies had to be looked up because the pointcut parameters could not be compared.
+   */
+  long getUncacheableCount() {
+    return uncacheableCount.sum();
+  }
+
+  private static final class PolicyKey {
+
+    private final Component component;
+    private final PolicyPointcutParameters pointcutParameters;
+
+    private PolicyKey(Component component, PolicyPointcutParameters pointcutParameters) {
+      this.component = component;
+      this.pointcutParameters = pointcutParameters;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof PolicyKey)) {
+        return false;
+      }
+      PolicyKey other = (PolicyKey) obj;
+      return component == other.component && Objects.equals(pointcutParameters, other.pointcutParameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * identityHashCode(component) + Objects.hashCode(pointcutParameters);
+    }
+  }
+}
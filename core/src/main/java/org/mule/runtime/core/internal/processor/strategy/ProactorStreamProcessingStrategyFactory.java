@@ -6,14 +6,18 @@
  */
 package org.mule.runtime.core.internal.processor.strategy;
 
+import static java.lang.Integer.MAX_VALUE;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static java.lang.String.format;
 import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
 import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.publisher.Flux.from;
 import static reactor.core.publisher.Flux.just;
+import static reactor.core.publisher.Flux.range;
 import static reactor.core.publisher.Mono.delay;
 import static reactor.core.scheduler.Schedulers.fromExecutorService;
 
@@ -38,6 +42,10 @@ import org.slf4j.Logger;
  * {@link ProcessingType#BLOCKING} processors differently and schedules there execution on dedicated
  * {@link SchedulerService#cpuIntensiveScheduler()} and {@link SchedulerService#ioScheduler()} ()} schedulers.
  * <p/>
+ * Events rejected by a busy shared scheduler are submitted again after an interval that grows with each attempt, so that a
+ * saturated scheduler doesn't keep the {@link SchedulerService#cpuLightScheduler()} threads busy retrying. How many events of
+ * the flow are waiting and how long they waited is kept by a {@link SchedulerWaitTracker} and logged at debug level.
+ * <p/>
  * This processing strategy is not suitable for transactional flows and will fail if used with an active transaction.
  *
  * @since 4.0
@@ -89,11 +97,13 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
 
     private static Logger LOGGER = getLogger(ProactorStreamProcessingStrategy.class);
     private static int SCHEDULER_BUSY_RETRY_INTERVAL_MS = 2;
+    private static int SCHEDULER_BUSY_MAX_RETRY_INTERVAL_MS = 64;
 
     private Supplier<Scheduler> blockingSchedulerSupplier;
     private Supplier<Scheduler> cpuIntensiveSchedulerSupplier;
     private Scheduler blockingScheduler;
     private Scheduler cpuIntensiveScheduler;
+    private final SchedulerWaitTracker schedulerWaits = new SchedulerWaitTracker();
 
     public ProactorStreamProcessingStrategy(Supplier<Scheduler> ringBufferSchedulerSupplier,
                                             int bufferSize,
@@ -143,16 +153,47 @@ public class ProactorStreamProcessingStrategyFactory extends ReactorStreamProces
 
     private ReactiveProcessor proactor(ReactiveProcessor processor, Scheduler scheduler) {
       return publisher -> from(publisher)
-          .flatMap(event -> just(event).transform(processor)
-              .publishOn(fromExecutorService(decorateScheduler(getCpuLightScheduler())))
-              .subscribeOn(fromExecutorService(decorateScheduler(scheduler)))
-              .doOnError(RejectedExecutionException.class, throwable -> LOGGER.trace("Shared scheduler " + scheduler.getName()
-                  + " is busy.  Scheduling of the current event will be retried after " + SCHEDULER_BUSY_RETRY_INTERVAL_MS
-                  + "ms."))
-              .retryWhen(errors -> errors
-                  .flatMap(error -> delay(ofMillis(SCHEDULER_BUSY_RETRY_INTERVAL_MS),
-                                          fromExecutorService(getCpuLightScheduler())))),
-                   maxConcurrency / (getParallelism() * subscribers));
+          .flatMap(event -> {
+            SchedulerWaitTracker.Wait wait = schedulerWaits.newWait();
+            return just(event).transform(processor)
+                .publishOn(fromExecutorService(decorateScheduler(getCpuLightScheduler())))
+                // Subscribed on the scheduler thread, once the scheduler accepted the event
+                .doOnSubscribe(s -> onScheduled(wait, scheduler))
+                .subscribeOn(fromExecutorService(decorateScheduler(scheduler)))
+                .doOnError(RejectedExecutionException.class, throwable -> {
+                  wait.rejected();
+                  LOGGER.trace("Shared scheduler " + scheduler.getName()
+                      + " is busy.  Scheduling of the current event will be retried.");
+                })
+                .retryWhen(errors -> errors
+                    .zipWith(range(0, MAX_VALUE), (error, attempt) -> attempt)
+                    .flatMap(attempt -> delay(ofMillis(retryInterval(attempt)),
+                                              fromExecutorService(getCpuLightScheduler()))))
+                .doFinally(signal -> wait.done());
+          }, maxConcurrency / (getParallelism() * subscribers));
+    }
+
+    private void onScheduled(SchedulerWaitTracker.Wait wait, Scheduler scheduler) {
+      long waited = wait.scheduled();
+      if (waited >= 0 && LOGGER.isDebugEnabled()) {
+        LOGGER.debug(format("Event waited %d ms for busy scheduler %s, %d events of the flow are still waiting",
+                            NANOSECONDS.toMillis(waited), scheduler.getName(), schedulerWaits.getWaiting()));
+      }
+    }
+
+    /**
+     * @return the {@link SchedulerWaitTracker} of the events of the flow waiting for a busy shared scheduler
+     */
+    SchedulerWaitTracker getSchedulerWaits() {
+      return schedulerWaits;
+    }
+
+    /**
+     * Doubles the retry interval with each attempt, up to {@link #SCHEDULER_BUSY_MAX_RETRY_INTERVAL_MS}, so that events
+     * waiting for a saturated scheduler don't keep the cpu-light threads busy.
+     */
+    private long retryInterval(int attempt) {
+      return min((long) SCHEDULER_BUSY_RETRY_INTERVAL_MS << min(attempt, 16), SCHEDULER_BUSY_MAX_RETRY_INTERVAL_MS);
     }
 
   }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.System.nanoTime;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps track of the events of a flow which are waiting for a busy shared scheduler to accept them, and of how long they had
+ * to wait.
+ * <p>
+ * A {@link Wait} is obtained for each event before it is submitted. The event starts waiting the first time the scheduler
+ * rejects it, and stops once the scheduler accepts it or its processing is abandoned.
+ *
+ * @since 4.0
+ */
+final class SchedulerWaitTracker {
+
+  private final AtomicInteger waiting = new AtomicInteger(0);
+  private final LongAdder waitedCount = new LongAdder();
+  private final LongAdder totalWaitNanos = new LongAdder();
+  private final AtomicLong maxWaitNanos = new AtomicLong(0);
+
+  /**
+   * @return a new {@link Wait} to track an event which is about to be submitted to a shared scheduler.
+   */
+  Wait newWait() {
+    return new Wait();
+  }
+
+  /**
+   * @return the number of events currently waiting for a busy scheduler
+   */
+  int getWaiting() {
+    return waiting.get();
+  }
+
+  /**
+   * @return how many events had to wait for a busy scheduler before being accepted by it
+   */
+  long getWaitedCount() {
+    return waitedCount.sum();
+  }
+
+  /**
+   * @return the accumulated time, in nanoseconds, that events spent waiting for a busy scheduler before being accepted by it
+   */
+  long getTotalWaitNanos() {
+    return totalWaitNanos.sum();
+  }
+
+  /**
+   * @return the longest time, in nanoseconds, that an event spent waiting for a busy scheduler before being accepted by it
+   */
+  long getMaxWaitNanos() {
+    return maxWaitNanos.get();
+  }
+
+  /**
+   * The wait of a single event. Its methods are invoked by the signals of the event's processing, which are never concurrent.
+   */
+  final class Wait {
+
+    private volatile boolean waitingForScheduler = false;
+    private volatile long startTime;
+
+    /**
+     * Notifies that the scheduler rejected the event. Only the first rejection starts the wait.
+     */
+    void rejected() {
+      if (!waitingForScheduler) {
+        startTime = nanoTime();
+        waitingForScheduler = true;
+        waiting.incrementAndGet();
+      }
+    }
+
+    /**
+     * Notifies that the scheduler accepted the event.
+     *
+     * @return the time, in nanoseconds, the event waited for the scheduler, or {@code -1} if it was never rejected.
+     */
+    long scheduled() {
+      if (!waitingForScheduler) {
+        return -1;
+      }
+
+      waitingForScheduler = false;
+      waiting.decrementAndGet();
+
+      final long waited = nanoTime() - startTime;
+      waitedCount.increment();
+      totalWaitNanos.add(waited);
+      maxWaitNanos.accumulateAndGet(waited, Math::max);
+      return waited;
+    }
+
+    /**
+     * Notifies that the processing of the event finished, so it no longer waits for the scheduler if it still was.
+     */
+    void done() {
+      if (waitingForScheduler) {
+        waitingForScheduler = false;
+        waiting.decrementAndGet();
+      }
+    }
+  }
+}
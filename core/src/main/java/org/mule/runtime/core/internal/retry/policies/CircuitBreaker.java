@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry.policies;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.internal.retry.policies.CircuitBreaker.State.CLOSED;
+import static org.mule.runtime.core.internal.retry.policies.CircuitBreaker.State.HALF_OPEN;
+import static org.mule.runtime.core.internal.retry.policies.CircuitBreaker.State.OPEN;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.slf4j.Logger;
+
+/**
+ * Keeps track of the failures of the attempts to use a resource, in order to reject new attempts without trying them while the
+ * resource is failing.
+ * <p>
+ * The circuit starts {@link State#CLOSED closed}, letting every attempt through. After {@code failureThreshold} consecutive
+ * failures it is {@link State#OPEN opened}, rejecting every attempt until {@code openTimeout} elapses. Then it becomes
+ * {@link State#HALF_OPEN half-open}, letting a single trial attempt through: if it succeeds the circuit is closed again,
+ * otherwise it is opened again.
+ * <p>
+ * Checking a closed circuit doesn't acquire any lock.
+ *
+ * @since 4.1
+ */
+public class CircuitBreaker {
+
+  private static final Logger LOGGER = getLogger(CircuitBreaker.class);
+
+  /**
+   * The states a {@link CircuitBreaker} may be in.
+   */
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final int failureThreshold;
+  private final long openTimeout;
+  private final long openTimeoutNanos;
+
+  private volatile State state = CLOSED;
+  private volatile int consecutiveFailures = 0;
+  private long openedAt;
+  private boolean trialInProgress;
+
+  /**
+   * @param failureThreshold the amount of consecutive failures that open the circuit
+   * @param openTimeout      the time in milliseconds the circuit stays open before a trial attempt is let through
+   */
+  public CircuitBreaker(int failureThreshold, long openTimeout) {
+    this.failureThreshold = failureThreshold;
+    this.openTimeout = openTimeout;
+    this.openTimeoutNanos = MILLISECONDS.toNanos(openTimeout);
+  }
+
+  /**
+   * Checks whether an attempt may be done. Every attempt that is allowed must be followed by a call to {@link #onSuccess()},
+   * {@link #onFailure()} or {@link #onAbort()}.
+   *
+   * @return {@code true} if the attempt may be done, {@code false} if it has to be rejected.
+   */
+  public boolean tryAcquire() {
+    if (state == CLOSED) {
+      return true;
+    }
+
+    synchronized (this) {
+      switch (state) {
+        case CLOSED:
+          return true;
+        case OPEN:
+          if (nanoTime() - openedAt < openTimeoutNanos) {
+            return false;
+          }
+          state = HALF_OPEN;
+          trialInProgress = true;
+          return true;
+        default:
+          if (trialInProgress) {
+            return false;
+          }
+          trialInProgress = true;
+          return true;
+      }
+    }
+  }
+
+  /**
+   * Records the success of an allowed attempt, closing the circuit.
+   */
+  public void onSuccess() {
+    if (state == CLOSED && consecutiveFailures == 0) {
+      return;
+    }
+
+    synchronized (this) {
+      if (state != CLOSED && LOGGER.isInfoEnabled()) {
+        LOGGER.info("Closing circuit after a successful attempt");
+      }
+      state = CLOSED;
+      consecutiveFailures = 0;
+      trialInProgress = false;
+    }
+  }
+
+  /**
+   * Records the failure of an allowed attempt, opening the circuit if it was a trial or if the failure threshold is reached.
+   */
+  public synchronized void onFailure() {
+    // Failures of attempts started before the circuit was opened don't extend the time it stays open
+    if (state == OPEN || (state == CLOSED && ++consecutiveFailures < failureThreshold)) {
+      return;
+    }
+
+    if (LOGGER.isWarnEnabled()) {
+      LOGGER.warn("Opening circuit for " + openTimeout + "ms after "
+          + (state == HALF_OPEN ? "a failed trial attempt" : consecutiveFailures + " consecutive failures"));
+    }
+    state = OPEN;
+    openedAt = nanoTime();
+    consecutiveFailures = 0;
+    trialInProgress = false;
+  }
+
+  /**
+   * Records that an allowed attempt ended without telling whether the resource works, letting another trial through if it was
+   * one.
+   */
+  public synchronized void onAbort() {
+    trialInProgress = false;
+  }
+
+  /**
+   * @return the current state of the circuit.
+   */
+  public State getState() {
+    return state;
+  }
+}
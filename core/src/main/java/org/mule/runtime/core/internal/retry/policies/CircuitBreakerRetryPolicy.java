@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry.policies;
+
+import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
+import static reactor.core.publisher.Mono.defer;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.publisher.Mono.from;
+
+import org.mule.runtime.core.api.retry.policy.CircuitBreakerOpenException;
+import org.mule.runtime.core.api.retry.policy.PolicyStatus;
+import org.mule.runtime.core.api.retry.policy.RetryPolicy;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * Decorates a {@link RetryPolicy} so that the attempts are guarded by a {@link CircuitBreaker}.
+ * <p>
+ * While the circuit is open, attempts fail right away with a {@link CircuitBreakerOpenException} and are not retried, so
+ * executions don't wait on a resource that is known to be failing.
+ */
+public class CircuitBreakerRetryPolicy implements RetryPolicy {
+
+  private final CircuitBreaker circuitBreaker;
+  private final RetryPolicy delegate;
+
+  public CircuitBreakerRetryPolicy(CircuitBreaker circuitBreaker, RetryPolicy delegate) {
+    this.circuitBreaker = circuitBreaker;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public <T> Publisher<T> applyPolicy(Publisher<T> publisher,
+                                      Predicate<Throwable> shouldRetry,
+                                      Consumer<Throwable> onExhausted,
+                                      Function<Throwable, Throwable> errorFunction) {
+    Publisher<T> guarded = defer(() -> {
+      if (!circuitBreaker.tryAcquire()) {
+        return error(new CircuitBreakerOpenException());
+      }
+      return from(publisher)
+          .doOnSuccess(value -> circuitBreaker.onSuccess())
+          .doOnError(e -> {
+            // Only the failures that deserve a retry tell that the resource is failing
+            if (shouldRetry.test(e)) {
+              circuitBreaker.onFailure();
+            } else {
+              circuitBreaker.onSuccess();
+            }
+          })
+          .doOnCancel(circuitBreaker::onAbort);
+    });
+
+    return delegate.applyPolicy(guarded, shouldRetry.and(e -> !(unwrap(e) instanceof CircuitBreakerOpenException)),
+                                onExhausted, errorFunction);
+  }
+
+  @Override
+  public PolicyStatus applyPolicy(Throwable cause) {
+    if (cause instanceof CircuitBreakerOpenException) {
+      return PolicyStatus.policyExhausted(cause);
+    }
+    return delegate.applyPolicy(cause);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry.policies;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.time.Duration.ofMillis;
+import static org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate.RETRY_COUNT_FOREVER;
+import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
+import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
+import static org.mule.runtime.core.internal.retry.policies.SimpleRetryPolicy.TRANSACTIONAL_RETRY_SCHEDULER;
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Mono.delay;
+import static reactor.core.publisher.Mono.error;
+import static reactor.core.publisher.Mono.from;
+
+import org.mule.runtime.core.api.retry.policy.PolicyStatus;
+import org.mule.runtime.core.api.retry.policy.RetryPolicy;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import reactor.core.publisher.Mono;
+
+/**
+ * Retries with an exponentially growing delay between attempts, randomized with decorrelated jitter so that the retries of
+ * different executions which failed at the same time are spread over time instead of happening all at once.
+ * <p>
+ * Each delay is a random value between {@code baseDelay} and three times the previous delay, capped at {@code maxDelay}.
+ */
+public class ExponentialBackoffRetryPolicy implements RetryPolicy {
+
+  private static final Logger LOGGER = getLogger(ExponentialBackoffRetryPolicy.class);
+
+  private final long baseDelay;
+  private final long maxDelay;
+  private final int count;
+
+  private int retries = 0;
+  private long previousDelay = 0;
+
+  /**
+   * @param baseDelay the minimum time in milliseconds to wait before a retry
+   * @param maxDelay  the maximum time in milliseconds to wait before a retry
+   * @param count     how many retries to attempt, or {@link org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate#RETRY_COUNT_FOREVER}
+   */
+  public ExponentialBackoffRetryPolicy(long baseDelay, long maxDelay, int count) {
+    this.baseDelay = baseDelay;
+    this.maxDelay = max(baseDelay, maxDelay);
+    this.count = count;
+  }
+
+  @Override
+  public <T> Publisher<T> applyPolicy(Publisher<T> publisher,
+                                      Predicate<Throwable> shouldRetry,
+                                      Consumer<Throwable> onExhausted,
+                                      Function<Throwable, Throwable> errorFunction) {
+    return from(publisher)
+        .retryWhen(errors -> {
+          // The companion is created for each subscription, so is its backoff state
+          final BackoffState state = new BackoffState();
+          return errors.concatMap(e -> {
+            if (!shouldRetry.test(e) || isExhausted(state.attempt)) {
+              return Mono.<Long>error(e);
+            }
+
+            long delay = nextDelay(state.previousDelay);
+            state.previousDelay = delay;
+            ++state.attempt;
+            // Transactions are bound to the thread, so the retry has to wait on it
+            return isTransactionActive() ? delay(ofMillis(delay), TRANSACTIONAL_RETRY_SCHEDULER) : delay(ofMillis(delay));
+          });
+        })
+        .onErrorResume(e -> {
+          e = unwrap(e);
+          onExhausted.accept(e);
+          return error(errorFunction.apply(e));
+        });
+  }
+
+  @Override
+  public PolicyStatus applyPolicy(Throwable cause) {
+    if (isExhausted(retries)) {
+      return PolicyStatus.policyExhausted(cause);
+    }
+
+    long delay = nextDelay(previousDelay);
+    if (LOGGER.isInfoEnabled()) {
+      LOGGER.info("Waiting for " + delay + "ms before reconnecting. Failed attempt " + (retries + 1) + " of "
+          + (count != RETRY_COUNT_FOREVER ? String.valueOf(count) : "unlimited"));
+    }
+
+    try {
+      ++retries;
+      previousDelay = delay;
+      Thread.sleep(delay);
+      return PolicyStatus.policyOk();
+    } catch (InterruptedException e) {
+      // If we get an interrupt exception, some one is telling us to stop
+      return PolicyStatus.policyExhausted(e);
+    }
+  }
+
+  /**
+   * Calculates the time to wait before the next retry.
+   *
+   * @param previousDelay the time waited before the previous retry, or {@code 0} if this is the first one
+   * @return the time in milliseconds to wait before the next retry
+   */
+  long nextDelay(long previousDelay) {
+    // Avoid overflowing when the previous delay is already beyond the maximum
+    long upperBound = min(maxDelay, min(previousDelay, maxDelay) * 3);
+    if (upperBound <= baseDelay) {
+      return baseDelay;
+    }
+    return ThreadLocalRandom.current().nextLong(baseDelay, upperBound + 1);
+  }
+
+  private boolean isExhausted(int attempt) {
+    return count != RETRY_COUNT_FOREVER && attempt >= count;
+  }
+
+  /**
+   * The retries attempted for a single subscription. Only accessed sequentially by the retry companion.
+   */
+  private static final class BackoffState {
+
+    private int attempt = 0;
+    private long previousDelay = 0;
+  }
+}
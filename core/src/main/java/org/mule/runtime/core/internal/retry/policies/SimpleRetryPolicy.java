@@ -45,7 +45,7 @@ import reactor.retry.RetryExhaustedException;
 public class SimpleRetryPolicy implements RetryPolicy {
 
   private static final Logger LOGGER = getLogger(SimpleRetryPolicy.class);
-  private static final Scheduler TRANSACTIONAL_RETRY_SCHEDULER = new TransactionalRetryScheduler();
+  static final Scheduler TRANSACTIONAL_RETRY_SCHEDULER = new TransactionalRetryScheduler();
 
   protected RetryCounter retryCounter;
 
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.routing;
 import static java.util.Collections.singletonList;
 import static org.mule.runtime.api.metadata.DataType.fromObject;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.api.transaction.TransactionCoordination.isTransactionActive;
 import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
@@ -59,6 +60,11 @@ import reactor.core.publisher.Flux;
  * <p>
  * Defining a groupSize greater than one, allows iterating over collections of elements of the specified size.
  * <p>
+ * Defining a maxConcurrency greater than one allows processing that many elements at the same time, on the processing strategy
+ * of the flow. In that case each element is processed from the event that arrived to foreach instead of from the result of the
+ * previous element, and the variables of all the results are then merged, either in the order of the collection or in the order
+ * in which they complete. Variables removed while processing an element are not removed from the merged result.
+ * <p>
  * The {@link CoreEvent} sent to the next message processor is the same that arrived to foreach.
  */
 public class Foreach extends AbstractMessageProcessorOwner implements Initialisable, Scope {
@@ -74,6 +80,8 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
   private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
   private String rootMessageVariableName = DEFAULT_ROOT_MESSAGE_VARIABLE;
   private String counterVariableName = DEFAULT_COUNTER_VARIABLE;
+  private int maxConcurrency = 1;
+  private boolean preserveOrder = true;
   private MessageProcessorChain nestedChain;
 
   @Override
@@ -141,43 +149,75 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
   private Flux<CoreEvent> splitAndProcess(CoreEvent request) {
     AtomicInteger count = new AtomicInteger();
     final AtomicReference<CoreEvent> currentEvent = new AtomicReference<>(request);
-    return fromIterable(
-                        // Split into sequence of TypedValue
-                        () -> splitRequest(request))
-                            // If batchSize > 1 then buffer sequence into List<TypedValue<T>> and convert to
-                            // TypedValue<List<TypedValue<T>>>.
-                            .transform(p -> batchSize > 1
-                                ? from(p).buffer(batchSize).map(list -> new TypedValue<>(list, fromObject(list)))
-                                : p)
-                            // For each TypedValue part process the nested chain using the event from the previous part.
-                            .concatMap(typedValue -> {
-                              Builder partEventBuilder = builder(currentEvent.get());
-                              if (typedValue.getValue() instanceof EventBuilderConfigurer) {
-                                // Support EventBuilderConfigurer currently used by Batch Module
-                                ((EventBuilderConfigurer) typedValue.getValue()).configure(partEventBuilder);
-                              } else if (typedValue.getValue() instanceof Message) {
-                                // If value is a Message then use it directly conserving attributes and properties.
-                                partEventBuilder.message((Message) typedValue.getValue());
-                              } else {
-                                // Otherwise create a new message
-                                partEventBuilder.message(Message.builder().payload(typedValue).build());
-                              }
-                              return just(partEventBuilder.addVariable(counterVariableName, count.incrementAndGet()).build())
-                                  .transform(nestedChain).doOnNext(result -> currentEvent.set(CoreEvent.builder(result).build()));
-                            })
-                            // This can potentially be improved but simplest way currently to determine if split results in empty
-                            // iterator is to check atomic count
-                            .switchIfEmpty(defer(() -> {
-                              if (count.get() == 0) {
-                                logger
-                                    .warn("Split expression returned no results. If this is not expected please check your expression");
-                                return just(request);
-                              } else {
-                                return empty();
-                              }
-                            }))
-                            .takeLast(1)
-                            .map(s -> CoreEvent.builder(currentEvent.get()).message(request.getMessage()).build());
+    // Split into sequence of TypedValue
+    Flux<TypedValue<?>> parts = fromIterable(() -> splitRequest(request))
+        // If batchSize > 1 then buffer sequence into List<TypedValue<T>> and convert to
+        // TypedValue<List<TypedValue<T>>>.
+        .transform(p -> batchSize > 1
+            ? from(p).buffer(batchSize).map(list -> new TypedValue<>(list, fromObject(list)))
+            : p);
+
+    Flux<CoreEvent> results;
+    if (maxConcurrency > 1 && !isTransactionActive()) {
+      // Each part is processed from the request event, and the variables each result added or changed are merged in the order
+      // they are collected, so the ones set by a later part win.
+      results = parts
+          .map(typedValue -> createPartEvent(request, typedValue, count.incrementAndGet()))
+          .transform(p -> preserveOrder
+              ? from(p).flatMapSequential(partEvent -> just(partEvent).transform(nestedChain), maxConcurrency)
+              : from(p).flatMap(partEvent -> just(partEvent).transform(nestedChain), maxConcurrency))
+          .doOnNext(result -> currentEvent.set(mergeVariables(currentEvent.get(), request, result)));
+    } else {
+      // For each TypedValue part process the nested chain using the event from the previous part.
+      results = parts
+          .concatMap(typedValue -> just(createPartEvent(currentEvent.get(), typedValue, count.incrementAndGet()))
+              .transform(nestedChain).doOnNext(result -> currentEvent.set(CoreEvent.builder(result).build())));
+    }
+
+    return results
+        // This can potentially be improved but simplest way currently to determine if split results in empty
+        // iterator is to check atomic count
+        .switchIfEmpty(defer(() -> {
+          if (count.get() == 0) {
+            logger.warn("Split expression returned no results. If this is not expected please check your expression");
+            return just(request);
+          } else {
+            return empty();
+          }
+        }))
+        .takeLast(1)
+        .map(s -> CoreEvent.builder(currentEvent.get()).message(request.getMessage()).build());
+  }
+
+  private CoreEvent createPartEvent(CoreEvent baseEvent, TypedValue<?> typedValue, int counter) {
+    Builder partEventBuilder = builder(baseEvent);
+    if (typedValue.getValue() instanceof EventBuilderConfigurer) {
+      // Support EventBuilderConfigurer currently used by Batch Module
+      ((EventBuilderConfigurer) typedValue.getValue()).configure(partEventBuilder);
+    } else if (typedValue.getValue() instanceof Message) {
+      // If value is a Message then use it directly conserving attributes and properties.
+      partEventBuilder.message((Message) typedValue.getValue());
+    } else {
+      // Otherwise create a new message
+      partEventBuilder.message(Message.builder().payload(typedValue).build());
+    }
+    return partEventBuilder.addVariable(counterVariableName, counter).build();
+  }
+
+  /**
+   * Copies into {@code event} the variables that {@code partResult} added or changed with respect to {@code request}, from
+   * which the part was created. Variables are compared by identity, since every part starts with the very same variables as
+   * the request.
+   */
+  private CoreEvent mergeVariables(CoreEvent event, CoreEvent request, CoreEvent partResult) {
+    Map<String, TypedValue<?>> requestVariables = request.getVariables();
+    Builder builder = builder(event);
+    partResult.getVariables().forEach((name, value) -> {
+      if (!name.equals(counterVariableName) && !name.equals(rootMessageVariableName) && requestVariables.get(name) != value) {
+        builder.addVariable(name, value.getValue(), value.getDataType());
+      }
+    });
+    return builder.build();
   }
 
   private Iterator<TypedValue<?>> splitRequest(CoreEvent request) {
@@ -219,6 +259,22 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     this.batchSize = batchSize;
   }
 
+  /**
+   * @param maxConcurrency the maximum amount of parts to process at the same time. Parts are processed one after the other when
+   *                       {@code 1}, which is the default, or when a transaction is active.
+   */
+  public void setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * @param preserveOrder whether the variables of the parts processed concurrently are merged in the order of the collection, as
+   *                      opposed to the order in which they complete. Defaults to {@code true}.
+   */
+  public void setPreserveOrder(boolean preserveOrder) {
+    this.preserveOrder = preserveOrder;
+  }
+
   public void setRootMessageVariableName(String rootMessageVariableName) {
     this.rootMessageVariableName = rootMessageVariableName;
   }
@@ -144,27 +144,36 @@ public class IdempotentMessageValidator extends AbstractComponent
   }
 
   private boolean accept(CoreEvent event) {
-    if (event != null && isNewMessage(event)) {
-      try {
-        String id = getIdForEvent(event);
-        String value = getValueForEvent(event);
-        try {
-          store.store(id, value);
-          return true;
-        } catch (ObjectAlreadyExistsException ex) {
-          return false;
-        } catch (ObjectStoreNotAvailableException e) {
-          LOGGER.error("ObjectStore not available: " + e.getMessage());
-          return false;
-        } catch (ObjectStoreException e) {
-          LOGGER.warn("ObjectStore exception: " + e.getMessage());
-          return false;
-        }
-      } catch (MuleException e) {
-        LOGGER.warn("Could not retrieve Id or Value for event: " + e.getMessage());
-        return false;
-      }
-    } else {
+    if (event == null) {
+      return false;
+    }
+
+    String id;
+    String value;
+    try {
+      id = getIdForEvent(event);
+      // Avoid evaluating the same expression twice, which is the default
+      value = valueExpression.equals(idExpression) ? id : getValueForEvent(event);
+    } catch (MuleException e) {
+      LOGGER.warn("Could not retrieve Id or Value for event: " + e.getMessage());
+      return false;
+    }
+
+    try {
+      initialiseStoreIfNeeded();
+      // The store rejects an existing id atomically, so there is no need to check for it beforehand
+      store.store(id, value);
+      return true;
+    } catch (ObjectAlreadyExistsException ex) {
+      return false;
+    } catch (ObjectStoreNotAvailableException e) {
+      LOGGER.error("ObjectStore not available: " + e.getMessage());
+      return false;
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("ObjectStore exception: " + e.getMessage());
+      return false;
+    } catch (MuleException e) {
+      logIdempotencyError(event, e);
       return false;
     }
   }
@@ -181,20 +190,28 @@ public class IdempotentMessageValidator extends AbstractComponent
   protected boolean isNewMessage(CoreEvent event) {
     try {
       String id = this.getIdForEvent(event);
-      if (store == null) {
-        synchronized (this) {
-          initialise();
-        }
-      }
+      initialiseStoreIfNeeded();
       return !store.contains(id);
     } catch (MuleException e) {
-      LOGGER.error("Exception attempting to determine idempotency of incoming message for " + getLocation().getRootContainerName()
-          + " from the connector "
-          + event.getContext().getOriginatingLocation().getComponentIdentifier().getIdentifier().getNamespace(), e);
+      logIdempotencyError(event, e);
       return false;
     }
   }
 
+  private void initialiseStoreIfNeeded() throws InitialisationException {
+    if (store == null) {
+      synchronized (this) {
+        initialise();
+      }
+    }
+  }
+
+  private void logIdempotencyError(CoreEvent event, MuleException e) {
+    LOGGER.error("Exception attempting to determine idempotency of incoming message for " + getLocation().getRootContainerName()
+        + " from the connector "
+        + event.getContext().getOriginatingLocation().getComponentIdentifier().getIdentifier().getNamespace(), e);
+  }
+
   public String getValueExpression() {
     return valueExpression;
   }
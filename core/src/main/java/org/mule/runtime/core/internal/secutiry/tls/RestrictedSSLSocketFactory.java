@@ -16,6 +16,7 @@ import java.net.InetAddress;
 import java.net.Socket;
 
 import javax.net.SocketFactory;
+import javax.net.ssl.HandshakeCompletedListener;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.SSLSocketFactory;
@@ -29,10 +30,23 @@ public class RestrictedSSLSocketFactory extends SSLSocketFactory {
   private final String[] enabledCipherSuites;
   private final String[] enabledProtocols;
   private final String[] defaultCipherSuites;
+  private final HandshakeCompletedListener handshakeCompletedListener;
   private static RestrictedSSLSocketFactory defaultSocketFactory = null;
 
   public RestrictedSSLSocketFactory(SSLContext sslContext, String[] cipherSuites, String[] protocols) {
+    this(sslContext, cipherSuites, protocols, null);
+  }
+
+  /**
+   * Creates a new instance that also registers the given {@code handshakeCompletedListener} on every socket it creates.
+   * <p>
+   * The JDK starts a new thread to notify each completed handshake to the listeners of a socket, so a listener should only be
+   * given when really needed.
+   */
+  public RestrictedSSLSocketFactory(SSLContext sslContext, String[] cipherSuites, String[] protocols,
+                                    HandshakeCompletedListener handshakeCompletedListener) {
     this.sslSocketFactory = sslContext.getSocketFactory();
+    this.handshakeCompletedListener = handshakeCompletedListener;
 
     if (cipherSuites == null) {
       cipherSuites = sslSocketFactory.getDefaultCipherSuites();
@@ -89,6 +103,9 @@ public class RestrictedSSLSocketFactory extends SSLSocketFactory {
   private SSLSocket restrictCipherSuites(SSLSocket socket) {
     socket.setEnabledCipherSuites(enabledCipherSuites);
     socket.setEnabledProtocols(enabledProtocols);
+    if (handshakeCompletedListener != null) {
+      socket.addHandshakeCompletedListener(handshakeCompletedListener);
+    }
     return socket;
   }
 
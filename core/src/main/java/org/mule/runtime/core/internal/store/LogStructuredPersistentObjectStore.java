@@ -0,0 +1,869 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.i18n.CoreMessages.failedToCreate;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.component.InternalComponent;
+import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * Persistent {@link PartitionableExpirableObjectStore} which keeps all the partitions in a single log made of append-only segment
+ * files, instead of a file per entry.
+ * <p>
+ * Every change (storing or removing an entry, clearing or disposing a partition) is appended as a record to the active segment, and an
+ * in-memory hash index keeps the location of the live entries. Opening the store just reads the segments sequentially, which is
+ * much cheaper than listing and deserializing one file per entry.
+ * <p>
+ * Entries are kept in the index in the order they were stored, so expiring them by TTL or max entries only needs to look at the
+ * oldest ones. Removed entries leave garbage behind in the segments; once more than half of a segment is garbage, its live records
+ * are copied to the active segment and the segment file is deleted. This compaction is done in the background if a
+ * {@link SchedulerService} is available.
+ *
+ * @since 4.1
+ */
+public class LogStructuredPersistentObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
+    implements PartitionableExpirableObjectStore<T>, InternalComponent, MuleContextAware, Disposable {
+
+  private static final Logger LOGGER = getLogger(LogStructuredPersistentObjectStore.class);
+
+  public static final String OBJECT_STORE_LOG_DIR = "objectstore-log";
+  public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.objectstore.log.segmentSize";
+
+  private static final String SEGMENT_FILE_EXTENSION = ".log";
+  private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+  private static final byte CLEAR = 3;
+  private static final byte PARTITION = 4;
+  private static final byte DISPOSE = 5;
+
+  // body length (int) + crc (int)
+  private static final int RECORD_HEADER_SIZE = 8;
+
+  private MuleContext muleContext;
+  private final int segmentSize;
+
+  // Fair, so that the background compaction is not starved by a steady stream of writes
+  private final ReadWriteLock lock = new ReentrantReadWriteLock(true);
+  private final Map<String, Partition> partitions = new HashMap<>();
+  private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+  private Segment activeSegment;
+  private long sequence = 0;
+  private File storeDirectory;
+  private boolean initialized = false;
+
+  private final AtomicBoolean compactionScheduled = new AtomicBoolean(false);
+  private Scheduler compactionScheduler;
+
+  public LogStructuredPersistentObjectStore() {
+    this(null);
+  }
+
+  public LogStructuredPersistentObjectStore(MuleContext muleContext) {
+    this(muleContext, getInteger(SEGMENT_SIZE_PROPERTY_KEY, DEFAULT_SEGMENT_SIZE));
+  }
+
+  LogStructuredPersistentObjectStore(MuleContext muleContext, int segmentSize) {
+    this.muleContext = muleContext;
+    this.segmentSize = segmentSize;
+  }
+
+  @Override
+  public void open() throws ObjectStoreException {
+    withWriteLock(() -> {
+      if (!initialized) {
+        initStoreDirectory();
+        recover();
+        initialized = true;
+      }
+      createPartitionIfNeeded(DEFAULT_PARTITION_NAME);
+      return null;
+    });
+  }
+
+  @Override
+  public void open(String partitionName) throws ObjectStoreException {
+    open();
+    withWriteLock(() -> createPartitionIfNeeded(partitionName));
+  }
+
+  @Override
+  public void close(String partitionName) throws ObjectStoreException {}
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  @Override
+  protected boolean doContains(String key, String partitionName) throws ObjectStoreException {
+    return withReadLock(() -> getPartition(partitionName).entries.containsKey(key));
+  }
+
+  @Override
+  protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
+    byte[] serializedValue = muleContext.getObjectSerializer().getInternalProtocol().serialize(value);
+    withWriteLock(() -> {
+      Partition partition = getPartition(partitionName);
+      if (partition.entries.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+      long timestamp = currentTimeMillis();
+      long seq = ++sequence;
+      partition.entries.put(key, append(PUT, seq, timestamp, partitionName, key, serializedValue, 0));
+      return null;
+    });
+  }
+
+  @Override
+  protected T doRetrieve(String key, String partitionName) throws ObjectStoreException {
+    return deserialize(withReadLock(() -> read(getEntry(getPartition(partitionName), key))));
+  }
+
+  @Override
+  protected T doRemove(String key, String partitionName) throws ObjectStoreException {
+    byte[] value = withWriteLock(() -> {
+      Partition partition = getPartition(partitionName);
+      Entry entry = getEntry(partition, key);
+      byte[] bytes = read(entry);
+      partition.entries.remove(key);
+      appendTombstone(partitionName, key, entry);
+      return bytes;
+    });
+    scheduleCompactionIfNeeded();
+    return deserialize(value);
+  }
+
+  @Override
+  public List<String> allKeys(String partitionName) throws ObjectStoreException {
+    return withReadLock(() -> new ArrayList<>(getPartition(partitionName).entries.keySet()));
+  }
+
+  @Override
+  public Map<String, T> retrieveAll(String partitionName) throws ObjectStoreException {
+    Map<String, byte[]> serializedValues = withReadLock(() -> {
+      Map<String, byte[]> values = new LinkedHashMap<>();
+      for (Map.Entry<String, Entry> entry : getPartition(partitionName).entries.entrySet()) {
+        values.put(entry.getKey(), read(entry.getValue()));
+      }
+      return values;
+    });
+
+    Map<String, T> values = new LinkedHashMap<>(serializedValues.size());
+    for (Map.Entry<String, byte[]> entry : serializedValues.entrySet()) {
+      values.put(entry.getKey(), deserialize(entry.getValue()));
+    }
+    return values;
+  }
+
+  @Override
+  public void clear(String partitionName) throws ObjectStoreException {
+    withWriteLock(() -> {
+      Partition partition = getPartition(partitionName);
+      if (!partition.entries.isEmpty()) {
+        appendCheckpoint(CLEAR, partitionName);
+        for (Entry entry : partition.entries.values()) {
+          addGarbage(entry.segment, entry.recordLength);
+        }
+        partition.entries.clear();
+      }
+      return null;
+    });
+    scheduleCompactionIfNeeded();
+  }
+
+  @Override
+  public List<String> allPartitions() throws ObjectStoreException {
+    return withReadLock(() -> new ArrayList<>(partitions.keySet()));
+  }
+
+  @Override
+  public void disposePartition(String partitionName) throws ObjectStoreException {
+    withWriteLock(() -> {
+      Partition partition = getPartition(partitionName);
+      appendCheckpoint(DISPOSE, partitionName);
+      for (Entry entry : partition.entries.values()) {
+        addGarbage(entry.segment, entry.recordLength);
+      }
+      partitions.remove(partitionName);
+      return null;
+    });
+    scheduleCompactionIfNeeded();
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    expire(entryTTL, maxEntries, DEFAULT_PARTITION_NAME);
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
+    withWriteLock(() -> {
+      Partition partition = getPartition(partitionName);
+      final long now = currentTimeMillis();
+      int excess = maxEntries == UNBOUNDED ? 0 : partition.entries.size() - maxEntries;
+
+      // Entries are in the order they were stored, so only the oldest ones need to be checked
+      for (Iterator<Map.Entry<String, Entry>> it = partition.entries.entrySet().iterator(); it.hasNext();) {
+        Map.Entry<String, Entry> entry = it.next();
+        if (excess > 0 || (entryTTL != UNBOUNDED && now - entry.getValue().timestamp >= entryTTL)) {
+          it.remove();
+          appendTombstone(partitionName, entry.getKey(), entry.getValue());
+          excess--;
+        } else {
+          break;
+        }
+      }
+      return null;
+    });
+    scheduleCompactionIfNeeded();
+  }
+
+  @Override
+  public void dispose() {
+    if (compactionScheduler != null) {
+      compactionScheduler.stop();
+      compactionScheduler = null;
+    }
+
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      for (Segment segment : segments.values()) {
+        segment.close();
+      }
+      segments.clear();
+      partitions.clear();
+      initialized = false;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Compacts all the segments which are mostly garbage.
+   */
+  void compact() {
+    Segment segment;
+    while ((segment = nextSegmentToCompact()) != null) {
+      Lock writeLock = lock.writeLock();
+      writeLock.lock();
+      try {
+        if (segments.get(segment.id) == segment && segment != activeSegment) {
+          compact(segment);
+        }
+      } catch (IOException e) {
+        LOGGER.warn("Could not compact object store segment " + segment.file.getAbsolutePath(), e);
+        return;
+      } finally {
+        writeLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * @return the amount of segment files currently used by this store
+   */
+  int getSegmentsCount() {
+    return withReadLockUnchecked(segments::size);
+  }
+
+  private Segment nextSegmentToCompact() {
+    return withReadLockUnchecked(() -> {
+      for (Segment segment : segments.values()) {
+        if (segment != activeSegment && segment.garbage * 2 > segment.size) {
+          return segment;
+        }
+      }
+      return null;
+    });
+  }
+
+  private void scheduleCompactionIfNeeded() {
+    if (nextSegmentToCompact() == null || !compactionScheduled.compareAndSet(false, true)) {
+      return;
+    }
+
+    Scheduler scheduler = getCompactionScheduler();
+    if (scheduler == null) {
+      try {
+        compact();
+      } finally {
+        compactionScheduled.set(false);
+      }
+      return;
+    }
+
+    try {
+      scheduler.execute(() -> {
+        try {
+          compact();
+        } finally {
+          compactionScheduled.set(false);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // Compaction will be tried again on the next removal
+      compactionScheduled.set(false);
+    }
+  }
+
+  private synchronized Scheduler getCompactionScheduler() {
+    if (compactionScheduler == null && muleContext.getSchedulerService() != null) {
+      compactionScheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName("ObjectStore-Compaction"));
+    }
+    return compactionScheduler;
+  }
+
+  private void compact(Segment segment) throws IOException {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Compacting object store segment {} with {} garbage bytes out of {}", segment.id, segment.garbage,
+                   segment.size);
+    }
+
+    boolean olderSegments = segments.firstKey() < segment.id;
+    int firstWrittenSegment = activeSegment.id;
+    segment.scan((record, offset, bytes) -> {
+      switch (record.type) {
+        case PUT:
+          Partition partition = partitions.get(record.partition);
+          Entry entry = partition == null ? null : partition.entries.get(record.key);
+          if (entry != null && entry.segment == segment && entry.offset == offset) {
+            long newOffset = appendRaw(bytes);
+            entry.segment = activeSegment;
+            entry.offset = newOffset;
+          }
+          break;
+        case REMOVE:
+          // Keep the tombstone while the removed entry is still in the log
+          Segment target = segments.get(record.targetSegment);
+          if (target != null && target != segment) {
+            appendRaw(bytes);
+            activeSegment.addTombstone(record.targetSegment, bytes.length);
+          }
+          break;
+        case CLEAR:
+          if (olderSegments) {
+            appendRaw(bytes);
+          }
+          break;
+        case PARTITION:
+          if (partitions.containsKey(record.partition)) {
+            appendRaw(bytes);
+          }
+          break;
+        case DISPOSE:
+          // Copies of the partition checkpoint may still be in newer segments
+          if (olderSegments || !partitions.containsKey(record.partition)) {
+            appendRaw(bytes);
+          }
+          break;
+        default:
+          appendRaw(bytes);
+      }
+    });
+
+    // The copies have to be on disk before the originals are gone, and the active segment may have rolled over
+    for (Segment written : segments.tailMap(firstWrittenSegment).values()) {
+      written.channel.force(false);
+    }
+    deleteSegment(segment);
+  }
+
+  private void deleteSegment(Segment segment) {
+    segments.remove(segment.id);
+    segment.close();
+    deleteQuietly(segment.file);
+
+    // The tombstones for the entries in the deleted segment are not needed anymore
+    for (Segment other : segments.values()) {
+      Long tombstoneBytes = other.tombstones.remove(segment.id);
+      if (tombstoneBytes != null) {
+        other.garbage += tombstoneBytes;
+      }
+    }
+  }
+
+  private void recover() throws ObjectStoreException {
+    File[] files = storeDirectory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+    if (files != null) {
+      for (File file : files) {
+        String name = file.getName();
+        int id = Integer.parseInt(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length()));
+        segments.put(id, Segment.open(id, file));
+      }
+    }
+
+    // The last operation for each key wins, no matter in which segment it is
+    Map<String, Map<String, RecoveredRecord>> recovered = new HashMap<>();
+    Map<String, Long> clearedUpTo = new HashMap<>();
+    Map<String, Long> createdAt = new HashMap<>();
+    Map<String, Long> disposedAt = new HashMap<>();
+    try {
+      for (Segment segment : segments.values()) {
+        segment.scan((record, offset, bytes) -> {
+          sequence = max(sequence, record.seq);
+          Map<String, RecoveredRecord> partitionRecords = recovered.computeIfAbsent(record.partition, k -> new HashMap<>());
+          switch (record.type) {
+            case PUT:
+            case REMOVE:
+              if (record.type == REMOVE && segments.containsKey(record.targetSegment)) {
+                segment.addTombstone(record.targetSegment, bytes.length);
+              } else {
+                segment.garbage += bytes.length;
+              }
+              RecoveredRecord previous = partitionRecords.get(record.key);
+              if (previous == null || previous.record.seq < record.seq) {
+                partitionRecords.put(record.key, new RecoveredRecord(record, segment, offset, bytes.length));
+              }
+              break;
+            case CLEAR:
+              clearedUpTo.merge(record.partition, record.seq, Math::max);
+              break;
+            case PARTITION:
+              createdAt.merge(record.partition, record.seq, Math::max);
+              break;
+            case DISPOSE:
+              clearedUpTo.merge(record.partition, record.seq, Math::max);
+              disposedAt.merge(record.partition, record.seq, Math::max);
+              break;
+            default:
+              break;
+          }
+        });
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                storeDirectory.getAbsolutePath())),
+                                     e);
+    }
+
+    for (Map.Entry<String, Map<String, RecoveredRecord>> partitionRecords : recovered.entrySet()) {
+      Long disposeSeq = disposedAt.get(partitionRecords.getKey());
+      if (disposeSeq != null && disposeSeq > createdAt.getOrDefault(partitionRecords.getKey(), 0L)) {
+        continue;
+      }
+
+      long clearSeq = clearedUpTo.getOrDefault(partitionRecords.getKey(), 0L);
+      List<RecoveredRecord> live = new ArrayList<>();
+      for (RecoveredRecord record : partitionRecords.getValue().values()) {
+        if (record.record.type == PUT && record.record.seq > clearSeq) {
+          live.add(record);
+        }
+      }
+      live.sort((r1, r2) -> Long.compare(r1.record.seq, r2.record.seq));
+
+      Partition partition = new Partition();
+      for (RecoveredRecord record : live) {
+        record.segment.garbage -= record.length;
+        partition.entries.put(record.record.key, record.toEntry());
+      }
+      partitions.put(partitionRecords.getKey(), partition);
+    }
+
+    activeSegment = segments.isEmpty() ? newSegment() : segments.lastEntry().getValue();
+  }
+
+  private Object createPartitionIfNeeded(String partitionName) throws ObjectStoreException {
+    if (!partitions.containsKey(partitionName)) {
+      appendCheckpoint(PARTITION, partitionName);
+      partitions.put(partitionName, new Partition());
+    }
+    return null;
+  }
+
+  private Partition getPartition(String partitionName) throws ObjectStoreException {
+    Partition partition = partitions.get(partitionName);
+    if (partition == null) {
+      throw new ObjectStoreException(createStaticMessage("No partition named: " + partitionName));
+    }
+    return partition;
+  }
+
+  private Entry getEntry(Partition partition, String key) throws ObjectDoesNotExistException {
+    Entry entry = partition.entries.get(key);
+    if (entry == null) {
+      throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+    }
+    return entry;
+  }
+
+  private void appendTombstone(String partitionName, String key, Entry entry) throws ObjectStoreException {
+    addGarbage(entry.segment, entry.recordLength);
+    Entry tombstone = append(REMOVE, ++sequence, currentTimeMillis(), partitionName, key, null, entry.segment.id);
+    if (segments.containsKey(entry.segment.id)) {
+      tombstone.segment.addTombstone(entry.segment.id, tombstone.recordLength);
+    } else {
+      tombstone.segment.garbage += tombstone.recordLength;
+    }
+  }
+
+  private void appendCheckpoint(byte type, String partitionName) throws ObjectStoreException {
+    append(type, ++sequence, currentTimeMillis(), partitionName, null, null, 0);
+  }
+
+  private void addGarbage(Segment segment, int bytes) {
+    segment.garbage += bytes;
+    if (segment != activeSegment && segment.garbage >= segment.size && segments.get(segment.id) == segment) {
+      // Nothing live in there, no need to copy anything
+      deleteSegment(segment);
+    }
+  }
+
+  private Entry append(byte type, long seq, long timestamp, String partitionName, String key, byte[] value,
+                       int targetSegment)
+      throws ObjectStoreException {
+    byte[] partitionBytes = partitionName.getBytes(UTF_8);
+    byte[] keyBytes = key == null ? null : key.getBytes(UTF_8);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream record = new DataOutputStream(bytes);
+    int valueOffset;
+    try {
+      record.writeInt(0);
+      record.writeInt(0);
+      record.writeByte(type);
+      record.writeLong(seq);
+      record.writeLong(timestamp);
+      record.writeInt(partitionBytes.length);
+      record.write(partitionBytes);
+      if (type == PUT || type == REMOVE) {
+        record.writeInt(keyBytes.length);
+        record.write(keyBytes);
+      }
+      if (type == REMOVE) {
+        record.writeInt(targetSegment);
+      }
+      valueOffset = record.size();
+      if (value != null) {
+        record.write(value);
+      }
+      record.flush();
+    } catch (IOException e) {
+      // Can't happen on a ByteArrayOutputStream
+      throw new ObjectStoreException(e);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), RECORD_HEADER_SIZE, buffer.capacity() - RECORD_HEADER_SIZE);
+    buffer.putInt(0, buffer.capacity() - RECORD_HEADER_SIZE);
+    buffer.putInt(4, (int) crc.getValue());
+
+    try {
+      long offset = appendRaw(buffer.array());
+      return new Entry(activeSegment, offset, buffer.capacity(), valueOffset, timestamp);
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private long appendRaw(byte[] record) throws IOException {
+    if (activeSegment.size > 0 && activeSegment.size + record.length > segmentSize) {
+      activeSegment = newSegment();
+    }
+    long offset = activeSegment.size;
+    ByteBuffer buffer = ByteBuffer.wrap(record);
+    while (buffer.hasRemaining()) {
+      activeSegment.channel.write(buffer, offset + buffer.position());
+    }
+    activeSegment.size += record.length;
+    return offset;
+  }
+
+  private byte[] read(Entry entry) throws ObjectStoreException {
+    ByteBuffer buffer = ByteBuffer.allocate(entry.recordLength - entry.valueOffset);
+    try {
+      entry.segment.readFully(buffer, entry.offset + entry.valueOffset);
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+    return buffer.array();
+  }
+
+  @SuppressWarnings("unchecked")
+  private T deserialize(byte[] bytes) {
+    T value = muleContext.getObjectSerializer().getInternalProtocol().deserialize(bytes);
+    if (value instanceof DeserializationPostInitialisable) {
+      DeserializationPostInitialisable.Implementation.init(value, muleContext);
+    }
+    return value;
+  }
+
+  private Segment newSegment() {
+    int id = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+    Segment segment = Segment.open(id, new File(storeDirectory, format("%010d%s", id, SEGMENT_FILE_EXTENSION)));
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private void initStoreDirectory() {
+    if (storeDirectory == null) {
+      storeDirectory = new File(muleContext.getConfiguration().getWorkingDirectory(), OBJECT_STORE_LOG_DIR);
+    }
+    if (!storeDirectory.exists() && !storeDirectory.mkdirs()) {
+      throw new MuleRuntimeException(failedToCreate("object store directory " + storeDirectory.getAbsolutePath()));
+    }
+  }
+
+  private <R> R withReadLock(StoreCallback<R> callback) throws ObjectStoreException {
+    Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      return callback.execute();
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private <R> R withReadLockUnchecked(StoreCallback<R> callback) {
+    try {
+      return withReadLock(callback);
+    } catch (ObjectStoreException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  private <R> R withWriteLock(StoreCallback<R> callback) throws ObjectStoreException {
+    Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      return callback.execute();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void setMuleContext(MuleContext context) {
+    this.muleContext = context;
+  }
+
+  @FunctionalInterface
+  private interface StoreCallback<R> {
+
+    R execute() throws ObjectStoreException;
+  }
+
+  @FunctionalInterface
+  private interface RecordVisitor {
+
+    void visit(Record record, long offset, byte[] bytes) throws IOException;
+  }
+
+  private static final class Partition {
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+  }
+
+  /**
+   * The location of a live entry.
+   */
+  private static final class Entry {
+
+    private Segment segment;
+    private long offset;
+    private final int recordLength;
+    private final int valueOffset;
+    private final long timestamp;
+
+    private Entry(Segment segment, long offset, int recordLength, int valueOffset, long timestamp) {
+      this.segment = segment;
+      this.offset = offset;
+      this.recordLength = recordLength;
+      this.valueOffset = valueOffset;
+      this.timestamp = timestamp;
+    }
+  }
+
+  private static final class Record {
+
+    private byte type;
+    private long seq;
+    private long timestamp;
+    private String partition;
+    private String key;
+    private int targetSegment;
+    private int valueOffset;
+  }
+
+  private static final class RecoveredRecord {
+
+    private final Record record;
+    private final Segment segment;
+    private final long offset;
+    private final int length;
+
+    private RecoveredRecord(Record record, Segment segment, long offset, int length) {
+      this.record = record;
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    private Entry toEntry() {
+      return new Entry(segment, offset, length, record.valueOffset, record.timestamp);
+    }
+  }
+
+  private static final class Segment {
+
+    private final int id;
+    private final File file;
+    private final FileChannel channel;
+    private long size;
+    private long garbage = 0;
+
+    /**
+     * Bytes of the tombstones in this segment, by the segment in which the removed entries are.
+     */
+    private final Map<Integer, Long> tombstones = new HashMap<>();
+
+    private Segment(int id, File file, FileChannel channel, long size) {
+      this.id = id;
+      this.file = file;
+      this.channel = channel;
+      this.size = size;
+    }
+
+    private static Segment open(int id, File file) {
+      try {
+        FileChannel channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+        return new Segment(id, file, channel, channel.size());
+      } catch (IOException e) {
+        throw new MuleRuntimeException(createStaticMessage("Could not open object store segment " + file.getAbsolutePath()), e);
+      }
+    }
+
+    private void addTombstone(int targetSegment, int bytes) {
+      tombstones.merge(targetSegment, (long) bytes, Long::sum);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new IOException("Unexpected end of object store segment " + file.getAbsolutePath());
+        }
+      }
+    }
+
+    /**
+     * Reads all the valid records of this segment. If an incomplete or corrupted record is found, which may happen if the
+     * runtime was stopped while writing it, this segment is truncated right before it.
+     */
+    private void scan(RecordVisitor visitor) throws IOException {
+      long offset = 0;
+      ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+      while (offset + RECORD_HEADER_SIZE <= size) {
+        header.clear();
+        readFully(header, offset);
+        int bodyLength = header.getInt(0);
+        if (bodyLength <= 0 || offset + RECORD_HEADER_SIZE + bodyLength > size) {
+          break;
+        }
+
+        ByteBuffer bytes = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength);
+        readFully(bytes, offset);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.array(), RECORD_HEADER_SIZE, bodyLength);
+        if ((int) crc.getValue() != header.getInt(4)) {
+          break;
+        }
+
+        visitor.visit(parse(bytes), offset, bytes.array());
+        offset += RECORD_HEADER_SIZE + bodyLength;
+      }
+
+      if (offset < size) {
+        LOGGER.warn("Discarding {} bytes of incomplete records at the end of object store segment {}", size - offset,
+                    file.getAbsolutePath());
+        channel.truncate(offset);
+        size = offset;
+      }
+    }
+
+    private static Record parse(ByteBuffer bytes) {
+      Record record = new Record();
+      bytes.position(RECORD_HEADER_SIZE);
+      record.type = bytes.get();
+      record.seq = bytes.getLong();
+      record.timestamp = bytes.getLong();
+      record.partition = readString(bytes);
+      if (record.type == PUT || record.type == REMOVE) {
+        record.key = readString(bytes);
+      }
+      if (record.type == REMOVE) {
+        record.targetSegment = bytes.getInt();
+      }
+      record.valueOffset = bytes.position();
+      return record;
+    }
+
+    private static String readString(ByteBuffer bytes) {
+      byte[] string = new byte[bytes.getInt()];
+      bytes.get(string);
+      return new String(string, UTF_8);
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOGGER.warn("Could not close object store segment " + file.getAbsolutePath(), e);
+      }
+    }
+  }
+}
@@ -6,8 +6,9 @@
  */
 package org.mule.runtime.core.internal.store;
 
-import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+
 import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectDoesNotExistException;
 import org.mule.runtime.api.store.ObjectStoreException;
@@ -16,7 +17,6 @@ import org.mule.runtime.core.api.component.InternalComponent;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,13 +27,34 @@ import java.util.concurrent.ConcurrentMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * In memory {@link PartitionableExpirableObjectStore}.
+ * <p>
+ * The deadlines of the entries of all the partitions are tracked by a single {@link TimingWheel}, so expiring entries only
+ * visits the ones that are due. Each partition also keeps its entries in a linked list in the order they were stored, so the
+ * oldest ones can be evicted in constant time when the partition exceeds its max entries.
+ * <p>
+ * Storing and removing entries never waits for the expiry information to be updated. Those entries are handed over through a
+ * lock-free queue, which is drained into the wheel and the linked lists when entries are {@link #expire(long, int, String)
+ * expired}.
+ * <p>
+ * The TTL of a partition is the one it was last {@link #expire(long, int, String) expired} with. Entries stored before it was
+ * known are scheduled at that moment, based on the time they were stored.
+ */
 public class PartitionedInMemoryObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
     implements PartitionableExpirableObjectStore<T>, InternalComponent {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedInMemoryObjectStore.class);
 
-  private ConcurrentMap<String, ConcurrentMap<String, T>> partitions = new ConcurrentHashMap<>();
-  private ConcurrentMap<String, ConcurrentLinkedQueue<ExpiryEntry>> expiryInfoPartition = new ConcurrentHashMap<>();
+  private static final long NO_TTL = -1;
+
+  private final ConcurrentMap<String, Partition<T>> partitions = new ConcurrentHashMap<>();
+
+  // Also guards the expiry information of all the partitions
+  private final TimingWheel expiryWheel = new TimingWheel(MILLISECONDS.toNanos(1));
+
+  // Entries stored or removed since the last time the expiry information was updated
+  private final ConcurrentLinkedQueue<ExpiryEntry<T>> pendingEntries = new ConcurrentLinkedQueue<>();
 
   @Override
   public boolean isPersistent() {
@@ -42,8 +63,9 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   protected boolean doContains(String key, String partitionName) throws ObjectStoreException {
-    if (partitions.containsKey(partitionName)) {
-      return partitions.get(partitionName).containsKey(key);
+    Partition<T> partition = partitions.get(partitionName);
+    if (partition != null) {
+      return partition.entries.containsKey(key);
     } else {
       return false;
     }
@@ -51,54 +73,63 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
-    T oldValue = getPartition(partitionName).putIfAbsent(key, value);
-    if (oldValue != null) {
+    final long now = getCurrentNanoTime();
+    Partition<T> partition = getPartition(partitionName);
+    ExpiryEntry<T> entry = new ExpiryEntry<>(partition, key, value, now);
+    if (partition.entries.putIfAbsent(key, entry) != null) {
       throw new ObjectAlreadyExistsException();
     }
-    getExpiryInfoPartition(partitionName).add(new ExpiryEntry(getCurrentNanoTime(), key));
+
+    pendingEntries.add(entry);
   }
 
   @Override
   protected T doRetrieve(String key, String partitionName) throws ObjectStoreException {
-    T value = getPartition(partitionName).get(key);
-    if (value == null) {
+    ExpiryEntry<T> entry = getPartition(partitionName).entries.get(key);
+    if (entry == null) {
       throw new ObjectDoesNotExistException();
     }
-    return value;
+    return entry.value;
   }
 
   @Override
   protected T doRemove(String key, String partitionName) throws ObjectStoreException {
-    T removedValue = getPartition(partitionName).remove(key);
-    if (removedValue == null) {
+    ExpiryEntry<T> entry = getPartition(partitionName).entries.remove(key);
+    if (entry == null) {
       throw new ObjectDoesNotExistException();
     }
 
-    Iterator<ExpiryEntry> iterator = getExpiryInfoPartition(partitionName).iterator();
-    while (iterator.hasNext()) {
-      ExpiryEntry entry = iterator.next();
-      if (key.equals(entry.getKey())) {
-        iterator.remove();
-        break;
-      }
-    }
-
-    return removedValue;
+    entry.removed = true;
+    pendingEntries.add(entry);
+    return entry.value;
   }
 
   @Override
   public List<String> allKeys(String partitionName) throws ObjectStoreException {
-    return new ArrayList<>(getPartition(partitionName).keySet());
+    return new ArrayList<>(getPartition(partitionName).entries.keySet());
   }
 
   @Override
   public Map<String, T> retrieveAll(String partitionName) throws ObjectStoreException {
-    return new LinkedHashMap<>(getPartition(partitionName));
+    Map<String, T> values = new LinkedHashMap<>();
+    for (ExpiryEntry<T> entry : getPartition(partitionName).entries.values()) {
+      values.put(entry.key, entry.value);
+    }
+    return values;
   }
 
   @Override
   public void clear(String partitionName) throws ObjectStoreException {
-    getPartition(partitionName).clear();
+    clear(getPartition(partitionName));
+  }
+
+  private void clear(Partition<T> partition) {
+    synchronized (expiryWheel) {
+      for (ExpiryEntry<T> entry : partition.entries.values()) {
+        partition.entries.remove(entry.key, entry);
+        discard(entry);
+      }
+    }
   }
 
   @Override
@@ -106,28 +137,8 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return new ArrayList<>(partitions.keySet());
   }
 
-  private ConcurrentMap<String, T> getPartition(String partitionName) {
-    ConcurrentMap<String, T> partition = partitions.get(partitionName);
-    if (partition == null) {
-      partition = new ConcurrentHashMap<>();
-      ConcurrentMap<String, T> previous = partitions.putIfAbsent(partitionName, partition);
-      if (previous != null) {
-        partition = previous;
-      }
-    }
-    return partition;
-  }
-
-  private ConcurrentLinkedQueue<ExpiryEntry> getExpiryInfoPartition(String partitionName) {
-    ConcurrentLinkedQueue<ExpiryEntry> partition = expiryInfoPartition.get(partitionName);
-    if (partition == null) {
-      partition = new ConcurrentLinkedQueue<>();
-      ConcurrentLinkedQueue<ExpiryEntry> previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
-      if (previous != null) {
-        partition = previous;
-      }
-    }
-    return partition;
+  private Partition<T> getPartition(String partitionName) {
+    return partitions.computeIfAbsent(partitionName, name -> new Partition<>());
   }
 
   @Override
@@ -148,45 +159,64 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   @Override
   public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
     final long now = getCurrentNanoTime();
-    int expiredEntries = 0;
-    ExpiryEntry oldestEntry;
-    ConcurrentLinkedQueue<ExpiryEntry> store = getExpiryInfoPartition(partitionName);
-    ConcurrentMap<String, T> partition = getPartition(partitionName);
+    Partition<T> partition = getPartition(partitionName);
+
+    synchronized (expiryWheel) {
+      drainPendingEntries(now);
+
+      long ttlNanos = entryTTL == UNBOUNDED ? NO_TTL : MILLISECONDS.toNanos(entryTTL);
+      if (partition.ttlNanos != ttlNanos) {
+        partition.ttlNanos = ttlNanos;
+        for (ExpiryEntry<T> entry = partition.oldest; entry != null; entry = entry.newer) {
+          if (ttlNanos == NO_TTL) {
+            expiryWheel.cancel(entry);
+          } else {
+            expiryWheel.schedule(entry, entry.time + ttlNanos, now);
+          }
+        }
+      }
 
-    trimToMaxSize(store, maxEntries, partition);
+      trimToMaxSize(partition, maxEntries);
 
-    if (entryTTL == UNBOUNDED) {
-      return;
-    }
+      // Entries of other partitions that are due are expired as well
+      int scheduledEntries = expiryWheel.size();
+      expiryWheel.advance(now, timeout -> expired((ExpiryEntry<?>) timeout));
 
-    while ((oldestEntry = store.peek()) != null) {
-      if (NANOSECONDS.toMillis(now - oldestEntry.getTime()) >= entryTTL) {
-        oldestEntry = store.remove();
-        partition.remove(oldestEntry.getKey());
-        expiredEntries++;
-      } else {
-        break;
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Expired " + (scheduledEntries - expiryWheel.size()) + " old entries");
       }
     }
+  }
 
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Expired " + expiredEntries + " old entries");
+  // Must be called holding the lock of the expiry wheel
+  private void drainPendingEntries(long now) {
+    ExpiryEntry<T> entry;
+    while ((entry = pendingEntries.poll()) != null) {
+      if (entry.removed) {
+        // Either removed before it was linked, or linked when it was stored and now removed
+        unlink(entry);
+      } else if (!entry.linked) {
+        entry.partition.append(entry);
+        if (entry.partition.ttlNanos != NO_TTL) {
+          expiryWheel.schedule(entry, entry.time + entry.partition.ttlNanos, now);
+        }
+      }
     }
   }
 
-  private void trimToMaxSize(ConcurrentLinkedQueue<ExpiryEntry> store, int maxEntries, ConcurrentMap<String, T> partition) {
+  private void trimToMaxSize(Partition<T> partition, int maxEntries) {
     if (maxEntries == UNBOUNDED) {
       return;
     }
 
-    int currentSize = store.size();
-    int excess = (currentSize - maxEntries);
+    int excess = partition.size - maxEntries;
     if (excess > 0) {
-      while (currentSize > maxEntries) {
-        ExpiryEntry toRemove = store.remove();
-        partition.remove(toRemove.getKey());
-        currentSize--;
+      while (partition.size > maxEntries) {
+        ExpiryEntry<T> toRemove = partition.oldest;
+        partition.entries.remove(toRemove.key, toRemove);
+        discard(toRemove);
       }
+      partition.evictedEntries += excess;
 
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug("Expired " + excess + " excess entries");
@@ -194,16 +224,60 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     }
   }
 
+  private static <V> void expired(ExpiryEntry<V> entry) {
+    entry.removed = true;
+    entry.partition.unlink(entry);
+    if (entry.partition.entries.remove(entry.key, entry)) {
+      entry.partition.expiredEntries++;
+    }
+  }
+
+  // Must be called holding the lock of the expiry wheel
+  private void discard(ExpiryEntry<T> entry) {
+    entry.removed = true;
+    unlink(entry);
+  }
+
+  private void unlink(ExpiryEntry<T> entry) {
+    if (entry.linked) {
+      entry.partition.unlink(entry);
+      expiryWheel.cancel(entry);
+    }
+  }
+
   @Override
   public void disposePartition(String partitionName) throws ObjectStoreException {
-    Map partition = partitions.remove(partitionName);
+    Partition<T> partition = partitions.remove(partitionName);
     if (partition != null) {
-      partition.clear();
+      clear(partition);
+    }
+  }
+
+  /**
+   * @param partitionName the name of the partition
+   * @return the amount of entries of the partition that were removed because their TTL was reached
+   */
+  public long getExpiredEntriesCount(String partitionName) {
+    Partition<T> partition = partitions.get(partitionName);
+    if (partition == null) {
+      return 0;
     }
+    synchronized (expiryWheel) {
+      return partition.expiredEntries;
+    }
+  }
 
-    ConcurrentLinkedQueue<ExpiryEntry> entries = expiryInfoPartition.remove(partitionName);
-    if (entries != null) {
-      entries.clear();
+  /**
+   * @param partitionName the name of the partition
+   * @return the amount of entries of the partition that were removed because it exceeded its max entries
+   */
+  public long getEvictedEntriesCount(String partitionName) {
+    Partition<T> partition = partitions.get(partitionName);
+    if (partition == null) {
+      return 0;
+    }
+    synchronized (expiryWheel) {
+      return partition.evictedEntries;
     }
   }
 
@@ -211,22 +285,68 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return System.nanoTime();
   }
 
-  private static class ExpiryEntry {
+  private static class Partition<T> {
 
-    private final long time;
-    private final Serializable key;
+    private final ConcurrentMap<String, ExpiryEntry<T>> entries = new ConcurrentHashMap<>();
 
-    public ExpiryEntry(long time, Serializable key) {
-      this.time = time;
-      this.key = key;
+    // The following are guarded by the expiry wheel
+    private ExpiryEntry<T> oldest;
+    private ExpiryEntry<T> newest;
+    private int size = 0;
+    private long ttlNanos = NO_TTL;
+    private long expiredEntries = 0;
+    private long evictedEntries = 0;
+
+    private void append(ExpiryEntry<T> entry) {
+      entry.older = newest;
+      if (newest == null) {
+        oldest = entry;
+      } else {
+        newest.newer = entry;
+      }
+      newest = entry;
+      entry.linked = true;
+      ++size;
     }
 
-    public long getTime() {
-      return time;
+    private void unlink(ExpiryEntry<T> entry) {
+      if (entry.older == null) {
+        oldest = entry.newer;
+      } else {
+        entry.older.newer = entry.newer;
+      }
+      if (entry.newer == null) {
+        newest = entry.older;
+      } else {
+        entry.newer.older = entry.older;
+      }
+      entry.older = null;
+      entry.newer = null;
+      entry.linked = false;
+      --size;
     }
+  }
+
+  private static class ExpiryEntry<T> extends TimingWheel.Timeout {
+
+    private final Partition<T> partition;
+    private final String key;
+    private final T value;
+    private final long time;
 
-    public Serializable getKey() {
-      return key;
+    // The following are guarded by the expiry wheel
+    private ExpiryEntry<T> older;
+    private ExpiryEntry<T> newer;
+    private boolean linked = false;
+
+    // Set when the entry is no longer in its partition, before handing it over to be unlinked
+    private volatile boolean removed = false;
+
+    public ExpiryEntry(Partition<T> partition, String key, T value, long time) {
+      this.partition = partition;
+      this.key = key;
+      this.value = value;
+      this.time = time;
     }
   }
 }
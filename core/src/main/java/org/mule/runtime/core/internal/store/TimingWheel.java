@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.min;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel to keep track of the deadlines of a large amount of {@link Timeout}s.
+ * <p>
+ * Scheduling and cancelling a timeout are constant time operations. Advancing the wheel only visits the timeouts that are due,
+ * plus the ones that are moved from a coarser level to a finer one as their deadline approaches, and skips the ranges of time in
+ * which nothing is scheduled.
+ * <p>
+ * Deadlines are expressed in nanoseconds, in the same timeline as the {@code now} values passed to {@link #advance(long, Consumer)}.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @since 4.1
+ */
+final class TimingWheel {
+
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int LEVELS = 6;
+
+  private final long tickNanos;
+  // The last level has a single slot for the timeouts beyond the range of the others
+  private final Timeout[][] slots = new Timeout[LEVELS + 1][];
+  private final int[] levelSizes = new int[LEVELS + 1];
+  private int size = 0;
+
+  private boolean started = false;
+  private long currentTick;
+
+  /**
+   * @param tickNanos the resolution of the finest level of the wheel.
+   */
+  TimingWheel(long tickNanos) {
+    this.tickNanos = tickNanos;
+    for (int level = 0; level < LEVELS; ++level) {
+      slots[level] = new Timeout[SLOTS];
+    }
+    slots[LEVELS] = new Timeout[1];
+  }
+
+  /**
+   * Schedules the given {@code timeout} to be due at {@code deadline}. If it was already scheduled, it is moved to the new
+   * deadline.
+   *
+   * @param timeout  the timeout to schedule
+   * @param deadline the time at which the timeout is due
+   * @param now      the current time
+   */
+  void schedule(Timeout timeout, long deadline, long now) {
+    start(now);
+    cancel(timeout);
+    timeout.deadline = deadline;
+    place(timeout);
+    ++size;
+  }
+
+  /**
+   * Removes the given {@code timeout} from the wheel. Does nothing if it is not scheduled.
+   *
+   * @param timeout the timeout to cancel
+   */
+  void cancel(Timeout timeout) {
+    if (timeout.level >= 0) {
+      unlink(timeout);
+      --size;
+    }
+  }
+
+  /**
+   * Moves the wheel up to {@code now}, removing the timeouts whose deadline has been reached and handing them to
+   * {@code expired}.
+   *
+   * @param now     the current time
+   * @param expired callback for each timeout which is due
+   */
+  void advance(long now, Consumer<Timeout> expired) {
+    start(now);
+    final long nowTick = floorDiv(now, tickNanos);
+
+    while (currentTick < nowTick) {
+      if (size == 0) {
+        currentTick = nowTick;
+        break;
+      }
+
+      int level = 0;
+      while (levelSizes[level] == 0) {
+        ++level;
+      }
+
+      if (level == 0) {
+        // Everything in this slot has a deadline before the start of the current tick
+        fire(slots[0][(int) (currentTick & SLOT_MASK)], expired);
+        ++currentTick;
+      } else {
+        // Nothing can be due until the next time the lowest occupied level is cascaded
+        long levelMask = (1L << (SLOT_BITS * level)) - 1;
+        currentTick = min(nowTick, (currentTick | levelMask) + 1);
+      }
+      cascade();
+    }
+
+    Timeout timeout = slots[0][(int) (currentTick & SLOT_MASK)];
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      if (timeout.deadline <= now) {
+        unlink(timeout);
+        --size;
+        expired.accept(timeout);
+      }
+      timeout = next;
+    }
+  }
+
+  /**
+   * @return the amount of scheduled timeouts
+   */
+  int size() {
+    return size;
+  }
+
+  private void start(long now) {
+    if (!started) {
+      currentTick = floorDiv(now, tickNanos);
+      started = true;
+    }
+  }
+
+  private void fire(Timeout timeout, Consumer<Timeout> expired) {
+    while (timeout != null) {
+      Timeout next = timeout.next;
+      unlink(timeout);
+      --size;
+      expired.accept(timeout);
+      timeout = next;
+    }
+  }
+
+  /**
+   * Moves the timeouts of the coarser levels whose range starts at the current tick to the finer levels.
+   */
+  private void cascade() {
+    int level = 0;
+    while (level < LEVELS && (currentTick & ((1L << (SLOT_BITS * (level + 1))) - 1)) == 0) {
+      ++level;
+    }
+
+    // Coarser levels first, since their timeouts may end up in the finer levels being cascaded now
+    for (; level > 0; --level) {
+      int slot = level == LEVELS ? 0 : (int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK);
+      Timeout timeout = slots[level][slot];
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        unlink(timeout);
+        place(timeout);
+        timeout = next;
+      }
+    }
+  }
+
+  private void place(Timeout timeout) {
+    long tick = floorDiv(timeout.deadline, tickNanos);
+    if (tick <= currentTick) {
+      link(timeout, 0, (int) (currentTick & SLOT_MASK));
+      return;
+    }
+
+    for (int level = 0; level < LEVELS; ++level) {
+      int shift = SLOT_BITS * (level + 1);
+      if ((tick >> shift) == (currentTick >> shift)) {
+        link(timeout, level, (int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK));
+        return;
+      }
+    }
+
+    // Beyond the range of the wheel, place it again once the wheel gets to the range of its deadline
+    link(timeout, LEVELS, 0);
+  }
+
+  private void link(Timeout timeout, int level, int slot) {
+    timeout.level = level;
+    timeout.slot = slot;
+    timeout.prev = null;
+    timeout.next = slots[level][slot];
+    if (timeout.next != null) {
+      timeout.next.prev = timeout;
+    }
+    slots[level][slot] = timeout;
+    ++levelSizes[level];
+  }
+
+  private void unlink(Timeout timeout) {
+    if (timeout.prev == null) {
+      slots[timeout.level][timeout.slot] = timeout.next;
+    } else {
+      timeout.prev.next = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    --levelSizes[timeout.level];
+    timeout.prev = null;
+    timeout.next = null;
+    timeout.level = -1;
+  }
+
+  /**
+   * Something that can be scheduled in a {@link TimingWheel}. Instances may only be scheduled in one wheel at a time.
+   */
+  static class Timeout {
+
+    private long deadline;
+    private Timeout prev;
+    private Timeout next;
+    private int level = -1;
+    private int slot;
+
+    /**
+     * @return the time at which this timeout is due, if scheduled.
+     */
+    long getDeadline() {
+      return deadline;
+    }
+
+    /**
+     * @return whether this timeout is scheduled in a wheel.
+     */
+    boolean isScheduled() {
+      return level >= 0;
+    }
+  }
+}
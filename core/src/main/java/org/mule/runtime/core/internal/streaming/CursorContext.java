@@ -6,9 +6,15 @@
  */
 package org.mule.runtime.core.internal.streaming;
 
+import static java.util.Collections.newSetFromMap;
+
+import org.mule.runtime.api.streaming.Cursor;
 import org.mule.runtime.api.streaming.CursorProvider;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Groups a {@link CursorProvider} with information about its context
  *
@@ -18,16 +24,20 @@ public final class CursorContext {
 
   private final CursorProvider cursorProvider;
   private final BaseEventContext ownerContext;
+  private final EventStreamingState streamingState;
+  private final Set<Cursor> cursors = newSetFromMap(new ConcurrentHashMap<>());
 
   /**
    * Creates a new instance
    *
    * @param cursorProvider the {@link CursorProvider} which will be managed
    * @param ownerContext   the {@link BaseEventContext} which owns the {@code cursorProvider}
+   * @param streamingState the {@link EventStreamingState} of the {@code ownerContext}
    */
-  public CursorContext(CursorProvider cursorProvider, BaseEventContext ownerContext) {
+  public CursorContext(CursorProvider cursorProvider, BaseEventContext ownerContext, EventStreamingState streamingState) {
     this.cursorProvider = cursorProvider;
     this.ownerContext = ownerContext;
+    this.streamingState = streamingState;
   }
 
   /**
@@ -43,4 +53,23 @@ public final class CursorContext {
   public BaseEventContext getOwnerContext() {
     return ownerContext;
   }
+
+  /**
+   * @return the {@link EventStreamingState} which tracks the {@code cursorProvider}
+   */
+  public EventStreamingState getStreamingState() {
+    return streamingState;
+  }
+
+  void addCursor(Cursor cursor) {
+    cursors.add(cursor);
+  }
+
+  boolean removeCursor(Cursor cursor) {
+    return cursors.remove(cursor);
+  }
+
+  Set<Cursor> getCursors() {
+    return cursors;
+  }
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.streaming.Cursor;
+import org.mule.runtime.api.streaming.CursorProvider;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+
+/**
+ * Tracks all the {@link CursorProvider providers} and {@link Cursor cursors} which were opened during the processing of
+ * a root {@link BaseEventContext}, so that they can be released once the event is terminated.
+ * <p>
+ * Instances are attached to the owning event context itself, so that no global registry needs to be looked up
+ * when cursors are opened or closed.
+ *
+ * @since 4.0
+ */
+public final class EventStreamingState {
+
+  private static final Logger LOGGER = getLogger(EventStreamingState.class);
+
+  private final MutableStreamingStatistics statistics;
+  private final Scheduler disposalScheduler;
+  private final AtomicInteger cursorCount = new AtomicInteger(0);
+  private final List<CursorContext> providers = new ArrayList<>();
+  private volatile boolean disposed = false;
+
+  EventStreamingState(MutableStreamingStatistics statistics, Scheduler disposalScheduler) {
+    this.statistics = statistics;
+    this.disposalScheduler = disposalScheduler;
+  }
+
+  /**
+   * Starts tracking the provider of the given {@code context}
+   *
+   * @param context the {@link CursorContext} of the provider to track
+   * @return {@code false} if this state was already disposed and thus the provider couldn't be added
+   */
+  synchronized boolean addProvider(CursorContext context) {
+    if (disposed) {
+      return false;
+    }
+
+    providers.add(context);
+    statistics.incrementOpenProviders();
+    return true;
+  }
+
+  /**
+   * Starts tracking the given {@code cursor}
+   *
+   * @param context the {@link CursorContext} of the cursor's provider
+   * @param cursor  the opened cursor
+   * @return {@code false} if this state was already disposed and thus the cursor couldn't be added
+   */
+  synchronized boolean addCursor(CursorContext context, Cursor cursor) {
+    if (disposed) {
+      return false;
+    }
+
+    context.addCursor(cursor);
+    cursorCount.incrementAndGet();
+    return true;
+  }
+
+  /**
+   * Stops tracking the given {@code cursor}. If it was the last open cursor and its provider is closed, then this
+   * state is disposed.
+   *
+   * @param context the {@link CursorContext} of the cursor's provider
+   * @param cursor  the closed cursor
+   */
+  void removeCursor(CursorContext context, Cursor cursor) {
+    if (context.removeCursor(cursor)) {
+      statistics.decrementOpenCursors();
+      if (cursorCount.decrementAndGet() <= 0 && context.getCursorProvider().isClosed()) {
+        dispose();
+      }
+    }
+  }
+
+  boolean isDisposed() {
+    return disposed;
+  }
+
+  /**
+   * Closes and releases all tracked providers and cursors. This happens asynchronously in the disposal {@link Scheduler},
+   * unless it's too busy to accept the task.
+   * <p>
+   * Subsequent invocations have no effect.
+   */
+  void dispose() {
+    synchronized (this) {
+      if (disposed) {
+        return;
+      }
+      disposed = true;
+    }
+
+    try {
+      disposalScheduler.execute(this::releaseProviders);
+    } catch (RejectedExecutionException e) {
+      // If the Scheduler is busy and can't accept the task, we perform it in the current thread.
+      releaseProviders();
+    }
+  }
+
+  private void releaseProviders() {
+    for (CursorContext context : providers) {
+      final CursorProvider provider = context.getCursorProvider();
+      try {
+        closeProvider(provider);
+        releaseAll(context.getCursors());
+      } catch (Exception e) {
+        LOGGER.warn("Exception was found trying to close cursor provider. Execution will continue", e);
+      } finally {
+        provider.releaseResources();
+      }
+    }
+  }
+
+  private void releaseAll(Collection<Cursor> cursors) {
+    cursors.forEach(cursor -> {
+      try {
+        cursor.release();
+        statistics.decrementOpenCursors();
+      } catch (Exception e) {
+        LOGGER.warn("Exception was found trying to close cursor. Execution will continue", e);
+      }
+    });
+  }
+
+  private void closeProvider(CursorProvider provider) {
+    if (!provider.isClosed()) {
+      provider.close();
+      statistics.decrementOpenProviders();
+    }
+  }
+}
@@ -8,7 +8,6 @@ package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
-import static java.lang.System.arraycopy;
 import static java.nio.channels.Channels.newChannel;
 import static org.mule.runtime.api.util.Preconditions.checkState;
 import org.mule.runtime.api.util.LazyValue;
@@ -171,17 +170,20 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
 
   private ByteBuffer softCopy(long position, int length) {
     final int offset = toIntExact(position);
-    final ByteBuffer b = buffer.get();
-    return ByteBuffer.wrap(b.array(), offset, min(length, b.limit() - offset)).slice();
+    final ByteBuffer b = buffer.get().duplicate();
+    b.limit(min(offset + length, b.limit()));
+    b.position(offset);
+    return b.slice();
   }
 
   private ByteBuffer hardCopy(long position, int length) {
     final int offset = toIntExact(position);
-    final ByteBuffer bf = buffer.get();
+    final ByteBuffer bf = buffer.get().duplicate();
     length = min(length, bf.limit() - offset);
 
     byte[] b = new byte[length];
-    arraycopy(bf.array(), offset, b, 0, length);
+    bf.position(offset);
+    bf.get(b);
     return ByteBuffer.wrap(b);
   }
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.Thread.currentThread;
+import static java.nio.ByteBuffer.allocateDirect;
+import static java.util.Collections.synchronizedMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.DataUnit.MB;
+import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.calculateMaxStreamingMemory;
+import static org.mule.runtime.core.internal.util.ConcurrencyUtils.withLock;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ByteBufferManager} implementation which hands out direct (off-heap) buffers.
+ * <p>
+ * Buffers are kept in separate pools depending on their capacity. Each pool is split into striped free lists,
+ * so that threads returning and taking buffers mostly hit their own stripe and only steal from other stripes when
+ * theirs is empty. No global lock is taken unless the streaming memory is exhausted.
+ * <p>
+ * Because allocating direct memory is expensive, small buffers are carved out of a larger slab which is allocated
+ * at once. Larger buffers are allocated individually and only up to a fixed amount of them are kept idle per capacity.
+ * When the memory limit is reached, idle individual buffers are released, and so are slabs for which all buffers are
+ * idle.
+ * <p>
+ * Memory is accounted exactly as in {@link PoolingByteBufferManager}: this manager will be exhausted when a certain
+ * threshold of retained memory is reached. When exhausted, invocations to {@link #allocate(int)} will block until more
+ * memory becomes available. If {@link #allocate(int)} is blocked by more than {@link #waitTimeoutMillis} milliseconds,
+ * then a {@link MaxStreamingMemoryExceededException} is thrown.
+ *
+ * @since 4.0
+ */
+public class DirectByteBufferManager implements ByteBufferManager, Disposable {
+
+  private static final int STRIPES = highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+  private static final int STRIPE_MASK = STRIPES - 1;
+  private static final int MAX_IDLE_PER_STRIPE = 2;
+  private static final int SLAB_SIZE = MB.toBytes(1);
+  private static final int MAX_BUFFERS_PER_SLAB = 64;
+
+  private final AtomicLong streamingMemory = new AtomicLong(0);
+  private final long maxStreamingMemory;
+  private final long waitTimeoutMillis;
+  private final ConcurrentMap<Integer, BufferPool> pools = new ConcurrentHashMap<>();
+
+  private final AtomicInteger waiters = new AtomicInteger(0);
+  private final Lock lock = new ReentrantLock();
+  private final Condition memoryReleased = lock.newCondition();
+
+  /**
+   * Creates a new instance which allows the pool to grow up to 50% of the runtime's max memory and has a wait
+   * timeout of 10 seconds. The definition of max memory is that of {@link MemoryManager#getMaxMemory()}
+   */
+  public DirectByteBufferManager() {
+    this(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT);
+  }
+
+  /**
+   * Creates a new instance which allows the pool to grow up to 50% of calling {@link MemoryManager#getMaxMemory()}
+   * on the given {@code memoryManager}, and has {@code waitTimeoutMillis} as wait timeout.
+   *
+   * @param memoryManager     a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait when the pool is exhausted
+   */
+  public DirectByteBufferManager(MemoryManager memoryManager, long waitTimeoutMillis) {
+    maxStreamingMemory = calculateMaxStreamingMemory(memoryManager);
+    this.waitTimeoutMillis = waitTimeoutMillis;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ByteBuffer allocate(int capacity) {
+    BufferPool pool = pools.get(capacity);
+    if (pool == null) {
+      pool = pools.computeIfAbsent(capacity, BufferPool::new);
+    }
+
+    try {
+      ByteBuffer buffer = pool.take();
+      buffer.clear();
+      return buffer;
+    } catch (Exception e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not allocate byte buffer. " + e.getMessage()), e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void deallocate(ByteBuffer byteBuffer) {
+    BufferPool pool = pools.get(byteBuffer.capacity());
+    if (pool != null) {
+      pool.returnBuffer(byteBuffer);
+    }
+  }
+
+  /**
+   * @return the amount of streaming memory currently retained by this manager, in bytes
+   */
+  public long getStreamingMemory() {
+    return streamingMemory.get();
+  }
+
+  @Override
+  public void dispose() {
+    pools.clear();
+    streamingMemory.set(0);
+    signalMemoryReleased();
+  }
+
+  private ByteBuffer awaitBuffer(BufferPool pool) {
+    waiters.incrementAndGet();
+    try {
+      return withLock(lock, () -> {
+        long nanos = MILLISECONDS.toNanos(waitTimeoutMillis);
+        ByteBuffer buffer;
+        while ((buffer = pool.tryTake()) == null) {
+          if (nanos <= 0) {
+            throw new MaxStreamingMemoryExceededException(createStaticMessage(format(
+                                                                                     "Max streaming memory limit of %d bytes was exceeded",
+                                                                                     maxStreamingMemory)));
+          }
+          nanos = memoryReleased.awaitNanos(nanos);
+        }
+
+        return buffer;
+      });
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  private boolean tryReserve(long bytes) {
+    long current;
+    do {
+      current = streamingMemory.get();
+      if (current + bytes > maxStreamingMemory) {
+        return false;
+      }
+    } while (!streamingMemory.compareAndSet(current, current + bytes));
+
+    return true;
+  }
+
+  private void release(long bytes) {
+    streamingMemory.addAndGet(-bytes);
+    signalMemoryReleased();
+  }
+
+  private void signalMemoryReleased() {
+    if (waiters.get() > 0) {
+      withLock(lock, memoryReleased::signalAll);
+    }
+  }
+
+  private static int stripeIndex() {
+    return (int) currentThread().getId() & STRIPE_MASK;
+  }
+
+  private class BufferPool {
+
+    private final int bufferCapacity;
+    private final int buffersPerSlab;
+    private final Queue<ByteBuffer>[] stripes;
+    private final AtomicInteger idle = new AtomicInteger(0);
+    private final Map<ByteBuffer, ByteBuffer> slabs = synchronizedMap(new IdentityHashMap<>());
+
+    private BufferPool(int bufferCapacity) {
+      this.bufferCapacity = bufferCapacity;
+      buffersPerSlab = bufferCapacity > 0 && bufferCapacity <= SLAB_SIZE / 2
+          ? min(MAX_BUFFERS_PER_SLAB, SLAB_SIZE / bufferCapacity)
+          : 1;
+
+      stripes = new Queue[STRIPES];
+      for (int i = 0; i < STRIPES; i++) {
+        stripes[i] = new ConcurrentLinkedQueue<>();
+      }
+    }
+
+    private ByteBuffer take() {
+      ByteBuffer buffer = tryTake();
+      if (buffer != null) {
+        return buffer;
+      }
+
+      pools.values().forEach(BufferPool::releaseIdle);
+      return awaitBuffer(this);
+    }
+
+    private ByteBuffer tryTake() {
+      ByteBuffer buffer = poll();
+      return buffer != null ? buffer : tryCreate();
+    }
+
+    private ByteBuffer poll() {
+      final int start = stripeIndex();
+      for (int i = 0; i < STRIPES; i++) {
+        ByteBuffer buffer = stripes[(start + i) & STRIPE_MASK].poll();
+        if (buffer != null) {
+          idle.decrementAndGet();
+          return buffer;
+        }
+      }
+
+      return null;
+    }
+
+    private ByteBuffer tryCreate() {
+      if (isSlabAllocated() && tryReserve((long) bufferCapacity * buffersPerSlab)) {
+        ByteBuffer slab = allocateDirect(bufferCapacity * buffersPerSlab);
+        ByteBuffer[] buffers = new ByteBuffer[buffersPerSlab];
+        for (int i = 0; i < buffersPerSlab; i++) {
+          slab.limit((i + 1) * bufferCapacity);
+          slab.position(i * bufferCapacity);
+          buffers[i] = slab.slice();
+          slabs.put(buffers[i], slab);
+        }
+
+        for (int i = 1; i < buffersPerSlab; i++) {
+          offer(buffers[i]);
+        }
+
+        return buffers[0];
+      }
+
+      return tryReserve(bufferCapacity) ? allocateDirect(bufferCapacity) : null;
+    }
+
+    private void returnBuffer(ByteBuffer buffer) {
+      if (!isSlabAllocated() && idle.get() >= STRIPES * MAX_IDLE_PER_STRIPE) {
+        release(bufferCapacity);
+      } else {
+        offer(buffer);
+        signalMemoryReleased();
+      }
+    }
+
+    private void offer(ByteBuffer buffer) {
+      idle.incrementAndGet();
+      stripes[stripeIndex()].offer(buffer);
+    }
+
+    /**
+     * Releases the memory of all idle buffers which were not carved out of a slab, and of all slabs for which every
+     * buffer is idle. Buffers of slabs which are still partially in use are put back into the pool.
+     */
+    private synchronized void releaseIdle() {
+      Map<ByteBuffer, List<ByteBuffer>> idleBySlab = new IdentityHashMap<>();
+      ByteBuffer buffer;
+      while ((buffer = poll()) != null) {
+        ByteBuffer slab = slabs.get(buffer);
+        if (slab == null) {
+          release(bufferCapacity);
+        } else {
+          idleBySlab.computeIfAbsent(slab, s -> new ArrayList<>(buffersPerSlab)).add(buffer);
+        }
+      }
+
+      idleBySlab.forEach((slab, buffers) -> {
+        if (buffers.size() == buffersPerSlab) {
+          buffers.forEach(slabs::remove);
+          release(slab.capacity());
+        } else {
+          buffers.forEach(this::offer);
+        }
+      });
+    }
+
+    private boolean isSlabAllocated() {
+      return buffersPerSlab > 1;
+    }
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.util.LazyValue;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.FileStoreCursorStreamConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds the first bytes of the stream in memory
+ * and overflows the rest into a temporal file.
+ * <p>
+ * The in memory portion is never expanded, so it's size is fixed by {@link FileStoreCursorStreamConfig#getMaxInMemorySize()}.
+ * Once it's full, the rest of the stream is appended to a temporal file which is only created if actually needed.
+ * Data is read back from that file through positional reads on a {@link FileChannel}, which means that many cursors
+ * can fetch buffered content concurrently without moving any shared file pointer.
+ * <p>
+ * The temporal file is deleted when this buffer is closed.
+ *
+ * @since 4.0
+ */
+public final class FileStoreInputStreamBuffer extends AbstractInputStreamBuffer {
+
+  private static final int FILE_BUFFER_SIZE = KB.toBytes(32);
+
+  private final int maxInMemorySize;
+  private final LazyValue<ByteBuffer> fileBuffer;
+  private File bufferFile;
+  private RandomAccessFile fileStore;
+  private FileChannel fileChannel;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate all buffers
+   */
+  public FileStoreInputStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager, config.getMaxInMemorySize().toBytes());
+    maxInMemorySize = config.getMaxInMemorySize().toBytes();
+    fileBuffer = new LazyValue<>(() -> bufferManager.allocate(FILE_BUFFER_SIZE));
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    return withReadLock(releaser -> {
+
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        releaser.release();
+        return withWriteLock(() -> {
+
+          ByteBuffer refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          while (!isStreamFullyConsumed() && bufferTip <= position) {
+            try {
+              if (consumeForwardData() <= 0) {
+                streamFullyConsumed();
+              }
+            } catch (IOException e) {
+              throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+            }
+          }
+
+          return doGet(position, length, false);
+        });
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    });
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    length = min(length, toIntExact(min(Integer.MAX_VALUE, bufferTip - position)));
+    if (position < maxInMemorySize) {
+      return copy(position, min(length, toIntExact(maxInMemorySize - position)));
+    }
+
+    return readFromFile(position - maxInMemorySize, length);
+  }
+
+  private ByteBuffer readFromFile(long filePosition, int length) {
+    ByteBuffer dest = ByteBuffer.allocate(length);
+    try {
+      while (dest.hasRemaining()) {
+        int read = fileChannel.read(dest, filePosition + dest.position());
+        if (read < 0) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from file buffer"), e);
+    }
+
+    dest.flip();
+    return dest;
+  }
+
+  /**
+   * {@inheritDoc}
+   * Bytes are written into the in memory buffer until it's full. From that point on, they're read into an
+   * intermediate buffer and appended to the buffer file.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    ByteBuffer b = buffer.get();
+    if (b.hasRemaining()) {
+      final int read = consumeStream(b);
+      if (read > 0) {
+        bufferTip += read;
+      }
+      return read;
+    }
+
+    ByteBuffer readBuffer = fileBuffer.get();
+    readBuffer.clear();
+    final int read = consumeStream(readBuffer);
+    if (read > 0) {
+      readBuffer.flip();
+      long filePosition = bufferTip - maxInMemorySize;
+      FileChannel channel = getFileChannel();
+      while (readBuffer.hasRemaining()) {
+        filePosition += channel.write(readBuffer, filePosition);
+      }
+      bufferTip += read;
+    }
+
+    return read;
+  }
+
+  private FileChannel getFileChannel() throws IOException {
+    if (fileChannel == null) {
+      bufferFile = createBufferFile("stream-buffer");
+      fileStore = new RandomAccessFile(bufferFile, "rw");
+      fileChannel = fileStore.getChannel();
+    }
+
+    return fileChannel;
+  }
+
+  /**
+   * {@inheritDoc}
+   * Closes and deletes the buffer file, if one was created.
+   */
+  @Override
+  public void doClose() {
+    fileBuffer.ifComputed(this::deallocate);
+
+    if (fileChannel != null) {
+      closeSafely(fileChannel::close);
+      closeSafely(fileStore::close);
+      closeSafely(bufferFile::delete);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * The in memory buffer is never expanded nor rewritten, so its content can always be safely shared.
+   */
+  @Override
+  protected boolean canDoSoftCopy() {
+    return true;
+  }
+}
@@ -9,27 +9,33 @@ package org.mule.runtime.core.internal.streaming.object;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
-import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_BUFFER_SIZE;
 import org.mule.runtime.core.internal.streaming.AbstractStreamingBuffer;
 import org.mule.runtime.core.api.streaming.iterator.StreamingIterator;
 
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Base class for implementations of {@link ObjectStreamBuffer}
+ * <p>
+ * Access to the buffer is guarded by a {@link StampedLock}. Checking whether a position was already buffered, which cursors
+ * do for every item, uses an optimistic read and therefore neither blocks nor is blocked by other cursors. Only fetching new
+ * items from the stream takes the write lock.
  *
  * @param <T> the generic type of the items in the stream
  * @since 4.0
  */
 public abstract class AbstractObjectStreamBuffer<T> extends AbstractStreamingBuffer implements ObjectStreamBuffer<T> {
 
+  private static final long NO_MAX_POSITION = Long.MIN_VALUE;
+
   private final StreamingIterator<T> stream;
+  private final StampedLock bufferLock = new StampedLock();
 
-  private Bucket<T> currentBucket = new Bucket<>(0, DEFAULT_OBJECT_STREAMING_BUFFER_SIZE);
-  private Position currentPosition;
-  private Position maxPosition = null;
-  private int instancesCount = 0;
+  private Bucket<T> currentBucket;
+  private long bufferedCount = 0;
+  private long maxPosition = NO_MAX_POSITION;
 
   public AbstractObjectStreamBuffer(StreamingIterator<T> stream) {
     this.stream = stream;
@@ -37,32 +43,37 @@ public abstract class AbstractObjectStreamBuffer<T> extends AbstractStreamingBuf
 
   @Override
   public final void initialise() {
-    currentPosition = new Position(0, -1);
     int size = getSize();
     if (size > 0) {
-      setMaxPosition(toPosition(size - 1));
+      setMaxPosition(size - 1);
     }
-    initialize(ofNullable(maxPosition), currentBucket);
+    initialize(maxPosition != NO_MAX_POSITION ? of(maxPosition) : empty());
   }
 
-  protected abstract void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket);
+  /**
+   * Initialises the buffer. Implementations must {@link #setCurrentBucket(Bucket) set} the bucket for the first items.
+   *
+   * @param maxPosition the position of the last item in the stream, if known
+   */
+  protected abstract void initialize(Optional<Long> maxPosition);
 
   @Override
-  public Optional<Bucket<T>> getBucketFor(Position position) {
+  public Optional<Bucket<T>> getBucketFor(long position) {
     checkNotClosed();
 
-    if (maxPosition != null && maxPosition.compareTo(position) < 0) {
-      throw new NoSuchElementException();
-    }
-    return withReadLock(releaser -> {
-      Optional<Bucket<T>> bucket = getPresentBucket(position);
-      if (bucket.isPresent()) {
-        return forwarding(bucket);
+    long stamp = bufferLock.readLock();
+    try {
+      if (position < bufferedCount) {
+        return ofNullable(getPresentBucket(position));
       }
+      if (maxPosition != NO_MAX_POSITION && maxPosition < position) {
+        throw new NoSuchElementException();
+      }
+    } finally {
+      bufferLock.unlockRead(stamp);
+    }
 
-      releaser.release();
-      return fetch(position);
-    });
+    return ofNullable(fetch(position));
   }
 
   @Override
@@ -71,86 +82,103 @@ public abstract class AbstractObjectStreamBuffer<T> extends AbstractStreamingBuf
   }
 
   @Override
-  public final boolean hasNext(long i) {
+  public final boolean hasNext(long position) {
     if (closed.get()) {
       return false;
     }
 
-    Position position = toPosition(i);
-
-    return withReadLock(releaser -> {
-      if (maxPosition != null) {
-        return position.compareTo(maxPosition) < 1;
-      }
-
-      if (position.compareTo(currentPosition) < 1) {
+    long stamp = bufferLock.tryOptimisticRead();
+    long buffered = bufferedCount;
+    long max = maxPosition;
+    if (bufferLock.validate(stamp)) {
+      if (position < buffered || position <= max) {
         return true;
       }
-
-      releaser.release();
-      try {
-        return fetch(position).isPresent();
-      } catch (NoSuchElementException e) {
+      if (max != NO_MAX_POSITION) {
         return false;
       }
-    });
+    }
+
+    try {
+      return fetch(position) != null;
+    } catch (NoSuchElementException e) {
+      return false;
+    }
   }
 
-  private Optional<Bucket<T>> fetch(Position position) {
-    return withWriteLock(() -> {
-      Optional<Bucket<T>> presentBucket = getPresentBucket(position);
-      if (presentBucket.filter(bucket -> bucket.contains(position)).isPresent()) {
-        return presentBucket;
+  /**
+   * Pulls items from the stream until the one at the given {@code position} is buffered.
+   *
+   * @param position the position to fetch up to
+   * @return the bucket containing the item at the given {@code position}, or {@code null} if the stream has no such item
+   */
+  private Bucket<T> fetch(long position) {
+    long stamp = bufferLock.writeLock();
+    try {
+      if (closed.get()) {
+        return null;
+      }
+
+      if (position < bufferedCount) {
+        return getPresentBucket(position);
       }
 
-      while (currentPosition.compareTo(position) < 0) {
+      while (bufferedCount <= position) {
         if (!stream.hasNext()) {
-          maxPosition = currentPosition;
-          return empty();
+          maxPosition = bufferedCount - 1;
+          return null;
         }
 
         T item = stream.next();
-        if (currentBucket.add(item)) {
-          currentPosition = currentPosition.advanceItem();
-        } else {
+        if (!currentBucket.add(item)) {
           setCurrentBucket(onBucketOverflow(currentBucket));
           currentBucket.add(item);
-
-          currentPosition = currentPosition.advanceBucket();
         }
-        instancesCount++;
-        validateMaxBufferSizeNotExceeded(instancesCount);
+        bufferedCount++;
+        validateMaxBufferSizeNotExceeded(bufferedCount);
       }
 
-      return of(currentBucket);
-    });
+      return currentBucket;
+    } finally {
+      bufferLock.unlockWrite(stamp);
+    }
   }
 
-  protected abstract void validateMaxBufferSizeNotExceeded(int instancesCount);
+  protected abstract void validateMaxBufferSizeNotExceeded(long instancesCount);
 
+  /**
+   * Invoked when the current bucket is full. Implementations must return the bucket to hold the following items, which
+   * becomes the current one.
+   *
+   * @param overflownBucket the full bucket
+   * @return the next bucket
+   */
   protected abstract Bucket<T> onBucketOverflow(Bucket<T> overflownBucket);
 
   @Override
   public final void close() {
     if (closed.compareAndSet(false, true)) {
-      writeLock.lock();
+      long stamp = bufferLock.writeLock();
       try {
         doClose();
       } finally {
         closeSafely(stream::close);
         setCurrentBucket(null);
-        writeLock.unlock();
+        bufferLock.unlockWrite(stamp);
       }
     }
   }
 
   protected abstract void doClose();
 
-  protected abstract Optional<Bucket<T>> getPresentBucket(Position position);
-
-  private Optional<Bucket<T>> forwarding(Optional<Bucket<T>> presentBucket) {
-    return presentBucket.map(b -> new ForwardingBucket<>(b));
-  }
+  /**
+   * Returns the bucket holding the item at the given {@code position}. Only invoked while holding the lock and for positions
+   * which were already buffered.
+   *
+   * @param position an already buffered position
+   * @return the bucket holding the item at the given {@code position}
+   */
+  protected abstract Bucket<T> getPresentBucket(long position);
 
   protected Bucket<T> getCurrentBucket() {
     return currentBucket;
@@ -160,42 +188,7 @@ public abstract class AbstractObjectStreamBuffer<T> extends AbstractStreamingBuf
     currentBucket = bucket;
   }
 
-  protected void setMaxPosition(Position maxPosition) {
+  protected void setMaxPosition(long maxPosition) {
     this.maxPosition = maxPosition;
   }
-
-  private class ForwardingBucket<T> extends Bucket<T> {
-
-    private Bucket<T> delegate;
-
-    private ForwardingBucket(Bucket<T> delegate) {
-      super(delegate.getIndex(), 0);
-      this.delegate = delegate;
-    }
-
-    @Override
-    public Optional<T> get(int index) {
-      return withReadLock(releaser -> {
-        Optional<T> item = delegate.get(index);
-        if (item.isPresent()) {
-          return item;
-        }
-
-        Position position = new Position(delegate.getIndex(), index);
-        releaser.release();
-        delegate = (Bucket<T>) fetch(position).orElseThrow(NoSuchElementException::new);
-        return withReadLock(r2 -> delegate.get(index));
-      });
-    }
-
-    @Override
-    public boolean contains(Position position) {
-      return delegate.contains(position);
-    }
-
-    @Override
-    public int getIndex() {
-      return delegate.getIndex();
-    }
-  }
 }
@@ -6,59 +6,59 @@
  */
 package org.mule.runtime.core.internal.streaming.object;
 
-import static java.util.Optional.empty;
-import static java.util.Optional.ofNullable;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.NoSuchElementException;
 
 /**
- * A zero-based indexed group of items.
+ * A zero-based indexed group of items, which holds the items of a contiguous range of positions of the stream.
+ * <p>
+ * Buckets have a fixed capacity. Once reached, the bucket will accept no more items.
  * <p>
- * Buckets have a fixed capacity. Once reached, the bucket will accept no more items
+ * Items are only added by one thread at a time, while holding the buffer's lock. Since the amount of items is published after
+ * each item is stored, any thread can read the items which {@link #contains(long) are contained} without locking.
  *
  * @param <T> the generic type of the items
  * @since 4.0
  */
 public class Bucket<T> {
 
-  private final List<T> items;
-  private final int capacity;
+  private final Object[] items;
   private final int index;
+  private final long offset;
+  private volatile int size = 0;
 
   /**
    * Creates a new instance
    *
    * @param index    the bucket's index.
+   * @param offset   the position in the stream of the bucket's first item
    * @param capacity the bucket's capacity.
    */
-  public Bucket(int index, int capacity) {
+  public Bucket(int index, long offset, int capacity) {
     this.index = index;
-    this.capacity = capacity;
-    this.items = new ArrayList<>(capacity);
+    this.offset = offset;
+    this.items = new Object[capacity];
   }
 
   /**
-   * Obtains the value that was added at the given {@code index} through the {@link #add(Object)} method.
-   * If no such value was added, it will return an empty value.
+   * Obtains the value that was added for the given {@code position} through the {@link #add(Object)} method.
    *
-   * @param index the item's index
-   * @return an {@link Optional} value
+   * @param position the item's position in the stream
+   * @return the item
+   * @throws NoSuchElementException if this bucket doesn't {@link #contains(long) contain} the given {@code position}
    */
-  public Optional<T> get(int index) {
-    if (index < items.size()) {
-      return ofNullable(items.get(index));
+  public T get(long position) {
+    if (!contains(position)) {
+      throw new NoSuchElementException();
     }
-    return empty();
+    return (T) items[(int) (position - offset)];
   }
 
   /**
-   * @param position a {@link Position}
+   * @param position a position in the stream
    * @return Whether this bucket contains an item for the given {@code position}
    */
-  public boolean contains(Position position) {
-    return index == position.getBucketIndex() && position.getItemIndex() < items.size();
+  public boolean contains(long position) {
+    return position >= offset && position - offset < size;
   }
 
   /**
@@ -68,6 +68,20 @@ public class Bucket<T> {
     return index;
   }
 
+  /**
+   * @return the position in the stream of {@code this} bucket's first item
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * @return the amount of items in {@code this} bucket
+   */
+  public int getSize() {
+    return size;
+  }
+
   /**
    * Adds the given {@code item} if the bucket still has capacity.
    *
@@ -75,8 +89,10 @@ public class Bucket<T> {
    * @return whether the item was accepted or not
    */
   public boolean add(T item) {
-    if (items.size() < capacity) {
-      items.add(item);
+    int currentSize = size;
+    if (currentSize < items.length) {
+      items[currentSize] = item;
+      size = currentSize + 1;
       return true;
     }
 
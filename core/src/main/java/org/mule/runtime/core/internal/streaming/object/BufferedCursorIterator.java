@@ -42,13 +42,12 @@ public class BufferedCursorIterator<T> extends AbstractCursorIterator<T> {
    */
   @Override
   protected T doNext(long p) {
-    Position position = buffer.toPosition(p);
-    if (bucket == null || !bucket.contains(position)) {
-      bucket = buffer.getBucketFor(position).orElse(bucket);
+    if (bucket == null || !bucket.contains(p)) {
+      bucket = buffer.getBucketFor(p).orElse(bucket);
     }
 
     if (bucket != null) {
-      return bucket.get(position.getItemIndex()).orElseThrow(NoSuchElementException::new);
+      return bucket.get(p);
     } else {
       throw new NoSuchElementException();
     }
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.util.Arrays.copyOf;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.streaming.iterator.StreamingIterator;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An {@link AbstractObjectStreamBuffer} implementation which holds the first items of the stream in memory
+ * and overflows the rest into a temporal file.
+ * <p>
+ * Items are kept in buckets of {@link FileStoreCursorIteratorConfig#getBucketSize()} items. The buckets holding the first
+ * {@link FileStoreCursorIteratorConfig#getMaxInMemoryInstances()} items (rounded up to a whole bucket) are never released.
+ * Each of the following buckets is serialized with the artifact's {@link ObjectSerializer} and appended to a temporal file as
+ * soon as it's full, which is only created if actually needed. Those buckets are read back from the file when a cursor goes
+ * back to them, through positional reads on a {@link FileChannel} so that many cursors can do so concurrently.
+ * <p>
+ * Because of that, all the items past the in memory ones must be serializable.
+ * <p>
+ * The temporal file is deleted when this buffer is closed.
+ *
+ * @param <T> The generic type of the items in the stream
+ * @since 4.1
+ */
+public class FileStoreObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
+
+  private final int bucketSize;
+  private final int inMemoryBucketsCount;
+  private final SerializationProtocol serializer;
+  private final List<Bucket<T>> inMemoryBuckets = new ArrayList<>();
+
+  private File bufferFile;
+  private RandomAccessFile fileStore;
+  private FileChannel fileChannel;
+  private long[] storedBucketOffsets = new long[16];
+  private int storedBucketsCount = 0;
+  private long fileTip = 0;
+  private volatile Bucket<T> lastReadBucket;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream     the stream to buffer from
+   * @param config     this buffer's configuration
+   * @param serializer the {@link ObjectSerializer} used to write the items into the temporal file
+   */
+  public FileStoreObjectStreamBuffer(StreamingIterator<T> stream, FileStoreCursorIteratorConfig config,
+                                     ObjectSerializer serializer) {
+    super(stream);
+    bucketSize = config.getBucketSize();
+    inMemoryBucketsCount = (config.getMaxInMemoryInstances() + bucketSize - 1) / bucketSize;
+    this.serializer = serializer.getInternalProtocol();
+  }
+
+  @Override
+  protected void initialize(Optional<Long> maxPosition) {
+    Bucket<T> initialBucket = new Bucket<>(0, 0, bucketSize);
+    inMemoryBuckets.add(initialBucket);
+    setCurrentBucket(initialBucket);
+  }
+
+  @Override
+  protected Bucket<T> getPresentBucket(long position) {
+    int bucketIndex = (int) (position / bucketSize);
+    if (bucketIndex < inMemoryBuckets.size()) {
+      return inMemoryBuckets.get(bucketIndex);
+    }
+
+    Bucket<T> currentBucket = getCurrentBucket();
+    if (currentBucket != null && currentBucket.getIndex() == bucketIndex) {
+      return currentBucket;
+    }
+
+    Bucket<T> bucket = lastReadBucket;
+    if (bucket == null || bucket.getIndex() != bucketIndex) {
+      bucket = readBucket(bucketIndex);
+      lastReadBucket = bucket;
+    }
+    return bucket;
+  }
+
+  /**
+   * {@inheritDoc}
+   * Buckets past the in memory ones are written into the buffer file once full.
+   */
+  @Override
+  protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
+    if (overflownBucket.getIndex() >= inMemoryBucketsCount) {
+      writeBucket(overflownBucket);
+    }
+
+    Bucket<T> newBucket = new Bucket<>(overflownBucket.getIndex() + 1, overflownBucket.getOffset() + overflownBucket.getSize(),
+                                       bucketSize);
+    if (newBucket.getIndex() < inMemoryBucketsCount) {
+      inMemoryBuckets.add(newBucket);
+    }
+
+    return newBucket;
+  }
+
+  /**
+   * {@inheritDoc}
+   * The stream can be as big as the disk allows, so this is a no-op.
+   */
+  @Override
+  protected void validateMaxBufferSizeNotExceeded(long instancesCount) {}
+
+  private void writeBucket(Bucket<T> bucket) {
+    List<T> items = new ArrayList<>(bucket.getSize());
+    for (long position = bucket.getOffset(); bucket.contains(position); position++) {
+      items.add(bucket.get(position));
+    }
+
+    ByteBuffer data = ByteBuffer.wrap(serializer.serialize(items));
+    try {
+      FileChannel channel = getFileChannel();
+      long filePosition = fileTip;
+      while (data.hasRemaining()) {
+        filePosition += channel.write(data, filePosition);
+      }
+
+      if (storedBucketsCount + 1 >= storedBucketOffsets.length) {
+        storedBucketOffsets = copyOf(storedBucketOffsets, storedBucketOffsets.length * 2);
+      }
+      storedBucketOffsets[storedBucketsCount] = fileTip;
+      storedBucketOffsets[++storedBucketsCount] = filePosition;
+      fileTip = filePosition;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write to file buffer"), e);
+    }
+  }
+
+  private Bucket<T> readBucket(int bucketIndex) {
+    int storedIndex = bucketIndex - inMemoryBucketsCount;
+    long filePosition = storedBucketOffsets[storedIndex];
+    ByteBuffer dest = ByteBuffer.allocate((int) (storedBucketOffsets[storedIndex + 1] - filePosition));
+    try {
+      while (dest.hasRemaining()) {
+        if (fileChannel.read(dest, filePosition + dest.position()) < 0) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from file buffer"), e);
+    }
+
+    List<T> items = serializer.deserialize(dest.array());
+    Bucket<T> bucket = new Bucket<>(bucketIndex, (long) bucketIndex * bucketSize, items.size());
+    items.forEach(bucket::add);
+    return bucket;
+  }
+
+  private FileChannel getFileChannel() throws IOException {
+    if (fileChannel == null) {
+      bufferFile = createBufferFile("object-stream-buffer");
+      fileStore = new RandomAccessFile(bufferFile, "rw");
+      fileChannel = fileStore.getChannel();
+    }
+
+    return fileChannel;
+  }
+
+  /**
+   * {@inheritDoc}
+   * Closes and deletes the buffer file, if one was created.
+   */
+  @Override
+  protected void doClose() {
+    inMemoryBuckets.clear();
+    lastReadBucket = null;
+
+    if (fileChannel != null) {
+      closeSafely(fileChannel::close);
+      closeSafely(fileStore::close);
+      closeSafely(bufferFile::delete);
+    }
+  }
+}
@@ -6,9 +6,6 @@
  */
 package org.mule.runtime.core.internal.streaming.object;
 
-import static java.lang.Math.floor;
-import static java.util.Optional.empty;
-import static java.util.Optional.ofNullable;
 import org.mule.runtime.api.streaming.exception.StreamingBufferSizeExceededException;
 import org.mule.runtime.core.api.streaming.iterator.StreamingIterator;
 import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
@@ -42,53 +39,54 @@ public class InMemoryObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T>
     buckets.clear();
   }
 
-  /**
-   * {@inheritDoc}
-   */
   @Override
-  public Position toPosition(long position) {
-    int initialBufferSize = config.getInitialBufferSize();
-    int bucketsDelta = config.getBufferSizeIncrement();
+  protected void initialize(Optional<Long> maxPosition) {
+    buckets = maxPosition.map(p -> new ArrayList<Bucket<T>>(getBucketIndex(p) + 1)).orElseGet(ArrayList::new);
+    Bucket<T> initialBucket = new Bucket<>(0, 0, config.getInitialBufferSize());
+    buckets.add(initialBucket);
+    setCurrentBucket(initialBucket);
+  }
 
-    if (position < initialBufferSize || bucketsDelta == 0) {
-      return new Position(0, (int) position);
+  @Override
+  protected Bucket<T> getPresentBucket(long position) {
+    int bucketIndex = getBucketIndex(position);
+    if (bucketIndex < buckets.size()) {
+      return buckets.get(bucketIndex);
     }
 
-    long offset = position - initialBufferSize;
-
-    int bucketIndex = (int) floor(offset / bucketsDelta) + 1;
-    int itemIndex = (int) position - (initialBufferSize + ((bucketIndex - 1) * bucketsDelta));
-
-    return new Position(bucketIndex, itemIndex);
+    return null;
   }
 
-  @Override
-  protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
-    buckets = maxPosition.map(p -> new ArrayList<Bucket<T>>(p.getBucketIndex())).orElseGet(ArrayList::new);
-    initialBucket = new Bucket<>(0, config.getInitialBufferSize());
-    buckets.add(initialBucket);
-    setCurrentBucket(initialBucket);
-  }
+  /**
+   * Calculates the index of the bucket which holds the item at the given {@code position}, given that the first bucket holds
+   * {@link InMemoryCursorIteratorConfig#getInitialBufferSize()} items and each of the following ones holds
+   * {@link InMemoryCursorIteratorConfig#getBufferSizeIncrement()} items.
+   *
+   * @param position a zero based index position
+   * @return the index of the bucket
+   */
+  private int getBucketIndex(long position) {
+    int initialBufferSize = config.getInitialBufferSize();
+    int bucketsDelta = config.getBufferSizeIncrement();
 
-  @Override
-  protected Optional<Bucket<T>> getPresentBucket(Position position) {
-    if (position.getBucketIndex() < buckets.size()) {
-      return ofNullable(buckets.get(position.getBucketIndex()));
+    if (position < initialBufferSize || bucketsDelta == 0) {
+      return 0;
     }
 
-    return empty();
+    return (int) ((position - initialBufferSize) / bucketsDelta) + 1;
   }
 
   @Override
   protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
-    Bucket<T> newBucket = new Bucket<>(overflownBucket.getIndex() + 1, config.getBufferSizeIncrement());
+    Bucket<T> newBucket = new Bucket<>(overflownBucket.getIndex() + 1, overflownBucket.getOffset() + overflownBucket.getSize(),
+                                       config.getBufferSizeIncrement());
     buckets.add(newBucket);
 
     return newBucket;
   }
 
   @Override
-  protected void validateMaxBufferSizeNotExceeded(int instancesCount) {
+  protected void validateMaxBufferSizeNotExceeded(long instancesCount) {
     if (instancesCount > config.getMaxBufferSize()) {
       throw new StreamingBufferSizeExceededException(config.getMaxBufferSize());
     }
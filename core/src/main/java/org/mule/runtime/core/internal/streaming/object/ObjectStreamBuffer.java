@@ -32,21 +32,12 @@ import java.util.Optional;
 public interface ObjectStreamBuffer<T> extends HasSize {
 
   /**
-   * Returns the {@link Bucket} for the given {@code position}
-   *
-   * @param position the bucket's position
-   * @return an optional the bucket. Will be empty if no bucket for that position,
-   */
-  Optional<Bucket<T>> getBucketFor(Position position);
-
-  /**
-   * Transforms the given index based {@code position} to a {@link Position}
-   * object
+   * Returns the {@link Bucket} which contains the item at the given {@code position}
    *
    * @param position a zero based index position
-   * @return a {@link Position}
+   * @return an optional the bucket. Will be empty if no bucket for that position,
    */
-  Position toPosition(long position);
+  Optional<Bucket<T>> getBucketFor(long position);
 
   /**
    * @param position a position in the stream
@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.lang.Integer.bitCount;
+import static java.lang.System.arraycopy;
+import static java.util.Objects.requireNonNull;
+
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable {@link Map} with {@link String} keys which are compared ignoring their case, like in
+ * {@link CaseInsensitiveHashMap}. The case of the keys is preserved.
+ * <p>
+ * Instances are never modified. Instead, {@link #with(String, Object)} and {@link #without(String)} return a new map
+ * which shares all of its structure with the original one except for the path to the changed entry. Entries are kept in
+ * a hash array mapped trie, so both operations (and lookups) are O(log<sub>32</sub> n), which makes it cheap to derive a
+ * slightly different map from a big one.
+ * <p>
+ * All the mutator methods of the {@link Map} interface throw {@link UnsupportedOperationException}.
+ *
+ * @param <V> the type of the values
+ * @since 4.0
+ */
+public final class PersistentCaseInsensitiveMap<V> extends AbstractMap<String, V> implements Serializable {
+
+  private static final long serialVersionUID = -3470413813426713455L;
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_DEPTH = 8;
+  private static final Object NOT_FOUND = new Object();
+
+  private static final PersistentCaseInsensitiveMap EMPTY = new PersistentCaseInsensitiveMap(new BitmapNode(0, new Object[0]), 0);
+
+  private final transient Node root;
+  private final transient int size;
+  private transient Set<Entry<String, V>> entrySet;
+
+  /**
+   * @return an empty map
+   */
+  public static <V> PersistentCaseInsensitiveMap<V> empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Returns a map with the same entries than the given {@code map}. If {@code map} is already a
+   * {@link PersistentCaseInsensitiveMap} then it's returned as is.
+   *
+   * @param map the map to copy
+   * @return a {@link PersistentCaseInsensitiveMap}
+   */
+  public static <V> PersistentCaseInsensitiveMap<V> copyOf(Map<String, ? extends V> map) {
+    if (map instanceof PersistentCaseInsensitiveMap) {
+      return (PersistentCaseInsensitiveMap<V>) map;
+    }
+
+    PersistentCaseInsensitiveMap<V> copy = empty();
+    for (Entry<String, ? extends V> entry : map.entrySet()) {
+      copy = copy.with(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  private PersistentCaseInsensitiveMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns a map with the same entries as this one plus the given one. If a key equal to {@code key} (ignoring case) was
+   * already present, its value is replaced but the original case of the key is preserved.
+   *
+   * @param key   the key of the entry
+   * @param value the value of the entry
+   * @return a new map, or {@code this} if the entry was already present
+   */
+  public PersistentCaseInsensitiveMap<V> with(String key, V value) {
+    requireNonNull(key, "key cannot be null");
+    boolean[] added = new boolean[1];
+    Node newRoot = root.assoc(0, hash(key), key, value, added);
+    return newRoot == root ? this : new PersistentCaseInsensitiveMap<>(newRoot, added[0] ? size + 1 : size);
+  }
+
+  /**
+   * Returns a map with the same entries as this one minus the one with the given {@code key} (ignoring case)
+   *
+   * @param key the key of the entry to remove
+   * @return a new map, or {@code this} if no entry had the given {@code key}
+   */
+  public PersistentCaseInsensitiveMap<V> without(String key) {
+    if (key == null) {
+      return this;
+    }
+
+    Node newRoot = root.without(0, hash(key), key);
+    if (newRoot == root) {
+      return this;
+    }
+
+    return newRoot == null ? empty() : new PersistentCaseInsensitiveMap<>(newRoot, size - 1);
+  }
+
+  @Override
+  public V get(Object key) {
+    Object value = find(key);
+    return value == NOT_FOUND ? null : (V) value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != NOT_FOUND;
+  }
+
+  private Object find(Object key) {
+    if (!(key instanceof String)) {
+      return NOT_FOUND;
+    }
+
+    String stringKey = (String) key;
+    return root.find(0, hash(stringKey), stringKey);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super V> action) {
+    root.forEach((BiConsumer) action);
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<String, V>>() {
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+          return new EntryIterator<>(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  /**
+   * Computes the hash of the given key in a way consistent with {@link String#equalsIgnoreCase(String)}, without creating
+   * a lower case copy of it.
+   */
+  private static int hash(String key) {
+    int h = 0;
+    for (int i = 0; i < key.length(); i++) {
+      h = 31 * h + toLowerCase(toUpperCase(key.charAt(i)));
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private static int bitpos(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private static Object[] cloneAndSet(Object[] array, int i, Object value) {
+    Object[] clone = array.clone();
+    clone[i] = value;
+    return clone;
+  }
+
+  private static Object[] insertPair(Object[] array, int i, Object key, Object value) {
+    Object[] copy = new Object[array.length + 2];
+    arraycopy(array, 0, copy, 0, i);
+    copy[i] = key;
+    copy[i + 1] = value;
+    arraycopy(array, i, copy, i + 2, array.length - i);
+    return copy;
+  }
+
+  private static Object[] removePair(Object[] array, int i) {
+    Object[] copy = new Object[array.length - 2];
+    arraycopy(array, 0, copy, 0, i);
+    arraycopy(array, i + 2, copy, i, copy.length - i);
+    return copy;
+  }
+
+  private static Node createNode(int shift, String key1, Object value1, int hash2, String key2, Object value2) {
+    int hash1 = hash(key1);
+    if (hash1 == hash2) {
+      return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+    }
+
+    boolean[] added = new boolean[1];
+    return EMPTY.root.assoc(shift, hash1, key1, value1, added).assoc(shift, hash2, key2, value2, added);
+  }
+
+  /**
+   * A node of the trie. Its {@link #array} holds key/value pairs. In a {@link BitmapNode}, a pair with a {@code null} key
+   * points to a child node in the value position.
+   */
+  private abstract static class Node {
+
+    protected final Object[] array;
+
+    protected Node(Object[] array) {
+      this.array = array;
+    }
+
+    abstract Object find(int shift, int hash, String key);
+
+    abstract Node assoc(int shift, int hash, String key, Object value, boolean[] added);
+
+    abstract Node without(int shift, int hash, String key);
+
+    void forEach(BiConsumer<String, Object> action) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (array[i] == null) {
+          ((Node) array[i + 1]).forEach(action);
+        } else {
+          action.accept((String) array[i], array[i + 1]);
+        }
+      }
+    }
+  }
+
+  private static final class BitmapNode extends Node {
+
+    private final int bitmap;
+
+    private BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    private int index(int bit) {
+      return bitCount(bitmap & (bit - 1)) * 2;
+    }
+
+    @Override
+    Object find(int shift, int hash, String key) {
+      int bit = bitpos(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+
+      int idx = index(bit);
+      Object k = array[idx];
+      Object v = array[idx + 1];
+      if (k == null) {
+        return ((Node) v).find(shift + BITS, hash, key);
+      }
+
+      return key.equalsIgnoreCase((String) k) ? v : NOT_FOUND;
+    }
+
+    @Override
+    Node assoc(int shift, int hash, String key, Object value, boolean[] added) {
+      int bit = bitpos(hash, shift);
+      int idx = index(bit);
+
+      if ((bitmap & bit) == 0) {
+        added[0] = true;
+        return new BitmapNode(bitmap | bit, insertPair(array, idx, key, value));
+      }
+
+      Object k = array[idx];
+      Object v = array[idx + 1];
+      if (k == null) {
+        Node child = ((Node) v).assoc(shift + BITS, hash, key, value, added);
+        return child == v ? this : new BitmapNode(bitmap, cloneAndSet(array, idx + 1, child));
+      }
+
+      if (key.equalsIgnoreCase((String) k)) {
+        return v == value ? this : new BitmapNode(bitmap, cloneAndSet(array, idx + 1, value));
+      }
+
+      added[0] = true;
+      Object[] newArray = cloneAndSet(array, idx, null);
+      newArray[idx + 1] = createNode(shift + BITS, (String) k, v, hash, key, value);
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    @Override
+    Node without(int shift, int hash, String key) {
+      int bit = bitpos(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      int idx = index(bit);
+      Object k = array[idx];
+      Object v = array[idx + 1];
+      if (k == null) {
+        Node child = ((Node) v).without(shift + BITS, hash, key);
+        if (child == v) {
+          return this;
+        } else if (child != null) {
+          return new BitmapNode(bitmap, cloneAndSet(array, idx + 1, child));
+        }
+      } else if (!key.equalsIgnoreCase((String) k)) {
+        return this;
+      }
+
+      return bitmap == bit ? null : new BitmapNode(bitmap ^ bit, removePair(array, idx));
+    }
+  }
+
+  /**
+   * Holds entries which keys have the exact same hash
+   */
+  private static final class CollisionNode extends Node {
+
+    private final int hash;
+
+    private CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    private int indexOf(String key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equalsIgnoreCase((String) array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object find(int shift, int hash, String key) {
+      int idx = indexOf(key);
+      return idx < 0 ? NOT_FOUND : array[idx + 1];
+    }
+
+    @Override
+    Node assoc(int shift, int hash, String key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        return new BitmapNode(bitpos(this.hash, shift), new Object[] {null, this}).assoc(shift, hash, key, value, added);
+      }
+
+      int idx = indexOf(key);
+      if (idx >= 0) {
+        return array[idx + 1] == value ? this : new CollisionNode(hash, cloneAndSet(array, idx + 1, value));
+      }
+
+      added[0] = true;
+      return new CollisionNode(hash, insertPair(array, array.length, key, value));
+    }
+
+    @Override
+    Node without(int shift, int hash, String key) {
+      int idx = indexOf(key);
+      if (idx < 0) {
+        return this;
+      }
+
+      return array.length == 2 ? null : new CollisionNode(hash, removePair(array, idx));
+    }
+  }
+
+  private static final class EntryIterator<V> implements Iterator<Entry<String, V>> {
+
+    private final Object[][] arrays = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = 0;
+    private Entry<String, V> next;
+
+    private EntryIterator(Node root) {
+      arrays[0] = root.array;
+      advance();
+    }
+
+    private void advance() {
+      while (depth >= 0) {
+        Object[] array = arrays[depth];
+        int position = positions[depth];
+        if (position >= array.length) {
+          depth--;
+          continue;
+        }
+
+        positions[depth] = position + 2;
+        if (array[position] == null) {
+          depth++;
+          arrays[depth] = ((Node) array[position + 1]).array;
+          positions[depth] = 0;
+        } else {
+          next = new SimpleImmutableEntry<>((String) array[position], (V) array[position + 1]);
+          return;
+        }
+      }
+
+      next = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<String, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+
+      Entry<String, V> current = next;
+      advance();
+      return current;
+    }
+  }
+
+  // //////////////////////////
+  // Serialization methods
+  // //////////////////////////
+
+  private Object writeReplace() {
+    return new SerializedForm(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws InvalidObjectException {
+    throw new InvalidObjectException("Serialized form expected");
+  }
+
+  /**
+   * Serializes the entries as plain arrays, so that the structure of the trie is not part of the serialized form
+   */
+  private static final class SerializedForm implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] keys;
+    private final Object[] values;
+
+    private SerializedForm(PersistentCaseInsensitiveMap<?> map) {
+      keys = new String[map.size()];
+      values = new Object[map.size()];
+      int[] i = new int[1];
+      map.forEach((key, value) -> {
+        keys[i[0]] = key;
+        values[i[0]++] = value;
+      });
+    }
+
+    private Object readResolve() {
+      PersistentCaseInsensitiveMap<Object> map = empty();
+      for (int i = 0; i < keys.length; i++) {
+        map = map.with(keys[i], values[i]);
+      }
+      return map;
+    }
+  }
+}
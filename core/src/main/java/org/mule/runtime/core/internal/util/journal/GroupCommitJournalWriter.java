@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal;
+
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+
+/**
+ * Writes the records of a journal file using group commit.
+ * <p>
+ * Callers just append their records to the current {@link Batch}. A single flush task at a time, run by the given executor,
+ * takes the batch, writes all its records at once and forces them to the storage device according to the {@link FsyncPolicy},
+ * after which the callers waiting on that batch are released. This way, concurrent transactions share the cost of writing and
+ * syncing the file instead of doing it one after the other.
+ * <p>
+ * The flush task is only submitted when there are records to write and no other one is running, and it ends as soon as there
+ * is nothing left to write or force, so no thread is held by an idle writer. Records waiting for the {@link FsyncPolicy#INTERVAL
+ * interval} to elapse don't hold a thread either, their force is scheduled instead. If there is no executor or it rejects the
+ * task, the records are written, and forced right away, by the thread waiting for them.
+ *
+ * @since 4.1
+ */
+final class GroupCommitJournalWriter {
+
+  private static final Logger LOGGER = getLogger(GroupCommitJournalWriter.class);
+
+  /**
+   * Determines when the written records are forced to the storage device.
+   */
+  public enum FsyncPolicy {
+    /**
+     * Records are never forced. Callers are released once their records are written to the file.
+     */
+    NEVER,
+
+    /**
+     * Records are forced after each written batch.
+     */
+    ALWAYS,
+
+    /**
+     * Records are forced once the configured interval has elapsed since the first record that was not forced yet was written.
+     */
+    INTERVAL,
+
+    /**
+     * Records are forced once the configured amount of records are written and not forced yet, or when there are no more records
+     * to write.
+     */
+    ENTRIES
+  }
+
+  private final File file;
+  private final FileChannel channel;
+  private final ScheduledExecutorService flushExecutor;
+  private final FsyncPolicy fsyncPolicy;
+  private final int fsyncEntries;
+  private final long fsyncIntervalNanos;
+
+  private final Lock lock = new ReentrantLock();
+  // Signaled once per group of completed batches, awaited by the callers
+  private final Condition batchesCompleted = lock.newCondition();
+  // Signaled when the flush task ends
+  private final Condition flushEnded = lock.newCondition();
+  private Batch currentBatch = new Batch();
+  private boolean flushing = false;
+  private ScheduledFuture<?> scheduledForce;
+  private volatile boolean closed = false;
+
+  // Only accessed by the flush task
+  private final List<Batch> unforced = new ArrayList<>();
+  private int unforcedEntries = 0;
+  private long firstUnforcedAt = 0;
+
+  /**
+   * @param file                the file to write the records to. Records are appended to its current contents.
+   * @param flushExecutor       the executor on which the records are written and forced. May be {@code null}, in which case they
+   *                            are written by the threads waiting for them.
+   * @param fsyncPolicy         when to force the written records
+   * @param fsyncEntries        the amount of records after which they are forced when using {@link FsyncPolicy#ENTRIES}
+   * @param fsyncIntervalMillis the time after which records are forced when using {@link FsyncPolicy#INTERVAL}
+   */
+  GroupCommitJournalWriter(File file, ScheduledExecutorService flushExecutor, FsyncPolicy fsyncPolicy, int fsyncEntries,
+                           long fsyncIntervalMillis) {
+    this.file = file;
+    this.flushExecutor = flushExecutor;
+    this.fsyncPolicy = fsyncPolicy;
+    this.fsyncEntries = fsyncEntries;
+    this.fsyncIntervalNanos = MILLISECONDS.toNanos(fsyncIntervalMillis);
+    try {
+      this.channel = FileChannel.open(file.toPath(), CREATE, WRITE, APPEND);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  /**
+   * Appends a record to the batch to be written next.
+   *
+   * @param record the serialized journal entry
+   * @return the batch the record belongs to, to {@link #await(Batch) wait} for it to be written.
+   */
+  Batch append(byte[] record) {
+    Batch batch;
+    boolean startFlush = false;
+    lock.lock();
+    try {
+      if (closed) {
+        throw new MuleRuntimeException(createStaticMessage("Transaction journal file " + file.getAbsolutePath()
+            + " is closed"));
+      }
+      batch = currentBatch;
+      batch.records.add(record);
+      if (!flushing && flushExecutor != null) {
+        flushing = true;
+        startFlush = true;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (startFlush) {
+      try {
+        flushExecutor.execute(this::flush);
+      } catch (RejectedExecutionException e) {
+        // The record will be written by the thread awaiting it, which also forces any record pending a scheduled force
+        lock.lock();
+        try {
+          if (scheduledForce != null) {
+            scheduledForce.cancel(false);
+            scheduledForce = null;
+          }
+          flushing = false;
+          batchesCompleted.signalAll();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+    return batch;
+  }
+
+  /**
+   * Waits until the records of the given {@code batch} are written and, depending on the {@link FsyncPolicy}, forced.
+   *
+   * @param batch the batch to wait for
+   * @throws MuleRuntimeException if the batch could not be written
+   */
+  void await(Batch batch) {
+    lock.lock();
+    try {
+      while (!batch.done) {
+        if (!flushing && scheduledForce == null) {
+          // The flush task could not be submitted, so write the records from this thread
+          flushing = true;
+          lock.unlock();
+          try {
+            flush();
+          } finally {
+            lock.lock();
+          }
+        } else {
+          // The record is already on its way to the file, so just wait for it even if interrupted
+          batchesCompleted.awaitUninterruptibly();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (batch.failure != null) {
+      throw new MuleRuntimeException(batch.failure);
+    }
+  }
+
+  /**
+   * Discards the contents of the file. Records which are still waiting to be written will be written after the truncation.
+   */
+  void truncate() {
+    synchronized (channel) {
+      try {
+        channel.truncate(0);
+      } catch (IOException e) {
+        throw new MuleRuntimeException(e);
+      }
+    }
+  }
+
+  /**
+   * Writes and forces the pending records, and releases the file.
+   */
+  void close() {
+    boolean flushHere = false;
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (scheduledForce != null) {
+        scheduledForce.cancel(false);
+        scheduledForce = null;
+      }
+      if (flushing) {
+        while (flushing) {
+          flushEnded.awaitUninterruptibly();
+        }
+      } else {
+        flushing = true;
+        flushHere = true;
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (flushHere) {
+      flush();
+    }
+
+    try {
+      channel.close();
+    } catch (IOException e) {
+      LOGGER.warn(e.getMessage());
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Error closing transaction journal file", e);
+      }
+    }
+  }
+
+  private void flush() {
+    while (true) {
+      Batch batch;
+      lock.lock();
+      try {
+        if (currentBatch.records.isEmpty() && (unforced.isEmpty() || !isForceDue(true))) {
+          // Only happens with FsyncPolicy.INTERVAL when records are pending, force them once the interval elapses
+          if (!unforced.isEmpty() && !scheduleForce()) {
+            lock.unlock();
+            try {
+              force();
+            } finally {
+              lock.lock();
+            }
+            continue;
+          }
+          flushing = false;
+          flushEnded.signalAll();
+          return;
+        }
+        batch = currentBatch;
+        currentBatch = new Batch();
+      } finally {
+        lock.unlock();
+      }
+
+      if (!batch.records.isEmpty()) {
+        write(batch);
+      }
+
+      boolean idle;
+      lock.lock();
+      try {
+        idle = currentBatch.records.isEmpty();
+      } finally {
+        lock.unlock();
+      }
+      if (!unforced.isEmpty() && isForceDue(idle)) {
+        force();
+      }
+    }
+  }
+
+  /**
+   * Schedules a flush task for when the interval of the pending records elapses, unless one is scheduled already. Must be called
+   * holding the lock.
+   *
+   * @return whether the flush task is scheduled
+   */
+  private boolean scheduleForce() {
+    if (scheduledForce != null) {
+      return true;
+    }
+    if (flushExecutor == null) {
+      return false;
+    }
+    try {
+      scheduledForce = flushExecutor.schedule(this::scheduledFlush, remainingIntervalMillis(), MILLISECONDS);
+      return true;
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+
+  private void scheduledFlush() {
+    lock.lock();
+    try {
+      scheduledForce = null;
+      if (flushing) {
+        // The running flush task forces the pending records, or schedules this again
+        return;
+      }
+      flushing = true;
+    } finally {
+      lock.unlock();
+    }
+    flush();
+  }
+
+  private void write(Batch batch) {
+    ByteBuffer[] buffers = new ByteBuffer[batch.records.size()];
+    long remaining = 0;
+    for (int i = 0; i < buffers.length; ++i) {
+      buffers[i] = ByteBuffer.wrap(batch.records.get(i));
+      remaining += buffers[i].remaining();
+    }
+
+    try {
+      synchronized (channel) {
+        while (remaining > 0) {
+          remaining -= channel.write(buffers);
+        }
+      }
+    } catch (IOException e) {
+      complete(singletonList(batch), e);
+      return;
+    }
+
+    if (fsyncPolicy == FsyncPolicy.NEVER) {
+      complete(singletonList(batch), null);
+    } else {
+      if (unforced.isEmpty()) {
+        firstUnforcedAt = nanoTime();
+      }
+      unforced.add(batch);
+      unforcedEntries += batch.records.size();
+    }
+  }
+
+  private void force() {
+    IOException failure = null;
+    try {
+      synchronized (channel) {
+        channel.force(false);
+      }
+    } catch (IOException e) {
+      failure = e;
+    }
+
+    complete(unforced, failure);
+    unforced.clear();
+    unforcedEntries = 0;
+  }
+
+  private long remainingIntervalMillis() {
+    return max(1, NANOSECONDS.toMillis(fsyncIntervalNanos - (nanoTime() - firstUnforcedAt)));
+  }
+
+  private boolean isForceDue(boolean idle) {
+    if (closed) {
+      return true;
+    }
+
+    switch (fsyncPolicy) {
+      case INTERVAL:
+        return nanoTime() - firstUnforcedAt >= fsyncIntervalNanos;
+      case ENTRIES:
+        return idle || unforcedEntries >= fsyncEntries;
+      default:
+        return true;
+    }
+  }
+
+  private void complete(List<Batch> batches, IOException failure) {
+    lock.lock();
+    try {
+      for (Batch batch : batches) {
+        batch.failure = failure;
+        batch.done = true;
+      }
+      batchesCompleted.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * A group of records which are written and forced together.
+   */
+  static final class Batch {
+
+    private final List<byte[]> records = new ArrayList<>();
+    private boolean done = false;
+    private IOException failure;
+  }
+}
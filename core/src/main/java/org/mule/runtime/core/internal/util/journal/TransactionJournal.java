@@ -6,7 +6,14 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.lang.Integer.getInteger;
+import static java.lang.System.getProperty;
+import static org.mule.runtime.core.internal.util.journal.TransactionJournalFile.serialize;
+
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.internal.util.journal.GroupCommitJournalWriter.Batch;
+import org.mule.runtime.core.internal.util.journal.GroupCommitJournalWriter.FsyncPolicy;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
@@ -25,18 +32,42 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * Entries are written using group commit: the entries logged concurrently are written, and forced according to the
+ * {@link #FSYNC_POLICY_PROPERTY_KEY fsync policy}, together by a single task at a time, run on the {@link Scheduler} given by
+ * the owner of the journal. The threads logging them wait for the write without holding the lock of this journal.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   public static final String TX1_LOG_FILE_NAME = "tx1.log";
   public static final String TX2_LOG_FILE_NAME = "tx2.log";
 
+  /**
+   * System property to set when the journal entries are forced to the storage device. One of {@link FsyncPolicy}, defaults to
+   * {@link FsyncPolicy#NEVER}.
+   */
+  public static final String FSYNC_POLICY_PROPERTY_KEY = "mule.journal.fsyncPolicy";
+
+  /**
+   * System property to set the amount of entries after which they are forced when using {@link FsyncPolicy#ENTRIES}.
+   */
+  public static final String FSYNC_ENTRIES_PROPERTY_KEY = "mule.journal.fsyncEntries";
+
+  /**
+   * System property to set the milliseconds after which entries are forced when using {@link FsyncPolicy#INTERVAL}.
+   */
+  public static final String FSYNC_INTERVAL_PROPERTY_KEY = "mule.journal.fsyncIntervalMillis";
+
+  private static final int DEFAULT_FSYNC_ENTRIES = 64;
+  private static final int DEFAULT_FSYNC_INTERVAL_MILLIS = 10;
+
   private static final int MAXIMUM_LOG_FILE_ENTRIES = 50000;
   private static final int ONE_MEGABYTE_IN_BYTES = 1024 * 1024;
 
   private transient Logger logger = LoggerFactory.getLogger(getClass());
 
   private final TransactionCompletePredicate transactionCompletePredicate;
+  private final JournalEntrySerializer journalEntrySerializer;
 
   /**
    * Log file in which we are currently writing new entries.
@@ -59,9 +90,13 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   /**
    * @param logFilesDirectory directory used to store the journal files.
+   * @param flushScheduler    the IO {@link Scheduler} on which the entries are written. It must not be stopped before this
+   *                          journal is {@link #close() closed}. May be {@code null}, in which case the entries are written by
+   *                          the threads logging them.
    */
   public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
-                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes) {
+                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes,
+                            Scheduler flushScheduler) {
     File logFileDirectory = new File(logFilesDirectory);
     if (!logFileDirectory.exists()) {
       Preconditions.checkState(logFileDirectory.mkdirs(),
@@ -72,11 +107,18 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
-    this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
-    this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+    FsyncPolicy fsyncPolicy = FsyncPolicy.valueOf(getProperty(FSYNC_POLICY_PROPERTY_KEY, FsyncPolicy.NEVER.name()));
+    int fsyncEntries = getInteger(FSYNC_ENTRIES_PROPERTY_KEY, DEFAULT_FSYNC_ENTRIES);
+    int fsyncIntervalMillis = getInteger(FSYNC_INTERVAL_PROPERTY_KEY, DEFAULT_FSYNC_INTERVAL_MILLIS);
+
+    this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate,
+                                                     clearFileMinimumSizeInBytes, flushScheduler, fsyncPolicy,
+                                                     fsyncEntries, fsyncIntervalMillis);
+    this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate,
+                                                        clearFileMinimumSizeInBytes, flushScheduler, fsyncPolicy,
+                                                        fsyncEntries, fsyncIntervalMillis);
     this.transactionCompletePredicate = transactionCompletePredicate;
+    this.journalEntrySerializer = journalEntrySerializer;
 
   }
 
@@ -92,9 +134,15 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    byte[] serializedEntry = serialize(journalEntrySerializer, journalEntry);
+    TransactionJournalFile logFile;
+    Batch batch;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      batch = logFile.logOperation(journalEntry, serializedEntry);
+    }
+    logFile.awaitWritten(batch);
   }
 
   /**
@@ -104,12 +152,18 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    byte[] serializedEntry = serialize(journalEntrySerializer, journalEntry);
+    TransactionJournalFile logFile;
+    Batch batch;
+    synchronized (this) {
+      logFile = determineLogFile(journalEntry.getTxId());
+      batch = logFile.logOperation(journalEntry, serializedEntry);
+      if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+        logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      }
     }
+    logFile.awaitWritten(batch);
   }
 
   /**
@@ -7,24 +7,26 @@
 package org.mule.runtime.core.internal.util.journal;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.internal.util.journal.GroupCommitJournalWriter.Batch;
+import org.mule.runtime.core.internal.util.journal.GroupCommitJournalWriter.FsyncPolicy;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.ScheduledExecutorService;
 
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,7 +52,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
-  private DataOutputStream logFileOutputStream;
+  private final GroupCommitJournalWriter writer;
   private int journalOperations = 0;
 
   /**
@@ -58,27 +60,89 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    *        loaded from it.
    * @param journalEntrySerializer serializer for {@link JournalEntry}
    * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * <p>
+   * Entries are written by the thread logging them, and never forced.
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, null,
+         FsyncPolicy.NEVER, 1, 0);
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param flushExecutor the executor on which the entries are written and forced. May be {@code null}, in which case they are
+   *        written by the threads logging them.
+   * @param fsyncPolicy when to force the written entries to the storage device
+   * @param fsyncEntries the amount of entries after which they are forced when using {@link FsyncPolicy#ENTRIES}
+   * @param fsyncIntervalMillis the time after which entries are forced when using {@link FsyncPolicy#INTERVAL}
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                ScheduledExecutorService flushExecutor, FsyncPolicy fsyncPolicy, int fsyncEntries,
+                                long fsyncIntervalMillis) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
     if (journalFile.exists()) {
       loadAllEntries(transactionCompletePredicate);
     }
-    createLogOutputStream();
+    this.writer = new GroupCommitJournalWriter(journalFile, flushExecutor, fsyncPolicy, fsyncEntries,
+                                               fsyncIntervalMillis);
   }
 
   /**
-   * Adds a journal entry for an operation done over a transactional resource
+   * Adds a journal entry for an operation done over a transactional resource, waiting for it to be written.
    * 
    * @param journalEntry operation details
    */
-  public synchronized void logOperation(K journalEntry) {
+  public void logOperation(K journalEntry) {
+    awaitWritten(logOperation(journalEntry, serialize(journalEntrySerializer, journalEntry)));
+  }
+
+  /**
+   * Adds a journal entry for an operation done over a transactional resource, without waiting for it to be written.
+   *
+   * @param journalEntry operation details
+   * @param serializedEntry the {@link #serialize(JournalEntrySerializer, JournalEntry) serialized} {@code journalEntry}
+   * @return the {@link Batch} in which the entry will be written, to {@link #awaitWritten(Batch) wait} for it.
+   */
+  synchronized Batch logOperation(K journalEntry, byte[] serializedEntry) {
     entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
     journalOperations++;
+    return writer.append(serializedEntry);
+  }
+
+  /**
+   * Waits until the entries of the given {@code batch} are written, and forced if the fsync policy requires it.
+   *
+   * @param batch a batch returned by {@link #logOperation(JournalEntry, byte[])}
+   */
+  void awaitWritten(Batch batch) {
+    writer.await(batch);
+  }
+
+  /**
+   * Serializes a journal entry so it can be written to the journal file. This is done before acquiring any locks so that entries
+   * of different transactions can be serialized in parallel.
+   *
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param journalEntry the entry to serialize
+   * @return the serialized entry
+   */
+  static byte[] serialize(JournalEntrySerializer journalEntrySerializer, JournalEntry journalEntry) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream dataOutputStream = new DataOutputStream(bytes);
+    journalEntrySerializer.serialize(journalEntry, dataOutputStream);
+    try {
+      dataOutputStream.flush();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
+    return bytes.toByteArray();
   }
 
   /**
@@ -120,14 +184,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Will not remove the transaction context.
    */
   public synchronized void close() {
-    try {
-      logFileOutputStream.close();
-    } catch (IOException e) {
-      logger.warn(e.getMessage());
-      if (logger.isDebugEnabled()) {
-        logger.debug("Error closing transaction journal file", e);
-      }
-    }
+    writer.close();
   }
 
   /**
@@ -156,25 +213,8 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
   public synchronized void clear() {
-    close();
     entries.clear();
-    FileUtils.deleteQuietly(journalFile);
-    createLogOutputStream();
-  }
-
-  private void createLogOutputStream() {
-    if (!journalFile.exists()) {
-      try {
-        journalFile.createNewFile();
-      } catch (IOException e) {
-        throw new MuleRuntimeException(e);
-      }
-    }
-    try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
-    } catch (FileNotFoundException e) {
-      throw new MuleRuntimeException(e);
-    }
+    writer.truncate();
   }
 
   /**
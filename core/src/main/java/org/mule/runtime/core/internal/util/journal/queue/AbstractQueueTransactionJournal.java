@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.util.journal.queue;
 
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.internal.util.journal.JournalEntry;
 import org.mule.runtime.core.internal.util.journal.JournalEntrySerializer;
 import org.mule.runtime.core.internal.util.journal.TransactionCompletePredicate;
@@ -33,8 +34,12 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
 
   private TransactionJournal<T, K> logFile;
 
+  /**
+   * @param flushScheduler the IO {@link Scheduler} on which the entries are written, owned by the creator of this journal. May
+   *                       be {@code null}, in which case the entries are written by the threads logging them.
+   */
   public AbstractQueueTransactionJournal(String logFilesDirectory, JournalEntrySerializer journalEntrySerializer,
-                                         Integer maximumFileSizeInMegabytes) {
+                                         Integer maximumFileSizeInMegabytes, Scheduler flushScheduler) {
     checkArgument(maximumFileSizeInMegabytes == null || maximumFileSizeInMegabytes > 0,
                   "Maximum tx log file size needs to be greater than zero");
     this.logFile = new TransactionJournal(logFilesDirectory, new TransactionCompletePredicate() {
@@ -44,7 +49,7 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
         AbstractQueueTxJournalEntry abstractQueueTxJournalEntry = (AbstractQueueTxJournalEntry) journalEntry;
         return abstractQueueTxJournalEntry.isCommit() || abstractQueueTxJournalEntry.isRollback();
       }
-    }, journalEntrySerializer, maximumFileSizeInMegabytes);
+    }, journalEntrySerializer, maximumFileSizeInMegabytes, flushScheduler);
   }
 
   public void logAdd(T txId, QueueStore queue, Serializable value) {
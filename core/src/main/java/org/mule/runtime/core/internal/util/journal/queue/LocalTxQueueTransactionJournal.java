@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.util.journal.queue;
 
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.internal.util.journal.JournalEntrySerializer;
 
@@ -19,12 +20,18 @@ import java.io.Serializable;
  */
 public class LocalTxQueueTransactionJournal extends AbstractQueueTransactionJournal<Integer, LocalQueueTxJournalEntry> {
 
+  public LocalTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext, int maximumFileSizeInMegabytes,
+                                        Scheduler flushScheduler) {
+    super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), maximumFileSizeInMegabytes,
+          flushScheduler);
+  }
+
   public LocalTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext, int maximumFileSizeInMegabytes) {
-    super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), maximumFileSizeInMegabytes);
+    super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), maximumFileSizeInMegabytes, null);
   }
 
   public LocalTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext) {
-    super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), null);
+    super(logFilesDirectory, createLocalTxQueueJournalEntrySerializer(muleContext), null, null);
   }
 
   public static JournalEntrySerializer<Integer, LocalQueueTxJournalEntry> createLocalTxQueueJournalEntrySerializer(final MuleContext muleContext) {
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.util.journal.queue;
 
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.internal.util.journal.JournalEntrySerializer;
 
@@ -20,7 +21,7 @@ import javax.transaction.xa.Xid;
 public class XaTxQueueTransactionJournal extends AbstractQueueTransactionJournal<Xid, XaQueueTxJournalEntry> {
 
   public XaTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext,
-                                     Integer maximumFileSizeInMegabytes) {
+                                     Integer maximumFileSizeInMegabytes, Scheduler flushScheduler) {
     super(logFilesDirectory, new JournalEntrySerializer<Xid, XaQueueTxJournalEntry>() {
 
       @Override
@@ -32,7 +33,12 @@ public class XaTxQueueTransactionJournal extends AbstractQueueTransactionJournal
       public void serialize(XaQueueTxJournalEntry journalEntry, DataOutputStream dataOutputStream) {
         journalEntry.write(dataOutputStream, muleContext);
       }
-    }, maximumFileSizeInMegabytes);
+    }, maximumFileSizeInMegabytes, flushScheduler);
+  }
+
+  public XaTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext,
+                                     Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, muleContext, maximumFileSizeInMegabytes, null);
   }
 
   public XaTxQueueTransactionJournal(String logFilesDirectory, final MuleContext muleContext) {
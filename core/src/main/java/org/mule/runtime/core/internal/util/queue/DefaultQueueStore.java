@@ -6,11 +6,15 @@
  */
 package org.mule.runtime.core.internal.util.queue;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.internal.util.queue.MappedSegmentQueueStoreDelegate.MAPPED_SEGMENTS_PROPERTY_KEY;
+
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
 import org.mule.runtime.core.api.util.queue.QueueConfiguration;
 
 import java.io.Serializable;
+import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.commons.lang3.NotImplementedException;
 
@@ -23,10 +27,21 @@ public class DefaultQueueStore implements RecoverableQueueStore {
   private String name;
   private QueueStoreDelegate delegate;
   private MuleContext muleContext;
+  private ScheduledExecutorService scheduler;
 
   public DefaultQueueStore(String name, MuleContext muleContext, QueueConfiguration config) {
+    this(name, muleContext, config, null);
+  }
+
+  /**
+   * @param scheduler the scheduler the queue storage may use for background work, such as forcing its last changes to disk
+   *                  once the queue becomes idle. May be {@code null}.
+   */
+  public DefaultQueueStore(String name, MuleContext muleContext, QueueConfiguration config,
+                           ScheduledExecutorService scheduler) {
     this.name = name;
     this.muleContext = muleContext;
+    this.scheduler = scheduler;
     setConfigAndDelegate(config);
   }
 
@@ -42,7 +57,10 @@ public class DefaultQueueStore implements RecoverableQueueStore {
     if (this.config == null) {
       this.config = new DefaultQueueConfiguration();
     }
-    if (this.config.isPersistent()) {
+    if (this.config.isPersistent() && getBoolean(MAPPED_SEGMENTS_PROPERTY_KEY)) {
+      delegate = new MappedSegmentQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
+                                                     muleContext, this.config.getCapacity(), scheduler);
+    } else if (this.config.isPersistent()) {
       delegate = new DualRandomAccessFileQueueStoreDelegate(this.name, muleContext.getConfiguration().getWorkingDirectory(),
                                                             muleContext, this.config.getCapacity());
     } else {
@@ -0,0 +1,684 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation which stores the queue entries in append-only, memory-mapped segment
+ * files.
+ * <p/>
+ * Each entry is written as a record at the end of the active segment. Records are never moved on a take: removing an entry just
+ * flips the status byte of its record (a tombstone) so no data needs to be rewritten. The order of the queue is kept in memory
+ * by an index of primitive longs, each one encoding the segment and offset of a live record, and it is rebuilt from the
+ * segments when the queue is opened.
+ * <p/>
+ * A segment is deleted as soon as it has no live records left. Segments which are mostly made of tombstones but still have some
+ * live records (for instance after entries were removed out of order) are compacted by copying those records to the active
+ * segment.
+ * <p/>
+ * Changes are not forced to the storage device on each operation. Instead, the dirty segments are forced once a number of
+ * operations have been done or some time has elapsed since the last time, and always when the queue is closed. If a scheduler
+ * is given, a force is also scheduled after each operation that didn't do one, so the last writes of a queue that becomes idle
+ * are not left unforced.
+ * <p/>
+ * The segments are unmapped as soon as they are closed or deleted, instead of waiting for the buffers to be garbage collected.
+ *
+ * @since 4.1
+ */
+public class MappedSegmentQueueStoreDelegate extends AbstractQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  /**
+   * System property to use this delegate instead of {@link DualRandomAccessFileQueueStoreDelegate} for persistent queues.
+   * <p/>
+   * Both delegates use different file formats, so the entries of existing persistent queues are not available after changing
+   * the value of this property.
+   */
+  public static final String MAPPED_SEGMENTS_PROPERTY_KEY = "mule.queue.mappedSegments";
+  public static final String SEGMENT_SIZE_PROPERTY_KEY = "mule.queue.segmentSize";
+  public static final String FORCE_BATCH_SIZE_PROPERTY_KEY = "mule.queue.forceBatchSize";
+  public static final String FORCE_INTERVAL_PROPERTY_KEY = "mule.queue.forceIntervalMillis";
+
+  private static final Logger LOGGER = getLogger(MappedSegmentQueueStoreDelegate.class);
+
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String SEGMENTS_DIRECTORY_SUFFIX = "-segments";
+  private static final String SEGMENT_FILE_EXTENSION = ".seg";
+
+  private static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+  private static final int DEFAULT_FORCE_BATCH_SIZE = 32;
+  private static final int DEFAULT_FORCE_INTERVAL_MILLIS = 10;
+
+  /**
+   * A segment is compacted when less than 1 out of this many of its records are live.
+   */
+  private static final int COMPACTION_RATIO = 4;
+
+  private static final byte LIVE = 1;
+  private static final byte REMOVED = 2;
+
+  // status (byte) + order (long) + data length (int)
+  static final int HEADER_SIZE = 1 + 8 + 4;
+
+  private final ObjectSerializer serializer;
+  private final File segmentsDirectory;
+  private final int segmentSize;
+  private final int forceBatchSize;
+  private final long forceIntervalNanos;
+  private final ScheduledExecutorService forceScheduler;
+
+  private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+  private final LongDeque index = new LongDeque();
+  private Segment activeSegment;
+
+  private long headOrder = 0;
+  private long tailOrder = 0;
+  private int unforcedOperations = 0;
+  private long lastForce = nanoTime();
+  private ScheduledFuture<?> scheduledForce;
+  private boolean closed = false;
+
+  /**
+   * @param forceScheduler the scheduler on which pending changes are forced when the queue is idle. May be {@code null}, in
+   *                       which case changes are only forced on queue operations and when the queue is closed.
+   */
+  public MappedSegmentQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity,
+                                         ScheduledExecutorService forceScheduler) {
+    this(queueName, workingDirectory, muleContext, capacity, getInteger(SEGMENT_SIZE_PROPERTY_KEY, DEFAULT_SEGMENT_SIZE),
+         getInteger(FORCE_BATCH_SIZE_PROPERTY_KEY, DEFAULT_FORCE_BATCH_SIZE),
+         getInteger(FORCE_INTERVAL_PROPERTY_KEY, DEFAULT_FORCE_INTERVAL_MILLIS), forceScheduler);
+  }
+
+  MappedSegmentQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity,
+                                  int segmentSize, int forceBatchSize, long forceIntervalMillis,
+                                  ScheduledExecutorService forceScheduler) {
+    super(capacity);
+    this.serializer = muleContext.getObjectSerializer();
+    this.segmentSize = segmentSize;
+    this.forceBatchSize = forceBatchSize;
+    this.forceIntervalNanos = MILLISECONDS.toNanos(forceIntervalMillis);
+    this.forceScheduler = forceScheduler;
+    this.segmentsDirectory = createSegmentsDirectory(queueName, workingDirectory);
+
+    recover();
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Queue {} has {} messages in {} segments", queueName, index.size(), segments.size());
+    }
+  }
+
+  private static File createSegmentsDirectory(String queueName, String workingDirectory) {
+    File queuesDirectory = new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
+    if (!queuesDirectory.isDirectory() && !queuesDirectory.mkdirs()) {
+      throw new MuleRuntimeException(createStaticMessage("Could not create queue store directory "
+          + queuesDirectory.getAbsolutePath()));
+    }
+
+    String name = queueName + SEGMENTS_DIRECTORY_SUFFIX;
+    File directory = new File(queuesDirectory, name);
+    if (directory.isDirectory() || directory.mkdir()) {
+      return directory;
+    }
+
+    // if file system does not support the name provided then use a hex representation of the name.
+    directory = new File(queuesDirectory, new BigInteger(name.getBytes(UTF_8)).toString(16));
+    if (directory.isDirectory() || directory.mkdir()) {
+      return directory;
+    }
+    throw new MuleRuntimeException(createStaticMessage("Could not create queue segments directory "
+        + directory.getAbsolutePath()));
+  }
+
+  private void recover() {
+    File[] files = segmentsDirectory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+    TreeMap<Long, Long> liveRecords = new TreeMap<>();
+    if (files != null) {
+      for (File file : files) {
+        String name = file.getName();
+        Segment segment = Segment.open(Integer.parseInt(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length())),
+                                       file, 0);
+        segments.put(segment.id, segment);
+      }
+    }
+
+    for (Segment segment : segments.values()) {
+      segment.scan((order, offset) -> {
+        if (liveRecords.putIfAbsent(order, position(segment.id, offset)) != null) {
+          // A copy left behind by a compaction which didn't finish
+          segment.markRemoved(offset);
+        }
+      });
+    }
+
+    for (long position : liveRecords.values()) {
+      index.addLast(position);
+    }
+    if (!liveRecords.isEmpty()) {
+      headOrder = liveRecords.firstKey();
+      tailOrder = liveRecords.lastKey();
+    }
+
+    activeSegment = segments.isEmpty() ? newSegment(segmentSize) : segments.lastEntry().getValue();
+    for (Iterator<Segment> it = segments.values().iterator(); it.hasNext();) {
+      Segment segment = it.next();
+      if (segment != activeSegment && segment.live == 0) {
+        it.remove();
+        segment.delete();
+      }
+    }
+    force();
+  }
+
+  @Override
+  protected int size() {
+    return index.size();
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return index.isEmpty();
+  }
+
+  @Override
+  protected Serializable getFirst() throws InterruptedException {
+    if (index.isEmpty()) {
+      return null;
+    }
+    return deserialize(read(index.peekFirst()));
+  }
+
+  @Override
+  protected Serializable removeFirst() throws InterruptedException {
+    Serializable value = getFirst();
+    if (value != null) {
+      removeRecord(index.pollFirst());
+      maybeForce();
+    }
+    return value;
+  }
+
+  @Override
+  protected void add(Serializable item) {
+    index.addLast(append(++tailOrder, serialize(item)));
+    maybeForce();
+  }
+
+  @Override
+  protected void addFirst(Serializable item) throws InterruptedException {
+    index.addFirst(append(--headOrder, serialize(item)));
+    maybeForce();
+  }
+
+  @Override
+  protected boolean doAddAll(Collection<? extends Serializable> items) {
+    for (Serializable item : items) {
+      index.addLast(append(++tailOrder, serialize(item)));
+    }
+    maybeForce();
+    return true;
+  }
+
+  @Override
+  protected void doClear() {
+    deleteSegments();
+    index.clear();
+    headOrder = 0;
+    tailOrder = 0;
+    activeSegment = newSegment(segmentSize);
+  }
+
+  /**
+   * @return all the entries currently in the queue, in order.
+   */
+  public synchronized Collection<Serializable> allElements() {
+    List<Serializable> elements = new ArrayList<>(index.size());
+    for (int i = 0; i < index.size(); ++i) {
+      try {
+        elements.add(deserialize(read(index.get(i))));
+      } catch (Exception e) {
+        LOGGER.warn("Failure trying to deserialize value " + e.getMessage());
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Failure trying to deserialize value", e);
+        }
+      }
+    }
+    return elements;
+  }
+
+  @Override
+  public synchronized void remove(Serializable value) {
+    for (int i = 0; i < index.size(); ++i) {
+      long position = index.get(i);
+      if (deserialize(read(position)).equals(value)) {
+        index.removeAt(i);
+        removeRecord(position);
+        maybeForce();
+        return;
+      }
+    }
+  }
+
+  @Override
+  public synchronized boolean contains(Serializable value) {
+    for (int i = 0; i < index.size(); ++i) {
+      if (deserialize(read(index.get(i))).equals(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      if (scheduledForce != null) {
+        scheduledForce.cancel(false);
+        scheduledForce = null;
+      }
+      force();
+      segments.values().forEach(Segment::close);
+      closed = true;
+    }
+  }
+
+  @Override
+  public synchronized void dispose() {
+    close();
+    deleteSegments();
+    deleteQuietly(segmentsDirectory);
+  }
+
+  /**
+   * @return the amount of segment files currently used by this queue.
+   */
+  synchronized int getSegmentsCount() {
+    return segments.size();
+  }
+
+  private long append(long order, byte[] data) {
+    int recordSize = HEADER_SIZE + data.length;
+    if (activeSegment.remaining() < recordSize) {
+      activeSegment = newSegment(max(segmentSize, recordSize));
+    }
+    return position(activeSegment.id, activeSegment.append(order, data));
+  }
+
+  private byte[] read(long position) {
+    return segments.get(segmentId(position)).read(offset(position));
+  }
+
+  private void removeRecord(long position) {
+    Segment segment = segments.get(segmentId(position));
+    segment.markRemoved(offset(position));
+
+    if (segment == activeSegment) {
+      return;
+    }
+    if (segment.live == 0) {
+      segments.remove(segment.id);
+      segment.delete();
+    } else if (segment.live * COMPACTION_RATIO < segment.records
+        && (index.isEmpty() || segmentId(index.peekFirst()) != segment.id)) {
+      // The head segment is not compacted since its records are about to be taken anyway
+      compact(segment);
+    }
+  }
+
+  /**
+   * Copies the live records of the given {@code segment} to the active segment, keeping their order, and deletes it.
+   */
+  private void compact(Segment segment) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Compacting segment {} with {} live records out of {}", segment.id, segment.live, segment.records);
+    }
+    for (int i = 0; i < index.size() && segment.live > 0; ++i) {
+      long position = index.get(i);
+      if (segmentId(position) == segment.id) {
+        int offset = offset(position);
+        index.set(i, append(segment.orderAt(offset), segment.read(offset)));
+        segment.live--;
+      }
+    }
+    // The copies have to be on disk before the originals are gone
+    force();
+    segments.remove(segment.id);
+    segment.delete();
+  }
+
+  private Segment newSegment(int size) {
+    int id = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+    Segment segment = Segment.open(id, new File(segmentsDirectory, String.format("%010d%s", id, SEGMENT_FILE_EXTENSION)), size);
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private void deleteSegments() {
+    segments.values().forEach(Segment::delete);
+    segments.clear();
+  }
+
+  private void maybeForce() {
+    if (++unforcedOperations >= forceBatchSize || nanoTime() - lastForce >= forceIntervalNanos) {
+      force();
+    } else if (forceScheduler != null && scheduledForce == null) {
+      try {
+        scheduledForce = forceScheduler.schedule(this::forceIfIdle, forceIntervalNanos, NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        // The changes will be forced on the next operation or when the queue is closed
+        LOGGER.debug("Could not schedule forcing the segments of the queue", e);
+      }
+    }
+  }
+
+  private synchronized void forceIfIdle() {
+    scheduledForce = null;
+    if (!closed && unforcedOperations > 0) {
+      force();
+    }
+  }
+
+  private void force() {
+    for (Segment segment : segments.values()) {
+      segment.force();
+    }
+    unforcedOperations = 0;
+    lastForce = nanoTime();
+  }
+
+  private byte[] serialize(Serializable item) {
+    return serializer.getInternalProtocol().serialize(item);
+  }
+
+  private Serializable deserialize(byte[] bytes) {
+    return serializer.getInternalProtocol().deserialize(bytes);
+  }
+
+  private static long position(int segmentId, int offset) {
+    return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+  }
+
+  private static int segmentId(long position) {
+    return (int) (position >>> 32);
+  }
+
+  private static int offset(long position) {
+    return (int) position;
+  }
+
+  @FunctionalInterface
+  private interface RecordVisitor {
+
+    void visit(long order, int offset);
+  }
+
+  /**
+   * A memory-mapped file holding a sequence of records, followed by zeros up to the end of the file.
+   */
+  private static final class Segment {
+
+    private final int id;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    // Set to null once unmapped, so an access after closing fails instead of touching unmapped memory
+    private MappedByteBuffer buffer;
+    private int writePosition = 0;
+    private int records = 0;
+    private int live = 0;
+    private boolean dirty = false;
+
+    private Segment(int id, File file, RandomAccessFile randomAccessFile, MappedByteBuffer buffer) {
+      this.id = id;
+      this.file = file;
+      this.randomAccessFile = randomAccessFile;
+      this.buffer = buffer;
+    }
+
+    private static Segment open(int id, File file, int size) {
+      try {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        FileChannel channel = randomAccessFile.getChannel();
+        return new Segment(id, file, randomAccessFile, channel.map(READ_WRITE, 0, max(size, channel.size())));
+      } catch (IOException e) {
+        throw new MuleRuntimeException(createStaticMessage("Could not open queue segment " + file.getAbsolutePath()), e);
+      }
+    }
+
+    /**
+     * Reads the records of this segment, passing the live ones to the given {@code visitor}, and leaves this segment ready to
+     * append records after the last valid one.
+     */
+    private void scan(RecordVisitor visitor) {
+      int offset = 0;
+      while (offset + HEADER_SIZE <= buffer.capacity()) {
+        byte status = buffer.get(offset);
+        int length = buffer.getInt(offset + 9);
+        if ((status != LIVE && status != REMOVED) || length < 0 || offset + HEADER_SIZE + length > buffer.capacity()) {
+          break;
+        }
+        records++;
+        if (status == LIVE) {
+          live++;
+          visitor.visit(buffer.getLong(offset + 1), offset);
+        }
+        offset += HEADER_SIZE + length;
+      }
+      writePosition = offset;
+    }
+
+    private int remaining() {
+      return buffer.capacity() - writePosition;
+    }
+
+    private int append(long order, byte[] data) {
+      int offset = writePosition;
+      ByteBuffer record = buffer.duplicate();
+      record.position(offset + 1);
+      record.putLong(order);
+      record.putInt(data.length);
+      record.put(data);
+      // The status is written last so a partially written record is never taken as a valid one
+      buffer.put(offset, LIVE);
+
+      writePosition += HEADER_SIZE + data.length;
+      records++;
+      live++;
+      dirty = true;
+      return offset;
+    }
+
+    private long orderAt(int offset) {
+      return buffer.getLong(offset + 1);
+    }
+
+    private byte[] read(int offset) {
+      byte[] data = new byte[buffer.getInt(offset + 9)];
+      ByteBuffer record = buffer.duplicate();
+      record.position(offset + HEADER_SIZE);
+      record.get(data);
+      return data;
+    }
+
+    private void markRemoved(int offset) {
+      buffer.put(offset, REMOVED);
+      live--;
+      dirty = true;
+    }
+
+    private void force() {
+      if (dirty) {
+        buffer.force();
+        dirty = false;
+      }
+    }
+
+    private void close() {
+      if (buffer == null) {
+        return;
+      }
+      unmap(buffer);
+      buffer = null;
+      try {
+        randomAccessFile.close();
+      } catch (IOException e) {
+        LOGGER.warn("Could not close queue segment " + file.getAbsolutePath(), e);
+      }
+    }
+
+    /**
+     * Releases the memory mapping of the given {@code buffer} right away. Otherwise the file stays mapped until the buffer is
+     * garbage collected, which keeps the disk space of deleted segments in use and prevents deleting them on some platforms.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+      try {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Method invokeCleaner;
+        try {
+          invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (NoSuchMethodException e) {
+          // Java 8
+          Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+          cleanerMethod.setAccessible(true);
+          Object cleaner = cleanerMethod.invoke(buffer);
+          if (cleaner != null) {
+            cleaner.getClass().getMethod("clean").invoke(cleaner);
+          }
+          return;
+        }
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        invokeCleaner.invoke(theUnsafe.get(null), buffer);
+      } catch (Exception e) {
+        // The mapping is released when the buffer is garbage collected
+        LOGGER.debug("Could not unmap queue segment", e);
+      }
+    }
+
+    private void delete() {
+      close();
+      deleteQuietly(file);
+    }
+  }
+
+  /**
+   * A growable ring buffer of primitive longs, with random access.
+   */
+  static final class LongDeque {
+
+    private long[] elements = new long[16];
+    private int head = 0;
+    private int size = 0;
+
+    int size() {
+      return size;
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void addFirst(long value) {
+      ensureCapacity();
+      head = (head - 1) & (elements.length - 1);
+      elements[head] = value;
+      size++;
+    }
+
+    void addLast(long value) {
+      ensureCapacity();
+      elements[(head + size) & (elements.length - 1)] = value;
+      size++;
+    }
+
+    long peekFirst() {
+      if (size == 0) {
+        throw new NoSuchElementException();
+      }
+      return elements[head];
+    }
+
+    long pollFirst() {
+      long value = peekFirst();
+      head = (head + 1) & (elements.length - 1);
+      size--;
+      return value;
+    }
+
+    long get(int i) {
+      return elements[slot(i)];
+    }
+
+    void set(int i, long value) {
+      elements[slot(i)] = value;
+    }
+
+    void removeAt(int i) {
+      slot(i);
+      for (int j = i; j < size - 1; ++j) {
+        elements[(head + j) & (elements.length - 1)] = elements[(head + j + 1) & (elements.length - 1)];
+      }
+      size--;
+    }
+
+    void clear() {
+      head = 0;
+      size = 0;
+    }
+
+    private int slot(int i) {
+      if (i < 0 || i >= size) {
+        throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+      }
+      return (head + i) & (elements.length - 1);
+    }
+
+    private void ensureCapacity() {
+      if (size == elements.length) {
+        long[] grown = new long[elements.length << 1];
+        for (int i = 0; i < size; ++i) {
+          grown[i] = elements[(head + i) & (elements.length - 1)];
+        }
+        elements = grown;
+        head = 0;
+      }
+    }
+  }
+}
@@ -9,6 +9,7 @@ package org.mule.runtime.core.internal.util.queue;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.util.queue.DefaultQueueConfiguration;
 import org.mule.runtime.core.api.util.queue.QueueConfiguration;
 import org.mule.runtime.core.api.util.queue.QueueSession;
@@ -32,6 +33,9 @@ public class TransactionalQueueManager extends AbstractQueueManager {
   private XaTxQueueTransactionJournal xaTransactionJournal;
   private XaTransactionRecoverer xaTransactionRecoverer;
   private QueueXaResourceManager queueXaResourceManager = new QueueXaResourceManager();
+  // Shared by the queue stores and the transaction journals for their background work, so none of them needs a scheduler of
+  // its own
+  private Scheduler queueScheduler;
   // Due to current VMConnector and TransactionQueueManager relationship we must close all the recovered queues
   // since queue configuration is applied after recovery and not taking into consideration once queues are created
   // for recovery. See https://www.mulesoft.org/jira/browse/MULE-7420
@@ -49,7 +53,7 @@ public class TransactionalQueueManager extends AbstractQueueManager {
   }
 
   protected DefaultQueueStore createQueueStore(String name, QueueConfiguration config) {
-    return new DefaultQueueStore(name, getMuleContext(), config);
+    return new DefaultQueueStore(name, getMuleContext(), config, queueScheduler);
   }
 
   @Override
@@ -60,17 +64,23 @@ public class TransactionalQueueManager extends AbstractQueueManager {
     if (xaTransactionJournal != null) {
       xaTransactionJournal.close();
     }
+    if (queueScheduler != null) {
+      queueScheduler.stop();
+    }
   }
 
   @Override
   public void initialise() throws InitialisationException {
+    queueScheduler = getMuleContext().getSchedulerService().ioScheduler();
     String workingDirectory = getMuleContext().getConfiguration().getWorkingDirectory();
     int queueTransactionFilesSizeInMegabytes = getMuleContext().getConfiguration().getMaxQueueTransactionFilesSizeInMegabytes();
     localTxTransactionJournal = new LocalTxQueueTransactionJournal(workingDirectory + File.separator + "queue-tx-log",
-                                                                   getMuleContext(), queueTransactionFilesSizeInMegabytes);
+                                                                   getMuleContext(), queueTransactionFilesSizeInMegabytes,
+                                                                   queueScheduler);
     localTxQueueTransactionRecoverer = new LocalTxQueueTransactionRecoverer(localTxTransactionJournal, this);
     xaTransactionJournal = new XaTxQueueTransactionJournal(workingDirectory + File.separator + "queue-xa-tx-log",
-                                                           getMuleContext(), queueTransactionFilesSizeInMegabytes);
+                                                           getMuleContext(), queueTransactionFilesSizeInMegabytes,
+                                                           queueScheduler);
     xaTransactionRecoverer = new XaTransactionRecoverer(xaTransactionJournal, this);
   }
 
@@ -6,7 +6,11 @@
  */
 package org.mule.runtime.core.internal.util.store;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.LOG_STRUCTURED_PERSISTENT_STORE_PROPERTY;
+
 import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.core.internal.store.LogStructuredPersistentObjectStore;
 import org.mule.runtime.core.internal.store.PartitionedInMemoryObjectStore;
 import org.mule.runtime.core.internal.store.PartitionedPersistentObjectStore;
 
@@ -21,6 +25,9 @@ public class MuleDefaultObjectStoreFactory implements DefaultObjectStoreFactory
 
   @Override
   public ObjectStore<Serializable> createDefaultPersistentObjectStore() {
+    if (getBoolean(LOG_STRUCTURED_PERSISTENT_STORE_PROPERTY)) {
+      return new LogStructuredPersistentObjectStore<>();
+    }
     return new PartitionedPersistentObjectStore<>();
   }
 }
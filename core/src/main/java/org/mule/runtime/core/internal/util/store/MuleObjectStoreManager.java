@@ -43,6 +43,12 @@ public class MuleObjectStoreManager implements ObjectStoreManager, Initialisable
   private static Logger LOGGER = getLogger(MuleObjectStoreManager.class);
   public static final int UNBOUNDED = 0;
 
+  /**
+   * System property to use a {@link org.mule.runtime.core.internal.store.LogStructuredPersistentObjectStore} as the base
+   * persistent store instead of the one storing a file per entry.
+   */
+  public static final String LOG_STRUCTURED_PERSISTENT_STORE_PROPERTY = "mule.objectstore.logStructured";
+
   private SchedulerService schedulerService;
   private Registry registry;
   private MuleContext muleContext;
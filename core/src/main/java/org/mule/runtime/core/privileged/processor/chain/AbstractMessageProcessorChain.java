@@ -6,16 +6,19 @@
  */
 package org.mule.runtime.core.privileged.processor.chain;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.lang.Thread.currentThread;
 import static org.apache.commons.lang3.StringUtils.replace;
 import static org.mule.runtime.api.notification.MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE;
 import static org.mule.runtime.api.notification.MessageProcessorNotification.MESSAGE_PROCESSOR_PRE_INVOKE;
 import static org.mule.runtime.api.notification.MessageProcessorNotification.createFrom;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_PROCESSOR_CHAIN_FUSION_DISABLED;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.setMuleContextIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
 import static org.mule.runtime.core.api.util.StreamingUtils.updateEventForStreaming;
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
 import static org.mule.runtime.core.internal.context.DefaultMuleContext.currentMuleContext;
@@ -84,6 +87,22 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
 
   private static Class<ClassLoader> appClClass;
 
+  /**
+   * Whether a processor just maps each event with {@link Processor#process(CoreEvent)}, so it can be invoked directly when fused
+   * with other processors.
+   */
+  private static final ClassValue<Boolean> USES_DEFAULT_APPLY = new ClassValue<Boolean>() {
+
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      try {
+        return type.getMethod("apply", Publisher.class).getDeclaringClass() == Processor.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  };
+
   private static final Logger LOGGER = getLogger(AbstractMessageProcessorChain.class);
 
   static {
@@ -100,6 +119,7 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   private final List<Processor> processors;
   private ProcessingStrategy processingStrategy;
   private List<ReactiveInterceptorAdapter> additionalInterceptors = new LinkedList<>();
+  private final boolean fusionEnabled = !getBoolean(MULE_PROCESSOR_CHAIN_FUSION_DISABLED);
 
   @Inject
   private ProcessorInterceptorManager processorInterceptorManager;
@@ -121,12 +141,23 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
 
   @Override
   public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
-    List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors = resolveInterceptors();
+    List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors = resolveInterceptors(false);
+    List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> fusedInterceptors = null;
     Flux<CoreEvent> stream = from(publisher);
-    for (Processor processor : getProcessorsToExecute()) {
+    for (List<Processor> stage : resolveStages(getProcessorsToExecute())) {
       // Perform assembly for processor chain by transforming the existing publisher with a publisher function for each processor
       // along with the interceptors that decorate it.
-      stream = stream.transform(applyInterceptors(interceptors, processor))
+      Processor processor = stage.get(0);
+      ReactiveProcessor stageFunction;
+      if (stage.size() == 1) {
+        stageFunction = applyInterceptors(interceptors, processor);
+      } else {
+        if (fusedInterceptors == null) {
+          fusedInterceptors = resolveInterceptors(true);
+        }
+        stageFunction = applyInterceptors(fusedInterceptors, processor, fuse(stage));
+      }
+      stream = stream.transform(stageFunction)
           // #1 Register local error hook to wrap exceptions in a MessagingException maintaining failed event.
           .subscriberContext(context -> context.put(REACTOR_ON_OPERATOR_ERROR_LOCAL, getLocalOperatorErrorHook(processor)))
           // #2 Register continue error strategy to handle errors without stopping the stream.
@@ -190,9 +221,87 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     };
   }
 
+  /*
+   * Groups the processors in stages. Runs of adjacent CPU_LITE processors that just map each event are fused in a single stage,
+   * as long as there are no processor interceptors, so that they are invoked one after the other for each event instead of
+   * building the operators of the interceptors for each of them. The rest of the processors have a stage of their own.
+   */
+  private List<List<Processor>> resolveStages(List<Processor> processors) {
+    List<List<Processor>> stages = new ArrayList<>(processors.size());
+    boolean fuse = fusionEnabled && additionalInterceptors.isEmpty();
+    List<Processor> fused = null;
+    for (Processor processor : processors) {
+      if (fuse && isFusable(processor)) {
+        if (fused == null) {
+          fused = new ArrayList<>();
+          stages.add(fused);
+        }
+        fused.add(processor);
+      } else {
+        fused = null;
+        List<Processor> stage = new ArrayList<>(1);
+        stage.add(processor);
+        stages.add(stage);
+      }
+    }
+    return stages;
+  }
+
+  private boolean isFusable(Processor processor) {
+    return processor.getProcessingType() == CPU_LITE && !(processor instanceof MessageProcessorChain)
+        && USES_DEFAULT_APPLY.get(processor.getClass());
+  }
+
+  /*
+   * Invokes the fused processors one after the other for each event, doing for each of them what the interceptors that are not
+   * applied to the fused stage do, and handling their errors the same way the error hooks of an unfused processor would.
+   */
+  private ReactiveProcessor fuse(List<Processor> processors) {
+    return publisher -> from(publisher).handle((event, sink) -> {
+      CoreEvent result = event;
+      for (Processor processor : processors) {
+        result = processFused(processor, result);
+        if (result == null) {
+          return;
+        }
+      }
+      sink.next(result);
+    });
+  }
+
+  private CoreEvent processFused(Processor processor, CoreEvent event) {
+    if (((PrivilegedEvent) event).isNotificationsEnabled()) {
+      fireNotification(muleContext.getNotificationManager(), event, processor, null, MESSAGE_PROCESSOR_PRE_INVOKE);
+    }
+    setCurrentEvent((PrivilegedEvent) event);
+
+    CoreEvent result;
+    try {
+      result = processor.process(event);
+    } catch (Exception e) {
+      getContinueStrategyErrorHandler(processor).accept(getLocalOperatorErrorHook(processor).apply(e, event), event);
+      return null;
+    }
+
+    if (result == null) {
+      return null;
+    }
+    if (((PrivilegedEvent) result).isNotificationsEnabled()) {
+      fireNotification(muleContext.getNotificationManager(), result, processor, null, MESSAGE_PROCESSOR_POST_INVOKE);
+    }
+    setCurrentEvent((PrivilegedEvent) result);
+    // If the processor returns a CursorProvider, then have the StreamingManager manage it
+    return updateEventForStreaming(streamingManager).apply(result);
+  }
+
   private ReactiveProcessor applyInterceptors(List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptorsToBeExecuted,
                                               Processor processor) {
-    ReactiveProcessor interceptorWrapperProcessorFunction = processor;
+    return applyInterceptors(interceptorsToBeExecuted, processor, processor);
+  }
+
+  private ReactiveProcessor applyInterceptors(List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptorsToBeExecuted,
+                                              Processor processor, ReactiveProcessor processorFunction) {
+    ReactiveProcessor interceptorWrapperProcessorFunction = processorFunction;
     // Take processor publisher function itself and transform it by applying interceptor transformations onto it.
     for (BiFunction<Processor, ReactiveProcessor, ReactiveProcessor> interceptor : interceptorsToBeExecuted) {
       interceptorWrapperProcessorFunction = interceptor.apply(processor, interceptorWrapperProcessorFunction);
@@ -200,7 +309,7 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     return interceptorWrapperProcessorFunction;
   }
 
-  private List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> resolveInterceptors() {
+  private List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> resolveInterceptors(boolean fused) {
     List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors =
         new ArrayList<>();
 
@@ -228,20 +337,22 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
       interceptors.add((processor, next) -> processingStrategy.onProcessor(new InterceptedReactiveProcessor(processor, next)));
     }
 
-    // #4 Wrap execution, before processing strategy, on flow thread.
-    interceptors.add((processor, next) -> stream -> from(stream)
-        .cast(PrivilegedEvent.class)
-        .doOnNext(preNotification(processor))
-        .cast(CoreEvent.class)
-        .transform(next)
-        .cast(PrivilegedEvent.class)
-        .map(result -> {
-          postNotification(processor).accept(result);
-          setCurrentEvent(result);
-          // If the processor returns a CursorProvider, then have the StreamingManager manage it
-          return updateEventForStreaming(streamingManager).apply(result);
-        })
-        .cast(CoreEvent.class));
+    // #4 Wrap execution, before processing strategy, on flow thread. Fused processors do this themselves for each processor.
+    if (!fused) {
+      interceptors.add((processor, next) -> stream -> from(stream)
+          .cast(PrivilegedEvent.class)
+          .doOnNext(preNotification(processor))
+          .cast(CoreEvent.class)
+          .transform(next)
+          .cast(PrivilegedEvent.class)
+          .map(result -> {
+            postNotification(processor).accept(result);
+            setCurrentEvent(result);
+            // If the processor returns a CursorProvider, then have the StreamingManager manage it
+            return updateEventForStreaming(streamingManager).apply(result);
+          })
+          .cast(CoreEvent.class));
+    }
 
     // #5 Apply processor interceptors around processor and other core logic
     interceptors.addAll(0, additionalInterceptors);
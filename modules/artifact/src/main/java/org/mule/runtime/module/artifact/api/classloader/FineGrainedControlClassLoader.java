@@ -9,6 +9,7 @@ package org.mule.runtime.module.artifact.api.classloader;
 import static java.lang.Boolean.valueOf;
 import static java.lang.String.format;
 import static java.lang.System.getProperty;
+import static java.lang.System.nanoTime;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_LOG_VERBOSE_CLASSLOADING;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -25,6 +26,10 @@ import java.net.URLStreamHandlerFactory;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import sun.misc.CompoundEnumeration;
@@ -35,6 +40,11 @@ import sun.net.www.protocol.jar.Handler;
  * <p/>
  * By using a {@link ClassLoaderLookupPolicy} this classLoader can use parent-first, parent-only or child-first classloading
  * lookup mode per package.
+ * <p/>
+ * The names of up to {@link #MAX_NOT_FOUND_CLASSES} classes that could not be found are remembered, so that looking them up
+ * again, as frameworks probing for optional classes do, fails right away instead of searching every class loader again. In that
+ * case a plain {@link ClassNotFoundException} without stack trace is thrown, since the details of where the class was searched
+ * were already given by the {@link CompositeClassNotFoundException} thrown by the first lookup.
  */
 public class FineGrainedControlClassLoader extends URLClassLoader
     implements DisposableClassLoader, ClassLoaderLookupPolicyProvider {
@@ -48,6 +58,20 @@ public class FineGrainedControlClassLoader extends URLClassLoader
   private final ClassLoaderLookupPolicy lookupPolicy;
   private final boolean verboseLogging;
 
+  /**
+   * The maximum amount of class names remembered as not found. Once reached, they are all forgotten.
+   */
+  static final int MAX_NOT_FOUND_CLASSES = 4096;
+
+  // The names of the classes not found, mapped to the generation in which they were searched. Entries from a previous
+  // generation are stale, as the class loaders searched may have found the class after the lookup started.
+  private final ConcurrentMap<String, Long> notFoundClasses = new ConcurrentHashMap<>();
+  private final AtomicLong notFoundClassesGeneration = new AtomicLong();
+  private final LongAdder loadedClassCount = new LongAdder();
+  private final LongAdder classLoadingNanos = new LongAdder();
+  private final LongAdder notFoundClassCount = new LongAdder();
+  private final LongAdder notFoundCacheHitCount = new LongAdder();
+
   public FineGrainedControlClassLoader(URL[] urls, ClassLoader parent, ClassLoaderLookupPolicy lookupPolicy) {
     super(urls, parent, new NonCachingURLStreamHandlerFactory());
     checkArgument(lookupPolicy != null, "Lookup policy cannot be null");
@@ -67,6 +91,14 @@ public class FineGrainedControlClassLoader extends URLClassLoader
       return result;
     }
 
+    final long notFoundGeneration = notFoundClassesGeneration.get();
+    Long notFoundInGeneration = notFoundClasses.get(name);
+    if (notFoundInGeneration != null && notFoundInGeneration == notFoundGeneration) {
+      notFoundCacheHitCount.increment();
+      throw new KnownNotFoundClassException(name);
+    }
+
+    final long startTime = nanoTime();
     final LookupStrategy lookupStrategy = lookupPolicy.getClassLookupStrategy(name);
     if (lookupStrategy == null) {
       throw new NullPointerException(format("Unable to find a lookup strategy for '%s' from %s", name, this));
@@ -95,9 +127,21 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     }
 
     if (result == null) {
+      if (notFoundClasses.size() >= MAX_NOT_FOUND_CLASSES) {
+        notFoundClasses.clear();
+      }
+      // A lookup that started before the classes not found were forgotten is not remembered
+      if (notFoundClassesGeneration.get() == notFoundGeneration) {
+        notFoundClasses.put(name, notFoundGeneration);
+      }
+      notFoundClassCount.increment();
+      classLoadingNanos.add(nanoTime() - startTime);
       throw new CompositeClassNotFoundException(name, lookupStrategy, exceptions);
     }
 
+    loadedClassCount.increment();
+    classLoadingNanos.add(nanoTime() - startTime);
+
     if (verboseLogging) {
       logLoadedClass(name, result);
     }
@@ -170,6 +214,43 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     }
   }
 
+  /**
+   * Forgets the classes that could not be found, so they are searched again the next time they are looked up. Must be called
+   * when a class loader this one delegates to may now find classes it could not find before.
+   */
+  public void clearNotFoundClasses() {
+    notFoundClassesGeneration.incrementAndGet();
+    notFoundClasses.clear();
+  }
+
+  /**
+   * @return the amount of classes this class loader looked up and found, either locally or in other class loaders.
+   */
+  public long getLoadedClassCount() {
+    return loadedClassCount.sum();
+  }
+
+  /**
+   * @return the amount of lookups of classes that were not found by searching the class loaders.
+   */
+  public long getNotFoundClassCount() {
+    return notFoundClassCount.sum();
+  }
+
+  /**
+   * @return the amount of lookups of classes that failed right away because they were already known not to be found.
+   */
+  public long getNotFoundCacheHitCount() {
+    return notFoundCacheHitCount.sum();
+  }
+
+  /**
+   * @return the accumulated time, in nanoseconds, spent searching the class loaders for classes not already loaded.
+   */
+  public long getClassLoadingNanos() {
+    return classLoadingNanos.sum();
+  }
+
   @Override
   public ClassLoaderLookupPolicy getClassLoaderLookupPolicy() {
     return lookupPolicy;
@@ -181,6 +262,7 @@ public class FineGrainedControlClassLoader extends URLClassLoader
    */
   @Override
   public void dispose() {
+    notFoundClasses.clear();
     try {
       // Java 7 added support for closing a URLClassLoader, it will close any resources opened by this classloader
       close();
@@ -200,6 +282,24 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     }
   }
 
+  /**
+   * Thrown when looking up a class already known not to be found. Doesn't fill its stack trace, as it would be expensive and not
+   * helpful to troubleshoot the missing class.
+   */
+  private static final class KnownNotFoundClassException extends ClassNotFoundException {
+
+    private static final long serialVersionUID = 3385207016155880475L;
+
+    private KnownNotFoundClassException(String className) {
+      super(className);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
   protected static class NonCachingURLStreamHandlerFactory implements URLStreamHandlerFactory {
 
     @Override
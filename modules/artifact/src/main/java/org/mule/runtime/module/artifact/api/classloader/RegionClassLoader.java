@@ -25,9 +25,10 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -61,12 +62,12 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
   private static final Logger LOGGER = getLogger(RegionClassLoader.class);
 
   private final ReadWriteLock innerStateRWLock = new ReentrantReadWriteLock();
-  private final Lock innerStateReadLock = innerStateRWLock.readLock();
   private final Lock innerStateWriteLock = innerStateRWLock.writeLock();
 
   private final List<RegionMemberClassLoader> registeredClassLoaders = new ArrayList<>();
-  private final Map<String, ArtifactClassLoader> packageMapping = new HashMap<>();
-  private final Map<String, List<ArtifactClassLoader>> resourceMapping = new HashMap<>();
+  // Indexes of the exported packages and resources, read without locking on every lookup
+  private final Map<String, ArtifactClassLoader> packageMapping = new ConcurrentHashMap<>();
+  private final Map<String, List<ArtifactClassLoader>> resourceMapping = new ConcurrentHashMap<>();
   private ArtifactClassLoader ownerClassLoader;
 
   /**
@@ -123,20 +124,24 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
       });
 
       for (String exportedResource : filter.getExportedResources()) {
-        List<ArtifactClassLoader> classLoaders = resourceMapping.get(exportedResource);
-
-        if (classLoaders == null) {
-          classLoaders = new ArrayList<>();
-          resourceMapping.put(exportedResource, classLoaders);
-        }
-
-        classLoaders.add(artifactClassLoader);
+        resourceMapping.computeIfAbsent(exportedResource, r -> new CopyOnWriteArrayList<>()).add(artifactClassLoader);
       }
+
+      // Classes not found before may be found now through the new member
+      clearNotFoundClasses();
+      clearNotFoundClasses(ownerClassLoader);
+      registeredClassLoaders.forEach(member -> clearNotFoundClasses(member.unfilteredClassLoader));
     } finally {
       innerStateWriteLock.unlock();
     }
   }
 
+  private static void clearNotFoundClasses(ArtifactClassLoader artifactClassLoader) {
+    if (artifactClassLoader.getClassLoader() instanceof FineGrainedControlClassLoader) {
+      ((FineGrainedControlClassLoader) artifactClassLoader.getClassLoader()).clearNotFoundClasses();
+    }
+  }
+
   static String illegalPackageMappingError(String p, LookupStrategy packageLookupStrategy) {
     return format("Attempt to map package '%s' which was already defined on the region lookup policy with '%s'",
                   p, packageLookupStrategy.getClass().getName());
@@ -199,22 +204,17 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
 
   @Override
   public Class<?> findLocalClass(String name) throws ClassNotFoundException {
-    innerStateReadLock.lock();
-    try {
-      final String packageName = getPackageName(name);
-
-      final ArtifactClassLoader artifactClassLoader = packageMapping.get(packageName);
-      if (artifactClassLoader != null) {
-        try {
-          return artifactClassLoader.findLocalClass(name);
-        } catch (ClassNotFoundException e) {
-          throw new ClassNotFoundInRegionException(name, getArtifactId(), artifactClassLoader.getArtifactId(), e);
-        }
-      } else {
-        throw new ClassNotFoundInRegionException(name, getArtifactId());
+    final String packageName = getPackageName(name);
+
+    final ArtifactClassLoader artifactClassLoader = packageMapping.get(packageName);
+    if (artifactClassLoader != null) {
+      try {
+        return artifactClassLoader.findLocalClass(name);
+      } catch (ClassNotFoundException e) {
+        throw new ClassNotFoundInRegionException(name, getArtifactId(), artifactClassLoader.getArtifactId(), e);
       }
-    } finally {
-      innerStateReadLock.unlock();
+    } else {
+      throw new ClassNotFoundInRegionException(name, getArtifactId());
     }
   }
 
@@ -7,15 +7,23 @@
 package org.mule.runtime.module.artifact.api.classloader;
 
 import static java.lang.System.lineSeparator;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.module.artifact.api.classloader.ChildFirstLookupStrategy.CHILD_FIRST;
+import static org.mule.runtime.module.artifact.api.classloader.FineGrainedControlClassLoader.MAX_NOT_FOUND_CLASSES;
 import static org.mule.runtime.module.artifact.api.classloader.ParentFirstLookupStrategy.PARENT_FIRST;
 import static org.mule.runtime.module.artifact.api.classloader.ParentOnlyLookupStrategy.PARENT_ONLY;
 import static org.mule.tck.junit4.matcher.FunctionExpressionMatcher.expressionMatches;
@@ -31,6 +39,7 @@ import org.mule.tck.size.SmallTest;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -174,6 +183,104 @@ public class FineGrainedControlClassLoaderTestCase extends AbstractMuleTestCase
     invokeTestClassMethod(ext);
   }
 
+  @Test
+  public void notFoundClassIsRemembered() throws Exception {
+    ClassLoader parent = mock(ClassLoader.class);
+    when(parent.loadClass(TEST_CLASS_NAME)).thenThrow(new ClassNotFoundException("ERROR"));
+
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(PARENT_ONLY);
+
+    FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy);
+
+    assertThat(assertClassNotFound(ext), is(instanceOf(CompositeClassNotFoundException.class)));
+    ClassNotFoundException known = assertClassNotFound(ext);
+    assertThat(known, is(not(instanceOf(CompositeClassNotFoundException.class))));
+    assertThat(known.getMessage(), is(TEST_CLASS_NAME));
+    assertThat(known.getStackTrace().length, is(0));
+    assertThat(assertClassNotFound(ext), is(not(sameInstance(known))));
+
+    verify(parent).loadClass(TEST_CLASS_NAME);
+    assertThat(ext.getNotFoundClassCount(), is(1L));
+    assertThat(ext.getNotFoundCacheHitCount(), is(2L));
+  }
+
+  @Test
+  public void notFoundClassesAreBounded() throws Exception {
+    ClassLoader parent = mock(ClassLoader.class);
+    when(parent.loadClass(anyString())).thenThrow(new ClassNotFoundException("ERROR"));
+
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(anyString())).thenReturn(PARENT_ONLY);
+
+    FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy);
+    for (int i = 0; i <= MAX_NOT_FOUND_CLASSES; ++i) {
+      try {
+        ext.loadClass(TEST_CLASS_NAME + i);
+        fail("Was expecting class not to be found");
+      } catch (CompositeClassNotFoundException e) {
+        // expected
+      }
+    }
+
+    assertThat(assertClassNotFound(ext), is(instanceOf(CompositeClassNotFoundException.class)));
+    assertThat(ext.getNotFoundCacheHitCount(), is(0L));
+  }
+
+  @Test
+  public void notFoundClassIsSearchedAgainAfterClear() throws Exception {
+    URLClassLoader parent = new URLClassLoader(new URL[] {getParentResource()}, Thread.currentThread().getContextClassLoader());
+    ClassLoader failingParent = mock(ClassLoader.class);
+    when(failingParent.loadClass(TEST_CLASS_NAME)).thenThrow(new ClassNotFoundException("ERROR"))
+        .thenAnswer(invocation -> parent.loadClass(TEST_CLASS_NAME));
+
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(PARENT_ONLY);
+
+    FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[0], failingParent, lookupPolicy);
+
+    assertClassNotFound(ext);
+    ext.clearNotFoundClasses();
+
+    assertThat(ext.loadClass(TEST_CLASS_NAME).getName(), is(TEST_CLASS_NAME));
+    verify(failingParent, times(2)).loadClass(TEST_CLASS_NAME);
+    assertThat(ext.getLoadedClassCount(), is(1L));
+  }
+
+  @Test
+  public void notFoundClassClearedDuringLookupIsSearchedAgain() throws Exception {
+    URLClassLoader parent = new URLClassLoader(new URL[] {getParentResource()}, Thread.currentThread().getContextClassLoader());
+    AtomicReference<FineGrainedControlClassLoader> extReference = new AtomicReference<>();
+    ClassLoader failingParent = mock(ClassLoader.class);
+    when(failingParent.loadClass(TEST_CLASS_NAME)).thenAnswer(invocation -> {
+      // The class becomes available while it is being searched
+      extReference.get().clearNotFoundClasses();
+      throw new ClassNotFoundException("ERROR");
+    }).thenAnswer(invocation -> parent.loadClass(TEST_CLASS_NAME));
+
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(PARENT_ONLY);
+
+    FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[0], failingParent, lookupPolicy);
+    extReference.set(ext);
+
+    assertThat(assertClassNotFound(ext), is(instanceOf(CompositeClassNotFoundException.class)));
+
+    assertThat(ext.loadClass(TEST_CLASS_NAME).getName(), is(TEST_CLASS_NAME));
+    verify(failingParent, times(2)).loadClass(TEST_CLASS_NAME);
+    assertThat(ext.getNotFoundCacheHitCount(), is(0L));
+  }
+
+  private ClassNotFoundException assertClassNotFound(ClassLoader loader) {
+    try {
+      loader.loadClass(TEST_CLASS_NAME);
+      fail("Was expecting class not to be found");
+      return null;
+    } catch (ClassNotFoundException e) {
+      return e;
+    }
+  }
+
   protected FineGrainedControlClassLoader buildFineGrainedControlClassLoader(ClassLoader parent,
                                                                              final ClassLoaderLookupPolicy lookupPolicy) {
     return new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy) {
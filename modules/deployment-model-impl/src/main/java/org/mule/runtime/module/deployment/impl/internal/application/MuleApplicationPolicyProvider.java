@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Provides policy management and provision for Mule applications
@@ -38,6 +39,7 @@ public class MuleApplicationPolicyProvider implements ApplicationPolicyProvider,
   private final PolicyInstanceProviderFactory policyInstanceProviderFactory;
   private final List<RegisteredPolicyTemplate> registeredPolicyTemplates = new LinkedList<>();
   private final List<RegisteredPolicyInstanceProvider> registeredPolicyInstanceProviders = new LinkedList<>();
+  private final List<Runnable> policiesChangedListeners = new CopyOnWriteArrayList<>();
   private Application application;
 
   /**
@@ -87,6 +89,8 @@ public class MuleApplicationPolicyProvider implements ApplicationPolicyProvider,
     } catch (Exception e) {
       throw new PolicyRegistrationException(createPolicyRegistrationError(parametrization.getId()), e);
     }
+
+    notifyPoliciesChanged();
   }
 
   @Override
@@ -114,9 +118,22 @@ public class MuleApplicationPolicyProvider implements ApplicationPolicyProvider,
       }
     });
 
+    if (registeredPolicyInstanceProvider.isPresent()) {
+      notifyPoliciesChanged();
+    }
     return registeredPolicyInstanceProvider.isPresent();
   }
 
+  @Override
+  public boolean onPoliciesChanged(Runnable policiesChangedListener) {
+    policiesChangedListeners.add(policiesChangedListener);
+    return true;
+  }
+
+  private void notifyPoliciesChanged() {
+    policiesChangedListeners.forEach(Runnable::run);
+  }
+
   @Override
   public List<Policy> findSourceParameterizedPolicies(PolicyPointcutParameters policyPointcutParameters) {
     List<Policy> policies = new ArrayList<>();
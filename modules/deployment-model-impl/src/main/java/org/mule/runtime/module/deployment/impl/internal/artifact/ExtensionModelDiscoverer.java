@@ -8,9 +8,12 @@
 package org.mule.runtime.module.deployment.impl.internal.artifact;
 
 import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.stream.Collectors.toSet;
 import static org.mule.runtime.api.dsl.DslResolvingContext.getDefault;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.deployment.meta.MulePluginModel;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.util.Pair;
@@ -28,6 +31,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import org.slf4j.Logger;
+
 /**
  * Discover the {@link ExtensionModel} based on the {@link ExtensionModelLoader} type.
  *
@@ -35,6 +40,8 @@ import java.util.Set;
  */
 public class ExtensionModelDiscoverer {
 
+  private static final Logger LOGGER = getLogger(ExtensionModelDiscoverer.class);
+
   /**
    * For each artifactPlugin discovers the {@link ExtensionModel}.
    *
@@ -47,6 +54,7 @@ public class ExtensionModelDiscoverer {
   public Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> discoverPluginsExtensionModels(ExtensionModelLoaderRepository loaderRepository,
                                                                                             List<Pair<ArtifactPluginDescriptor, ArtifactClassLoader>> artifactPlugins) {
     final Set<Pair<ArtifactPluginDescriptor, ExtensionModel>> descriptorsWithExtensions = new HashSet<>();
+    final long startTime = nanoTime();
     artifactPlugins.forEach(artifactPlugin -> {
       Set<ExtensionModel> extensions = descriptorsWithExtensions.stream().map(Pair::getSecond).collect(toSet());
       final ArtifactPluginDescriptor artifactPluginDescriptor = artifactPlugin.getFirst();
@@ -62,6 +70,10 @@ public class ExtensionModelDiscoverer {
         descriptorsWithExtensions.add(new Pair<>(artifactPluginDescriptor, extension));
       }
     });
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Extension models for %d plugins loaded in %d ms", descriptorsWithExtensions.size(),
+                          NANOSECONDS.toMillis(nanoTime() - startTime)));
+    }
     return descriptorsWithExtensions;
   }
 
@@ -99,6 +111,13 @@ public class ExtensionModelDiscoverer {
     ExtensionModelLoader loader = extensionModelLoaderRepository.getExtensionModelLoader(loaderDescriber)
         .orElseThrow(() -> new IllegalArgumentException(format("The identifier '%s' does not match with the describers available "
             + "to generate an ExtensionModel (working with the plugin '%s')", loaderDescriber.getId(), artifactName)));
-    return loader.loadExtensionModel(artifactClassloader, getDefault(extensions), loaderDescriber.getAttributes());
+    final long startTime = nanoTime();
+    ExtensionModel extensionModel =
+        loader.loadExtensionModel(artifactClassloader, getDefault(extensions), loaderDescriber.getAttributes());
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Extension model for plugin '%s' loaded in %d ms", artifactName,
+                          NANOSECONDS.toMillis(nanoTime() - startTime)));
+    }
+    return extensionModel;
   }
 }
@@ -18,6 +18,7 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.rules.ExpectedException.none;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.module.deployment.impl.internal.application.MuleApplicationPolicyProvider.createPolicyRegistrationError;
@@ -378,6 +379,19 @@ public class MuleApplicationPolicyProviderTestCase extends AbstractMuleTestCase
     verify(regionClassLoader).removeClassLoader(policyClassLoader2);
   }
 
+  @Test
+  public void notifiesPoliciesChanged() throws Exception {
+    Runnable policiesChangedListener = mock(Runnable.class);
+    assertThat(policyProvider.onPoliciesChanged(policiesChangedListener), is(true));
+
+    policyProvider.addPolicy(policyTemplateDescriptor1, parametrization1);
+    verify(policiesChangedListener).run();
+
+    assertThat(policyProvider.removePolicy(parametrization1.getId()), is(true));
+    assertThat(policyProvider.removePolicy(parametrization1.getId()), is(false));
+    verify(policiesChangedListener, times(2)).run();
+  }
+
   @Test
   public void detectsDuplicatePolicyId() throws Exception {
     policyProvider.addPolicy(policyTemplateDescriptor1, parametrization1);
@@ -171,6 +171,14 @@ public class BytesStreamingExtensionTestCase extends AbstractStreamingExtensionT
     assertThat(value, is(TOO_BIG));
   }
 
+  @Test
+  @Description("A stream which doesn't fit in the configured memory is buffered into a file")
+  public void fileStoreStreaming() throws Exception {
+    data = randomAlphabetic(KB.toBytes(10));
+    Object value = flowRunner("fileStoreStream").withPayload(data).run().getMessage().getPayload().getValue();
+    assertThat(value, is(data));
+  }
+
   private void doSeek(String flowName) throws Exception {
     final int position = 10;
     CoreEvent result = flowRunner(flowName)
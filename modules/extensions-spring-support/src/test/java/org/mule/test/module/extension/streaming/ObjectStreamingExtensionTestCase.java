@@ -78,6 +78,12 @@ public class ObjectStreamingExtensionTestCase extends AbstractStreamingExtension
     assertStreamMatchesData("getStreamWithoutStreaming");
   }
 
+  @Test
+  @Description("Operation is configured to buffer the stream into a file")
+  public void operationWithFileStoreStreaming() throws Exception {
+    assertStreamMatchesData("getStreamWithFileStore");
+  }
+
   @Test
   @Description("Consume a stream generated in a transaction")
   public void getStreamInTx() throws Exception {
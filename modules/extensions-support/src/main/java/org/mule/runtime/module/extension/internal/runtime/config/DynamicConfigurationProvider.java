@@ -14,7 +14,6 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNee
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
-import static org.mule.runtime.api.util.collection.Collectors.toImmutableList;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvingContext.from;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.connection.ConnectionProvider;
@@ -39,12 +38,14 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSetResult;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolver;
 
+import com.google.common.collect.ImmutableList;
+
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 
@@ -56,6 +57,10 @@ import org.slf4j.Logger;
  * {@link #resolverSet#resolve(Object)}, the resulting {@link ResolverSetResult} might not end up generating a new instance. This
  * is so because {@link ResolverSetResult} instances are put in a cache to guarantee that equivalent evaluations of the
  * {@code resolverSet} return the same instance.
+ * <p>
+ * Looking up a cached instance doesn't acquire any lock. When an instance has to be created, concurrent lookups of the same
+ * {@link ResolverSetResult} wait for the thread creating it instead of creating their own, while lookups of other results are
+ * not affected. Expired instances are removed one by one, without blocking the lookups of the rest.
  *
  * @since 4.0.0
  */
@@ -69,10 +74,12 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private final ConnectionProviderValueResolver connectionProviderResolver;
   private final ExpirationPolicy expirationPolicy;
 
-  private final Map<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache = new ConcurrentHashMap<>();
-  private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
-  private final Lock cacheReadLock = cacheLock.readLock();
-  private final Lock cacheWriteLock = cacheLock.writeLock();
+  private final ConcurrentMap<Pair<ResolverSetResult, ResolverSetResult>, CacheEntry> cache = new ConcurrentHashMap<>();
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder createdCount = new LongAdder();
+  private final LongAdder expiredCount = new LongAdder();
 
   /**
    * Creates a new instance
@@ -121,34 +128,58 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   private ConfigurationInstance getConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult,
                                                  CoreEvent event)
       throws Exception {
-    ConfigurationInstance configuration;
-    cacheReadLock.lock();
-    try {
-      configuration = cache.get(resolverSetResult);
-      if (configuration != null) {
-        // important to account between the boundaries of the lock to prevent race condition
-        updateUsageStatistic(configuration);
+    boolean hit = true;
+    while (true) {
+      CacheEntry entry = cache.get(resolverSetResult);
+      if (entry == null) {
+        hit = false;
+        CacheEntry newEntry = new CacheEntry();
+        entry = cache.putIfAbsent(resolverSetResult, newEntry);
+        if (entry == null) {
+          missCount.increment();
+          return create(resolverSetResult, newEntry, event);
+        }
+      }
+      if (!entry.instance.isDone()) {
+        // another thread is creating it
+        hit = false;
+      }
+
+      ConfigurationInstance configuration = entry.await();
+      // accounting before checking whether the entry expired, so that either this thread sees it expired or the expiration
+      // sees it in use
+      updateUsageStatistic(configuration);
+      if (!entry.expired) {
+        if (hit) {
+          hitCount.increment();
+        } else {
+          missCount.increment();
+        }
         return configuration;
       }
-    } finally {
-      cacheReadLock.unlock();
+
+      // The entry is being expired, wait for it to be either removed or kept
+      hit = false;
+      Thread.yield();
     }
+  }
 
-    cacheWriteLock.lock();
+  private ConfigurationInstance create(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult, CacheEntry entry,
+                                       CoreEvent event)
+      throws Exception {
+    ConfigurationInstance configuration;
     try {
-      // re-check in case some other thread beat us to it...
-      configuration = cache.get(resolverSetResult);
-      if (configuration == null) {
-        configuration = createConfiguration(resolverSetResult, event);
-        cache.put(resolverSetResult, configuration);
-      }
-
-      // accounting here for the same reasons as above
-      updateUsageStatistic(configuration);
-      return configuration;
-    } finally {
-      cacheWriteLock.unlock();
+      configuration = createConfiguration(resolverSetResult, event);
+    } catch (Throwable t) {
+      cache.remove(resolverSetResult, entry);
+      entry.instance.completeExceptionally(t);
+      throw t;
     }
+
+    createdCount.increment();
+    updateUsageStatistic(configuration);
+    entry.instance.complete(configuration);
+    return configuration;
   }
 
   private void updateUsageStatistic(ConfigurationInstance configuration) {
@@ -217,15 +248,25 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   @Override
   public List<ConfigurationInstance> getExpired() {
-    cacheWriteLock.lock();
-    try {
-      return cache.entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
-        cache.remove(entry.getKey());
-        return entry.getValue();
-      }).collect(toImmutableList());
-    } finally {
-      cacheWriteLock.unlock();
-    }
+    ImmutableList.Builder<ConfigurationInstance> expired = ImmutableList.builder();
+    cache.forEach((key, entry) -> {
+      ConfigurationInstance configuration = entry.instance.getNow(null);
+      if (configuration == null || !isExpired(configuration)) {
+        return;
+      }
+
+      entry.expired = true;
+      // re-check in case some thread looked it up before seeing it marked
+      if (isExpired(configuration)) {
+        cache.remove(key, entry);
+        expiredCount.increment();
+        expired.add(configuration);
+      } else {
+        entry.expired = false;
+      }
+    });
+
+    return expired.build();
   }
 
   private boolean isExpired(ConfigurationInstance configuration) {
@@ -249,6 +290,34 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     startIfNeeded(connectionProviderResolver);
   }
 
+  /**
+   * @return the amount of lookups that found an already created instance.
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * @return the amount of lookups that had to create an instance or wait for another thread to create it.
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * @return the amount of instances created by this provider.
+   */
+  public long getCreatedCount() {
+    return createdCount.sum();
+  }
+
+  /**
+   * @return the amount of instances removed by {@link #getExpired()}.
+   */
+  public long getExpiredCount() {
+    return expiredCount.sum();
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -258,4 +327,25 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   public boolean isDynamic() {
     return true;
   }
+
+  /**
+   * Holds a cached {@link ConfigurationInstance}, which may still be being created.
+   */
+  private static final class CacheEntry {
+
+    private final CompletableFuture<ConfigurationInstance> instance = new CompletableFuture<>();
+    private volatile boolean expired = false;
+
+    private ConfigurationInstance await() throws Exception {
+      try {
+        return instance.get();
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+          throw (Exception) cause;
+        }
+        throw (Error) cause;
+      }
+    }
+  }
 }
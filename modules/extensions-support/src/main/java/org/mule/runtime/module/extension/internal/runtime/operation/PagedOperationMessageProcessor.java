@@ -6,14 +6,20 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.operation;
 
+import static java.lang.Integer.getInteger;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_PAGING_PREFETCH_PAGES;
+import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.meta.model.operation.OperationModel;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.core.api.extension.ExtensionManager;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.api.streaming.CursorProviderFactory;
 import org.mule.runtime.core.api.streaming.iterator.ConsumerStreamingIterator;
 import org.mule.runtime.core.api.streaming.iterator.ListConsumer;
 import org.mule.runtime.core.api.streaming.iterator.Producer;
+import org.mule.runtime.core.api.transaction.TransactionCoordination;
 import org.mule.runtime.core.internal.policy.PolicyManager;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationProvider;
@@ -21,18 +27,32 @@ import org.mule.runtime.extension.api.runtime.streaming.PagingProvider;
 import org.mule.runtime.module.extension.internal.runtime.connectivity.ExtensionConnectionSupplier;
 import org.mule.runtime.module.extension.internal.runtime.resolver.ResolverSet;
 import org.mule.runtime.module.extension.internal.runtime.streaming.PagingProviderProducer;
+import org.mule.runtime.module.extension.internal.runtime.streaming.PrefetchingPageProducer;
 
 import java.util.Optional;
 
+import javax.inject.Inject;
+
 /**
  * A specialization of {@link OperationMessageProcessor} which supports auto paging by the means of a
  * {@link ConsumerStreamingIterator}
+ * <p>
+ * When the {@link org.mule.runtime.core.api.config.MuleProperties#MULE_PAGING_PREFETCH_PAGES} system property is set to a
+ * positive number, up to that many pages are fetched in the background on an IO scheduler while the current page is being
+ * consumed. Pages are still fetched on demand when a transaction is active, since its connection is bound to the current
+ * thread.
  *
  * @since 4.0
  */
 public class PagedOperationMessageProcessor extends OperationMessageProcessor {
 
   private final ExtensionConnectionSupplier connectionSupplier;
+  private final int prefetchPages = getInteger(MULE_PAGING_PREFETCH_PAGES, 0);
+
+  @Inject
+  private SchedulerService schedulerService;
+
+  private volatile Scheduler prefetchScheduler;
 
   public PagedOperationMessageProcessor(ExtensionModel extensionModel,
                                         OperationModel operationModel,
@@ -59,6 +79,9 @@ public class PagedOperationMessageProcessor extends OperationMessageProcessor {
       Producer<?> producer =
           new PagingProviderProducer((PagingProvider) value, config.get(),
                                      operationContext, connectionSupplier);
+      if (prefetchScheduler != null && TransactionCoordination.getInstance().getTransaction() == null) {
+        producer = new PrefetchingPageProducer(producer, prefetchScheduler, prefetchPages);
+      }
 
       ListConsumer<?> consumer = new ListConsumer(producer);
       consumer.loadNextPage();
@@ -74,4 +97,21 @@ public class PagedOperationMessageProcessor extends OperationMessageProcessor {
                                         muleContext.getErrorTypeRepository(),
                                         transformPagingDelegate());
   }
+
+  @Override
+  public void doStart() throws MuleException {
+    super.doStart();
+    if (prefetchPages > 0) {
+      prefetchScheduler = schedulerService.ioScheduler();
+    }
+  }
+
+  @Override
+  public void doStop() throws MuleException {
+    if (prefetchScheduler != null) {
+      prefetchScheduler.stop();
+      prefetchScheduler = null;
+    }
+    super.doStop();
+  }
 }
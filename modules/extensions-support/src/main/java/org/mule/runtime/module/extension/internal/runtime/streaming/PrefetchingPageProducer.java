@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.streaming;
+
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.iterator.Producer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Decorates a {@link Producer} of pages so that the following pages are fetched in the background while the current one is being
+ * consumed.
+ * <p>
+ * Pages are fetched one at a time on the given {@link Executor}, since paging providers are not required to be thread safe, and
+ * kept in a buffer of up to {@code maxPages} pages. Fetching stops while the buffer is full and resumes as the consumer takes
+ * pages from it, so a slow consumer never causes more than {@code maxPages} pages to be held in memory. Background fetches run
+ * with the context class loader of the thread which created this producer, as the pages fetched on the calling thread do.
+ * <p>
+ * If nothing has been fetched yet when a page is requested, it is fetched on the calling thread, saving the thread hop. The same
+ * happens when the {@link Executor} no longer accepts tasks, in which case this producer behaves as the decorated one.
+ *
+ * @param <T> the type of the elements in the pages
+ * @since 4.1
+ */
+public final class PrefetchingPageProducer<T> implements Producer<List<T>> {
+
+  private static final Logger LOGGER = getLogger(PrefetchingPageProducer.class);
+
+  private final Producer<List<T>> delegate;
+  private final Executor executor;
+  private final int maxPages;
+  private final ClassLoader classLoader;
+
+  private final Object lock = new Object();
+  private final Deque<List<T>> buffer = new ArrayDeque<>();
+  // Whether the delegate is being used, either fetching a page or getting the size, so it is never used concurrently
+  private boolean busy = false;
+  private boolean exhausted = false;
+  private boolean closed = false;
+  private boolean synchronous = false;
+  private Throwable failure;
+
+  private final LongAdder fetchedPages = new LongAdder();
+  private final LongAdder fetchNanos = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private volatile long maxFetchNanos;
+  private volatile int maxBufferedPages;
+
+  /**
+   * Creates a new instance
+   *
+   * @param delegate the {@link Producer} to fetch the pages from
+   * @param executor where to fetch the pages
+   * @param maxPages the maximum amount of pages to fetch ahead of the consumer
+   */
+  public PrefetchingPageProducer(Producer<List<T>> delegate, Executor executor, int maxPages) {
+    if (maxPages < 1) {
+      throw new IllegalArgumentException("maxPages must be greater than 0");
+    }
+    this.delegate = delegate;
+    this.executor = executor;
+    this.maxPages = maxPages;
+    this.classLoader = currentThread().getContextClassLoader();
+  }
+
+  /**
+   * Returns the next page, waiting for it to be fetched if it is not already buffered.
+   */
+  @Override
+  public List<T> produce() {
+    final long startTime = nanoTime();
+    try {
+      synchronized (lock) {
+        while (buffer.isEmpty()) {
+          if (failure != null) {
+            Throwable t = failure;
+            failure = null;
+            throw propagate(t);
+          }
+          if (exhausted || closed) {
+            return null;
+          }
+          if (!busy) {
+            // nothing is being fetched, so do it on this thread instead of waiting for a background fetch
+            busy = true;
+            break;
+          }
+          lock.wait();
+        }
+
+        if (!buffer.isEmpty()) {
+          List<T> page = buffer.poll();
+          scheduleFetchIfNeeded();
+          return page;
+        }
+      }
+
+      return fetchInline();
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new MuleRuntimeException(createStaticMessage("Interrupted while waiting for the next page"), e);
+    } finally {
+      waitNanos.add(nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Returns the total amount of available results informed by the delegate, waiting for any page being fetched.
+   */
+  @Override
+  public int getSize() {
+    return withDelegate(delegate::getSize);
+  }
+
+  /**
+   * Discards the buffered pages and closes the delegate once the page being fetched, if any, is obtained.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (lock) {
+      closed = true;
+      buffer.clear();
+    }
+
+    try {
+      withDelegate(() -> {
+        try {
+          delegate.close();
+        } catch (IOException e) {
+          throw new MuleRuntimeException(createStaticMessage("Could not close the paging delegate"), e);
+        }
+        return null;
+      });
+    } finally {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(format("Fetched %d pages in %d ms (max %d ms per page) while the consumer waited %d ms, "
+            + "with up to %d of %d pages buffered", getFetchedPageCount(), NANOSECONDS.toMillis(getFetchNanos()),
+                            NANOSECONDS.toMillis(getMaxFetchNanos()), NANOSECONDS.toMillis(getWaitNanos()),
+                            getMaxBufferedPages(), maxPages));
+      }
+    }
+  }
+
+  private <R> R withDelegate(Supplier<R> action) {
+    synchronized (lock) {
+      boolean interrupted = false;
+      while (busy) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        currentThread().interrupt();
+      }
+      busy = true;
+    }
+
+    try {
+      return action.get();
+    } finally {
+      synchronized (lock) {
+        busy = false;
+        scheduleFetchIfNeeded();
+        lock.notifyAll();
+      }
+    }
+  }
+
+  // Must be called not holding the lock, after marking the delegate as busy
+  private List<T> fetchInline() {
+    boolean fetched = false;
+    List<T> page = null;
+    try {
+      page = fetchPage();
+      fetched = true;
+      return page;
+    } finally {
+      synchronized (lock) {
+        busy = false;
+        if (fetched && isLastPage(page)) {
+          exhausted = true;
+        }
+        scheduleFetchIfNeeded();
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private void fetchAhead() {
+    List<T> page = null;
+    Throwable error = null;
+    try {
+      page = fetchPage();
+    } catch (Throwable t) {
+      error = t;
+    }
+
+    synchronized (lock) {
+      busy = false;
+      if (error != null) {
+        failure = error;
+      } else {
+        if (isLastPage(page)) {
+          exhausted = true;
+        }
+        if (!closed) {
+          buffer.add(page != null ? page : emptyList());
+          if (buffer.size() > maxBufferedPages) {
+            maxBufferedPages = buffer.size();
+          }
+        }
+      }
+      scheduleFetchIfNeeded();
+      lock.notifyAll();
+    }
+  }
+
+  private List<T> fetchPage() {
+    final long startTime = nanoTime();
+    try {
+      return delegate.produce();
+    } finally {
+      long elapsed = nanoTime() - startTime;
+      fetchedPages.increment();
+      fetchNanos.add(elapsed);
+      if (elapsed > maxFetchNanos) {
+        maxFetchNanos = elapsed;
+      }
+    }
+  }
+
+  // Must be called holding the lock
+  private void scheduleFetchIfNeeded() {
+    if (busy || exhausted || closed || synchronous || failure != null || buffer.size() >= maxPages) {
+      return;
+    }
+
+    busy = true;
+    try {
+      executor.execute(() -> withContextClassLoader(classLoader, this::fetchAhead));
+    } catch (RejectedExecutionException e) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Pages can no longer be fetched ahead, the next ones will be fetched when requested", e);
+      }
+      busy = false;
+      synchronous = true;
+    }
+  }
+
+  private boolean isLastPage(List<T> page) {
+    return page == null || page.isEmpty();
+  }
+
+  private RuntimeException propagate(Throwable t) {
+    if (t instanceof RuntimeException) {
+      return (RuntimeException) t;
+    } else if (t instanceof Error) {
+      throw (Error) t;
+    }
+    return new MuleRuntimeException(t);
+  }
+
+  /**
+   * @return the amount of pages fetched from the delegate.
+   */
+  public long getFetchedPageCount() {
+    return fetchedPages.sum();
+  }
+
+  /**
+   * @return the accumulated time, in nanoseconds, spent fetching pages from the delegate.
+   */
+  public long getFetchNanos() {
+    return fetchNanos.sum();
+  }
+
+  /**
+   * @return the longest time, in nanoseconds, spent fetching a page from the delegate.
+   */
+  public long getMaxFetchNanos() {
+    return maxFetchNanos;
+  }
+
+  /**
+   * @return the accumulated time, in nanoseconds, the consumer spent waiting for pages.
+   */
+  public long getWaitNanos() {
+    return waitNanos.sum();
+  }
+
+  /**
+   * @return the amount of pages fetched and not yet consumed.
+   */
+  public int getBufferedPages() {
+    synchronized (lock) {
+      return buffer.size();
+    }
+  }
+
+  /**
+   * @return the highest amount of pages that were fetched and not yet consumed at the same time.
+   */
+  public int getMaxBufferedPages() {
+    return maxBufferedPages;
+  }
+}
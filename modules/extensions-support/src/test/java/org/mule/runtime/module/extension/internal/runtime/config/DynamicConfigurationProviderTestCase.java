@@ -13,6 +13,7 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
@@ -199,6 +200,48 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     assertThat(configs, containsInAnyOrder(instance1, instance2));
   }
 
+  @Test
+  public void statistics() throws Exception {
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    provider.get(event);
+    provider.get(event);
+    provider.get(event);
+    makeAlternateInstance();
+
+    assertThat(provider.getHitCount(), is(2L));
+    assertThat(provider.getMissCount(), is(2L));
+    assertThat(provider.getCreatedCount(), is(2L));
+    assertThat(provider.getExpiredCount(), is(0L));
+
+    timeSupplier.move(10, MINUTES);
+    provider.getExpired();
+    assertThat(provider.getExpiredCount(), is(2L));
+  }
+
+  @Test
+  public void resolveAfterExpiredCreatesNewInstance() throws Exception {
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    ConfigurationInstance instance = provider.get(event);
+
+    timeSupplier.move(10, MINUTES);
+    assertThat(provider.getExpired(), contains(instance));
+
+    mockConfigurationInstance(configurationModel, MODULE_CLASS.newInstance());
+    assertThat(provider.get(event), is(not(sameInstance(instance))));
+    assertThat(provider.getCreatedCount(), is(2L));
+  }
+
+  @Test
+  public void inflightInstanceIsNotExpired() throws Exception {
+    DynamicConfigurationProvider provider = (DynamicConfigurationProvider) this.provider;
+    ConfigurationInstance instance = provider.get(event);
+    ((MutableConfigurationStats) instance.getStatistics()).addInflightOperation();
+
+    timeSupplier.move(10, MINUTES);
+    assertThat(provider.getExpired().isEmpty(), is(true));
+    assertThat(provider.get(event), is(sameInstance(instance)));
+  }
+
   private HeisenbergExtension makeAlternateInstance() throws Exception {
     ResolverSetResult alternateResult = mock(ResolverSetResult.class, Mockito.RETURNS_DEEP_STUBS);
     when(alternateResult.asMap()).thenReturn(new HashMap<>());
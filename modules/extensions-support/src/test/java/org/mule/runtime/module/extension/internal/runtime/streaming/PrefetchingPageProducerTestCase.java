@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.streaming;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
+import org.mule.runtime.core.api.streaming.iterator.Producer;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class PrefetchingPageProducerTestCase extends AbstractMuleTestCase {
+
+  private static final List<String> PAGE_1 = asList("a", "b");
+  private static final List<String> PAGE_2 = asList("c", "d");
+  private static final List<String> PAGE_3 = asList("e");
+  private static final List<String> PAGE_4 = asList("f");
+
+  private Producer<List<String>> delegate;
+  private ExecutorService executor;
+
+  @Before
+  public void before() {
+    delegate = mock(Producer.class);
+    executor = newSingleThreadExecutor();
+  }
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void pagesProducedInOrder() {
+    when(delegate.produce()).thenReturn(PAGE_1, PAGE_2, PAGE_3, emptyList());
+    PrefetchingPageProducer<String> producer = new PrefetchingPageProducer<>(delegate, executor, 2);
+
+    assertThat(producer.produce(), is(PAGE_1));
+    assertThat(producer.produce(), is(PAGE_2));
+    assertThat(producer.produce(), is(PAGE_3));
+    assertThat(producer.produce(), is(emptyList()));
+    assertThat(producer.produce(), is(nullValue()));
+
+    verify(delegate, times(4)).produce();
+    assertThat(producer.getFetchedPageCount(), is(4L));
+  }
+
+  @Test
+  public void fetchAheadUpToMaxPages() {
+    when(delegate.produce()).thenReturn(PAGE_1, PAGE_2, PAGE_3, PAGE_4, emptyList());
+    PrefetchingPageProducer<String> producer = new PrefetchingPageProducer<>(delegate, executor, 2);
+
+    assertThat(producer.produce(), is(PAGE_1));
+    new PollingProber().check(new JUnitLambdaProbe(() -> producer.getBufferedPages() == 2));
+    verify(delegate, times(3)).produce();
+
+    assertThat(producer.produce(), is(PAGE_2));
+    new PollingProber().check(new JUnitLambdaProbe(() -> producer.getBufferedPages() == 2));
+    verify(delegate, times(4)).produce();
+    assertThat(producer.getMaxBufferedPages(), is(2));
+  }
+
+  @Test
+  public void fetchFailureThrownToConsumer() {
+    IllegalStateException failure = new IllegalStateException();
+    when(delegate.produce()).thenReturn(PAGE_1).thenThrow(failure).thenReturn(PAGE_2);
+    PrefetchingPageProducer<String> producer = new PrefetchingPageProducer<>(delegate, executor, 1);
+
+    assertThat(producer.produce(), is(PAGE_1));
+    try {
+      producer.produce();
+      fail("Was expecting the fetch failure");
+    } catch (IllegalStateException e) {
+      assertThat(e, is(failure));
+    }
+    assertThat(producer.produce(), is(PAGE_2));
+  }
+
+  @Test
+  public void pagesFetchedOnDemandWhenExecutorRejects() {
+    when(delegate.produce()).thenReturn(PAGE_1, PAGE_2, emptyList());
+    PrefetchingPageProducer<String> producer = new PrefetchingPageProducer<>(delegate, task -> {
+      throw new RejectedExecutionException();
+    }, 2);
+
+    assertThat(producer.produce(), is(PAGE_1));
+    verify(delegate, times(1)).produce();
+    assertThat(producer.produce(), is(PAGE_2));
+    assertThat(producer.produce(), is(emptyList()));
+    verify(delegate, times(3)).produce();
+  }
+
+  @Test
+  public void pagesFetchedAheadWithCreatorClassLoader() {
+    ClassLoader classLoader = new ClassLoader(currentThread().getContextClassLoader()) {};
+    List<ClassLoader> fetchClassLoaders = new CopyOnWriteArrayList<>();
+    when(delegate.produce()).thenAnswer(invocation -> {
+      fetchClassLoaders.add(currentThread().getContextClassLoader());
+      return fetchClassLoaders.size() < 3 ? PAGE_1 : emptyList();
+    });
+    PrefetchingPageProducer<String> producer =
+        withContextClassLoader(classLoader, () -> new PrefetchingPageProducer<>(delegate, executor, 2));
+
+    withContextClassLoader(classLoader, () -> producer.produce());
+    new PollingProber().check(new JUnitLambdaProbe(() -> producer.getBufferedPages() == 2));
+
+    assertThat(fetchClassLoaders.size(), is(3));
+    for (ClassLoader fetchClassLoader : fetchClassLoaders) {
+      assertThat(fetchClassLoader, is(sameInstance(classLoader)));
+    }
+  }
+
+  @Test
+  public void closeDiscardsBufferedPages() throws Exception {
+    when(delegate.produce()).thenReturn(PAGE_1, PAGE_2, emptyList());
+    PrefetchingPageProducer<String> producer = new PrefetchingPageProducer<>(delegate, executor, 2);
+
+    assertThat(producer.produce(), is(PAGE_1));
+    producer.close();
+
+    verify(delegate).close();
+    assertThat(producer.getBufferedPages(), is(0));
+    assertThat(producer.produce(), is(nullValue()));
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.internal;
+
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.dsl.DslResolvingContext;
+import org.mule.runtime.api.meta.model.ExtensionModel;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.slf4j.Logger;
+
+/**
+ * Keeps the XSD schemas generated from {@link ExtensionModel}s, so that they are generated only once for all the config files of
+ * an artifact.
+ * <p>
+ * The schema of an extension depends both on its {@link ExtensionModel} and on the other extensions the artifact uses, since those
+ * make the {@link DslResolvingContext} it is generated with. Schemas are held by the identity of the {@link ExtensionModel} they
+ * were generated from and by the identities of the extensions in that context. Every artifact loads its own
+ * {@link ExtensionModel}s, so schemas are only reused between the config files of the same artifact. When an artifact is
+ * redeployed, new {@link ExtensionModel}s are loaded for it and its schemas are generated again, while the previous ones are
+ * discarded once their models are no longer referenced.
+ *
+ * @since 4.1
+ */
+final class ExtensionSchemaCache {
+
+  private static final Logger LOGGER = getLogger(ExtensionSchemaCache.class);
+
+  private final Cache<ExtensionModel, Cache<ExtensionsKey, String>> schemas = CacheBuilder.newBuilder().weakKeys().build();
+
+  /**
+   * Returns the schema for the given {@code extensionModel}, generating it with the given {@code generator} only if it was not
+   * generated before along the same {@code extensions}.
+   *
+   * @param extensionModel the extension to get the schema for
+   * @param extensions     the extensions the {@link DslResolvingContext} used by the {@code generator} is built from
+   * @param generator      generates the schema for the {@code extensionModel}
+   * @return the schema for the {@code extensionModel}
+   */
+  String getSchema(ExtensionModel extensionModel, Set<ExtensionModel> extensions, Supplier<String> generator) {
+    try {
+      Cache<ExtensionsKey, String> extensionSchemas =
+          schemas.get(extensionModel, () -> CacheBuilder.newBuilder().<ExtensionsKey, String>build());
+
+      ExtensionsKey key = new ExtensionsKey(extensions);
+      String schema = extensionSchemas.getIfPresent(key);
+      if (schema != null) {
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug(format("Reusing schema for extension '%s'", extensionModel.getName()));
+        }
+        return schema;
+      }
+
+      return extensionSchemas.get(key, () -> {
+        long startTime = nanoTime();
+        String content = generator.get();
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug(format("Schema for extension '%s' generated in %d ms", extensionModel.getName(),
+                              NANOSECONDS.toMillis(nanoTime() - startTime)));
+        }
+        return content;
+      });
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Identifies a set of {@link ExtensionModel}s by the identity of its elements, without keeping them from being collected.
+   */
+  private static final class ExtensionsKey {
+
+    private final List<WeakReference<ExtensionModel>> extensions;
+    private final int hashCode;
+
+    private ExtensionsKey(Set<ExtensionModel> extensions) {
+      this.extensions = extensions.stream().map(WeakReference::new).collect(toList());
+      this.hashCode = extensions.stream().mapToInt(System::identityHashCode).sum();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof ExtensionsKey)) {
+        return false;
+      }
+
+      ExtensionsKey other = (ExtensionsKey) obj;
+      if (hashCode != other.hashCode || extensions.size() != other.extensions.size()) {
+        return false;
+      }
+      for (WeakReference<ExtensionModel> reference : extensions) {
+        if (!other.contains(reference.get())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean contains(ExtensionModel extensionModel) {
+      if (extensionModel == null) {
+        return false;
+      }
+      for (WeakReference<ExtensionModel> reference : extensions) {
+        if (reference.get() == extensionModel) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -53,6 +53,9 @@ public class ModuleDelegatingEntityResolver implements EntityResolver {
       "http://www.mulesoft.org/schema/mule/compatibility/current/mule-compatibility.xsd";
   private static final String TEST_XSD = "http://www.mulesoft.org/schema/mule/test/current/mule-test.xsd";
 
+  // Shared by the resolvers of every config file, so that the ones of the same artifact reuse its schemas
+  private static final ExtensionSchemaCache SCHEMA_CACHE = new ExtensionSchemaCache();
+
   private final Set<ExtensionModel> extensions;
   private final EntityResolver muleEntityResolver;
   // TODO(fernandezlautaro): MULE-11024 once implemented, extensionSchemaFactory must not be Optional
@@ -171,14 +174,15 @@ public class ModuleDelegatingEntityResolver implements EntityResolver {
   }
 
   /**
-   * Given an {@link ExtensionModel} it will generate the XSD for it.
+   * Given an {@link ExtensionModel} it will generate the XSD for it, or reuse the one already generated for it.
    *
    * @param extensionModel extension to generate the schema for
    * @return the bytes that represent the schema for the {@code extensionModel}
    */
   private InputStream getSchemaFromExtension(ExtensionModel extensionModel) {
     String generatedResource = extensionSchemaFactory
-        .map(f -> f.generate(extensionModel, DslResolvingContext.getDefault(extensions)))
+        .map(f -> SCHEMA_CACHE.getSchema(extensionModel, extensions,
+                                         () -> f.generate(extensionModel, DslResolvingContext.getDefault(extensions))))
         .orElseThrow(
                      () -> new IllegalStateException("There were no schema generators available when trying to work with the extension '"
                          + extensionModel.getName() + "'"));
@@ -54,6 +54,8 @@ import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_S
 import static org.mule.runtime.extension.api.ExtensionConstants.DYNAMIC_CONFIG_EXPIRATION_FREQUENCY;
 import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.NON_REPEATABLE_BYTE_STREAM_ALIAS;
 import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.NON_REPEATABLE_OBJECTS_STREAM_ALIAS;
+import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.REPEATABLE_FILE_STORE_BYTES_STREAM_ALIAS;
+import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.REPEATABLE_FILE_STORE_OBJECTS_STREAM_ALIAS;
 import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.REPEATABLE_IN_MEMORY_BYTES_STREAM_ALIAS;
 import static org.mule.runtime.extension.api.declaration.type.StreamingStrategyTypeBuilder.REPEATABLE_IN_MEMORY_OBJECTS_STREAM_ALIAS;
 import static org.mule.runtime.internal.dsl.DslConstants.CORE_PREFIX;
@@ -95,6 +97,8 @@ import org.mule.runtime.config.internal.factories.ResponseMessageProcessorsFacto
 import org.mule.runtime.config.internal.factories.SchedulingMessageSourceFactoryBean;
 import org.mule.runtime.config.internal.factories.SubflowMessageProcessorChainFactoryBean;
 import org.mule.runtime.config.internal.factories.TryProcessorFactoryBean;
+import org.mule.runtime.config.internal.factories.streaming.FileStoreCursorIteratorProviderObjectFactory;
+import org.mule.runtime.config.internal.factories.streaming.FileStoreCursorStreamProviderObjectFactory;
 import org.mule.runtime.config.internal.factories.streaming.InMemoryCursorIteratorProviderObjectFactory;
 import org.mule.runtime.config.internal.factories.streaming.InMemoryCursorStreamProviderObjectFactory;
 import org.mule.runtime.config.internal.factories.streaming.NullCursorIteratorProviderObjectFactory;
@@ -452,6 +456,8 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
         .withSetterParameterDefinition("batchSize", fromSimpleParameter("batchSize").build())
         .withSetterParameterDefinition("rootMessageVariableName", fromSimpleParameter("rootMessageVariableName").build())
         .withSetterParameterDefinition("counterVariableName", fromSimpleParameter("counterVariableName").build())
+        .withSetterParameterDefinition("maxConcurrency", fromSimpleParameter("maxConcurrency").build())
+        .withSetterParameterDefinition("preserveOrder", fromSimpleParameter("preserveOrder").build())
         .withSetterParameterDefinition(MESSAGE_PROCESSORS, fromChildCollectionConfiguration(Processor.class).build())
         .build());
     componentBuildingDefinitions
@@ -1097,6 +1103,19 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
                                                 .withDefaultValue(DEFAULT_BYTE_STREAMING_BUFFER_DATA_UNIT).build())
         .build());
 
+    buildingDefinitions.add(baseDefinition
+        .withIdentifier(REPEATABLE_FILE_STORE_BYTES_STREAM_ALIAS)
+        .withTypeDefinition(fromType(CursorStreamProviderFactory.class))
+        .withObjectFactoryType(FileStoreCursorStreamProviderObjectFactory.class)
+        .withConstructorParameterDefinition(
+                                            fromSimpleParameter("inMemorySize")
+                                                .withDefaultValue(DEFAULT_BYTES_STREAMING_MAX_BUFFER_SIZE)
+                                                .build())
+        .withConstructorParameterDefinition(
+                                            fromSimpleParameter("bufferUnit", value -> DataUnit.valueOf((String) value))
+                                                .withDefaultValue(DEFAULT_BYTE_STREAMING_BUFFER_DATA_UNIT).build())
+        .build());
+
     buildingDefinitions.add(baseDefinition
         .withIdentifier(NON_REPEATABLE_BYTE_STREAM_ALIAS)
         .withTypeDefinition(fromType(CursorStreamProviderFactory.class))
@@ -1127,6 +1146,20 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
                                                 .build())
         .build());
 
+    buildingDefinitions.add(baseDefinition
+        .withIdentifier(REPEATABLE_FILE_STORE_OBJECTS_STREAM_ALIAS)
+        .withTypeDefinition(fromType(CursorIteratorProviderFactory.class))
+        .withObjectFactoryType(FileStoreCursorIteratorProviderObjectFactory.class)
+        .withConstructorParameterDefinition(
+                                            fromSimpleParameter("inMemoryObjects")
+                                                .withDefaultValue(DEFAULT_OBJECT_STREAMING_MAX_BUFFER_SIZE)
+                                                .build())
+        .withConstructorParameterDefinition(
+                                            fromSimpleParameter("bucketSize")
+                                                .withDefaultValue(DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE)
+                                                .build())
+        .build());
+
     buildingDefinitions.add(baseDefinition
         .withIdentifier(NON_REPEATABLE_OBJECTS_STREAM_ALIAS)
         .withTypeDefinition(fromType(CursorIteratorProviderFactory.class))
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.internal;
+
+import static java.util.Collections.singleton;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import org.mule.runtime.api.meta.model.ExtensionModel;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+@SmallTest
+public class ExtensionSchemaCacheTestCase extends AbstractMuleTestCase {
+
+  private final ExtensionSchemaCache cache = new ExtensionSchemaCache();
+  private final AtomicInteger generations = new AtomicInteger();
+
+  @Test
+  public void schemaGeneratedOnce() {
+    ExtensionModel extensionModel = mock(ExtensionModel.class);
+    Set<ExtensionModel> extensions = singleton(extensionModel);
+
+    assertThat(cache.getSchema(extensionModel, extensions, generator("schema")), is("schema"));
+    assertThat(cache.getSchema(extensionModel, extensions, generator("other")), is("schema"));
+
+    assertThat(generations.get(), is(1));
+  }
+
+  @Test
+  public void schemaGeneratedForEachModel() {
+    ExtensionModel extensionModel = mock(ExtensionModel.class);
+    ExtensionModel otherExtensionModel = mock(ExtensionModel.class);
+    Set<ExtensionModel> extensions = extensions(extensionModel, otherExtensionModel);
+
+    assertThat(cache.getSchema(extensionModel, extensions, generator("schema")), is("schema"));
+    assertThat(cache.getSchema(otherExtensionModel, extensions, generator("other")), is("other"));
+
+    assertThat(generations.get(), is(2));
+  }
+
+  @Test
+  public void schemaReusedForSameExtensions() {
+    ExtensionModel extensionModel = mock(ExtensionModel.class);
+    ExtensionModel otherExtensionModel = mock(ExtensionModel.class);
+
+    assertThat(cache.getSchema(extensionModel, extensions(extensionModel, otherExtensionModel), generator("schema")),
+               is("schema"));
+    assertThat(cache.getSchema(extensionModel, extensions(otherExtensionModel, extensionModel), generator("other")),
+               is("schema"));
+
+    assertThat(generations.get(), is(1));
+  }
+
+  @Test
+  public void schemaGeneratedForEachExtensions() {
+    ExtensionModel extensionModel = mock(ExtensionModel.class);
+
+    assertThat(cache.getSchema(extensionModel, extensions(extensionModel, mock(ExtensionModel.class)), generator("schema")),
+               is("schema"));
+    assertThat(cache.getSchema(extensionModel, extensions(extensionModel, mock(ExtensionModel.class)), generator("other")),
+               is("other"));
+    assertThat(cache.getSchema(extensionModel, singleton(extensionModel), generator("another")), is("another"));
+
+    assertThat(generations.get(), is(3));
+  }
+
+  @Test
+  public void generationFailureNotCached() {
+    ExtensionModel extensionModel = mock(ExtensionModel.class);
+    Set<ExtensionModel> extensions = singleton(extensionModel);
+    try {
+      cache.getSchema(extensionModel, extensions, () -> {
+        throw new IllegalArgumentException();
+      });
+      fail("Was expecting the generation to fail");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+
+    assertThat(cache.getSchema(extensionModel, extensions, generator("schema")), is("schema"));
+  }
+
+  private Set<ExtensionModel> extensions(ExtensionModel... extensionModels) {
+    Set<ExtensionModel> extensions = new HashSet<>();
+    for (ExtensionModel extensionModel : extensionModels) {
+      extensions.add(extensionModel);
+    }
+    return extensions;
+  }
+
+  private Supplier<String> generator(String schema) {
+    return () -> {
+      generations.incrementAndGet();
+      return schema;
+    };
+  }
+}
@@ -6,8 +6,11 @@
  */
 package org.mule.runtime.module.tls.internal;
 
+import static java.lang.Boolean.getBoolean;
+import static java.util.Arrays.asList;
 import static java.util.Arrays.copyOf;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_TLS_COUNT_HANDSHAKES;
 
 import org.mule.runtime.api.component.AbstractComponent;
 import org.mule.runtime.api.lifecycle.CreateException;
@@ -26,10 +29,14 @@ import org.mule.runtime.core.privileged.security.tls.TlsConfiguration;
 
 import com.google.common.base.Joiner;
 
+import java.io.File;
 import java.io.IOException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.net.ssl.SSLContext;
@@ -45,6 +52,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Default implementation of the {@code TlsContextFactory} interface, which delegates all its operations to a
  * {@code TlsConfiguration} object. Only enabled cipher suites and protocols will not delegate to it if configured.
+ * <p/>
+ * The {@link SSLContext} is shared with all the factories in the container with the same configuration, and built again when the
+ * key store or trust store files change. See {@link SslContextRegistry}.
  */
 public class DefaultTlsContextFactory extends AbstractComponent implements TlsContextFactory, Initialisable {
 
@@ -59,6 +69,9 @@ public class DefaultTlsContextFactory extends AbstractComponent implements TlsCo
   private boolean trustStoreInsecure = false;
   private String[] enabledProtocols;
   private String[] enabledCipherSuites;
+  private RevocationCheck revocationCheck;
+
+  private volatile ReloadableSslContext sslContext;
 
   public DefaultTlsContextFactory(Map<QName, Object> annotations) {
     tlsConfiguration = new TlsConfiguration(null);
@@ -215,23 +228,21 @@ public class DefaultTlsContextFactory extends AbstractComponent implements TlsCo
   }
 
   public void setRevocationCheck(RevocationCheck revocationCheck) {
+    this.revocationCheck = revocationCheck;
     tlsConfiguration.setRevocationCheck(revocationCheck);
   }
 
   @Override
   public SSLContext createSslContext() throws KeyManagementException, NoSuchAlgorithmException {
-    SSLContext sslContext;
-    if (trustStoreInsecure) {
-      sslContext = tlsConfiguration.getSslContext(new TrustManager[] {new InsecureTrustManager()});
-    } else {
-      sslContext = tlsConfiguration.getSslContext();
-    }
-    return sslContext;
+    return getReloadableSslContext().get();
   }
 
   @Override
   public SSLSocketFactory createSocketFactory() throws KeyManagementException, NoSuchAlgorithmException {
-    return new RestrictedSSLSocketFactory(createSslContext(), getEnabledCipherSuites(), getEnabledProtocols());
+    ReloadableSslContext reloadableSslContext = getReloadableSslContext();
+    // The JDK notifies handshake listeners on a new thread for each handshake, so they are only registered when asked for
+    return new RestrictedSSLSocketFactory(reloadableSslContext.get(), getEnabledCipherSuites(), getEnabledProtocols(),
+                                          getBoolean(MULE_TLS_COUNT_HANDSHAKES) ? reloadableSslContext : null);
   }
 
   @Override
@@ -346,6 +357,106 @@ public class DefaultTlsContextFactory extends AbstractComponent implements TlsCo
     };
   }
 
+  /**
+   * @return the amount of handshakes that established a new TLS session, for the sockets created by all the factories sharing
+   *         the context of this one. Handshakes are only counted when the {@code mule.tls.handshake.count} system property is
+   *         set.
+   */
+  public long getFullHandshakeCount() {
+    return sslContext != null ? sslContext.getFullHandshakeCount() : 0;
+  }
+
+  /**
+   * @return the amount of handshakes that resumed a previous TLS session, for the sockets created by all the factories sharing
+   *         the context of this one. Handshakes are only counted when the {@code mule.tls.handshake.count} system property is
+   *         set.
+   */
+  public long getResumedHandshakeCount() {
+    return sslContext != null ? sslContext.getResumedHandshakeCount() : 0;
+  }
+
+  /**
+   * @return the amount of times the context of this factory was built again because its key store or trust store files changed.
+   */
+  public long getReloadCount() {
+    return sslContext != null ? sslContext.getReloadCount() : 0;
+  }
+
+  private ReloadableSslContext getReloadableSslContext() throws KeyManagementException, NoSuchAlgorithmException {
+    if (sslContext == null) {
+      synchronized (this) {
+        if (sslContext == null) {
+          sslContext = SslContextRegistry.getInstance().getSslContext(getFingerprint(), getWatchedFiles(),
+                                                                      () -> buildSslContext(tlsConfiguration, trustStoreInsecure),
+                                                                      createSslContextBuilder());
+        }
+      }
+    }
+    return sslContext;
+  }
+
+  private List<Object> getFingerprint() {
+    return asList(tlsConfiguration.getSslType(), getKeyStorePath(), getKeyStoreType(), getKeyAlias(), getKeyStorePassword(),
+                  getKeyPassword(), getKeyManagerAlgorithm(), getTrustStorePath(), getTrustStoreType(),
+                  getTrustStorePassword(), getTrustManagerAlgorithm(), trustStoreInsecure, revocationCheck);
+  }
+
+  private List<File> getWatchedFiles() {
+    List<File> watchedFiles = new ArrayList<>();
+    for (String path : asList(getKeyStorePath(), getTrustStorePath())) {
+      if (path != null && new File(path).isFile()) {
+        watchedFiles.add(new File(path));
+      }
+    }
+    return watchedFiles;
+  }
+
+  /**
+   * Creates a builder of contexts from the current configuration, that reads the key store and trust store files again. Only
+   * the configuration values are kept, so the shared context does not hold on to this factory.
+   */
+  private Callable<SSLContext> createSslContextBuilder() {
+    final boolean anon = getKeyStorePath() == null;
+    final String keyStorePath = getKeyStorePath();
+    final String keyStoreType = getKeyStoreType();
+    final String keyAlias = getKeyAlias();
+    final String keyStorePassword = getKeyStorePassword();
+    final String keyPassword = getKeyPassword();
+    final String keyManagerAlgorithm = getKeyManagerAlgorithm();
+    final String trustStorePath = getTrustStorePath();
+    final String trustStoreType = getTrustStoreType();
+    final String trustStorePassword = getTrustStorePassword();
+    final String trustManagerAlgorithm = getTrustManagerAlgorithm();
+    final boolean insecure = trustStoreInsecure;
+    final RevocationCheck revocation = revocationCheck;
+
+    return () -> {
+      TlsConfiguration configuration = new TlsConfiguration(null);
+      configuration.setKeyStore(keyStorePath);
+      configuration.setKeyStoreType(keyStoreType);
+      configuration.setKeyAlias(keyAlias);
+      configuration.setKeyStorePassword(keyStorePassword);
+      configuration.setKeyPassword(keyPassword);
+      configuration.setKeyManagerAlgorithm(keyManagerAlgorithm);
+      configuration.setTrustStore(trustStorePath);
+      configuration.setTrustStoreType(trustStoreType);
+      configuration.setTrustStorePassword(trustStorePassword);
+      configuration.setTrustManagerAlgorithm(trustManagerAlgorithm);
+      configuration.setRevocationCheck(revocation);
+      configuration.initialise(anon, null);
+      return buildSslContext(configuration, insecure);
+    };
+  }
+
+  private static SSLContext buildSslContext(TlsConfiguration configuration, boolean insecure)
+      throws KeyManagementException, NoSuchAlgorithmException {
+    if (insecure) {
+      return configuration.getSslContext(new TrustManager[] {new InsecureTrustManager()});
+    } else {
+      return configuration.getSslContext();
+    }
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
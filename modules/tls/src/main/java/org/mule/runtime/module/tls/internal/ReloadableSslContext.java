@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.tls.internal;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.System.nanoTime;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.synchronizedSet;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_TLS_SESSION_CACHE_SIZE;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_TLS_SESSION_TIMEOUT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.net.ssl.HandshakeCompletedEvent;
+import javax.net.ssl.HandshakeCompletedListener;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+
+import org.slf4j.Logger;
+
+/**
+ * Holds an {@link SSLContext} and builds a new one when any of the key store or trust store files it was built from changes.
+ * <p>
+ * Files are checked at most once every {@code checkIntervalMillis}, when the context is requested. If building the new context
+ * fails, for instance because a file was only partially written, the previous one is kept and it is tried again on the next
+ * change.
+ * <p>
+ * It also counts the handshakes of the sockets it is registered on, telling apart the ones that resumed a previous session. The
+ * JDK notifies each handshake on a new thread, so it is only registered on sockets when handshake counting is enabled.
+ *
+ * @since 4.1
+ */
+final class ReloadableSslContext implements HandshakeCompletedListener {
+
+  private static final Logger LOGGER = getLogger(ReloadableSslContext.class);
+
+  private final Callable<SSLContext> contextBuilder;
+  private final List<File> watchedFiles;
+  private final long checkIntervalNanos;
+
+  private volatile SSLContext sslContext;
+  private volatile long nextCheckNanos;
+  private long[] lastModified;
+
+  private final Set<SSLSession> handshakenSessions = synchronizedSet(newSetFromMap(new WeakHashMap<>()));
+  private final LongAdder fullHandshakeCount = new LongAdder();
+  private final LongAdder resumedHandshakeCount = new LongAdder();
+  private final LongAdder reloadCount = new LongAdder();
+
+  /**
+   * Creates a new instance
+   *
+   * @param sslContext          the initial context
+   * @param contextBuilder      builds a new context from the current content of the files
+   * @param watchedFiles        the files the context is built from
+   * @param checkIntervalMillis the minimum time between checks of the files. If not positive, files are never checked.
+   */
+  ReloadableSslContext(SSLContext sslContext, Callable<SSLContext> contextBuilder, List<File> watchedFiles,
+                       long checkIntervalMillis) {
+    this.contextBuilder = contextBuilder;
+    this.watchedFiles = watchedFiles;
+    this.checkIntervalNanos = MILLISECONDS.toNanos(checkIntervalMillis);
+    this.lastModified = getLastModified();
+    this.sslContext = tuneSessions(sslContext);
+    this.nextCheckNanos = nanoTime() + checkIntervalNanos;
+  }
+
+  /**
+   * @return the current context, built again first if its files changed.
+   */
+  SSLContext get() {
+    if (checkIntervalNanos > 0 && !watchedFiles.isEmpty() && nanoTime() - nextCheckNanos >= 0) {
+      reloadIfChanged();
+    }
+    return sslContext;
+  }
+
+  private synchronized void reloadIfChanged() {
+    if (nanoTime() - nextCheckNanos < 0) {
+      // another thread just checked
+      return;
+    }
+
+    try {
+      long[] currentLastModified = getLastModified();
+      if (Arrays.equals(currentLastModified, lastModified)) {
+        return;
+      }
+      lastModified = currentLastModified;
+
+      try {
+        sslContext = tuneSessions(contextBuilder.call());
+        reloadCount.increment();
+        LOGGER.info("TLS context reloaded after changes in {}", watchedFiles);
+      } catch (Exception e) {
+        LOGGER.warn("Could not reload TLS context after changes in " + watchedFiles + ", the previous one will still be used", e);
+      }
+    } finally {
+      nextCheckNanos = nanoTime() + checkIntervalNanos;
+    }
+  }
+
+  private long[] getLastModified() {
+    return watchedFiles.stream().mapToLong(File::lastModified).toArray();
+  }
+
+  private static SSLContext tuneSessions(SSLContext sslContext) {
+    tuneSessions(sslContext.getClientSessionContext());
+    tuneSessions(sslContext.getServerSessionContext());
+    return sslContext;
+  }
+
+  private static void tuneSessions(SSLSessionContext sessionContext) {
+    if (sessionContext == null) {
+      return;
+    }
+
+    Integer cacheSize = getInteger(MULE_TLS_SESSION_CACHE_SIZE);
+    if (cacheSize != null) {
+      sessionContext.setSessionCacheSize(cacheSize);
+    }
+    Integer timeout = getInteger(MULE_TLS_SESSION_TIMEOUT);
+    if (timeout != null) {
+      sessionContext.setSessionTimeout(timeout);
+    }
+  }
+
+  @Override
+  public void handshakeCompleted(HandshakeCompletedEvent event) {
+    if (handshakenSessions.add(event.getSession())) {
+      fullHandshakeCount.increment();
+    } else {
+      resumedHandshakeCount.increment();
+    }
+  }
+
+  /**
+   * @return the amount of handshakes that established a new session.
+   */
+  long getFullHandshakeCount() {
+    return fullHandshakeCount.sum();
+  }
+
+  /**
+   * @return the amount of handshakes that resumed a previous session.
+   */
+  long getResumedHandshakeCount() {
+    return resumedHandshakeCount.sum();
+  }
+
+  /**
+   * @return the amount of times the context was built again because its files changed.
+   */
+  long getReloadCount() {
+    return reloadCount.sum();
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.tls.internal;
+
+import static java.lang.Long.getLong;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_TLS_RELOAD_CHECK_INTERVAL;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+
+import java.io.File;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import javax.net.ssl.SSLContext;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Keeps a single {@link SSLContext} for each distinct TLS configuration in the container, so that all the TLS context factories
+ * with the same configuration share their key managers and TLS session caches, allowing sessions to be resumed instead of doing
+ * a full handshake for every connection.
+ * <p>
+ * Contexts are discarded once no factory uses them anymore.
+ *
+ * @since 4.1
+ */
+final class SslContextRegistry {
+
+  private static final long DEFAULT_RELOAD_CHECK_INTERVAL_MILLIS = 10000;
+
+  private static final SslContextRegistry INSTANCE = new SslContextRegistry();
+
+  private final Cache<Object, ReloadableSslContext> contexts = CacheBuilder.newBuilder().weakValues().build();
+
+  static SslContextRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the context for the TLS configuration with the given {@code fingerprint}, building it only if there is none yet.
+   *
+   * @param fingerprint    identifies the TLS configuration. Configurations with equal fingerprints must build equivalent
+   *                       contexts.
+   * @param watchedFiles   the key store and trust store files the context is built from, to build it again when they change
+   * @param initialContext builds the context if there is none yet
+   * @param contextBuilder builds the context again from the current content of the files
+   * @return the context for the TLS configuration
+   */
+  ReloadableSslContext getSslContext(Object fingerprint, List<File> watchedFiles, Callable<SSLContext> initialContext,
+                                     Callable<SSLContext> contextBuilder)
+      throws KeyManagementException, NoSuchAlgorithmException {
+    try {
+      return contexts.get(fingerprint, () -> new ReloadableSslContext(initialContext.call(), contextBuilder, watchedFiles,
+                                                                      getLong(MULE_TLS_RELOAD_CHECK_INTERVAL,
+                                                                              DEFAULT_RELOAD_CHECK_INTERVAL_MILLIS)));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof KeyManagementException) {
+        throw (KeyManagementException) cause;
+      } else if (cause instanceof NoSuchAlgorithmException) {
+        throw (NoSuchAlgorithmException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new MuleRuntimeException(createStaticMessage("Could not create the TLS context"), cause);
+    }
+  }
+}
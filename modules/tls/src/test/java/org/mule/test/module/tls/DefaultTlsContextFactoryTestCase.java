@@ -6,13 +6,17 @@
  */
 package org.mule.test.module.tls;
 
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.util.Collections.emptyMap;
 import static org.hamcrest.Matchers.arrayContaining;
 import static org.hamcrest.Matchers.arrayContainingInAnyOrder;
 import static org.hamcrest.Matchers.arrayWithSize;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_TLS_RELOAD_CHECK_INTERVAL;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.privileged.security.tls.TlsConfiguration.DEFAULT_SECURITY_MODEL;
 import static org.mule.runtime.core.privileged.security.tls.TlsConfiguration.PROPERTIES_FILE_PATTERN;
@@ -22,10 +26,12 @@ import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.core.api.util.StringUtils;
 import org.mule.runtime.module.tls.internal.DefaultTlsContextFactory;
 import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSocketFactory;
@@ -35,12 +41,19 @@ import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 public class DefaultTlsContextFactoryTestCase extends AbstractMuleTestCase {
 
   @Rule
   public ExpectedException expectedException = ExpectedException.none();
 
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty reloadCheckInterval = new SystemProperty(MULE_TLS_RELOAD_CHECK_INTERVAL, "1");
+
   @BeforeClass
   public static void createTlsPropertiesFile() throws Exception {
 
@@ -152,4 +165,49 @@ public class DefaultTlsContextFactoryTestCase extends AbstractMuleTestCase {
     assertThat(defaultFactory.getDefaultCipherSuites(), arrayContainingInAnyOrder(tls12Factory.getDefaultCipherSuites()));
   }
 
+  @Test
+  public void sslContextSharedBySameConfiguration() throws Exception {
+    DefaultTlsContextFactory tlsContextFactory = createKeyStoreTlsContextFactory(getKeyStorePath());
+    DefaultTlsContextFactory otherTlsContextFactory = createKeyStoreTlsContextFactory(getKeyStorePath());
+
+    assertThat(otherTlsContextFactory.createSslContext(), is(sameInstance(tlsContextFactory.createSslContext())));
+  }
+
+  @Test
+  public void sslContextNotSharedByDifferentConfiguration() throws Exception {
+    DefaultTlsContextFactory tlsContextFactory = createKeyStoreTlsContextFactory(getKeyStorePath());
+    DefaultTlsContextFactory otherTlsContextFactory = new DefaultTlsContextFactory(emptyMap());
+    otherTlsContextFactory.initialise();
+
+    assertThat(otherTlsContextFactory.createSslContext(), is(not(sameInstance(tlsContextFactory.createSslContext()))));
+  }
+
+  @Test
+  public void sslContextReloadedWhenKeyStoreChanges() throws Exception {
+    File keyStore = temporaryFolder.newFile("serverKeystore");
+    Files.copy(new File(getKeyStorePath()).toPath(), keyStore.toPath(), REPLACE_EXISTING);
+    DefaultTlsContextFactory tlsContextFactory = createKeyStoreTlsContextFactory(keyStore.getAbsolutePath());
+    SSLContext sslContext = tlsContextFactory.createSslContext();
+
+    Thread.sleep(10);
+    assertThat(tlsContextFactory.createSslContext(), is(sameInstance(sslContext)));
+
+    keyStore.setLastModified(keyStore.lastModified() + 10000);
+    Thread.sleep(10);
+    assertThat(tlsContextFactory.createSslContext(), is(not(sameInstance(sslContext))));
+    assertThat(tlsContextFactory.getReloadCount(), is(1L));
+  }
+
+  private DefaultTlsContextFactory createKeyStoreTlsContextFactory(String keyStorePath) throws Exception {
+    DefaultTlsContextFactory tlsContextFactory = new DefaultTlsContextFactory(emptyMap());
+    tlsContextFactory.setKeyStorePath(keyStorePath);
+    tlsContextFactory.setKeyStorePassword("mulepassword");
+    tlsContextFactory.setKeyPassword("mulepassword");
+    tlsContextFactory.initialise();
+    return tlsContextFactory;
+  }
+
+  private String getKeyStorePath() {
+    return ClassUtils.getResource("serverKeystore", getClass()).getPath();
+  }
 }
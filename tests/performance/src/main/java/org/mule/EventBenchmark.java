@@ -28,15 +28,21 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.TearDown;
 
+/**
+ * Benchmarks the creation and copy of events. Run with JMH's {@code -prof gc} option to also get the amount of memory
+ * allocated per operation.
+ */
 public class EventBenchmark extends AbstractBenchmark {
 
   public static final String KEY = "key";
   public static final String VALUE = "value";
+  public static final int PROCESSORS = 40;
 
   private MuleContext muleContext;
   private Flow flow;
   private CoreEvent event;
   private CoreEvent eventWith10VariablesProperties;
+  private CoreEvent eventWith30Variables;
   private CoreEvent eventWith50VariablesProperties;
   private CoreEvent eventWith100VariablesProperties;
 
@@ -52,7 +58,8 @@ public class EventBenchmark extends AbstractBenchmark {
     event = eventBuilder.build();
     eventWith10VariablesProperties = createMuleEventWithFlowVarsAndProperties(10);
     eventWith50VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
-    eventWith100VariablesProperties = createMuleEventWithFlowVarsAndProperties(50);
+    eventWith100VariablesProperties = createMuleEventWithFlowVarsAndProperties(100);
+    eventWith30Variables = createMuleEvent(messageBuilder.build(), 30);
   }
 
   @TearDown
@@ -125,6 +132,47 @@ public class EventBenchmark extends AbstractBenchmark {
   }
 
 
+  @Benchmark
+  public CoreEvent addEventVariableEventWith30Variables() {
+    return CoreEvent.builder(eventWith30Variables).addVariable(KEY, VALUE).build();
+  }
+
+  @Benchmark
+  public CoreEvent removeEventVariableEventWith30Variables() {
+    return CoreEvent.builder(eventWith30Variables).removeVariable("FlOwVaRiAbLeKeY1").build();
+  }
+
+  @Benchmark
+  public CoreEvent replaceEventVariableEventWith30Variables() {
+    return CoreEvent.builder(eventWith30Variables).addVariable("flowvariablekey1", VALUE).build();
+  }
+
+  /**
+   * Simulates a flow with {@link #PROCESSORS} processors, each one of them setting a variable on an event which already has
+   * 30 variables.
+   */
+  @Benchmark
+  public CoreEvent addEventVariablePerProcessorEventWith30Variables() {
+    CoreEvent result = eventWith30Variables;
+    for (int i = 0; i < PROCESSORS; i++) {
+      result = CoreEvent.builder(result).addVariable(KEY + i, VALUE).build();
+    }
+    return result;
+  }
+
+  /**
+   * Simulates a flow with {@link #PROCESSORS} processors, each one of them replacing the message of an event which has 30
+   * variables.
+   */
+  @Benchmark
+  public CoreEvent setMessagePerProcessorEventWith30Variables() {
+    CoreEvent result = eventWith30Variables;
+    for (int i = 0; i < PROCESSORS; i++) {
+      result = CoreEvent.builder(result).message(of(VALUE)).build();
+    }
+    return result;
+  }
+
   @Benchmark
   public CoreEvent copyWith10FlowVarsAnd10PropertiesWrite1OfEach() throws Exception {
     return PrivilegedEvent.builder(eventWith10VariablesProperties)
@@ -8,6 +8,7 @@ package org.mule;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_PROCESSOR_CHAIN_FUSION_DISABLED;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
 import static org.mule.runtime.core.api.event.EventContextFactory.create;
 
@@ -24,6 +25,7 @@ import java.util.concurrent.TimeUnit;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.Warmup;
 import reactor.core.publisher.FluxProcessor;
@@ -36,12 +38,21 @@ public class ProcessorChainBenchmark extends AbstractBenchmark {
 
   private static final int NUM_PROCESSORS = 20;
   private static final int STREAM_SIZE = 1000;
+
+  @Param({"true", "false"})
+  public boolean fusion;
+
   private MessageProcessorChain chain;
 
   private CoreEvent event;
 
   @Setup
   public void setup() throws Exception {
+    if (fusion) {
+      System.clearProperty(MULE_PROCESSOR_CHAIN_FUSION_DISABLED);
+    } else {
+      System.setProperty(MULE_PROCESSOR_CHAIN_FUSION_DISABLED, "true");
+    }
     DefaultMessageProcessorChainBuilder builder = new DefaultMessageProcessorChainBuilder();
     for (int i = 0; i < NUM_PROCESSORS; i++) {
       builder.chain(event -> event);
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.privileged.registry.LegacyRegistryUtils.lookupObject;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.streaming.Cursor;
+import org.mule.runtime.api.streaming.CursorProvider;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.streaming.bytes.ByteArrayCursorStreamProvider;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@OutputTimeUnit(NANOSECONDS)
+public class CursorManagerBenchmark extends AbstractBenchmark {
+
+  private static final int CURSORS_PER_EVENT = 4;
+  private static final byte[] DATA = "Hello streaming world!".getBytes();
+
+  private MuleContext muleContext;
+  private Flow flow;
+  private Scheduler disposalScheduler;
+  private CursorManager cursorManager;
+
+  @Setup
+  public void setup() throws Exception {
+    muleContext = createMuleContextWithServices();
+    muleContext.start();
+    flow = createFlow(muleContext);
+    disposalScheduler = lookupObject(muleContext, SchedulerService.class).cpuIntensiveScheduler();
+    cursorManager = new CursorManager(new MutableStreamingStatistics(), disposalScheduler);
+  }
+
+  @TearDown
+  public void teardown() throws MuleException {
+    disposalScheduler.stop();
+    stopIfNeeded(lookupObject(muleContext, SchedulerService.class));
+    muleContext.dispose();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public Object openAndCloseCursors() throws IOException {
+    return openAndCloseCursors(createEvent(flow));
+  }
+
+  @Benchmark
+  @Threads(8)
+  public Object openAndCloseCursorsConcurrently() throws IOException {
+    return openAndCloseCursors(createEvent(flow));
+  }
+
+  private Object openAndCloseCursors(CoreEvent event) throws IOException {
+    CursorProvider provider = cursorManager.manage(new ByteArrayCursorStreamProvider(DATA), event);
+    Cursor[] cursors = new Cursor[CURSORS_PER_EVENT];
+    for (int i = 0; i < CURSORS_PER_EVENT; i++) {
+      cursors[i] = provider.openCursor();
+    }
+
+    for (Cursor cursor : cursors) {
+      cursor.close();
+    }
+
+    provider.close();
+    ((BaseEventContext) event.getContext()).success(event);
+    return provider;
+  }
+}
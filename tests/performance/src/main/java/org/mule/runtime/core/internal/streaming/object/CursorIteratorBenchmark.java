@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.min;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_BUFFER_SIZE;
+
+import org.mule.AbstractBenchmark;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.core.api.streaming.iterator.ConsumerStreamingIterator;
+import org.mule.runtime.core.api.streaming.iterator.ListConsumer;
+import org.mule.runtime.core.api.streaming.iterator.Producer;
+import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@OutputTimeUnit(MILLISECONDS)
+public class CursorIteratorBenchmark extends AbstractBenchmark {
+
+  private static final int ROWS = 1000000;
+  private static final int PAGE_SIZE = 100;
+
+  private List<Integer> rows;
+  private InMemoryCursorIteratorConfig config;
+  private InMemoryCursorIteratorProvider bufferedProvider;
+
+  @Setup
+  public void setup() throws IOException {
+    rows = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      rows.add(i);
+    }
+    config = new InMemoryCursorIteratorConfig(DEFAULT_OBJECT_STREAMING_BUFFER_SIZE,
+                                              DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE, ROWS);
+
+    bufferedProvider = createProvider();
+    try (CursorIterator cursor = bufferedProvider.openCursor()) {
+      iterate(cursor);
+    }
+  }
+
+  @TearDown
+  public void teardown() {
+    bufferedProvider.close();
+    bufferedProvider.releaseResources();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public long iterateWithSingleCursor() throws IOException {
+    InMemoryCursorIteratorProvider provider = createProvider();
+    try (CursorIterator cursor = provider.openCursor()) {
+      return iterate(cursor);
+    } finally {
+      provider.close();
+      provider.releaseResources();
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long iterateBufferedWithConcurrentCursors() throws IOException {
+    try (CursorIterator cursor = bufferedProvider.openCursor()) {
+      return iterate(cursor);
+    }
+  }
+
+  private long iterate(CursorIterator<Integer> cursor) {
+    long sum = 0;
+    while (cursor.hasNext()) {
+      sum += cursor.next();
+    }
+    return sum;
+  }
+
+  private InMemoryCursorIteratorProvider createProvider() {
+    return new InMemoryCursorIteratorProvider(new ConsumerStreamingIterator<>(new ListConsumer<>(new PageProducer())), config);
+  }
+
+  /**
+   * Produces the rows in pages, as a paged operation would, without telling the total size upfront.
+   */
+  private class PageProducer implements Producer<List<Integer>> {
+
+    private int offset = 0;
+
+    @Override
+    public List<Integer> produce() {
+      if (offset >= ROWS) {
+        return emptyList();
+      }
+
+      List<Integer> page = rows.subList(offset, min(offset + PAGE_SIZE, ROWS));
+      offset += page.size();
+      return page;
+    }
+
+    @Override
+    public int getSize() {
+      return -1;
+    }
+
+    @Override
+    public void close() {}
+  }
+}